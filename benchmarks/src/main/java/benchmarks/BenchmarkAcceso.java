@@ -0,0 +1,138 @@
+package benchmarks;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import modelo.acceso.ResultadoAcceso;
+import modelo.acceso.ValidadorAcceso;
+import modelo.atracciones.AtraccionMecanica;
+import modelo.tiquetes.Tiquete;
+import modelo.util.CodecFecha;
+
+/**
+ * Verificaciones de acceso en la entrada de las atracciones: si un tiquete permite
+ * entrar a una atracción y si la atracción está disponible en una fecha, con los
+ * objetos del modelo y con el motor de validación de los torniquetes
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class BenchmarkAcceso {
+    private static final int ATRACCIONES = 64;
+    private static final int CONSULTAS = 64;
+
+    /**
+     * Tiquetes de todo tipo y las atracciones a las que se intenta entrar
+     */
+    @State(Scope.Thread)
+    public static class Tiquetes {
+        @Param({ "1000", "10000", "100000", "1000000", "10000000" })
+        private int registros;
+
+        private Tiquete[] tiquetes;
+        private AtraccionMecanica[] atracciones;
+        private int siguiente;
+
+        @Setup
+        public void preparar() {
+            List<AtraccionMecanica> lista = DatosSinteticos.atraccionesMecanicas(ATRACCIONES);
+            atracciones = lista.toArray(new AtraccionMecanica[0]);
+            tiquetes = DatosSinteticos.tiquetesMixtos(registros, lista).toArray(new Tiquete[0]);
+        }
+    }
+
+    /**
+     * Una atracción con un número dado de días de mantenimiento programados
+     */
+    @State(Scope.Thread)
+    public static class Mantenimiento {
+        @Param({ "1000", "10000", "100000", "1000000", "10000000" })
+        private int diasMantenimiento;
+
+        private AtraccionMecanica atraccion;
+        private Date[] consultas;
+        private int siguiente;
+
+        @Setup
+        public void preparar() {
+            atraccion = DatosSinteticos.atraccionesMecanicas(1).get(0);
+            atraccion.programarMantenimiento(DatosSinteticos.dia(-diasMantenimiento), DatosSinteticos.dia(-1));
+
+            // La mitad de las consultas cae en mantenimiento y la otra mitad no
+            consultas = new Date[CONSULTAS];
+            for (int i = 0; i < CONSULTAS; i++) {
+                consultas[i] = i % 2 == 0
+                        ? DatosSinteticos.dia(-1 - (int) ((long) i * diasMantenimiento / CONSULTAS))
+                        : DatosSinteticos.dia(i);
+            }
+        }
+    }
+
+    /**
+     * Validador compartido por todos los hilos, con los mismos tiquetes y atracciones
+     */
+    @State(Scope.Benchmark)
+    public static class Torniquetes {
+        @Param({ "1000", "10000", "100000", "1000000", "10000000" })
+        private int registros;
+
+        private ValidadorAcceso validador;
+        private int dia;
+
+        @Setup
+        public void preparar() {
+            List<AtraccionMecanica> lista = DatosSinteticos.atraccionesMecanicas(ATRACCIONES);
+            validador = new ValidadorAcceso();
+            validador.publicar(DatosSinteticos.tiquetesMixtos(registros, lista), lista,
+                    Collections.emptyList());
+            dia = CodecFecha.diaEpoca(DatosSinteticos.dia(100));
+        }
+    }
+
+    /**
+     * Posición de cada hilo en la secuencia de lecturas
+     */
+    @State(Scope.Thread)
+    public static class Lecturas {
+        private int siguiente;
+    }
+
+    @Benchmark
+    public boolean puedeAccederAtraccion(Tiquetes estado) {
+        int i = estado.siguiente;
+        estado.siguiente = i + 1 == estado.tiquetes.length ? 0 : i + 1;
+        return estado.tiquetes[i].puedeAccederAtraccion(estado.atracciones[i & (ATRACCIONES - 1)]);
+    }
+
+    @Benchmark
+    public boolean estaDisponible(Mantenimiento estado) {
+        int i = estado.siguiente;
+        estado.siguiente = (i + 1) & (CONSULTAS - 1);
+        return estado.atraccion.estaDisponible(estado.consultas[i]);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public ResultadoAcceso validarConcurrente(Torniquetes torniquetes, Lecturas lecturas) {
+        int i = lecturas.siguiente;
+        lecturas.siguiente = i + 1 == torniquetes.registros ? 0 : i + 1;
+        return torniquetes.validador.validar(i + 1, i & (ATRACCIONES - 1), torniquetes.dia);
+    }
+}
@@ -0,0 +1,72 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import persistencia.ArchivoUtil;
+import persistencia.FuenteRegistros;
+
+/**
+ * Lectura y escritura de archivos de líneas con ArchivoUtil
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class BenchmarkArchivoUtil {
+    private static final String ARCHIVO_LECTURA = "benchmark_lectura.txt";
+    private static final String ARCHIVO_ESCRITURA = "benchmark_escritura.txt";
+
+    @Param({ "1000", "10000", "100000", "1000000", "10000000" })
+    private int registros;
+
+    private List<String> lineas;
+
+    @Setup
+    public void preparar() throws IOException {
+        lineas = DatosSinteticos.lineas(registros);
+        ArchivoUtil.guardarLineas(lineas, ARCHIVO_LECTURA);
+    }
+
+    @TearDown
+    public void limpiar() {
+        DatosSinteticos.eliminarArchivos(ARCHIVO_LECTURA, ARCHIVO_ESCRITURA);
+    }
+
+    @Benchmark
+    public void guardarLineas() throws IOException {
+        ArchivoUtil.guardarLineas(lineas, ARCHIVO_ESCRITURA);
+    }
+
+    @Benchmark
+    public List<String> cargarLineas() throws IOException {
+        return ArchivoUtil.cargarLineas(ARCHIVO_LECTURA);
+    }
+
+    @Benchmark
+    public long recorrerRegistros() throws IOException {
+        long suma = 0;
+        try (FuenteRegistros fuente = ArchivoUtil.abrirRegistros(ARCHIVO_LECTURA)) {
+            while (fuente.siguiente()) {
+                suma += fuente.campoEntero(2);
+            }
+        }
+        return suma;
+    }
+}
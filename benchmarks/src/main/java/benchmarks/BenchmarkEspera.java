@@ -0,0 +1,89 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import modelo.acceso.EstimadorEspera;
+
+/**
+ * Estimación de esperas con todos los torniquetes registrando lecturas a la vez.
+ *
+ * Con una sola atracción todos los hilos suman en los mismos contadores; con más
+ * atracciones las lecturas se reparten. La consulta del tablero recorre todas las
+ * atracciones mientras los torniquetes registran.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class BenchmarkEspera {
+
+    private static final int ATRACCIONES_TABLERO = 64;
+
+    /**
+     * Estimador compartido por todos los hilos
+     */
+    @State(Scope.Benchmark)
+    public static class Torniquetes {
+        @Param({ "1", "64" })
+        private int numeroAtracciones;
+
+        private EstimadorEspera estimador;
+
+        @Setup
+        public void preparar() {
+            estimador = new EstimadorEspera(
+                    DatosSinteticos.atraccionesMecanicas(Math.max(numeroAtracciones, ATRACCIONES_TABLERO)));
+            // Filas con gente para que el tablero calcule esperas y no solo ceros
+            for (int i = 0; i < estimador.getNumeroAtracciones(); i++) {
+                for (int j = 0; j < 100; j++) {
+                    estimador.registrarLlegada(i);
+                    if (j % 2 == 0) {
+                        estimador.registrarIngreso(i);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Posición de cada hilo en la secuencia de lecturas
+     */
+    @State(Scope.Thread)
+    public static class Lecturas {
+        private int siguiente;
+    }
+
+    /**
+     * Registra una llegada y un ingreso, como la entrada a la fila y la subida
+     */
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void registrarConcurrente(Torniquetes torniquetes, Lecturas lecturas) {
+        int atraccion = lecturas.siguiente;
+        lecturas.siguiente = atraccion + 1 == torniquetes.numeroAtracciones ? 0 : atraccion + 1;
+        torniquetes.estimador.registrarLlegada(atraccion);
+        torniquetes.estimador.registrarIngreso(atraccion);
+    }
+
+    /**
+     * Estima la espera de todas las atracciones del tablero
+     */
+    @Benchmark
+    public long[] estimarTablero(Torniquetes torniquetes) {
+        return torniquetes.estimador.estimarEsperas();
+    }
+}
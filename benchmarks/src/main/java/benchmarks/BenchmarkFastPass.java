@@ -0,0 +1,91 @@
+package benchmarks;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import modelo.atracciones.AtraccionMecanica;
+import modelo.reservas.AsignadorFastPass;
+import modelo.tiquetes.FastPass;
+import modelo.util.CodecFecha;
+
+/**
+ * Fila virtual de FastPass en la apertura del parque: todos los hilos piden y
+ * liberan ventanas de retorno a la vez.
+ *
+ * Con una sola atracción todos los hilos compiten por los mismos contadores de
+ * ventana; con más atracciones los pedidos se reparten entre ellas.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class BenchmarkFastPass {
+
+    /**
+     * Fila virtual compartida por todos los hilos
+     */
+    @State(Scope.Benchmark)
+    public static class Fila {
+        @Param({ "1", "16" })
+        private int numeroAtracciones;
+
+        private AsignadorFastPass asignador;
+        private AtraccionMecanica[] atracciones;
+        private Date apertura;
+        private int dia;
+
+        @Setup
+        public void preparar() {
+            dia = CodecFecha.hoy();
+            // De 9:00 a 18:00 con ventanas de 15 minutos
+            asignador = new AsignadorFastPass(CodecFecha.aFecha(dia), 9 * 60, 18 * 60, 15, 20);
+            List<AtraccionMecanica> lista = DatosSinteticos.atraccionesMecanicas(numeroAtracciones);
+            atracciones = lista.toArray(new AtraccionMecanica[0]);
+            for (AtraccionMecanica atraccion : atracciones) {
+                asignador.registrar(atraccion, 5);
+            }
+            apertura = new Date(CodecFecha.milisInicioDia(dia) + TimeUnit.HOURS.toMillis(9));
+        }
+    }
+
+    /**
+     * FastPass de cada hilo
+     */
+    @State(Scope.Thread)
+    public static class Cliente {
+        private FastPass pase;
+        private int siguiente;
+
+        @Setup
+        public void preparar(Fila fila) {
+            pase = new FastPass(null, CodecFecha.aFecha(fila.dia));
+        }
+    }
+
+    /**
+     * Pide una ventana desde la apertura y la libera, para que el cupo no se agote
+     */
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean asignarConcurrente(Fila fila, Cliente cliente) {
+        int atraccion = cliente.siguiente;
+        cliente.siguiente = atraccion + 1 == fila.numeroAtracciones ? 0 : atraccion + 1;
+        return fila.asignador.asignar(cliente.pase, fila.atracciones[atraccion], fila.apertura)
+                && fila.asignador.liberar(cliente.pase);
+    }
+}
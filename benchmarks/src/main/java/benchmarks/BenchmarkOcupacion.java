@@ -0,0 +1,100 @@
+package benchmarks;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import excepciones.AtraccionException;
+import modelo.atracciones.Atraccion;
+import modelo.atracciones.AtraccionMecanica;
+import modelo.usuarios.Administrador;
+import modelo.util.CodecFecha;
+
+/**
+ * Reporte de ocupación de un día con muchos accesos registrados, y registro
+ * concurrente de accesos desde todos los torniquetes.
+ *
+ * El reporte consulta los contadores por hora ya agregados, así que su tiempo
+ * depende del número de atracciones y no del número de accesos del día.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class BenchmarkOcupacion {
+
+    private static final int ACCESOS_POR_ATRACCION = 1000;
+    private static final long MILIS_HORA = TimeUnit.HOURS.toMillis(1);
+
+    /**
+     * Administrador con un día de accesos registrados
+     */
+    @State(Scope.Benchmark)
+    public static class Parque {
+        @Param({ "100", "1000" })
+        private int numeroAtracciones;
+
+        private Administrador administrador;
+        private AtraccionMecanica[] atracciones;
+        private Date fecha;
+        private long apertura;
+
+        @Setup
+        public void preparar() throws AtraccionException {
+            administrador = new Administrador("Admin", 1, "admin@parque.com", "clave");
+            List<AtraccionMecanica> lista = DatosSinteticos.atraccionesMecanicas(numeroAtracciones);
+            atracciones = lista.toArray(new AtraccionMecanica[0]);
+            for (AtraccionMecanica atraccion : atracciones) {
+                administrador.agregarAtraccion(atraccion);
+            }
+
+            // Accesos repartidos entre las 9:00 y las 18:00
+            int dia = CodecFecha.hoy();
+            fecha = CodecFecha.aFecha(dia);
+            apertura = CodecFecha.milisInicioDia(dia) + 9 * MILIS_HORA;
+            for (AtraccionMecanica atraccion : atracciones) {
+                for (int i = 0; i < ACCESOS_POR_ATRACCION; i++) {
+                    administrador.getRegistroOcupacion().registrarAcceso(atraccion,
+                            apertura + i * 9 * MILIS_HORA / ACCESOS_POR_ATRACCION);
+                }
+            }
+        }
+    }
+
+    /**
+     * Posición de cada hilo en la secuencia de accesos
+     */
+    @State(Scope.Thread)
+    public static class Accesos {
+        private int siguiente;
+    }
+
+    @Benchmark
+    public Map<Atraccion, Double> generarReporte(Parque parque) {
+        return parque.administrador.generarReporteOcupacionAtracciones(parque.fecha);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void registrarConcurrente(Parque parque, Accesos accesos) {
+        int atraccion = accesos.siguiente;
+        accesos.siguiente = atraccion + 1 == parque.numeroAtracciones ? 0 : atraccion + 1;
+        parque.administrador.getRegistroOcupacion().registrarAcceso(parque.atracciones[atraccion],
+                parque.apertura + atraccion);
+    }
+}
@@ -0,0 +1,115 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import modelo.atracciones.AtraccionMecanica;
+import modelo.empleados.Cajero;
+import modelo.tiquetes.TiqueteBasico;
+import modelo.usuarios.Cliente;
+import persistencia.PersistenciaAtracciones;
+import persistencia.PersistenciaEmpleados;
+import persistencia.PersistenciaTiquetes;
+import persistencia.PersistenciaUsuarios;
+
+/**
+ * Carga y guardado de cada clase de persistencia con el mismo número de registros
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class BenchmarkPersistencia {
+
+    @Param({ "1000", "10000", "100000", "1000000", "10000000" })
+    private int registros;
+
+    private PersistenciaTiquetes persistenciaTiquetes;
+    private PersistenciaAtracciones persistenciaAtracciones;
+    private PersistenciaEmpleados persistenciaEmpleados;
+    private PersistenciaUsuarios persistenciaUsuarios;
+
+    private List<TiqueteBasico> tiquetes;
+    private List<AtraccionMecanica> atracciones;
+    private List<Cajero> cajeros;
+    private List<Cliente> clientes;
+
+    @Setup
+    public void preparar() throws Exception {
+        persistenciaTiquetes = new PersistenciaTiquetes();
+        persistenciaAtracciones = new PersistenciaAtracciones();
+        persistenciaEmpleados = new PersistenciaEmpleados();
+        persistenciaUsuarios = new PersistenciaUsuarios();
+
+        tiquetes = DatosSinteticos.tiquetesBasicos(registros);
+        atracciones = DatosSinteticos.atraccionesMecanicas(registros);
+        cajeros = DatosSinteticos.cajeros(registros);
+        clientes = DatosSinteticos.clientes(registros);
+
+        persistenciaTiquetes.guardarTiquetesBasicos(tiquetes);
+        persistenciaAtracciones.guardarAtraccionesMecanicas(atracciones);
+        persistenciaEmpleados.guardarEmpleadosCajero(cajeros);
+        persistenciaUsuarios.guardarClientes(clientes);
+    }
+
+    @TearDown
+    public void limpiar() {
+        DatosSinteticos.eliminarArchivos("tiquetes_basicos.txt", "atracciones_mecanicas.txt",
+                "empleados_cajero.txt", "clientes.txt", "propiedad_tiquetes.txt");
+    }
+
+    @Benchmark
+    public List<TiqueteBasico> cargarTiquetes() throws Exception {
+        return persistenciaTiquetes.cargarTiquetesBasicos();
+    }
+
+    @Benchmark
+    public void guardarTiquetes() throws Exception {
+        persistenciaTiquetes.guardarTiquetesBasicos(tiquetes);
+    }
+
+    @Benchmark
+    public List<AtraccionMecanica> cargarAtracciones() throws Exception {
+        return persistenciaAtracciones.cargarAtraccionesMecanicas();
+    }
+
+    @Benchmark
+    public void guardarAtracciones() throws Exception {
+        persistenciaAtracciones.guardarAtraccionesMecanicas(atracciones);
+    }
+
+    @Benchmark
+    public List<Cajero> cargarEmpleados() throws Exception {
+        return persistenciaEmpleados.cargarEmpleadosCajero();
+    }
+
+    @Benchmark
+    public void guardarEmpleados() throws Exception {
+        persistenciaEmpleados.guardarEmpleadosCajero(cajeros);
+    }
+
+    @Benchmark
+    public List<Cliente> cargarClientes() throws Exception {
+        return persistenciaUsuarios.cargarClientes();
+    }
+
+    @Benchmark
+    public void guardarClientes() throws Exception {
+        persistenciaUsuarios.guardarClientes(clientes);
+    }
+}
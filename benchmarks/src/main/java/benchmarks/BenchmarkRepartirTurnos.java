@@ -0,0 +1,83 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import modelo.atracciones.AtraccionMecanica;
+import modelo.empleados.Empleado;
+import modelo.lugares.Cafeteria;
+import modelo.lugares.LugarServicio;
+import modelo.lugares.Taquilla;
+import modelo.usuarios.Administrador;
+import modelo.usuarios.ReportePersonal;
+
+/**
+ * Reparto automático de los turnos de un mes.
+ *
+ * Hay una atracción por cada cuarenta empleados y un lugar de servicio (la mitad
+ * cafeterías, la mitad taquillas) por cada cincuenta. Cada iteración parte de un
+ * administrador sin asignaciones, así que se mide una sola invocación por iteración.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class BenchmarkRepartirTurnos {
+
+    @Param({ "1000", "5000", "10000" })
+    private int empleados;
+
+    private List<AtraccionMecanica> atracciones;
+    private List<Empleado> personal;
+    private List<LugarServicio> lugares;
+    private Administrador administrador;
+    private Date inicioMes;
+    private Date finMes;
+
+    @Setup
+    public void preparar() {
+        atracciones = DatosSinteticos.atraccionesMecanicas(Math.max(1, empleados / 40));
+        personal = DatosSinteticos.personal(empleados, atracciones);
+        lugares = new ArrayList<>();
+        for (int i = 0; i < Math.max(2, empleados / 50); i++) {
+            String zona = "Zona " + (i % 20);
+            lugares.add(i % 2 == 0 ? new Cafeteria("CAF" + i, "Cafetería " + i, zona, new ArrayList<>(), 50)
+                    : new Taquilla("TAQ" + i, "Taquilla " + i, zona, "Efectivo y tarjeta"));
+        }
+        inicioMes = DatosSinteticos.dia(0);
+        finMes = DatosSinteticos.dia(29);
+    }
+
+    @Setup(Level.Iteration)
+    public void nuevoAdministrador() throws Exception {
+        administrador = new Administrador("Administrador", 1, "admin@parque.com", "admin");
+        for (AtraccionMecanica atraccion : atracciones) {
+            administrador.agregarAtraccion(atraccion);
+        }
+        for (Empleado empleado : personal) {
+            administrador.agregarEmpleado(empleado);
+        }
+    }
+
+    @Benchmark
+    public ReportePersonal repartirTurnosMes() throws Exception {
+        return administrador.repartirTurnos(lugares, inicioMes, finMes);
+    }
+}
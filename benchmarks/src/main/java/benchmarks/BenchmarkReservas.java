@@ -0,0 +1,77 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import modelo.atracciones.AtraccionMecanica;
+import modelo.reservas.MotorReservas;
+import modelo.reservas.Reserva;
+
+/**
+ * Reservas concurrentes de cupo en la hora de una función: todos los hilos
+ * retienen, confirman y cancelan plazas sobre las mismas franjas.
+ *
+ * Con una sola franja todos los hilos compiten por el mismo contador y el mismo
+ * candado; con más franjas las reservas se reparten entre los candados.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class BenchmarkReservas {
+
+    private static final int ATRACCIONES = 16;
+
+    /**
+     * Motor compartido por todos los hilos
+     */
+    @State(Scope.Benchmark)
+    public static class Taquillas {
+        @Param({ "1", "16", "1024" })
+        private int franjas;
+
+        private MotorReservas motor;
+        private AtraccionMecanica[] atracciones;
+
+        @Setup
+        public void preparar() {
+            List<AtraccionMecanica> lista = DatosSinteticos.atraccionesMecanicas(ATRACCIONES);
+            atracciones = lista.toArray(new AtraccionMecanica[0]);
+            motor = new MotorReservas(TimeUnit.MINUTES.toMillis(10));
+        }
+    }
+
+    /**
+     * Posición de cada hilo en la secuencia de pedidos
+     */
+    @State(Scope.Thread)
+    public static class Pedidos {
+        private int siguiente;
+    }
+
+    /**
+     * Retiene una plaza, la confirma y la cancela, para que el cupo no se agote
+     */
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean reservarConcurrente(Taquillas taquillas, Pedidos pedidos) {
+        int franja = pedidos.siguiente;
+        pedidos.siguiente = franja + 1 == taquillas.franjas ? 0 : franja + 1;
+        Reserva reserva = taquillas.motor.retener(taquillas.atracciones[franja & (ATRACCIONES - 1)], franja, 1);
+        return reserva != null && taquillas.motor.confirmar(reserva) && taquillas.motor.cancelar(reserva);
+    }
+}
@@ -0,0 +1,103 @@
+package benchmarks;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import modelo.atracciones.AtraccionMecanica;
+import modelo.empleados.Cajero;
+import modelo.usuarios.Administrador;
+import modelo.usuarios.ReportePersonal;
+import modelo.util.Turno;
+
+/**
+ * Asignación de empleados a atracciones y verificación del personal mínimo.
+ *
+ * Todos los empleados quedan asignados en el turno de apertura de la fecha base,
+ * repartidos entre una atracción por cada cien empleados. Agregar los empleados
+ * al administrador revisa los IDs repetidos uno a uno, así que la preparación
+ * crece de forma cuadrática con el número de empleados.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class BenchmarkTurnos {
+
+    @Param({ "1000", "10000", "100000" })
+    private int empleados;
+
+    private Administrador administrador;
+    private Cajero[] cajeros;
+    private AtraccionMecanica[] atracciones;
+    private Date fechaAsignadas;
+    private Date fechaLibre;
+    private Date fechaFinMes;
+    private int siguiente;
+
+    @Setup
+    public void preparar() throws Exception {
+        administrador = new Administrador("Administrador", 1, "admin@parque.com", "admin");
+
+        List<AtraccionMecanica> listaAtracciones = DatosSinteticos.atraccionesMecanicas(Math.max(1, empleados / 100));
+        for (AtraccionMecanica atraccion : listaAtracciones) {
+            administrador.agregarAtraccion(atraccion);
+        }
+        List<Cajero> listaCajeros = DatosSinteticos.cajeros(empleados);
+        for (Cajero cajero : listaCajeros) {
+            administrador.agregarEmpleado(cajero);
+        }
+        atracciones = listaAtracciones.toArray(new AtraccionMecanica[0]);
+        cajeros = listaCajeros.toArray(new Cajero[0]);
+
+        fechaAsignadas = DatosSinteticos.dia(0);
+        fechaLibre = DatosSinteticos.dia(1);
+        fechaFinMes = DatosSinteticos.dia(29);
+        for (int i = 0; i < cajeros.length; i++) {
+            administrador.asignarEmpleadoAtraccion(cajeros[i], atracciones[i % atracciones.length], fechaAsignadas,
+                    Turno.APERTURA);
+        }
+    }
+
+    /**
+     * Asigna un empleado en una fecha sin asignaciones y lo libera, para que cada
+     * invocación encuentre el mismo estado
+     */
+    @Benchmark
+    public boolean asignarEmpleadoAtraccion() throws Exception {
+        int i = siguiente;
+        siguiente = i + 1 == cajeros.length ? 0 : i + 1;
+        administrador.asignarEmpleadoAtraccion(cajeros[i], atracciones[i % atracciones.length], fechaLibre,
+                Turno.CIERRE);
+        return administrador.liberarAsignacion(cajeros[i], fechaLibre, Turno.CIERRE);
+    }
+
+    @Benchmark
+    public boolean verificarPersonalMinimo() {
+        int i = siguiente;
+        siguiente = i + 1 == atracciones.length ? 0 : i + 1;
+        return administrador.verificarPersonalMinimo(atracciones[i], fechaAsignadas, Turno.APERTURA);
+    }
+
+    /**
+     * Valida el personal de todas las atracciones en los dos turnos de un mes
+     */
+    @Benchmark
+    public ReportePersonal validarPersonalMes() throws Exception {
+        return administrador.validarPersonal(null, fechaAsignadas, fechaFinMes);
+    }
+}
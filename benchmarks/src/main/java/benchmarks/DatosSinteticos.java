@@ -0,0 +1,241 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import modelo.atracciones.Atraccion;
+import modelo.atracciones.AtraccionMecanica;
+import modelo.empleados.AtraccionAlto;
+import modelo.empleados.AtraccionMedio;
+import modelo.empleados.Cajero;
+import modelo.empleados.Cocinero;
+import modelo.empleados.Empleado;
+import modelo.tiquetes.EnTemporada;
+import modelo.tiquetes.Individual;
+import modelo.tiquetes.Tiquete;
+import modelo.tiquetes.TiqueteBasico;
+import modelo.usuarios.Cliente;
+import modelo.util.CodecFecha;
+import modelo.util.NivelExclusividad;
+import persistencia.ArchivoUtil;
+
+/**
+ * Genera conjuntos de datos sintéticos del parque para los benchmarks. Los datos
+ * son deterministas (semilla fija), así que dos corridas con el mismo tamaño
+ * miden exactamente el mismo trabajo.
+ *
+ * Los archivos se escriben con ArchivoUtil, es decir en la carpeta data/ del
+ * directorio de trabajo desde el que se lanza JMH.
+ */
+public final class DatosSinteticos {
+    static final long SEMILLA = 20240101L;
+    static final long MILIS_DIA = 24L * 60 * 60 * 1000;
+    static final Date FECHA_BASE = CodecFecha.aFecha(CodecFecha.diaEpoca(2024, 1, 1));
+
+    private static final String[] EXCLUSIVIDADES = {
+        NivelExclusividad.FAMILIAR, NivelExclusividad.ORO, NivelExclusividad.DIAMANTE
+    };
+
+    private DatosSinteticos() {
+    }
+
+    /**
+     * Obtiene la fecha a un número de días de la fecha base
+     *
+     * @param dias Días desde la fecha base (puede ser negativo)
+     * @return La fecha
+     */
+    static Date dia(int dias) {
+        return new Date(FECHA_BASE.getTime() + dias * MILIS_DIA);
+    }
+
+    /**
+     * Genera tiquetes básicos con IDs consecutivos desde 1
+     *
+     * @param cantidad Número de tiquetes
+     * @return Lista de tiquetes
+     */
+    static List<TiqueteBasico> tiquetesBasicos(int cantidad) {
+        Random aleatorio = new Random(SEMILLA);
+        List<TiqueteBasico> tiquetes = new ArrayList<>(cantidad);
+        for (int i = 1; i <= cantidad; i++) {
+            TiqueteBasico tiquete = new TiqueteBasico(i, "Tiquete " + i, 1, exclusividad(aleatorio),
+                    dia(aleatorio.nextInt(365)), "Activo", "Taquilla", "Adulto", aleatorio.nextInt(4) == 0);
+            tiquete.setDctoEmpleado(aleatorio.nextInt(10) == 0);
+            tiquetes.add(tiquete);
+        }
+        return tiquetes;
+    }
+
+    /**
+     * Genera una mezcla de tiquetes básicos, de temporada e individuales
+     *
+     * @param cantidad Número de tiquetes
+     * @param atracciones Atracciones a las que se asocian los tiquetes individuales
+     * @return Lista de tiquetes
+     */
+    static List<Tiquete> tiquetesMixtos(int cantidad, List<? extends Atraccion> atracciones) {
+        Random aleatorio = new Random(SEMILLA);
+        List<Tiquete> tiquetes = new ArrayList<>(cantidad);
+        for (int i = 1; i <= cantidad; i++) {
+            String exclusividad = exclusividad(aleatorio);
+            Date fecha = dia(aleatorio.nextInt(365));
+            boolean usado = aleatorio.nextInt(4) == 0;
+            switch (i % 3) {
+                case 0:
+                    tiquetes.add(new TiqueteBasico(i, "Tiquete " + i, 1, exclusividad, fecha, "Activo", "Taquilla",
+                            "Adulto", usado));
+                    break;
+                case 1:
+                    tiquetes.add(new EnTemporada(i, "Temporada " + i, 1, exclusividad, fecha, "Activo", "Web",
+                            dia(0), dia(180), "Alta", "Adulto", usado));
+                    break;
+                default:
+                    Atraccion atraccion = atracciones.get(aleatorio.nextInt(atracciones.size()));
+                    tiquetes.add(new Individual(atraccion, i, "Individual " + i, 1, exclusividad, fecha, "Activo",
+                            "Taquilla", usado));
+                    break;
+            }
+        }
+        return tiquetes;
+    }
+
+    /**
+     * Genera atracciones mecánicas con nombres únicos
+     *
+     * @param cantidad Número de atracciones
+     * @return Lista de atracciones
+     */
+    static List<AtraccionMecanica> atraccionesMecanicas(int cantidad) {
+        Random aleatorio = new Random(SEMILLA);
+        List<AtraccionMecanica> atracciones = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            boolean deTemporada = aleatorio.nextInt(5) == 0;
+            atracciones.add(new AtraccionMecanica("Atracción " + i, "Lluvia", deTemporada,
+                    deTemporada ? dia(60) : null, deTemporada ? dia(240) : null, exclusividad(aleatorio),
+                    2 + aleatorio.nextInt(3), "Zona " + (i % 20), 10 + aleatorio.nextInt(40),
+                    100 + aleatorio.nextInt(40), 190 + aleatorio.nextInt(20), 30 + aleatorio.nextInt(20),
+                    110 + aleatorio.nextInt(30), "Problemas cardíacos", aleatorio.nextBoolean() ? "alto" : "medio"));
+        }
+        return atracciones;
+    }
+
+    /**
+     * Genera cajeros con IDs consecutivos desde 1
+     *
+     * @param cantidad Número de cajeros
+     * @return Lista de cajeros
+     */
+    static List<Cajero> cajeros(int cantidad) {
+        List<Cajero> cajeros = new ArrayList<>(cantidad);
+        for (int i = 1; i <= cantidad; i++) {
+            cajeros.add(new Cajero("Cajero", "Empleado " + i, i, false, "empleado" + i + "@parque.com",
+                    "clave" + i, i % 7 == 0));
+        }
+        return cajeros;
+    }
+
+    /**
+     * Genera el personal de operación y servicio con IDs consecutivos desde 1: por
+     * cada diez empleados hay cinco operadores de riesgo alto (capacitados cada uno
+     * para tres atracciones de riesgo alto), dos de riesgo medio, dos cajeros y un
+     * cocinero
+     *
+     * @param cantidad Número de empleados
+     * @param atracciones Las atracciones para las que se capacitan los operadores
+     * @return Lista de empleados
+     */
+    static List<Empleado> personal(int cantidad, List<AtraccionMecanica> atracciones) {
+        Random aleatorio = new Random(SEMILLA);
+        List<AtraccionMecanica> riesgoAlto = new ArrayList<>();
+        for (AtraccionMecanica atraccion : atracciones) {
+            if (atraccion.esRiesgoAlto()) {
+                riesgoAlto.add(atraccion);
+            }
+        }
+        List<Empleado> personal = new ArrayList<>(cantidad);
+        for (int i = 1; i <= cantidad; i++) {
+            String email = "empleado" + i + "@parque.com";
+            switch (i % 10) {
+                case 0:
+                    personal.add(new Cocinero(true, "Cocinero", "Empleado " + i, i, false, email, "clave" + i, false));
+                    break;
+                case 1:
+                case 2:
+                    personal.add(new Cajero("Cajero", "Empleado " + i, i, false, email, "clave" + i, false));
+                    break;
+                case 3:
+                case 4:
+                    personal.add(new AtraccionMedio(dia(-30), dia(365), "Operador", "Empleado " + i, i, false,
+                            email, "clave" + i, true));
+                    break;
+                default:
+                    AtraccionAlto operador = new AtraccionAlto("Operador", "Empleado " + i, i, false, email,
+                            "clave" + i, false, true);
+                    for (int j = 0; j < 3 && !riesgoAlto.isEmpty(); j++) {
+                        operador.asignarAtraccionAlta(riesgoAlto.get(aleatorio.nextInt(riesgoAlto.size())));
+                    }
+                    personal.add(operador);
+            }
+        }
+        return personal;
+    }
+
+    /**
+     * Genera clientes con IDs consecutivos desde 1
+     *
+     * @param cantidad Número de clientes
+     * @return Lista de clientes
+     */
+    static List<Cliente> clientes(int cantidad) {
+        Random aleatorio = new Random(SEMILLA);
+        List<Cliente> clientes = new ArrayList<>(cantidad);
+        for (int i = 1; i <= cantidad; i++) {
+            Cliente cliente = new Cliente("Cliente " + i, i, "cliente" + i + "@correo.com", "clave" + i,
+                    120 + aleatorio.nextInt(80), 30 + aleatorio.nextInt(90), 5 + aleatorio.nextInt(70));
+            if (aleatorio.nextInt(8) == 0) {
+                cliente.agregarCondicionSalud("Hipertensión");
+            }
+            clientes.add(cliente);
+        }
+        return clientes;
+    }
+
+    /**
+     * Genera líneas de registro separadas por | de tamaño parecido a las de tiquetes
+     *
+     * @param cantidad Número de líneas
+     * @return Lista de líneas
+     */
+    static List<String> lineas(int cantidad) {
+        Random aleatorio = new Random(SEMILLA);
+        List<String> lineas = new ArrayList<>(cantidad);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < cantidad; i++) {
+            sb.setLength(0);
+            sb.append(i).append("|Registro ").append(i).append("|");
+            sb.append(aleatorio.nextInt(1000)).append("|").append(exclusividad(aleatorio)).append("|");
+            CodecFecha.escribir(CodecFecha.diaEpoca(FECHA_BASE) + aleatorio.nextInt(365), sb);
+            sb.append("|").append(aleatorio.nextBoolean());
+            lineas.add(sb.toString());
+        }
+        return lineas;
+    }
+
+    /**
+     * Elimina archivos de datos generados por un benchmark
+     *
+     * @param nombres Los nombres de los archivos
+     */
+    static void eliminarArchivos(String... nombres) {
+        for (String nombre : nombres) {
+            ArchivoUtil.eliminarArchivo(nombre);
+        }
+    }
+
+    private static String exclusividad(Random aleatorio) {
+        return EXCLUSIVIDADES[aleatorio.nextInt(EXCLUSIVIDADES.length)];
+    }
+}
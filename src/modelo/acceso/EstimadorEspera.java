@@ -0,0 +1,257 @@
+package modelo.acceso;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import modelo.atracciones.Atraccion;
+
+/**
+ * Estimador en tiempo real del tiempo de espera en la fila de cada atracción, a
+ * partir de las lecturas de los torniquetes: una llegada cuando el cliente entra
+ * a la fila y un ingreso cuando sube a la atracción (por ejemplo, cuando
+ * ValidadorAcceso.consumir lo acepta).
+ *
+ * Las personas en fila son las llegadas menos los ingresos, y el ritmo de
+ * ingresos se mide en una ventana deslizante de cubetas de tiempo. La espera
+ * estimada es la fila dividida entre el ritmo (ley de Little).
+ *
+ * Cada contador es un LongAdder con el total acumulado, y la ventana es un anillo
+ * fijo que guarda para cada cubeta su número y el total al empezarla: los
+ * ingresos de la ventana son el total actual menos el de la cubeta más antigua
+ * de la ventana. Registrar un evento es sumar en el LongAdder, que reparte la
+ * contención entre celdas, y solo el primer evento de cada cubeta hace un
+ * compare-and-set para abrirla; así muchos torniquetes registran a la vez sin
+ * esperarse y la memoria no crece con el tráfico. Las consultas leen los
+ * contadores vivos sin candados, así que reflejan las lecturas de inmediato; los
+ * eventos concurrentes con el cambio de cubeta pueden contarse en la cubeta
+ * vecina.
+ *
+ * Igual que en ValidadorAcceso, los IDs de atracción son la posición de la
+ * atracción en la lista dada (ver idAtraccion).
+ */
+public class EstimadorEspera {
+    /**
+     * Valor de las estimaciones cuando hay fila pero no hubo ingresos en la ventana
+     */
+    public static final long SIN_ESTIMACION = -1;
+
+    private static final long MILIS_CUBETA = 10 * 1000;
+    private static final int NUMERO_CUBETAS = 30;
+
+    private final LongSupplier reloj;
+    private final long milisCubeta;
+    private final int numeroCubetas;
+    private final long inicio;
+    private final Map<String, Integer> idsPorNombre = new HashMap<>();
+    private final Contador[] llegadas;
+    private final Contador[] ingresos;
+
+    /**
+     * Crea un estimador con una ventana de 5 minutos en cubetas de 10 segundos y
+     * el reloj del sistema
+     *
+     * @param atracciones Las atracciones; su posición en la lista es su ID
+     */
+    public EstimadorEspera(List<? extends Atraccion> atracciones) {
+        this(atracciones, MILIS_CUBETA, NUMERO_CUBETAS, System::currentTimeMillis);
+    }
+
+    /**
+     * Crea un estimador
+     *
+     * @param atracciones Las atracciones; su posición en la lista es su ID
+     * @param milisCubeta Duración de cada cubeta de la ventana en milisegundos
+     * @param numeroCubetas Número de cubetas de la ventana
+     * @param reloj Fuente del tiempo actual en milisegundos
+     * @throws IllegalArgumentException Si la duración o el número de cubetas no son positivos
+     */
+    public EstimadorEspera(List<? extends Atraccion> atracciones, long milisCubeta, int numeroCubetas,
+            LongSupplier reloj) {
+        if (milisCubeta <= 0 || numeroCubetas <= 0) {
+            throw new IllegalArgumentException("La ventana debe tener cubetas de duración positiva");
+        }
+        this.reloj = Objects.requireNonNull(reloj);
+        this.milisCubeta = milisCubeta;
+        this.numeroCubetas = numeroCubetas;
+        this.inicio = reloj.getAsLong();
+        this.llegadas = new Contador[atracciones.size()];
+        this.ingresos = new Contador[atracciones.size()];
+        for (int i = 0; i < atracciones.size(); i++) {
+            idsPorNombre.putIfAbsent(atracciones.get(i).getNombre(), i);
+            llegadas[i] = new Contador(numeroCubetas);
+            ingresos[i] = new Contador(numeroCubetas);
+        }
+    }
+
+    /**
+     * Obtiene el ID de una atracción
+     *
+     * @param nombre El nombre de la atracción
+     * @return El ID, o -1 si no hay una atracción con ese nombre
+     */
+    public int idAtraccion(String nombre) {
+        Integer id = idsPorNombre.get(nombre);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Registra que un cliente entró a la fila de una atracción
+     *
+     * @param idAtraccion El identificador de la atracción
+     */
+    public void registrarLlegada(int idAtraccion) {
+        llegadas[idAtraccion].registrar(cubetaActual());
+    }
+
+    /**
+     * Registra que un cliente de la fila subió a una atracción
+     *
+     * @param idAtraccion El identificador de la atracción
+     */
+    public void registrarIngreso(int idAtraccion) {
+        ingresos[idAtraccion].registrar(cubetaActual());
+    }
+
+    /**
+     * Obtiene el número de personas en la fila de una atracción
+     *
+     * @param idAtraccion El identificador de la atracción
+     * @return Las llegadas menos los ingresos, sin bajar de 0
+     */
+    public long personasEnFila(int idAtraccion) {
+        // Los ingresos se leen primero para no contar ingresos de llegadas aún no leídas
+        long ingresados = ingresos[idAtraccion].total.sum();
+        return Math.max(0, llegadas[idAtraccion].total.sum() - ingresados);
+    }
+
+    /**
+     * Obtiene el ritmo de llegadas a la fila de una atracción en la ventana
+     *
+     * @param idAtraccion El identificador de la atracción
+     * @return Llegadas por minuto
+     */
+    public double llegadasPorMinuto(int idAtraccion) {
+        return porMinuto(llegadas[idAtraccion]);
+    }
+
+    /**
+     * Obtiene el ritmo de ingresos a una atracción en la ventana
+     *
+     * @param idAtraccion El identificador de la atracción
+     * @return Ingresos por minuto
+     */
+    public double ingresosPorMinuto(int idAtraccion) {
+        return porMinuto(ingresos[idAtraccion]);
+    }
+
+    /**
+     * Estima la espera de quien entra ahora a la fila de una atracción
+     *
+     * @param idAtraccion El identificador de la atracción
+     * @return La espera en segundos, 0 si no hay fila, o SIN_ESTIMACION si hay
+     *         fila pero no hubo ingresos en la ventana
+     */
+    public long estimarEspera(int idAtraccion) {
+        long enFila = personasEnFila(idAtraccion);
+        if (enFila == 0) {
+            return 0;
+        }
+        double ritmo = ingresosPorMinuto(idAtraccion);
+        if (ritmo <= 0) {
+            return SIN_ESTIMACION;
+        }
+        return Math.round(enFila * 60 / ritmo);
+    }
+
+    /**
+     * Estima la espera de todas las atracciones, para tableros y aplicaciones
+     *
+     * @return Las esperas en segundos por ID de atracción (ver estimarEspera)
+     */
+    public long[] estimarEsperas() {
+        long[] esperas = new long[llegadas.length];
+        for (int i = 0; i < esperas.length; i++) {
+            esperas[i] = estimarEspera(i);
+        }
+        return esperas;
+    }
+
+    /**
+     * Obtiene el número de atracciones del estimador
+     *
+     * @return El número de atracciones
+     */
+    public int getNumeroAtracciones() {
+        return llegadas.length;
+    }
+
+    private long cubetaActual() {
+        return Math.floorDiv(reloj.getAsLong(), milisCubeta);
+    }
+
+    // Eventos por minuto desde el inicio de la cubeta más antigua de la ventana
+    private double porMinuto(Contador contador) {
+        long ahora = reloj.getAsLong();
+        long actual = Math.floorDiv(ahora, milisCubeta);
+        long primera = actual - numeroCubetas + 1;
+        // Al arrancar la ventana es más corta, pero al menos de una cubeta para no
+        // disparar el ritmo con los primeros eventos
+        long duracion = Math.max(ahora - Math.max(primera * milisCubeta, inicio), milisCubeta);
+        return contador.contarDesde(primera) * 60000.0 / duracion;
+    }
+
+    /**
+     * Contador de eventos con su total y el anillo de cubetas de la ventana
+     */
+    private static final class Contador {
+        // Marcas de cubeta nunca usada y de cubeta que se está abriendo, menores que cualquier cubeta real
+        static final long NUNCA = Long.MIN_VALUE;
+        static final long ABRIENDO = Long.MIN_VALUE + 1;
+
+        final LongAdder total = new LongAdder();
+        // Número de cada cubeta del anillo y total de eventos al abrirla
+        final AtomicLongArray cubetas;
+        final AtomicLongArray totalesAlAbrir;
+
+        Contador(int numeroCubetas) {
+            this.cubetas = new AtomicLongArray(numeroCubetas);
+            this.totalesAlAbrir = new AtomicLongArray(numeroCubetas);
+            for (int i = 0; i < numeroCubetas; i++) {
+                cubetas.set(i, NUNCA);
+            }
+        }
+
+        void registrar(long cubeta) {
+            int posicion = (int) Math.floorMod(cubeta, (long) cubetas.length());
+            long anterior = cubetas.get(posicion);
+            if (anterior < cubeta && anterior != ABRIENDO
+                    && cubetas.compareAndSet(posicion, anterior, ABRIENDO)) {
+                // Solo quien abre la cubeta guarda el total, y la publica después para
+                // que una consulta nunca lo lea de la vuelta anterior del anillo
+                totalesAlAbrir.set(posicion, total.sum());
+                cubetas.set(posicion, cubeta);
+            }
+            total.increment();
+        }
+
+        // Eventos registrados desde la primera cubeta abierta a partir de una dada
+        long contarDesde(long primera) {
+            long totalActual = total.sum();
+            long masAntigua = Long.MAX_VALUE;
+            long base = totalActual;
+            for (int i = 0; i < cubetas.length(); i++) {
+                long cubeta = cubetas.get(i);
+                if (cubeta >= primera && cubeta < masAntigua) {
+                    masAntigua = cubeta;
+                    base = totalesAlAbrir.get(i);
+                }
+            }
+            return Math.max(0, totalActual - base);
+        }
+    }
+}
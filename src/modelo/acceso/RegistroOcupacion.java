@@ -0,0 +1,214 @@
+package modelo.acceso;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import modelo.atracciones.Atraccion;
+import modelo.atracciones.AtraccionCultural;
+import modelo.atracciones.AtraccionMecanica;
+import modelo.util.CodecFecha;
+
+/**
+ * Registro de los accesos a las atracciones, agregado por atracción, día y hora,
+ * para calcular su ocupación.
+ *
+ * La ocupación de una atracción en una hora es la razón entre sus accesos en esa
+ * hora y su capacidad por hora, sin pasar del 100%. El cupo máximo de una
+ * atracción es por ciclo (una vuelta o una función, como en AsignadorFastPass),
+ * así que la capacidad por hora es el cupo por el número de ciclos que caben en
+ * una hora (ver definirCiclo); si no se define el ciclo de una atracción se toma
+ * un ciclo por hora. La ocupación de un día es el promedio de las horas en que el
+ * parque tuvo accesos (en cualquier atracción), así que las horas sin público en
+ * la atracción cuentan como 0%.
+ *
+ * Cada acceso actualiza de una vez los contadores de su hora, el total del día y
+ * la suma de accesos que caben en el cupo de cada hora, con operaciones atómicas
+ * y sin candados, así que muchos torniquetes pueden registrar a la vez y la
+ * ocupación de una atracción se calcula en tiempo constante, sin recorrer los
+ * accesos. La capacidad de una atracción en un día se calcula en su primer acceso
+ * del día; las atracciones sin cupo máximo tienen ocupación 0%.
+ */
+public class RegistroOcupacion {
+    /**
+     * Número de horas de un día
+     */
+    public static final int HORAS_DIA = 24;
+
+    private static final int MINUTOS_HORA = 60;
+
+    private final Map<Integer, OcupacionDia> dias = new ConcurrentHashMap<>();
+    private final Map<Atraccion, Integer> minutosCiclo = new ConcurrentHashMap<>();
+
+    /**
+     * Define la duración de un ciclo de una atracción, para calcular su capacidad
+     * por hora desde el siguiente día en que tenga accesos
+     *
+     * @param atraccion La atracción
+     * @param minutosCiclo Duración de un ciclo en minutos
+     * @throws IllegalArgumentException Si la duración no es positiva
+     */
+    public void definirCiclo(Atraccion atraccion, int minutosCiclo) {
+        if (minutosCiclo <= 0) {
+            throw new IllegalArgumentException("La duración del ciclo debe ser positiva");
+        }
+        this.minutosCiclo.put(atraccion, minutosCiclo);
+    }
+
+    /**
+     * Obtiene la capacidad por hora de una atracción: su cupo máximo por los ciclos
+     * que caben en una hora
+     *
+     * @param atraccion La atracción
+     * @return Los accesos por hora que caben, o 0 si la atracción no tiene cupo máximo
+     */
+    public int capacidadHora(Atraccion atraccion) {
+        int ciclo = minutosCiclo.getOrDefault(atraccion, MINUTOS_HORA);
+        return (int) Math.min(Integer.MAX_VALUE, (long) cupoMaximo(atraccion) * MINUTOS_HORA / ciclo);
+    }
+
+    /**
+     * Registra un acceso a una atracción en este momento
+     *
+     * @param atraccion La atracción
+     */
+    public void registrarAcceso(Atraccion atraccion) {
+        registrarAcceso(atraccion, System.currentTimeMillis());
+    }
+
+    /**
+     * Registra un acceso a una atracción en un momento dado
+     *
+     * @param atraccion La atracción
+     * @param instante El momento del acceso en milisegundos
+     */
+    public void registrarAcceso(Atraccion atraccion, long instante) {
+        int dia = CodecFecha.diaEpoca(instante);
+        OcupacionDia ocupacionDia = dias.get(dia);
+        if (ocupacionDia == null) {
+            ocupacionDia = dias.computeIfAbsent(dia, d -> new OcupacionDia());
+        }
+        ocupacionDia.registrar(atraccion, CodecFecha.horaDelDia(instante));
+    }
+
+    /**
+     * Obtiene los accesos a una atracción en una hora de un día
+     *
+     * @param atraccion La atracción
+     * @param dia El día de época
+     * @param hora La hora local (0 a 23)
+     * @return El número de accesos
+     */
+    public int accesos(Atraccion atraccion, int dia, int hora) {
+        ContadorAtraccion contador = contador(atraccion, dia);
+        return contador != null ? contador.porHora.get(hora) : 0;
+    }
+
+    /**
+     * Obtiene los accesos a una atracción en un día
+     *
+     * @param atraccion La atracción
+     * @param dia El día de época
+     * @return El número de accesos
+     */
+    public long accesosDia(Atraccion atraccion, int dia) {
+        ContadorAtraccion contador = contador(atraccion, dia);
+        return contador != null ? contador.total.sum() : 0;
+    }
+
+    /**
+     * Obtiene el número de horas de un día en que el parque tuvo accesos
+     *
+     * @param dia El día de época
+     * @return El número de horas
+     */
+    public int horasConAccesos(int dia) {
+        OcupacionDia ocupacionDia = dias.get(dia);
+        return ocupacionDia != null ? Integer.bitCount(ocupacionDia.horasConAccesos.get()) : 0;
+    }
+
+    /**
+     * Obtiene la ocupación de una atracción en un día
+     *
+     * @param atraccion La atracción
+     * @param dia El día de época
+     * @return La ocupación como porcentaje (0-100%)
+     */
+    public double ocupacion(Atraccion atraccion, int dia) {
+        ContadorAtraccion contador = contador(atraccion, dia);
+        int horas = horasConAccesos(dia);
+        if (contador == null || contador.capacidad <= 0 || horas == 0) {
+            return 0.0;
+        }
+        return 100.0 * contador.accesosEnCupo.sum() / ((double) contador.capacidad * horas);
+    }
+
+    /**
+     * Descarta los contadores de los días anteriores a uno dado
+     *
+     * @param dia El primer día de época que se conserva
+     */
+    public void descartarAntesDe(int dia) {
+        dias.keySet().removeIf(d -> d < dia);
+    }
+
+    private static int cupoMaximo(Atraccion atraccion) {
+        if (atraccion instanceof AtraccionMecanica) {
+            return ((AtraccionMecanica) atraccion).getCupoMaximo();
+        }
+        if (atraccion instanceof AtraccionCultural) {
+            return ((AtraccionCultural) atraccion).getCupoMaximo();
+        }
+        return 0;
+    }
+
+    private ContadorAtraccion contador(Atraccion atraccion, int dia) {
+        OcupacionDia ocupacionDia = dias.get(dia);
+        return ocupacionDia != null && atraccion != null ? ocupacionDia.contadores.get(atraccion) : null;
+    }
+
+    /**
+     * Contadores de todas las atracciones en un día
+     */
+    private final class OcupacionDia {
+        final Map<Atraccion, ContadorAtraccion> contadores = new ConcurrentHashMap<>();
+        // Un bit por hora con algún acceso en el parque
+        final AtomicInteger horasConAccesos = new AtomicInteger();
+
+        void registrar(Atraccion atraccion, int hora) {
+            ContadorAtraccion contador = contadores.get(atraccion);
+            if (contador == null) {
+                contador = contadores.computeIfAbsent(atraccion, a -> new ContadorAtraccion(capacidadHora(a)));
+            }
+            contador.registrar(hora);
+            int bit = 1 << hora;
+            if ((horasConAccesos.get() & bit) == 0) {
+                horasConAccesos.getAndUpdate(horas -> horas | bit);
+            }
+        }
+    }
+
+    /**
+     * Accesos de una atracción en un día, por hora
+     */
+    private static final class ContadorAtraccion {
+        final int capacidad;
+        final AtomicIntegerArray porHora = new AtomicIntegerArray(HORAS_DIA);
+        final LongAdder total = new LongAdder();
+        // Suma por hora de los accesos que no pasan de la capacidad por hora
+        final LongAdder accesosEnCupo = new LongAdder();
+
+        ContadorAtraccion(int capacidad) {
+            this.capacidad = capacidad;
+        }
+
+        void registrar(int hora) {
+            if (porHora.getAndIncrement(hora) < capacidad) {
+                accesosEnCupo.increment();
+            }
+            total.increment();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package modelo.acceso;
+
+/**
+ * Resultado de validar un tiquete en la entrada de una atracción: se acepta
+ * o se rechaza con el motivo del rechazo
+ */
+public enum ResultadoAcceso {
+    ACEPTADO("Acceso permitido"),
+    TIQUETE_INEXISTENTE("El tiquete no existe"),
+    ATRACCION_INEXISTENTE("La atracción no existe"),
+    ATRACCION_NO_DISPONIBLE("La atracción no está disponible en la fecha"),
+    TIQUETE_USADO("El tiquete ya fue usado"),
+    TIQUETE_NO_VIGENTE("El tiquete no está vigente en la fecha"),
+    ATRACCION_NO_CORRESPONDE("El tiquete es para otra atracción"),
+    EXCLUSIVIDAD_INSUFICIENTE("El nivel de exclusividad del tiquete no permite el acceso"),
+    FASTPASS_INVALIDO("No hay un FastPass sin usar para el tiquete en la fecha"),
+    RESTRICCION_FISICA("El cliente no cumple las restricciones de altura o peso"),
+    CONTRAINDICACION("El cliente tiene una condición de salud restringida"),
+    EDAD_INSUFICIENTE("El cliente no tiene la edad mínima"),
+    ERROR_REGISTRO("No se pudo registrar el uso del tiquete");
+
+    private final String descripcion;
+
+    ResultadoAcceso(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    /**
+     * Verifica si el resultado permite el acceso
+     *
+     * @return true si el acceso fue aceptado
+     */
+    public boolean esAceptado() {
+        return this == ACEPTADO;
+    }
+
+    /**
+     * Obtiene la descripción del resultado
+     *
+     * @return La descripción
+     */
+    public String getDescripcion() {
+        return descripcion;
+    }
+}
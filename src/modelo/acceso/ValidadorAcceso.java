@@ -0,0 +1,670 @@
+package modelo.acceso;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import excepciones.TiqueteException;
+import modelo.atracciones.Atraccion;
+import modelo.atracciones.AtraccionCultural;
+import modelo.atracciones.AtraccionMecanica;
+import modelo.tiquetes.EnTemporada;
+import modelo.tiquetes.FastPass;
+import modelo.tiquetes.Individual;
+import modelo.tiquetes.RegistroCambiosTiquetes;
+import modelo.tiquetes.Tiquete;
+import modelo.tiquetes.TiqueteBasico;
+import modelo.usuarios.Cliente;
+import modelo.util.CodecFecha;
+import modelo.util.IntervalosDias;
+import modelo.util.NivelExclusividad;
+
+/**
+ * Motor de validación de acceso para los torniquetes. Cada lectura de un tiquete
+ * (ID del tiquete e ID de la atracción) se responde con un ResultadoAcceso que
+ * dice si se acepta y, si no, por qué.
+ *
+ * Las reglas son las de Tiquete.puedeAccederAtraccion, Atraccion.estaDisponible,
+ * FastPass.esValido y las restricciones de cada tipo de atracción, pero evaluadas
+ * sobre una instantánea inmutable de arreglos primitivos: tiquetes ordenados por
+ * ID (búsqueda binaria), niveles de exclusividad como ordinales y fechas como días
+ * de época. Así la validación no crea objetos ni toma candados, y cualquier número
+ * de hilos puede validar a la vez.
+ *
+ * Los datos se publican con publicar(), que construye una instantánea nueva y la
+ * reemplaza de forma atómica; las validaciones en curso terminan con la anterior.
+ * El único dato que se lee del objeto en cada validación es si el tiquete o el
+ * FastPass ya fue usado, para que una marca de uso se vea sin volver a publicar.
+ * Los métodos consumir* además marcan el uso con compare-and-set, así que un
+ * tiquete individual o un FastPass leído en dos torniquetes a la vez se acepta
+ * en uno solo.
+ *
+ * Los IDs de atracción son la posición de la atracción en la lista publicada
+ * (ver idAtraccion). Las fechas se comparan por día local, no por milisegundo.
+ * Un FastPass con ventana de retorno solo sirve en la atracción de la ventana y
+ * dentro de ella, como en FastPass.esValido(Date, Atraccion); la ventana también
+ * se toma al publicar, así que un FastPass que recibe o pierde ventana requiere
+ * volver a publicar.
+ *
+ * Si se le da un RegistroOcupacion, cada acceso aceptado por los métodos
+ * consumir* se registra en él para el reporte de ocupación de las atracciones,
+ * en el día validado y a la hora de la lectura.
+ * Si se le da un RegistroCambiosTiquetes, cada tiquete individual o FastPass
+ * consumido se anota en él; si no se puede anotar, el uso se devuelve y el
+ * resultado es ERROR_REGISTRO.
+ */
+public class ValidadorAcceso {
+    private static final byte BASICO = 0;
+    private static final byte TEMPORADA = 1;
+    private static final byte INDIVIDUAL = 2;
+    private static final byte OTRO = 3;
+
+    private static final int SIN_VENTANA = -1;
+    private static final int ATRACCION_NO_PUBLICADA = -2;
+
+    private static final String[] SIN_CONTRAINDICACIONES = new String[0];
+
+    private volatile Instantanea instantanea = new Instantanea(Collections.emptyList(), Collections.emptyList(),
+            Collections.emptyList());
+    private volatile RegistroOcupacion registroOcupacion;
+    private volatile RegistroCambiosTiquetes registroCambios;
+
+    /**
+     * Publica los tiquetes, atracciones y FastPasses contra los que se valida. Los
+     * cambios posteriores en los objetos (salvo la marca de uso) no se ven hasta la
+     * siguiente publicación
+     *
+     * @param tiquetes Los tiquetes; si hay IDs repetidos se conserva el primero
+     * @param atracciones Las atracciones; su posición en la lista es su ID
+     * @param fastPasses Los FastPasses
+     */
+    public void publicar(Collection<? extends Tiquete> tiquetes, List<? extends Atraccion> atracciones,
+            Collection<FastPass> fastPasses) {
+        instantanea = new Instantanea(tiquetes, atracciones, fastPasses);
+    }
+
+    /**
+     * Define el registro donde se anotan los accesos aceptados al consumir
+     *
+     * @param registroOcupacion El registro, o null para no registrar los accesos
+     */
+    public void setRegistroOcupacion(RegistroOcupacion registroOcupacion) {
+        this.registroOcupacion = registroOcupacion;
+    }
+
+    /**
+     * Define el registro donde se anotan los tiquetes y FastPasses consumidos
+     *
+     * @param registroCambios El registro, o null para no anotar los usos
+     */
+    public void setRegistroCambios(RegistroCambiosTiquetes registroCambios) {
+        this.registroCambios = registroCambios;
+    }
+
+    /**
+     * Obtiene el ID de una atracción en la publicación actual
+     *
+     * @param nombre El nombre de la atracción
+     * @return El ID, o -1 si no hay una atracción con ese nombre
+     */
+    public int idAtraccion(String nombre) {
+        Integer id = instantanea.idsPorNombre.get(nombre);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Valida el acceso de un tiquete a una atracción en el día de hoy
+     *
+     * @param idTiquete El identificador del tiquete
+     * @param idAtraccion El identificador de la atracción
+     * @return El resultado de la validación
+     */
+    public ResultadoAcceso validar(int idTiquete, int idAtraccion) {
+        return validar(idTiquete, idAtraccion, CodecFecha.hoy(), null);
+    }
+
+    /**
+     * Valida el acceso de un tiquete a una atracción en un día
+     *
+     * @param idTiquete El identificador del tiquete
+     * @param idAtraccion El identificador de la atracción
+     * @param dia El día de época de la visita
+     * @return El resultado de la validación
+     */
+    public ResultadoAcceso validar(int idTiquete, int idAtraccion, int dia) {
+        return validar(idTiquete, idAtraccion, dia, null);
+    }
+
+    /**
+     * Valida el acceso de un cliente con su tiquete a una atracción en un día,
+     * incluyendo las restricciones físicas, de salud y de edad de la atracción
+     *
+     * @param idTiquete El identificador del tiquete
+     * @param idAtraccion El identificador de la atracción
+     * @param dia El día de época de la visita
+     * @param cliente El cliente, o null para no verificar sus restricciones
+     * @return El resultado de la validación
+     */
+    public ResultadoAcceso validar(int idTiquete, int idAtraccion, int dia, Cliente cliente) {
+        Instantanea datos = instantanea;
+        int posicion = Arrays.binarySearch(datos.idsTiquetes, idTiquete);
+        if (posicion < 0) {
+            return ResultadoAcceso.TIQUETE_INEXISTENTE;
+        }
+        return datos.validar(posicion, idAtraccion, dia, cliente);
+    }
+
+    /**
+     * Valida una entrada por la fila de FastPass: además del acceso del tiquete,
+     * debe haber un FastPass sin usar para el tiquete en ese día. Las ventanas de
+     * retorno se verifican a la hora actual en ese día
+     *
+     * @param idTiquete El identificador del tiquete
+     * @param idAtraccion El identificador de la atracción
+     * @param dia El día de época de la visita
+     * @return El resultado de la validación
+     */
+    public ResultadoAcceso validarFastPass(int idTiquete, int idAtraccion, int dia) {
+        return validarFastPass(idTiquete, idAtraccion, dia, momentoEn(dia));
+    }
+
+    /**
+     * Valida una entrada por la fila de FastPass en un momento: además del acceso
+     * del tiquete ese día, debe haber un FastPass sin usar para el tiquete en ese
+     * día, sin ventana de retorno o con una ventana en la atracción que contenga
+     * el momento
+     *
+     * @param idTiquete El identificador del tiquete
+     * @param idAtraccion El identificador de la atracción
+     * @param momento El momento de la lectura
+     * @return El resultado de la validación
+     */
+    public ResultadoAcceso validarFastPass(int idTiquete, int idAtraccion, Date momento) {
+        return validarFastPass(idTiquete, idAtraccion, CodecFecha.diaEpoca(momento), momento.getTime());
+    }
+
+    private ResultadoAcceso validarFastPass(int idTiquete, int idAtraccion, int dia, long instante) {
+        Instantanea datos = instantanea;
+        int posicion = Arrays.binarySearch(datos.idsTiquetes, idTiquete);
+        if (posicion < 0) {
+            return ResultadoAcceso.TIQUETE_INEXISTENTE;
+        }
+        ResultadoAcceso resultado = datos.validar(posicion, idAtraccion, dia, null);
+        if (resultado.esAceptado() && !datos.hayFastPass(idTiquete, idAtraccion, dia, instante)) {
+            return ResultadoAcceso.FASTPASS_INVALIDO;
+        }
+        return resultado;
+    }
+
+    /**
+     * Valida el acceso como validar() y, si se acepta un tiquete individual, lo
+     * consume. Si otro torniquete lo consumió primero el resultado es TIQUETE_USADO.
+     * Los demás tiquetes no son de un solo uso y no se marcan. Si el uso no se
+     * puede anotar en el registro de cambios, el tiquete se devuelve y el
+     * resultado es ERROR_REGISTRO. El acceso se registra en ese día a la hora
+     * actual
+     *
+     * @param idTiquete El identificador del tiquete
+     * @param idAtraccion El identificador de la atracción
+     * @param dia El día de época de la visita
+     * @param cliente El cliente, o null para no verificar sus restricciones
+     * @return El resultado de la validación
+     */
+    public ResultadoAcceso consumir(int idTiquete, int idAtraccion, int dia, Cliente cliente) {
+        return consumir(idTiquete, idAtraccion, dia, momentoEn(dia), cliente);
+    }
+
+    /**
+     * Valida y consume como consumir(int, int, int, Cliente) una lectura hecha en
+     * un momento dado, que es el que se registra como hora del acceso
+     *
+     * @param idTiquete El identificador del tiquete
+     * @param idAtraccion El identificador de la atracción
+     * @param momento El momento de la lectura
+     * @param cliente El cliente, o null para no verificar sus restricciones
+     * @return El resultado de la validación
+     */
+    public ResultadoAcceso consumir(int idTiquete, int idAtraccion, Date momento, Cliente cliente) {
+        return consumir(idTiquete, idAtraccion, CodecFecha.diaEpoca(momento), momento.getTime(), cliente);
+    }
+
+    private ResultadoAcceso consumir(int idTiquete, int idAtraccion, int dia, long instante, Cliente cliente) {
+        Instantanea datos = instantanea;
+        int posicion = Arrays.binarySearch(datos.idsTiquetes, idTiquete);
+        if (posicion < 0) {
+            return ResultadoAcceso.TIQUETE_INEXISTENTE;
+        }
+        ResultadoAcceso resultado = datos.validar(posicion, idAtraccion, dia, cliente);
+        if (resultado.esAceptado() && datos.tipos[posicion] == INDIVIDUAL) {
+            Tiquete tiquete = datos.tiquetes[posicion];
+            if (!tiquete.consumir()) {
+                return ResultadoAcceso.TIQUETE_USADO;
+            }
+            if (!anotarUso(tiquete, null)) {
+                tiquete.setUsado(false);
+                return ResultadoAcceso.ERROR_REGISTRO;
+            }
+        }
+        registrarAcceso(datos, resultado, idAtraccion, instante);
+        return resultado;
+    }
+
+    /**
+     * Valida una entrada por la fila de FastPass como validarFastPass() y, si se
+     * acepta, consume uno de los FastPasses del tiquete para ese día. Un tiquete
+     * individual además se consume como en consumir(): si otro torniquete lo
+     * consumió primero el resultado es TIQUETE_USADO. Si el uso no se puede
+     * anotar en el registro de cambios, el tiquete y el FastPass se devuelven y el
+     * resultado es ERROR_REGISTRO. Las ventanas de retorno se verifican a la hora
+     * actual en ese día
+     *
+     * @param idTiquete El identificador del tiquete
+     * @param idAtraccion El identificador de la atracción
+     * @param dia El día de época de la visita
+     * @return El resultado de la validación
+     */
+    public ResultadoAcceso consumirFastPass(int idTiquete, int idAtraccion, int dia) {
+        return consumirFastPass(idTiquete, idAtraccion, dia, momentoEn(dia));
+    }
+
+    /**
+     * Valida una entrada por la fila de FastPass en un momento como
+     * validarFastPass(int, int, Date) y, si se acepta, consume el FastPass (y el
+     * tiquete individual) como consumirFastPass(int, int, int)
+     *
+     * @param idTiquete El identificador del tiquete
+     * @param idAtraccion El identificador de la atracción
+     * @param momento El momento de la lectura
+     * @return El resultado de la validación
+     */
+    public ResultadoAcceso consumirFastPass(int idTiquete, int idAtraccion, Date momento) {
+        return consumirFastPass(idTiquete, idAtraccion, CodecFecha.diaEpoca(momento), momento.getTime());
+    }
+
+    private ResultadoAcceso consumirFastPass(int idTiquete, int idAtraccion, int dia, long instante) {
+        Instantanea datos = instantanea;
+        int posicion = Arrays.binarySearch(datos.idsTiquetes, idTiquete);
+        if (posicion < 0) {
+            return ResultadoAcceso.TIQUETE_INEXISTENTE;
+        }
+        ResultadoAcceso resultado = datos.validar(posicion, idAtraccion, dia, null);
+        if (!resultado.esAceptado()) {
+            return resultado;
+        }
+        if (!datos.hayFastPass(idTiquete, idAtraccion, dia, instante)) {
+            return ResultadoAcceso.FASTPASS_INVALIDO;
+        }
+        Tiquete tiquete = datos.tiquetes[posicion];
+        boolean individual = datos.tipos[posicion] == INDIVIDUAL;
+        if (individual && !tiquete.consumir()) {
+            return ResultadoAcceso.TIQUETE_USADO;
+        }
+        FastPass fastPass = datos.tomarFastPass(idTiquete, idAtraccion, dia, instante);
+        if (fastPass == null) {
+            // Otro torniquete tomó el último FastPass: el tiquete, que este llamado
+            // consumió, se devuelve
+            if (individual) {
+                tiquete.setUsado(false);
+            }
+            return ResultadoAcceso.FASTPASS_INVALIDO;
+        }
+        if (!anotarUso(individual ? tiquete : null, fastPass)) {
+            fastPass.setUsado(false);
+            if (individual) {
+                tiquete.setUsado(false);
+            }
+            return ResultadoAcceso.ERROR_REGISTRO;
+        }
+        registrarAcceso(datos, resultado, idAtraccion, instante);
+        return resultado;
+    }
+
+    // El momento actual trasladado a un día: la hora de la lectura en el día validado
+    private static long momentoEn(int dia) {
+        long ahora = System.currentTimeMillis();
+        int hoy = CodecFecha.diaEpoca(ahora);
+        return hoy == dia ? ahora : ahora + CodecFecha.milisInicioDia(dia) - CodecFecha.milisInicioDia(hoy);
+    }
+
+    // Anota en el registro de cambios lo que se consumió; false si no se pudo anotar
+    private boolean anotarUso(Tiquete tiquete, FastPass fastPass) {
+        RegistroCambiosTiquetes registro = registroCambios;
+        if (registro == null) {
+            return true;
+        }
+        try {
+            if (tiquete != null) {
+                registro.registrarUso(tiquete);
+            }
+            if (fastPass != null) {
+                registro.registrarUsoFastPass(fastPass);
+            }
+            return true;
+        } catch (TiqueteException e) {
+            return false;
+        }
+    }
+
+    private void registrarAcceso(Instantanea datos, ResultadoAcceso resultado, int idAtraccion, long instante) {
+        RegistroOcupacion registro = registroOcupacion;
+        if (registro != null && resultado.esAceptado()) {
+            registro.registrarAcceso(datos.atracciones[idAtraccion], instante);
+        }
+    }
+
+    /**
+     * Datos publicados, en arreglos paralelos que no cambian después de construirse
+     */
+    private static final class Instantanea {
+        // Tiquetes, ordenados por ID
+        final int[] idsTiquetes;
+        final Tiquete[] tiquetes;
+        final byte[] tipos;
+        final int[] ordinalesTiquete;
+        final int[] iniciosVigencia;
+        final int[] finesVigencia;
+        final int[] atraccionesTiquete;
+
+        // Atracciones, por ID
+        final Atraccion[] atracciones;
+        final int[] ordinalesAtraccion;
+        final int[] iniciosTemporada;
+        final int[] finesTemporada;
+        final IntervalosDias[] mantenimientos;
+        final float[] alturasMinimas;
+        final float[] alturasMaximas;
+        final float[] pesosMinimos;
+        final float[] pesosMaximos;
+        final int[] edadesMinimas;
+        final String[][] contraindicaciones;
+        final Map<String, Integer> idsPorNombre;
+
+        // FastPasses, ordenados por (ID del tiquete, día), con su ventana de retorno
+        final long[] llavesFastPass;
+        final FastPass[] fastPasses;
+        final int[] atraccionesRetorno;
+        final long[] iniciosRetorno;
+        final long[] finesRetorno;
+
+        Instantanea(Collection<? extends Tiquete> listaTiquetes, List<? extends Atraccion> listaAtracciones,
+                Collection<FastPass> listaFastPasses) {
+            int n = listaAtracciones.size();
+            atracciones = listaAtracciones.toArray(new Atraccion[0]);
+            ordinalesAtraccion = new int[n];
+            iniciosTemporada = new int[n];
+            finesTemporada = new int[n];
+            mantenimientos = new IntervalosDias[n];
+            alturasMinimas = new float[n];
+            alturasMaximas = new float[n];
+            pesosMinimos = new float[n];
+            pesosMaximos = new float[n];
+            edadesMinimas = new int[n];
+            contraindicaciones = new String[n][];
+            idsPorNombre = new HashMap<>(n * 2);
+            Map<Atraccion, Integer> ids = new HashMap<>(n * 2);
+
+            for (int i = 0; i < n; i++) {
+                Atraccion atraccion = atracciones[i];
+                ids.putIfAbsent(atraccion, i);
+                idsPorNombre.putIfAbsent(atraccion.getNombre(), i);
+                ordinalesAtraccion[i] = atraccion.getOrdinalExclusividad();
+                mantenimientos[i] = atraccion.getDiasMantenimiento();
+
+                if (!atraccion.isDeTemporada()) {
+                    iniciosTemporada[i] = Integer.MIN_VALUE;
+                    finesTemporada[i] = Integer.MAX_VALUE;
+                } else if (atraccion.getFechaInicio() == null || atraccion.getFechaFin() == null) {
+                    // Temporada sin fechas: nunca está disponible
+                    iniciosTemporada[i] = Integer.MAX_VALUE;
+                    finesTemporada[i] = Integer.MIN_VALUE;
+                } else {
+                    iniciosTemporada[i] = CodecFecha.diaEpoca(atraccion.getFechaInicio());
+                    finesTemporada[i] = CodecFecha.diaEpoca(atraccion.getFechaFin());
+                }
+
+                alturasMinimas[i] = Float.NEGATIVE_INFINITY;
+                alturasMaximas[i] = Float.POSITIVE_INFINITY;
+                pesosMinimos[i] = Float.NEGATIVE_INFINITY;
+                pesosMaximos[i] = Float.POSITIVE_INFINITY;
+                edadesMinimas[i] = Integer.MIN_VALUE;
+                contraindicaciones[i] = SIN_CONTRAINDICACIONES;
+                if (atraccion instanceof AtraccionMecanica) {
+                    AtraccionMecanica mecanica = (AtraccionMecanica) atraccion;
+                    alturasMinimas[i] = mecanica.getAlturaMinima();
+                    alturasMaximas[i] = mecanica.getAlturaMaxima();
+                    pesosMinimos[i] = mecanica.getPesoMinimo();
+                    pesosMaximos[i] = mecanica.getPesoMaximo();
+                    contraindicaciones[i] = separarRestricciones(mecanica.getRestriccionesSalud());
+                } else if (atraccion instanceof AtraccionCultural) {
+                    edadesMinimas[i] = ((AtraccionCultural) atraccion).getEdadMinima();
+                }
+            }
+
+            // Orden por ID conservando, entre IDs repetidos, el primero de la colección
+            Tiquete[] entrada = listaTiquetes.toArray(new Tiquete[0]);
+            long[] orden = new long[entrada.length];
+            for (int i = 0; i < entrada.length; i++) {
+                orden[i] = (long) entrada[i].getId() << 32 | i;
+            }
+            Arrays.sort(orden);
+            int m = 0;
+            for (int i = 0; i < orden.length; i++) {
+                if (m == 0 || (int) (orden[i] >> 32) != (int) (orden[m - 1] >> 32)) {
+                    orden[m++] = orden[i];
+                }
+            }
+
+            idsTiquetes = new int[m];
+            tiquetes = new Tiquete[m];
+            tipos = new byte[m];
+            ordinalesTiquete = new int[m];
+            iniciosVigencia = new int[m];
+            finesVigencia = new int[m];
+            atraccionesTiquete = new int[m];
+            for (int i = 0; i < m; i++) {
+                Tiquete tiquete = entrada[(int) orden[i]];
+                idsTiquetes[i] = tiquete.getId();
+                tiquetes[i] = tiquete;
+                ordinalesTiquete[i] = tiquete.getOrdinalExclusividad();
+                atraccionesTiquete[i] = -1;
+
+                if (tiquete instanceof TiqueteBasico) {
+                    tipos[i] = BASICO;
+                } else if (tiquete instanceof EnTemporada) {
+                    EnTemporada temporada = (EnTemporada) tiquete;
+                    tipos[i] = TEMPORADA;
+                    if (temporada.getFechaInicio() == null || temporada.getFechaFin() == null) {
+                        iniciosVigencia[i] = Integer.MAX_VALUE;
+                        finesVigencia[i] = Integer.MIN_VALUE;
+                    } else {
+                        iniciosVigencia[i] = CodecFecha.diaEpoca(temporada.getFechaInicio());
+                        finesVigencia[i] = CodecFecha.diaEpoca(temporada.getFechaFin());
+                    }
+                } else if (tiquete instanceof Individual) {
+                    Atraccion atraccion = ((Individual) tiquete).getAtraccion();
+                    Integer id = atraccion != null ? ids.get(atraccion) : null;
+                    tipos[i] = INDIVIDUAL;
+                    atraccionesTiquete[i] = id != null ? id : -1;
+                } else {
+                    tipos[i] = OTRO;
+                }
+            }
+
+            // FastPasses por (tiquete, día); los que no tienen tiquete o fecha no sirven
+            FastPass[] pases = new FastPass[listaFastPasses.size()];
+            long[] llaves = new long[pases.length];
+            int f = 0;
+            for (FastPass fastPass : listaFastPasses) {
+                if (fastPass.getTiqueteAsociado() != null && fastPass.getFechaValida() != null) {
+                    llaves[f] = llaveFastPass(fastPass.getTiqueteAsociado().getId(),
+                            CodecFecha.diaEpoca(fastPass.getFechaValida()));
+                    pases[f++] = fastPass;
+                }
+            }
+            Integer[] indices = new Integer[f];
+            for (int i = 0; i < f; i++) {
+                indices[i] = i;
+            }
+            Arrays.sort(indices, (a, b) -> Long.compare(llaves[a], llaves[b]));
+            llavesFastPass = new long[f];
+            fastPasses = new FastPass[f];
+            atraccionesRetorno = new int[f];
+            iniciosRetorno = new long[f];
+            finesRetorno = new long[f];
+            for (int i = 0; i < f; i++) {
+                FastPass fastPass = pases[indices[i]];
+                llavesFastPass[i] = llaves[indices[i]];
+                fastPasses[i] = fastPass;
+                atraccionesRetorno[i] = SIN_VENTANA;
+                Date inicio = fastPass.getInicioRetorno();
+                Date fin = fastPass.getFinRetorno();
+                if (fastPass.tieneVentanaRetorno() && inicio != null && fin != null) {
+                    Integer id = ids.get(fastPass.getAtraccionRetorno());
+                    atraccionesRetorno[i] = id != null ? id : ATRACCION_NO_PUBLICADA;
+                    iniciosRetorno[i] = inicio.getTime();
+                    finesRetorno[i] = fin.getTime();
+                }
+            }
+        }
+
+        /**
+         * Valida el tiquete en una posición del arreglo ordenado
+         */
+        ResultadoAcceso validar(int posicion, int idAtraccion, int dia, Cliente cliente) {
+            if (idAtraccion < 0 || idAtraccion >= atracciones.length) {
+                return ResultadoAcceso.ATRACCION_INEXISTENTE;
+            }
+            if (dia < iniciosTemporada[idAtraccion] || dia > finesTemporada[idAtraccion]
+                    || mantenimientos[idAtraccion].contiene(dia)) {
+                return ResultadoAcceso.ATRACCION_NO_DISPONIBLE;
+            }
+
+            switch (tipos[posicion]) {
+                case INDIVIDUAL:
+                    if (atraccionesTiquete[posicion] != idAtraccion) {
+                        return ResultadoAcceso.ATRACCION_NO_CORRESPONDE;
+                    }
+                    if (tiquetes[posicion].isUsado()) {
+                        return ResultadoAcceso.TIQUETE_USADO;
+                    }
+                    break;
+                case TEMPORADA:
+                    if (dia < iniciosVigencia[posicion] || dia > finesVigencia[posicion]) {
+                        return ResultadoAcceso.TIQUETE_NO_VIGENTE;
+                    }
+                    if (!tieneExclusividad(posicion, idAtraccion)) {
+                        return ResultadoAcceso.EXCLUSIVIDAD_INSUFICIENTE;
+                    }
+                    break;
+                case BASICO:
+                    if (!tieneExclusividad(posicion, idAtraccion)) {
+                        return ResultadoAcceso.EXCLUSIVIDAD_INSUFICIENTE;
+                    }
+                    break;
+                default:
+                    if (!tiquetes[posicion].puedeAccederAtraccion(atracciones[idAtraccion])) {
+                        return ResultadoAcceso.EXCLUSIVIDAD_INSUFICIENTE;
+                    }
+                    break;
+            }
+
+            return cliente != null ? validarCliente(idAtraccion, cliente) : ResultadoAcceso.ACEPTADO;
+        }
+
+        /**
+         * Verifica si el nivel de exclusividad del tiquete da acceso a la atracción
+         */
+        private boolean tieneExclusividad(int posicion, int idAtraccion) {
+            return NivelExclusividad.tieneAcceso(ordinalesTiquete[posicion], ordinalesAtraccion[idAtraccion]);
+        }
+
+        /**
+         * Verifica las restricciones de la atracción sobre el cliente
+         */
+        private ResultadoAcceso validarCliente(int idAtraccion, Cliente cliente) {
+            float altura = cliente.getAltura();
+            float peso = cliente.getPeso();
+            if (altura < alturasMinimas[idAtraccion] || altura > alturasMaximas[idAtraccion]
+                    || peso < pesosMinimos[idAtraccion] || peso > pesosMaximos[idAtraccion]) {
+                return ResultadoAcceso.RESTRICCION_FISICA;
+            }
+            for (String condicion : contraindicaciones[idAtraccion]) {
+                if (cliente.tieneCondicionSalud(condicion)) {
+                    return ResultadoAcceso.CONTRAINDICACION;
+                }
+            }
+            if (cliente.getEdad() < edadesMinimas[idAtraccion]) {
+                return ResultadoAcceso.EDAD_INSUFICIENTE;
+            }
+            return ResultadoAcceso.ACEPTADO;
+        }
+
+        /**
+         * Verifica si hay un FastPass sin usar para un tiquete en un día que sirva
+         * en la atracción en el momento dado
+         */
+        boolean hayFastPass(int idTiquete, int idAtraccion, int dia, long instante) {
+            return buscarFastPass(idTiquete, idAtraccion, dia, instante, false) != null;
+        }
+
+        /**
+         * Consume un FastPass sin usar de un tiquete en un día que sirva en la
+         * atracción en el momento dado
+         *
+         * @return El FastPass consumido, o null si no había ninguno
+         */
+        FastPass tomarFastPass(int idTiquete, int idAtraccion, int dia, long instante) {
+            return buscarFastPass(idTiquete, idAtraccion, dia, instante, true);
+        }
+
+        private FastPass buscarFastPass(int idTiquete, int idAtraccion, int dia, long instante, boolean consumir) {
+            long llave = llaveFastPass(idTiquete, dia);
+            int i = Arrays.binarySearch(llavesFastPass, llave);
+            if (i < 0) {
+                return null;
+            }
+            // Puede haber varios FastPasses para el mismo tiquete y día
+            while (i > 0 && llavesFastPass[i - 1] == llave) {
+                i--;
+            }
+            for (; i < llavesFastPass.length && llavesFastPass[i] == llave; i++) {
+                if (!sirveEn(i, idAtraccion, instante)) {
+                    continue;
+                }
+                if (consumir ? fastPasses[i].consumir() : !fastPasses[i].isUsado()) {
+                    return fastPasses[i];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Verifica si el FastPass en una posición no tiene ventana de retorno o si
+         * su ventana es en la atracción y contiene el momento
+         */
+        private boolean sirveEn(int posicion, int idAtraccion, long instante) {
+            int atraccion = atraccionesRetorno[posicion];
+            return atraccion == SIN_VENTANA || (atraccion == idAtraccion && instante >= iniciosRetorno[posicion]
+                    && instante < finesRetorno[posicion]);
+        }
+
+        private static long llaveFastPass(int idTiquete, int dia) {
+            return (long) idTiquete << 32 | (dia & 0xFFFFFFFFL);
+        }
+
+        private static String[] separarRestricciones(String restricciones) {
+            if (restricciones == null || restricciones.isEmpty()) {
+                return SIN_CONTRAINDICACIONES;
+            }
+            String[] partes = restricciones.split(",");
+            for (int i = 0; i < partes.length; i++) {
+                partes[i] = partes[i].trim();
+            }
+            return partes;
+        }
+    }
+}
@@ -3,6 +3,11 @@ package modelo.atracciones;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Objects;
+
+import modelo.util.CodecFecha;
+import modelo.util.IntervalosDias;
+import modelo.util.NivelExclusividad;
 
 public abstract class Atraccion {
   
@@ -13,8 +18,9 @@ public abstract class Atraccion {
     protected Date fechaInicio;
     protected Date fechaFin;
     protected String nivelExclusividad;
+    protected int ordinalExclusividad;
     protected int empleadosEncargados;
-    protected List<Date> fechasMantenimiento;
+    protected IntervalosDias diasMantenimiento;
     
     /**
      * Constructor de Atraccion
@@ -35,8 +41,9 @@ public abstract class Atraccion {
         this.fechaInicio = fechaInicio;
         this.fechaFin = fechaFin;
         this.nivelExclusividad = nivelExclusividad;
+        this.ordinalExclusividad = NivelExclusividad.ordinal(nivelExclusividad);
         this.empleadosEncargados = empleadosEncargados;
-        this.fechasMantenimiento = new ArrayList<>();
+        this.diasMantenimiento = new IntervalosDias();
     }
     
     /**
@@ -47,19 +54,19 @@ public abstract class Atraccion {
     public abstract String consultarInformacion();
     
     /**
-     * Programa mantenimiento para la atracción
+     * Programa mantenimiento para la atracción. Se guarda como un intervalo de días
+     * que se fusiona con los mantenimientos ya programados que lo toquen
      * 
      * @param fechaInicio Fecha de inicio del mantenimiento
-     * @param fechaFin Fecha de fin del mantenimiento
+     * @param fechaFin Fecha de fin del mantenimiento (incluida)
+     * @throws NullPointerException Si alguna de las fechas es nula
      */
     public void programarMantenimiento(Date fechaInicio, Date fechaFin) {
-        // En una implementación real, se deberían almacenar rangos de fechas
-        // Por simplicidad, aquí solo se añaden las fechas individuales
-        Date fecha = new Date(fechaInicio.getTime());
-        while (!fecha.after(fechaFin)) {
-            fechasMantenimiento.add(new Date(fecha.getTime()));
-            // Avanzar un día
-            fecha.setTime(fecha.getTime() + 24 * 60 * 60 * 1000);
+        // diaEpoca(null) es SIN_FECHA, que produciría un intervalo desde el mínimo entero
+        int diaInicio = CodecFecha.diaEpoca(Objects.requireNonNull(fechaInicio, "La fecha de inicio no puede ser nula"));
+        int diaFin = CodecFecha.diaEpoca(Objects.requireNonNull(fechaFin, "La fecha de fin no puede ser nula"));
+        if (diaInicio <= diaFin) {
+            diasMantenimiento.agregar(diaInicio, diaFin);
         }
     }
     
@@ -71,10 +78,8 @@ public abstract class Atraccion {
      */
     public boolean estaDisponible(Date fecha) {
         // Si la atracción está en mantenimiento, no está disponible
-        for (Date fechaMantenimiento : fechasMantenimiento) {
-            if (mismodia(fechaMantenimiento, fecha)) {
-                return false;
-            }
+        if (diasMantenimiento.contiene(CodecFecha.diaEpoca(fecha))) {
+            return false;
         }
         
         // Si la atracción es de temporada, verificar si está dentro del rango
@@ -86,22 +91,6 @@ public abstract class Atraccion {
         return true;
     }
     
-    /**
-     * Verifica si dos fechas corresponden al mismo día
-     * 
-     * @param fecha1 Primera fecha
-     * @param fecha2 Segunda fecha
-     * @return true si las fechas corresponden al mismo día
-     */
-    private boolean mismodia(Date fecha1, Date fecha2) {
-        // Simplificación para el ejemplo
-        // En una implementación real, se debería usar Calendar o LocalDate
-        long milisEnDia = 24 * 60 * 60 * 1000;
-        long dia1 = fecha1.getTime() / milisEnDia;
-        long dia2 = fecha2.getTime() / milisEnDia;
-        return dia1 == dia2;
-    }
-    
     /**
      * Obtiene el nombre de la atracción
      * 
@@ -208,6 +197,16 @@ public abstract class Atraccion {
      */
     public void setNivelExclusividad(String nivelExclusividad) {
         this.nivelExclusividad = nivelExclusividad;
+        this.ordinalExclusividad = NivelExclusividad.ordinal(nivelExclusividad);
+    }
+    
+    /**
+     * Obtiene el ordinal del nivel de exclusividad (ver NivelExclusividad)
+     * 
+     * @return El ordinal del nivel
+     */
+    public int getOrdinalExclusividad() {
+        return ordinalExclusividad;
     }
     
     /**
@@ -229,18 +228,29 @@ public abstract class Atraccion {
     }
     
     /**
-     * Obtiene las fechas de mantenimiento
+     * Obtiene las fechas de mantenimiento, una por cada día
      * 
      * @return Lista de fechas de mantenimiento
      */
     public List<Date> getFechasMantenimiento() {
         List<Date> copiaFechas = new ArrayList<>();
-        for (Date fecha : fechasMantenimiento) {
-            copiaFechas.add(new Date(fecha.getTime()));
+        for (int i = 0; i < diasMantenimiento.numeroIntervalos(); i++) {
+            for (int dia = diasMantenimiento.inicio(i); dia <= diasMantenimiento.fin(i); dia++) {
+                copiaFechas.add(CodecFecha.aFecha(dia));
+            }
         }
         return copiaFechas;
     }
     
+    /**
+     * Obtiene los días de mantenimiento como intervalos de días de época
+     * 
+     * @return Copia de los intervalos de mantenimiento
+     */
+    public IntervalosDias getDiasMantenimiento() {
+        return new IntervalosDias(diasMantenimiento);
+    }
+    
     @Override
     public boolean equals(Object obj) {
         if (this == obj) {
@@ -4,6 +4,10 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.function.IntConsumer;
+
+import modelo.util.CodecFecha;
+import modelo.util.ConjuntoDias;
 
 /**
  * Clase que representa un espectáculo en el parque
@@ -19,7 +23,8 @@ public class Espectaculo implements Serializable {
     private String duracion;
     private String horario; // Cambiado a String en lugar de Time
     private int capacidad;
-    private List<Date> funciones;
+    // Días de época con función, ordenados
+    private ConjuntoDias funciones;
     
     /**
      * Constructor de Espectaculo
@@ -43,24 +48,17 @@ public class Espectaculo implements Serializable {
         this.duracion = duracion;
         this.horario = horario;
         this.capacidad = capacidad;
-        this.funciones = new ArrayList<>();
+        this.funciones = new ConjuntoDias();
     }
     
     /**
-     * Agrega una función al espectáculo
+     * Agrega una función al espectáculo. Hay a lo sumo una función por día
      * 
      * @param fechaFuncion Fecha de la función
      */
     public void agregarFuncion(Date fechaFuncion) {
         if (fechaFuncion != null) {
-            // Verificar si la fecha ya existe
-            for (Date fecha : funciones) {
-                if (mismodia(fecha, fechaFuncion)) {
-                    return; // La función ya existe
-                }
-            }
-            
-            funciones.add(new Date(fechaFuncion.getTime()));
+            funciones.agregar(CodecFecha.diaEpoca(fechaFuncion));
         }
     }
     
@@ -71,16 +69,7 @@ public class Espectaculo implements Serializable {
      * @return true si la función fue cancelada, false si no existía
      */
     public boolean cancelarFuncion(Date fechaFuncion) {
-        if (fechaFuncion != null) {
-            // Buscar la función
-            for (int i = 0; i < funciones.size(); i++) {
-                if (mismodia(funciones.get(i), fechaFuncion)) {
-                    funciones.remove(i);
-                    return true;
-                }
-            }
-        }
-        return false;
+        return fechaFuncion != null && funciones.eliminar(CodecFecha.diaEpoca(fechaFuncion));
     }
     
     /**
@@ -100,29 +89,58 @@ public class Espectaculo implements Serializable {
         }
         
         // Verificar si hay una función programada para esa fecha
-        for (Date fechaFuncion : funciones) {
-            if (mismodia(fechaFuncion, fecha)) {
-                return true;
-            }
+        return funciones.contiene(CodecFecha.diaEpoca(fecha));
+    }
+    
+    /**
+     * Obtiene las funciones programadas entre dos fechas, sin recorrer el resto
+     * del calendario
+     * 
+     * @param desde Primera fecha del rango
+     * @param hasta Última fecha del rango (inclusive)
+     * @return Lista con las fechas (inicio del día) de las funciones, en orden
+     */
+    public List<Date> getFuncionesEntre(Date desde, Date hasta) {
+        List<Date> fechas = new ArrayList<>();
+        if (desde != null && hasta != null) {
+            funciones.recorrerEntre(CodecFecha.diaEpoca(desde), CodecFecha.diaEpoca(hasta),
+                    dia -> fechas.add(CodecFecha.aFecha(dia)));
         }
-        
-        return false;
+        return fechas;
+    }
+    
+    /**
+     * Cuenta las funciones programadas entre dos fechas, en O(log n)
+     * 
+     * @param desde Primera fecha del rango
+     * @param hasta Última fecha del rango (inclusive)
+     * @return El número de funciones en el rango
+     */
+    public int contarFuncionesEntre(Date desde, Date hasta) {
+        if (desde == null || hasta == null) {
+            return 0;
+        }
+        return funciones.contarEntre(CodecFecha.diaEpoca(desde), CodecFecha.diaEpoca(hasta));
+    }
+    
+    /**
+     * Recorre en orden los días de época con función de un rango, sin crear fechas
+     * 
+     * @param desde Primer día de época del rango
+     * @param hasta Último día de época del rango (inclusive)
+     * @param consumidor Recibe cada día con función
+     */
+    public void recorrerDiasFunciones(int desde, int hasta, IntConsumer consumidor) {
+        funciones.recorrerEntre(desde, hasta, consumidor);
     }
     
     /**
-     * Verifica si dos fechas corresponden al mismo día
+     * Obtiene el número de funciones programadas
      * 
-     * @param fecha1 Primera fecha
-     * @param fecha2 Segunda fecha
-     * @return true si las fechas corresponden al mismo día
+     * @return El número de funciones
      */
-    private boolean mismodia(Date fecha1, Date fecha2) {
-        // Simplificación para el ejemplo
-        // En una implementación real, se debería usar Calendar o LocalDate
-        long milisEnDia = 24 * 60 * 60 * 1000;
-        long dia1 = fecha1.getTime() / milisEnDia;
-        long dia2 = fecha2.getTime() / milisEnDia;
-        return dia1 == dia2;
+    public int getNumeroFunciones() {
+        return funciones.tamano();
     }
     
     /**
@@ -146,10 +164,10 @@ public class Espectaculo implements Serializable {
             info.append("Disponible desde: ").append(fechaInicio).append(" hasta: ").append(fechaFin).append("\n");
         }
         
-        if (!funciones.isEmpty()) {
+        if (!funciones.estaVacio()) {
             info.append("Próximas funciones:\n");
-            for (Date funcion : funciones) {
-                info.append("- ").append(funcion).append("\n");
+            for (int i = 0; i < funciones.tamano(); i++) {
+                info.append("- ").append(CodecFecha.aFecha(funciones.dia(i))).append("\n");
             }
         }
         
@@ -303,14 +321,14 @@ public class Espectaculo implements Serializable {
     /**
      * Obtiene las funciones programadas
      * 
-     * @return Lista de fechas de funciones
+     * @return Lista con las fechas (inicio del día) de las funciones, en orden
      */
     public List<Date> getFunciones() {
-        List<Date> copiaFunciones = new ArrayList<>();
-        for (Date fecha : funciones) {
-            copiaFunciones.add(new Date(fecha.getTime()));
+        List<Date> fechas = new ArrayList<>(funciones.tamano());
+        for (int i = 0; i < funciones.tamano(); i++) {
+            fechas.add(CodecFecha.aFecha(funciones.dia(i)));
         }
-        return copiaFunciones;
+        return fechas;
     }
     
     @Override
@@ -0,0 +1,269 @@
+package modelo.empleados;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import modelo.util.MapaEnteros;
+import modelo.util.Turno;
+
+/**
+ * Asignaciones de empleados a lugares de trabajo por día y turno, indexadas por
+ * (día de época, ordinal del turno, ID del empleado).
+ *
+ * Cada día guarda un arreglo denso con las asignaciones de cada turno, y cada
+ * turno tiene un MapaEnteros con el ID del empleado como llave, así que asignar,
+ * consultar y liberar son O(1) sin boxing ni objetos Date como llave. Un empleado
+ * tiene a lo sumo una asignación por turno. Los IDs de empleado deben ser únicos
+ * entre todos los tipos de empleado.
+ *
+ * Cada turno mantiene también el índice inverso de lugar a empleados, con
+ * contadores de cajeros y cocineros, que se actualiza al asignar y al liberar;
+ * contar el personal de un lugar en un turno es O(1) y verificar el personal de
+ * todas las atracciones es O(atracciones).
+ *
+ * El lugar es cualquier objeto (atracción, lugar de servicio, zonas...), igual que
+ * en las asignaciones del Administrador, y se compara por identidad. Las consultas
+ * pueden hacerse desde varios hilos mientras nadie asigne ni libere.
+ */
+public class AlmacenAsignaciones {
+    private final MapaEnteros<AsignacionesTurno[]> porDia = new MapaEnteros<>();
+    private int tamano;
+
+    /**
+     * Asigna un empleado a un lugar en un día y turno
+     *
+     * @param dia El día de época
+     * @param turno El ordinal del turno (ver Turno.ordinal)
+     * @param empleado El empleado
+     * @param lugar El lugar de trabajo
+     * @return true si se asignó, false si el empleado ya tenía una asignación en ese turno
+     */
+    public boolean asignar(int dia, int turno, Empleado empleado, Object lugar) {
+        AsignacionesTurno[] turnos = porDia.obtener(dia);
+        if (turnos == null) {
+            turnos = new AsignacionesTurno[Turno.NUMERO_TURNOS];
+            porDia.poner(dia, turnos);
+        }
+        if (turnos[turno] == null) {
+            turnos[turno] = new AsignacionesTurno();
+        }
+        if (!turnos[turno].asignar(empleado, lugar)) {
+            return false;
+        }
+        tamano++;
+        return true;
+    }
+
+    /**
+     * Obtiene el lugar asignado a un empleado en un día y turno
+     *
+     * @param dia El día de época
+     * @param turno El ordinal del turno
+     * @param idEmpleado El ID del empleado
+     * @return El lugar, o null si el empleado no está asignado
+     */
+    public Object lugarAsignado(int dia, int turno, int idEmpleado) {
+        AsignacionesTurno asignaciones = turno(dia, turno);
+        Asignacion asignacion = asignaciones != null ? asignaciones.porEmpleado.obtener(idEmpleado) : null;
+        return asignacion != null ? asignacion.lugar : null;
+    }
+
+    /**
+     * Verifica si un empleado está asignado en un día y turno
+     *
+     * @param dia El día de época
+     * @param turno El ordinal del turno
+     * @param idEmpleado El ID del empleado
+     * @return true si el empleado tiene una asignación
+     */
+    public boolean estaAsignado(int dia, int turno, int idEmpleado) {
+        AsignacionesTurno asignaciones = turno(dia, turno);
+        return asignaciones != null && asignaciones.porEmpleado.contiene(idEmpleado);
+    }
+
+    /**
+     * Libera la asignación de un empleado en un día y turno. Los días que quedan
+     * sin asignaciones se eliminan
+     *
+     * @param dia El día de época
+     * @param turno El ordinal del turno
+     * @param idEmpleado El ID del empleado
+     * @return true si se liberó, false si el empleado no estaba asignado
+     */
+    public boolean liberar(int dia, int turno, int idEmpleado) {
+        AsignacionesTurno[] turnos = porDia.obtener(dia);
+        if (turnos == null || turnos[turno] == null || !turnos[turno].liberar(idEmpleado)) {
+            return false;
+        }
+        tamano--;
+
+        if (turnos[turno].porEmpleado.estaVacio()) {
+            turnos[turno] = null;
+            boolean diaVacio = true;
+            for (AsignacionesTurno asignaciones : turnos) {
+                diaVacio &= asignaciones == null;
+            }
+            if (diaVacio) {
+                porDia.eliminar(dia);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Obtiene los empleados asignados en un día y turno
+     *
+     * @param dia El día de época
+     * @param turno El ordinal del turno
+     * @return Lista con los empleados (sin orden definido)
+     */
+    public List<Empleado> empleados(int dia, int turno) {
+        AsignacionesTurno asignaciones = turno(dia, turno);
+        if (asignaciones == null) {
+            return new ArrayList<>();
+        }
+        List<Empleado> empleados = new ArrayList<>(asignaciones.porEmpleado.tamano());
+        for (Asignacion asignacion : asignaciones.porEmpleado.valores()) {
+            empleados.add(asignacion.empleado);
+        }
+        return empleados;
+    }
+
+    /**
+     * Obtiene los empleados asignados a un lugar en un día y turno, usando el
+     * índice inverso
+     *
+     * @param dia El día de época
+     * @param turno El ordinal del turno
+     * @param lugar El lugar de trabajo
+     * @return Lista con los empleados (sin orden definido)
+     */
+    public List<Empleado> empleadosEn(int dia, int turno, Object lugar) {
+        PersonalLugar personal = personal(dia, turno, lugar);
+        return personal != null ? personal.empleados.valores() : new ArrayList<>();
+    }
+
+    /**
+     * Cuenta los empleados asignados a un lugar en un día y turno, en O(1)
+     *
+     * @param dia El día de época
+     * @param turno El ordinal del turno
+     * @param lugar El lugar de trabajo
+     * @return El número de empleados asignados al lugar
+     */
+    public int contarAsignados(int dia, int turno, Object lugar) {
+        PersonalLugar personal = personal(dia, turno, lugar);
+        return personal != null ? personal.empleados.tamano() : 0;
+    }
+
+    /**
+     * Cuenta los cajeros asignados a un lugar en un día y turno, en O(1)
+     *
+     * @param dia El día de época
+     * @param turno El ordinal del turno
+     * @param lugar El lugar de trabajo
+     * @return El número de cajeros asignados al lugar
+     */
+    public int contarCajeros(int dia, int turno, Object lugar) {
+        PersonalLugar personal = personal(dia, turno, lugar);
+        return personal != null ? personal.cajeros : 0;
+    }
+
+    /**
+     * Cuenta los cocineros asignados a un lugar en un día y turno, en O(1)
+     *
+     * @param dia El día de época
+     * @param turno El ordinal del turno
+     * @param lugar El lugar de trabajo
+     * @return El número de cocineros asignados al lugar
+     */
+    public int contarCocineros(int dia, int turno, Object lugar) {
+        PersonalLugar personal = personal(dia, turno, lugar);
+        return personal != null ? personal.cocineros : 0;
+    }
+
+    /**
+     * Obtiene el número total de asignaciones
+     *
+     * @return El número de asignaciones
+     */
+    public int tamano() {
+        return tamano;
+    }
+
+    private AsignacionesTurno turno(int dia, int turno) {
+        AsignacionesTurno[] turnos = porDia.obtener(dia);
+        return turnos != null ? turnos[turno] : null;
+    }
+
+    private PersonalLugar personal(int dia, int turno, Object lugar) {
+        AsignacionesTurno asignaciones = turno(dia, turno);
+        return asignaciones != null ? asignaciones.porLugar.get(lugar) : null;
+    }
+
+    /**
+     * Asignaciones de un turno, por empleado y por lugar
+     */
+    private static final class AsignacionesTurno {
+        final MapaEnteros<Asignacion> porEmpleado = new MapaEnteros<>();
+        // Índice inverso: personal de cada lugar
+        final Map<Object, PersonalLugar> porLugar = new IdentityHashMap<>();
+
+        boolean asignar(Empleado empleado, Object lugar) {
+            if (porEmpleado.ponerSiAusente(empleado.getId(), new Asignacion(empleado, lugar)) != null) {
+                return false;
+            }
+            porLugar.computeIfAbsent(lugar, l -> new PersonalLugar()).agregar(empleado);
+            return true;
+        }
+
+        boolean liberar(int idEmpleado) {
+            Asignacion asignacion = porEmpleado.eliminar(idEmpleado);
+            if (asignacion == null) {
+                return false;
+            }
+            PersonalLugar personal = porLugar.get(asignacion.lugar);
+            personal.quitar(asignacion.empleado);
+            if (personal.empleados.estaVacio()) {
+                porLugar.remove(asignacion.lugar);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Empleados asignados a un lugar en un turno, con contadores por rol
+     */
+    private static final class PersonalLugar {
+        final MapaEnteros<Empleado> empleados = new MapaEnteros<>();
+        int cajeros;
+        int cocineros;
+
+        void agregar(Empleado empleado) {
+            empleados.poner(empleado.getId(), empleado);
+            cajeros += empleado instanceof Cajero ? 1 : 0;
+            cocineros += empleado instanceof Cocinero ? 1 : 0;
+        }
+
+        void quitar(Empleado empleado) {
+            empleados.eliminar(empleado.getId());
+            cajeros -= empleado instanceof Cajero ? 1 : 0;
+            cocineros -= empleado instanceof Cocinero ? 1 : 0;
+        }
+    }
+
+    /**
+     * Un empleado y el lugar al que está asignado
+     */
+    private static final class Asignacion {
+        final Empleado empleado;
+        final Object lugar;
+
+        Asignacion(Empleado empleado, Object lugar) {
+            this.empleado = empleado;
+            this.lugar = lugar;
+        }
+    }
+}
@@ -2,6 +2,8 @@ package modelo.empleados;
 
 import excepciones.TiqueteException;
 import modelo.lugares.LugarServicio;
+import modelo.lugares.Taquilla;
+import modelo.tiquetes.RegistroCambiosTiquetes;
 import modelo.tiquetes.Tiquete;
 import modelo.usuarios.Cliente;
 
@@ -30,7 +32,8 @@ public class Cajero extends Empleado {
     }
     
     /**
-     * Vende un tiquete a un cliente
+     * Vende un tiquete a un cliente. Si el cajero está asignado a una taquilla con
+     * registro de cambios, la venta se anota en él antes de entregar el tiquete
      * 
      * @param cliente El cliente que compra el tiquete
      * @param tiquete El tiquete a vender
@@ -42,7 +45,12 @@ public class Cajero extends Empleado {
             throw new TiqueteException("El cliente y el tiquete no pueden ser nulos");
         }
         
-        // Aquí podríamos agregar lógica adicional para la venta del tiquete
+        if (lugarAsignado instanceof Taquilla) {
+            RegistroCambiosTiquetes registro = ((Taquilla) lugarAsignado).getRegistroCambios();
+            if (registro != null) {
+                registro.registrarVenta(tiquete);
+            }
+        }
         
         // Registrar el tiquete para el cliente
         return cliente.comprarTiquete(tiquete);
@@ -1,11 +1,9 @@
 package modelo.lugares;
 
 import java.util.Date;
-import java.util.List;
 
 import modelo.empleados.Cajero;
 import modelo.empleados.Cocinero;
-import modelo.empleados.Empleado;
 
 /**
  * Clase que representa un lugar de servicio en el parque
@@ -39,15 +37,7 @@ public class LugarServicio extends LugarTrabajo {
      * @return true si hay un cajero asignado
      */
     public boolean tieneCajeroAsignado(Date fecha, String turno) {
-        List<Empleado> empleados = getEmpleadosAsignados(fecha, turno);
-        
-        for (Empleado empleado : empleados) {
-            if (empleado instanceof Cajero) {
-                return true;
-            }
-        }
-        
-        return false;
+        return contarCajeros(fecha, turno) > 0;
     }
     
     /**
@@ -62,15 +52,7 @@ public class LugarServicio extends LugarTrabajo {
             return true; // Si no requiere cocinero, siempre retorna true
         }
         
-        List<Empleado> empleados = getEmpleadosAsignados(fecha, turno);
-        
-        for (Empleado empleado : empleados) {
-            if (empleado instanceof Cocinero) {
-                return true;
-            }
-        }
-        
-        return false;
+        return contarCocineros(fecha, turno) > 0;
     }
     
     /**
@@ -2,12 +2,16 @@ package modelo.lugares;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
+import modelo.empleados.Cajero;
+import modelo.empleados.Cocinero;
 import modelo.empleados.Empleado;
+import modelo.util.CodecFecha;
+import modelo.util.MapaEnteros;
+import modelo.util.Turno;
 
 /**
  * Clase que representa un lugar de trabajo en el parque
@@ -18,7 +22,8 @@ public class LugarTrabajo implements Serializable {
     protected String id;
     protected String nombre;
     protected String ubicacion;
-    protected Map<Date, Map<String, List<Empleado>>> empleadosAsignados;
+    // Personal de cada turno, indexado por día de época
+    protected MapaEnteros<PersonalTurno[]> empleadosAsignados;
     
     /**
      * Constructor de LugarTrabajo
@@ -31,7 +36,7 @@ public class LugarTrabajo implements Serializable {
         this.id = id;
         this.nombre = nombre;
         this.ubicacion = ubicacion;
-        this.empleadosAsignados = new HashMap<>();
+        this.empleadosAsignados = new MapaEnteros<>();
     }
     
     /**
@@ -46,29 +51,54 @@ public class LugarTrabajo implements Serializable {
     }
     
     /**
-     * Obtiene los empleados asignados a este lugar en una fecha y turno específicos
+     * Obtiene los empleados asignados a este lugar en una fecha y turno específicos.
+     * Las asignaciones se guardan por día, así que cualquier hora de la fecha
+     * consulta el mismo turno
      * 
      * @param fecha La fecha a consultar
      * @param turno El turno a consultar
-     * @return Lista de empleados asignados
+     * @return Vista de solo lectura de los empleados asignados, sin copiarlos;
+     *         refleja las asignaciones posteriores
      */
     public List<Empleado> getEmpleadosAsignados(Date fecha, String turno) {
-        if (fecha == null || turno == null) {
-            return new ArrayList<>();
-        }
-        
-        // Buscar los empleados asignados para la fecha y turno
-        if (!empleadosAsignados.containsKey(fecha)) {
-            return new ArrayList<>();
-        }
-        
-        Map<String, List<Empleado>> asignacionesFecha = empleadosAsignados.get(fecha);
-        
-        if (!asignacionesFecha.containsKey(turno)) {
-            return new ArrayList<>();
-        }
-        
-        return new ArrayList<>(asignacionesFecha.get(turno));
+        PersonalTurno personal = personal(fecha, turno);
+        return personal != null ? personal.vista : Collections.emptyList();
+    }
+    
+    /**
+     * Cuenta los empleados asignados a este lugar en una fecha y turno, en O(1)
+     * 
+     * @param fecha La fecha a consultar
+     * @param turno El turno a consultar
+     * @return El número de empleados asignados
+     */
+    public int contarEmpleadosAsignados(Date fecha, String turno) {
+        PersonalTurno personal = personal(fecha, turno);
+        return personal != null ? personal.empleados.size() : 0;
+    }
+    
+    /**
+     * Cuenta los cajeros asignados a este lugar en una fecha y turno, en O(1)
+     * 
+     * @param fecha La fecha a consultar
+     * @param turno El turno a consultar
+     * @return El número de cajeros asignados
+     */
+    public int contarCajeros(Date fecha, String turno) {
+        PersonalTurno personal = personal(fecha, turno);
+        return personal != null ? personal.cajeros : 0;
+    }
+    
+    /**
+     * Cuenta los cocineros asignados a este lugar en una fecha y turno, en O(1)
+     * 
+     * @param fecha La fecha a consultar
+     * @param turno El turno a consultar
+     * @return El número de cocineros asignados
+     */
+    public int contarCocineros(Date fecha, String turno) {
+        PersonalTurno personal = personal(fecha, turno);
+        return personal != null ? personal.cocineros : 0;
     }
     
     /**
@@ -77,35 +107,39 @@ public class LugarTrabajo implements Serializable {
      * @param empleado El empleado a asignar
      * @param fecha La fecha de la asignación
      * @param turno El turno de la asignación
-     * @return true si la asignación fue exitosa
+     * @return true si la asignación fue exitosa, false si algún parámetro es nulo o el turno no es válido
      */
     public boolean asignarEmpleado(Empleado empleado, Date fecha, String turno) {
-        if (empleado == null || fecha == null || turno == null) {
+        int ordinal = Turno.ordinal(turno);
+        if (empleado == null || fecha == null || ordinal < 0) {
             return false;
         }
         
         // Crear la estructura de asignaciones si no existe
-        if (!empleadosAsignados.containsKey(fecha)) {
-            empleadosAsignados.put(fecha, new HashMap<>());
+        int dia = CodecFecha.diaEpoca(fecha);
+        PersonalTurno[] turnos = empleadosAsignados.obtener(dia);
+        if (turnos == null) {
+            turnos = new PersonalTurno[Turno.NUMERO_TURNOS];
+            empleadosAsignados.poner(dia, turnos);
         }
-        
-        Map<String, List<Empleado>> asignacionesFecha = empleadosAsignados.get(fecha);
-        
-        if (!asignacionesFecha.containsKey(turno)) {
-            asignacionesFecha.put(turno, new ArrayList<>());
-        }
-        
-        List<Empleado> asignacionesTurno = asignacionesFecha.get(turno);
-        
-        // Verificar si el empleado ya está asignado
-        if (asignacionesTurno.contains(empleado)) {
-            return true; // Ya está asignado, consideramos que la operación fue exitosa
+        if (turnos[ordinal] == null) {
+            turnos[ordinal] = new PersonalTurno();
         }
         
-        asignacionesTurno.add(empleado);
+        // Si ya está asignado, consideramos que la operación fue exitosa
+        turnos[ordinal].agregar(empleado);
         return true;
     }
     
+    private PersonalTurno personal(Date fecha, String turno) {
+        int ordinal = Turno.ordinal(turno);
+        if (fecha == null || ordinal < 0) {
+            return null;
+        }
+        PersonalTurno[] turnos = empleadosAsignados.obtener(CodecFecha.diaEpoca(fecha));
+        return turnos != null ? turnos[ordinal] : null;
+    }
+    
     /**
      * Obtiene el identificador del lugar de trabajo
      * 
@@ -180,4 +214,26 @@ public class LugarTrabajo implements Serializable {
     @Override
     public String toString() {
         return "LugarTrabajo [id=" + id + ", nombre=" + nombre + ", ubicacion=" + ubicacion + "]";
-    }}
\ No newline at end of file
+    }
+    
+    /**
+     * Empleados asignados en un turno, con contadores por rol que se actualizan al asignar
+     */
+    protected static final class PersonalTurno implements Serializable {
+        private static final long serialVersionUID = 1L;
+        
+        private final List<Empleado> empleados = new ArrayList<>();
+        private final List<Empleado> vista = Collections.unmodifiableList(empleados);
+        private int cajeros;
+        private int cocineros;
+        
+        private void agregar(Empleado empleado) {
+            if (empleados.contains(empleado)) {
+                return;
+            }
+            empleados.add(empleado);
+            cajeros += empleado instanceof Cajero ? 1 : 0;
+            cocineros += empleado instanceof Cocinero ? 1 : 0;
+        }
+    }
+}
@@ -3,19 +3,32 @@ package modelo.lugares;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import excepciones.TiqueteException;
+import modelo.tiquetes.RegistroCambiosTiquetes;
 import modelo.tiquetes.Tiquete;
 import modelo.usuarios.Cliente;
 
 /**
- * Clase que representa una taquilla en el parque
+ * Clase que representa una taquilla en el parque.
+ *
+ * El inventario de tiquetes está organizado en una cola concurrente por tipo
+ * (nombre del tiquete), así que vender es sacar el primero de la cola de su tipo,
+ * en O(1) y sin candados: varios cajeros pueden vender en la misma taquilla a la
+ * vez y cada tiquete se entrega a un solo cliente.
+ *
+ * Si la taquilla tiene un registro de cambios, cada venta se anota en él antes de
+ * entregar el tiquete; si no se puede anotar, la venta no se hace.
  */
 public class Taquilla extends LugarServicio {
     private static final long serialVersionUID = 1L;
     
     private String metodoPago;
-    private List<Tiquete> tiquetesDisponibles;
+    private final ConcurrentHashMap<String, Queue<Tiquete>> tiquetesPorTipo;
+    private transient volatile RegistroCambiosTiquetes registroCambios;
     
     /**
      * Constructor de Taquilla
@@ -28,7 +41,7 @@ public class Taquilla extends LugarServicio {
     public Taquilla(String id, String nombre, String ubicacion, String metodoPago) {
         super(id, nombre, ubicacion, "Taquilla", false); // Las taquillas no requieren cocinero
         this.metodoPago = metodoPago;
-        this.tiquetesDisponibles = new ArrayList<>();
+        this.tiquetesPorTipo = new ConcurrentHashMap<>();
     }
     
     /**
@@ -44,43 +57,65 @@ public class Taquilla extends LugarServicio {
             throw new TiqueteException("El tipo de tiquete y el cliente no pueden ser nulos");
         }
         
-        // Buscar un tiquete del tipo solicitado
+        // Sacar el primer tiquete sin usar de la cola del tipo; los usados no se pueden vender y se descartan
+        Queue<Tiquete> cola = tiquetesPorTipo.get(tipo);
         Tiquete tiqueteVendido = null;
-        for (Tiquete tiquete : tiquetesDisponibles) {
-            if (tiquete.getNombre().equals(tipo) && !tiquete.isUsado()) {
-                tiqueteVendido = tiquete;
-                break;
-            }
+        if (cola != null) {
+            do {
+                tiqueteVendido = cola.poll();
+            } while (tiqueteVendido != null && tiqueteVendido.isUsado());
         }
         
         if (tiqueteVendido == null) {
             throw new TiqueteException("No hay tiquetes disponibles del tipo solicitado");
         }
         
-        // Registrar la compra
-        if (cliente.comprarTiquete(tiqueteVendido)) {
-            tiquetesDisponibles.remove(tiqueteVendido);
-            return tiqueteVendido;
-        } else {
+        // Anotar la venta y registrar la compra; si algo falla, el tiquete vuelve a estar disponible
+        boolean comprado = false;
+        try {
+            RegistroCambiosTiquetes registro = registroCambios;
+            if (registro != null) {
+                registro.registrarVenta(tiqueteVendido);
+            }
+            comprado = cliente.comprarTiquete(tiqueteVendido);
+        } finally {
+            if (!comprado) {
+                cola.offer(tiqueteVendido);
+            }
+        }
+        
+        if (!comprado) {
             throw new TiqueteException("Error al asignar el tiquete al cliente");
         }
+        return tiqueteVendido;
     }
     
     /**
      * Agrega un tiquete a la lista de tiquetes disponibles
      * 
      * @param tiquete El tiquete a agregar
-     * @return true si el tiquete fue agregado
+     * @return true si el tiquete fue agregado, false si es nulo o no tiene nombre
      */
     public boolean agregarTiquete(Tiquete tiquete) {
-        if (tiquete == null) {
+        if (tiquete == null || tiquete.getNombre() == null) {
             return false;
         }
         
-        tiquetesDisponibles.add(tiquete);
+        tiquetesPorTipo.computeIfAbsent(tiquete.getNombre(), tipo -> new ConcurrentLinkedQueue<>()).offer(tiquete);
         return true;
     }
     
+    /**
+     * Cuenta los tiquetes disponibles de un tipo
+     * 
+     * @param tipo El tipo (nombre) de tiquete
+     * @return El número de tiquetes en la cola del tipo
+     */
+    public int contarDisponibles(String tipo) {
+        Queue<Tiquete> cola = tipo != null ? tiquetesPorTipo.get(tipo) : null;
+        return cola != null ? cola.size() : 0;
+    }
+    
     /**
      * Verifica si la taquilla tiene el personal mínimo necesario
      * 
@@ -112,25 +147,53 @@ public class Taquilla extends LugarServicio {
     }
     
     /**
-     * Obtiene los tiquetes disponibles
+     * Obtiene el registro donde se anotan las ventas
+     * 
+     * @return El registro, o null si las ventas no se anotan
+     */
+    public RegistroCambiosTiquetes getRegistroCambios() {
+        return registroCambios;
+    }
+    
+    /**
+     * Define el registro donde se anotan las ventas antes de entregar los tiquetes
+     * 
+     * @param registroCambios El registro, o null para no anotar las ventas
+     */
+    public void setRegistroCambios(RegistroCambiosTiquetes registroCambios) {
+        this.registroCambios = registroCambios;
+    }
+    
+    /**
+     * Obtiene los tiquetes disponibles, agrupados por tipo
      * 
      * @return Lista de tiquetes disponibles
      */
     public List<Tiquete> getTiquetesDisponibles() {
-        return new ArrayList<>(tiquetesDisponibles);
+        List<Tiquete> disponibles = new ArrayList<>();
+        for (Queue<Tiquete> cola : tiquetesPorTipo.values()) {
+            disponibles.addAll(cola);
+        }
+        return disponibles;
     }
     
     /**
-     * Establece los tiquetes disponibles
+     * Establece los tiquetes disponibles. Reemplaza todo el inventario, así que no
+     * debe llamarse mientras se está vendiendo
      * 
      * @param tiquetesDisponibles Lista de tiquetes disponibles
      */
     public void setTiquetesDisponibles(List<Tiquete> tiquetesDisponibles) {
-        this.tiquetesDisponibles = tiquetesDisponibles != null ? new ArrayList<>(tiquetesDisponibles) : new ArrayList<>();
+        tiquetesPorTipo.clear();
+        if (tiquetesDisponibles != null) {
+            for (Tiquete tiquete : tiquetesDisponibles) {
+                agregarTiquete(tiquete);
+            }
+        }
     }
     
     @Override
     public String toString() {
-        return "Taquilla [nombre=" + nombre + ", ubicacion=" + ubicacion + ", metodoPago=" + metodoPago + ", tiquetes disponibles=" + tiquetesDisponibles.size() + "]";
+        return "Taquilla [nombre=" + nombre + ", ubicacion=" + ubicacion + ", metodoPago=" + metodoPago + ", tiquetes disponibles=" + getTiquetesDisponibles().size() + "]";
     }
 }
\ No newline at end of file
@@ -0,0 +1,214 @@
+package modelo.reservas;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import modelo.atracciones.Atraccion;
+import modelo.tiquetes.FastPass;
+import modelo.util.CodecFecha;
+
+/**
+ * Fila virtual de FastPass de un día: reparte ventanas de retorno por atracción
+ * para que los clientes con FastPass no lleguen todos a la vez.
+ *
+ * El horario del parque se divide en ventanas de la misma duración. El cupo de
+ * FastPass de una atracción en cada ventana es un porcentaje de lo que la
+ * atracción alcanza a atender en ella: su cupo máximo (ver
+ * MotorReservas.capacidad) por el número de ciclos que caben en la ventana. Cada
+ * FastPass recibe la primera ventana con cupo que empiece a partir del momento
+ * pedido.
+ *
+ * Los cupos asignados de cada ventana son contadores de un AtomicIntegerArray que
+ * se incrementan con compare-and-set sin pasar del cupo, así que muchos hilos
+ * pueden asignar a la vez, aun en la misma atracción, sin candados y sin
+ * sobrepasar el cupo. Un mismo FastPass no debe asignarse ni liberarse desde dos
+ * hilos a la vez.
+ */
+public class AsignadorFastPass {
+    private static final long MILIS_MINUTO = 60 * 1000;
+
+    private final int dia;
+    private final long inicioApertura;
+    private final long finCierre;
+    private final int minutosVentana;
+    private final int numeroVentanas;
+    private final int porcentajeFastPass;
+    private final Map<Atraccion, CuposAtraccion> cupos = new ConcurrentHashMap<>();
+
+    /**
+     * Crea la fila virtual de un día
+     *
+     * @param fecha El día
+     * @param minutoApertura Minuto del día en que abre el parque
+     * @param minutoCierre Minuto del día en que cierra el parque
+     * @param minutosVentana Duración de cada ventana de retorno en minutos
+     * @param porcentajeFastPass Porcentaje de la capacidad de cada ventana reservado a FastPass
+     * @throws IllegalArgumentException Si el horario, la ventana o el porcentaje no son válidos
+     */
+    public AsignadorFastPass(Date fecha, int minutoApertura, int minutoCierre, int minutosVentana,
+            int porcentajeFastPass) {
+        if (fecha == null || minutoApertura < 0 || minutoCierre <= minutoApertura || minutosVentana <= 0) {
+            throw new IllegalArgumentException("El horario o la duración de la ventana no son válidos");
+        }
+        if (porcentajeFastPass < 0 || porcentajeFastPass > 100) {
+            throw new IllegalArgumentException("El porcentaje de FastPass debe estar entre 0 y 100");
+        }
+        this.dia = CodecFecha.diaEpoca(fecha);
+        this.inicioApertura = CodecFecha.milisInicioDia(dia) + minutoApertura * MILIS_MINUTO;
+        this.finCierre = CodecFecha.milisInicioDia(dia) + minutoCierre * MILIS_MINUTO;
+        this.minutosVentana = minutosVentana;
+        this.numeroVentanas = (minutoCierre - minutoApertura + minutosVentana - 1) / minutosVentana;
+        this.porcentajeFastPass = porcentajeFastPass;
+    }
+
+    /**
+     * Registra una atracción y calcula su cupo de FastPass por ventana. Una
+     * atracción se registra una sola vez, para no perder los cupos ya asignados
+     *
+     * @param atraccion La atracción, con cupo máximo
+     * @param minutosCiclo Duración de un ciclo de la atracción en minutos
+     * @return El cupo de FastPass por ventana
+     * @throws IllegalArgumentException Si la atracción no tiene cupo definido, el
+     *         ciclo no es positivo o la atracción ya está registrada
+     */
+    public int registrar(Atraccion atraccion, int minutosCiclo) {
+        if (minutosCiclo <= 0) {
+            throw new IllegalArgumentException("La duración del ciclo debe ser positiva");
+        }
+        long capacidadVentana = (long) MotorReservas.capacidad(atraccion) * minutosVentana / minutosCiclo;
+        int cupoVentana = (int) Math.min(Integer.MAX_VALUE, capacidadVentana * porcentajeFastPass / 100);
+        if (cupos.putIfAbsent(atraccion, new CuposAtraccion(cupoVentana, numeroVentanas)) != null) {
+            throw new IllegalArgumentException("La atracción ya está registrada: " + atraccion);
+        }
+        return cupoVentana;
+    }
+
+    /**
+     * Asigna a un FastPass la primera ventana con cupo de una atracción que empiece
+     * a partir de un momento
+     *
+     * @param fastPass El FastPass, válido para el día y sin ventana asignada
+     * @param atraccion La atracción registrada
+     * @param desde Momento a partir del cual el cliente puede volver
+     * @return true si se asignó una ventana, false si no queda cupo o el FastPass no aplica
+     * @throws IllegalArgumentException Si la atracción no está registrada
+     */
+    public boolean asignar(FastPass fastPass, Atraccion atraccion, Date desde) {
+        CuposAtraccion cuposAtraccion = cuposDe(atraccion);
+        if (fastPass == null || desde == null || fastPass.isUsado() || fastPass.tieneVentanaRetorno()
+                || fastPass.getFechaValida() == null || CodecFecha.diaEpoca(fastPass.getFechaValida()) != dia) {
+            return false;
+        }
+
+        // Primera ventana que empieza en desde o después
+        long espera = desde.getTime() - inicioApertura;
+        long milisVentana = minutosVentana * MILIS_MINUTO;
+        int primera = espera <= 0 ? 0 : (int) Math.min(numeroVentanas, (espera + milisVentana - 1) / milisVentana);
+        for (int ventana = primera; ventana < numeroVentanas; ventana++) {
+            if (cuposAtraccion.tomar(ventana)) {
+                long inicio = inicioApertura + ventana * milisVentana;
+                fastPass.asignarVentanaRetorno(atraccion, inicio, Math.min(inicio + milisVentana, finCierre));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Libera la ventana de retorno de un FastPass asignada por esta fila
+     *
+     * @param fastPass El FastPass
+     * @return true si se liberó, false si no tenía una ventana de esta fila
+     */
+    public boolean liberar(FastPass fastPass) {
+        if (fastPass == null || !fastPass.tieneVentanaRetorno()) {
+            return false;
+        }
+        CuposAtraccion cuposAtraccion = cupos.get(fastPass.getAtraccionRetorno());
+        int ventana = ventana(fastPass.getInicioRetorno().getTime());
+        if (cuposAtraccion == null || ventana < 0) {
+            return false;
+        }
+        cuposAtraccion.asignados.decrementAndGet(ventana);
+        fastPass.quitarVentanaRetorno();
+        return true;
+    }
+
+    /**
+     * Obtiene el cupo de FastPass que queda en una ventana
+     *
+     * @param atraccion La atracción registrada
+     * @param ventana Índice de la ventana
+     * @return El cupo libre
+     */
+    public int disponibles(Atraccion atraccion, int ventana) {
+        CuposAtraccion cuposAtraccion = cuposDe(atraccion);
+        return cuposAtraccion.cupoVentana - cuposAtraccion.asignados.get(ventana);
+    }
+
+    /**
+     * Obtiene el número de ventanas del día
+     *
+     * @return El número de ventanas
+     */
+    public int getNumeroVentanas() {
+        return numeroVentanas;
+    }
+
+    /**
+     * Obtiene el inicio de una ventana
+     *
+     * @param ventana Índice de la ventana
+     * @return El inicio de la ventana
+     */
+    public Date getInicioVentana(int ventana) {
+        if (ventana < 0 || ventana >= numeroVentanas) {
+            throw new IndexOutOfBoundsException("Ventana inexistente: " + ventana);
+        }
+        return new Date(inicioApertura + ventana * minutosVentana * MILIS_MINUTO);
+    }
+
+    private CuposAtraccion cuposDe(Atraccion atraccion) {
+        CuposAtraccion cuposAtraccion = atraccion != null ? cupos.get(atraccion) : null;
+        if (cuposAtraccion == null) {
+            throw new IllegalArgumentException("La atracción no está registrada: " + atraccion);
+        }
+        return cuposAtraccion;
+    }
+
+    // Índice de la ventana que empieza en un momento, o -1 si no es el inicio de una ventana del día
+    private int ventana(long inicio) {
+        long milisVentana = minutosVentana * MILIS_MINUTO;
+        long desplazamiento = inicio - inicioApertura;
+        if (desplazamiento < 0 || desplazamiento % milisVentana != 0 || desplazamiento / milisVentana >= numeroVentanas) {
+            return -1;
+        }
+        return (int) (desplazamiento / milisVentana);
+    }
+
+    /**
+     * Cupos de FastPass de una atracción en cada ventana del día
+     */
+    private static final class CuposAtraccion {
+        final int cupoVentana;
+        final AtomicIntegerArray asignados;
+
+        CuposAtraccion(int cupoVentana, int numeroVentanas) {
+            this.cupoVentana = cupoVentana;
+            this.asignados = new AtomicIntegerArray(numeroVentanas);
+        }
+
+        boolean tomar(int ventana) {
+            int actual;
+            do {
+                actual = asignados.get(ventana);
+                if (actual >= cupoVentana) {
+                    return false;
+                }
+            } while (!asignados.compareAndSet(ventana, actual, actual + 1));
+            return true;
+        }
+    }
+}
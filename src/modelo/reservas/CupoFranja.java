@@ -0,0 +1,40 @@
+package modelo.reservas;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cupo de un lugar (atracción o espectáculo) en una franja de tiempo. Las plazas
+ * ocupadas son un contador atómico; la cola de retenciones está protegida por el
+ * candado de la franja en MotorReservas.
+ */
+final class CupoFranja {
+    final int capacidad;
+    final AtomicInteger ocupados = new AtomicInteger();
+    // Retenciones en orden de llegada, que es el orden de vencimiento
+    final ArrayDeque<Reserva> retenidas = new ArrayDeque<>();
+
+    CupoFranja(int capacidad) {
+        this.capacidad = capacidad;
+    }
+
+    /**
+     * Ocupa plazas si caben, sin candados
+     *
+     * @return true si se ocuparon
+     */
+    boolean tomar(int cantidad) {
+        int actual;
+        do {
+            actual = ocupados.get();
+            if (actual > capacidad - cantidad) {
+                return false;
+            }
+        } while (!ocupados.compareAndSet(actual, actual + cantidad));
+        return true;
+    }
+
+    void liberar(int cantidad) {
+        ocupados.addAndGet(-cantidad);
+    }
+}
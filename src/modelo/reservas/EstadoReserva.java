@@ -0,0 +1,36 @@
+package modelo.reservas;
+
+/**
+ * Estado de una reserva de cupo: se retiene al pedirla y luego se confirma,
+ * vence o se cancela
+ */
+public enum EstadoReserva {
+    RETENIDA("Cupo retenido a la espera de confirmación"),
+    CONFIRMADA("Reserva confirmada"),
+    EXPIRADA("La retención venció sin confirmarse"),
+    CANCELADA("Reserva cancelada");
+
+    private final String descripcion;
+
+    EstadoReserva(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    /**
+     * Verifica si la reserva ocupa cupo
+     *
+     * @return true si la reserva está retenida o confirmada
+     */
+    public boolean ocupaCupo() {
+        return this == RETENIDA || this == CONFIRMADA;
+    }
+
+    /**
+     * Obtiene la descripción del estado
+     *
+     * @return La descripción
+     */
+    public String getDescripcion() {
+        return descripcion;
+    }
+}
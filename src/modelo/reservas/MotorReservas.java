@@ -0,0 +1,303 @@
+package modelo.reservas;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import modelo.atracciones.AtraccionCultural;
+import modelo.atracciones.AtraccionMecanica;
+import modelo.atracciones.Espectaculo;
+
+/**
+ * Motor de reservas de cupo por (lugar, franja). El lugar es un espectáculo o una
+ * atracción con cupo máximo, y la franja es cualquier entero que identifique una
+ * función o un ciclo: por ejemplo, el día de época de la función de un
+ * espectáculo o el minuto de época de la salida de una atracción.
+ *
+ * Una reserva se retiene primero y ocupa sus plazas hasta que se confirma, se
+ * cancela o vence su retención. La capacidad de cada franja es la del lugar
+ * (Espectaculo.getCapacidad o el cupo máximo de la atracción) cuando se abre la
+ * franja con su primera reserva.
+ *
+ * Las plazas ocupadas de cada franja son un contador atómico que se incrementa con
+ * compare-and-set sin pasar de la capacidad, así que nunca se sobrevende y tomar
+ * plazas en una franja con cupo no toma candados. Una franja llena toma su
+ * candado para buscar retenciones vencidas antes de rechazar. Los cambios de
+ * estado de las reservas (registrar la retención, confirmar, cancelar, vencer) se
+ * hacen con el candado de la franja, tomado de un arreglo fijo de candados según
+ * el hash de la llave: las reservas de franjas distintas casi nunca esperan por
+ * el mismo candado.
+ *
+ * Las retenciones vencidas se liberan al confirmar o cancelar otra reserva de la
+ * franja, cuando una franja está llena y se pide una retención nueva, o al llamar
+ * a liberarVencidas. Las franjas pasadas se descartan con descartarAntesDe.
+ */
+public class MotorReservas {
+    private static final int CANDADOS_POR_PROCESADOR = 4;
+
+    private final long duracionRetencion;
+    private final LongSupplier reloj;
+    private final Map<Franja, CupoFranja> cupos = new ConcurrentHashMap<>();
+    private final ReentrantLock[] candados;
+    private final AtomicLong ids = new AtomicLong();
+
+    /**
+     * Crea un motor que usa el reloj del sistema
+     *
+     * @param duracionRetencion Milisegundos que se retiene el cupo antes de confirmar
+     */
+    public MotorReservas(long duracionRetencion) {
+        this(duracionRetencion, System::currentTimeMillis);
+    }
+
+    /**
+     * Crea un motor con un reloj dado
+     *
+     * @param duracionRetencion Milisegundos que se retiene el cupo antes de confirmar
+     * @param reloj Fuente del tiempo actual en milisegundos
+     */
+    public MotorReservas(long duracionRetencion, LongSupplier reloj) {
+        if (duracionRetencion <= 0) {
+            throw new IllegalArgumentException("La duración de la retención debe ser positiva");
+        }
+        this.duracionRetencion = duracionRetencion;
+        this.reloj = Objects.requireNonNull(reloj);
+
+        // Potencia de dos para elegir el candado con una máscara
+        int numeroCandados = Integer.highestOneBit(
+                Runtime.getRuntime().availableProcessors() * CANDADOS_POR_PROCESADOR - 1) << 1;
+        this.candados = new ReentrantLock[numeroCandados];
+        for (int i = 0; i < numeroCandados; i++) {
+            candados[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Retiene plazas en una franja si hay cupo
+     *
+     * @param lugar El espectáculo o la atracción
+     * @param franja La franja
+     * @param cantidad Número de plazas
+     * @return La reserva retenida, o null si no hay cupo suficiente
+     * @throws IllegalArgumentException Si el lugar no tiene cupo definido o la cantidad no es positiva
+     */
+    public Reserva retener(Object lugar, long franja, int cantidad) {
+        if (cantidad <= 0) {
+            throw new IllegalArgumentException("La cantidad de plazas debe ser positiva");
+        }
+        Franja llave = new Franja(lugar, franja);
+        CupoFranja cupo = cupos.get(llave);
+        if (cupo == null) {
+            cupo = cupos.computeIfAbsent(llave, l -> new CupoFranja(capacidad(lugar)));
+        }
+
+        long ahora = reloj.getAsLong();
+        if (!cupo.tomar(cantidad)) {
+            // Solo si está llena se buscan retenciones vencidas que liberen cupo
+            ReentrantLock candado = candado(llave);
+            candado.lock();
+            try {
+                if (liberarVencidas(cupo, ahora) == 0) {
+                    return null;
+                }
+            } finally {
+                candado.unlock();
+            }
+            if (!cupo.tomar(cantidad)) {
+                return null;
+            }
+        }
+
+        Reserva reserva = new Reserva(ids.incrementAndGet(), lugar, franja, cantidad, ahora + duracionRetencion,
+                cupo);
+        ReentrantLock candado = candado(llave);
+        candado.lock();
+        try {
+            cupo.retenidas.addLast(reserva);
+        } finally {
+            candado.unlock();
+        }
+        return reserva;
+    }
+
+    /**
+     * Confirma una reserva retenida antes de que venza
+     *
+     * @param reserva La reserva
+     * @return true si quedó confirmada, false si ya había vencido o estaba cancelada
+     */
+    public boolean confirmar(Reserva reserva) {
+        ReentrantLock candado = candado(new Franja(reserva.getLugar(), reserva.getFranja()));
+        candado.lock();
+        try {
+            long ahora = reloj.getAsLong();
+            if (reserva.getEstado() == EstadoReserva.RETENIDA && reserva.getVencimiento() <= ahora) {
+                vencer(reserva);
+            }
+            if (reserva.getEstado() == EstadoReserva.RETENIDA) {
+                reserva.setEstado(EstadoReserva.CONFIRMADA);
+            }
+            liberarVencidas(reserva.cupo, ahora);
+            return reserva.getEstado() == EstadoReserva.CONFIRMADA;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Cancela una reserva retenida o confirmada y libera sus plazas
+     *
+     * @param reserva La reserva
+     * @return true si se canceló, false si ya no ocupaba cupo
+     */
+    public boolean cancelar(Reserva reserva) {
+        ReentrantLock candado = candado(new Franja(reserva.getLugar(), reserva.getFranja()));
+        candado.lock();
+        try {
+            if (!reserva.getEstado().ocupaCupo()) {
+                return false;
+            }
+            reserva.setEstado(EstadoReserva.CANCELADA);
+            reserva.cupo.liberar(reserva.getCantidad());
+            liberarVencidas(reserva.cupo, reloj.getAsLong());
+            return true;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Libera las retenciones vencidas de todas las franjas
+     *
+     * @return El número de retenciones que vencieron
+     */
+    public int liberarVencidas() {
+        long ahora = reloj.getAsLong();
+        int vencidas = 0;
+        for (Map.Entry<Franja, CupoFranja> entrada : cupos.entrySet()) {
+            ReentrantLock candado = candado(entrada.getKey());
+            candado.lock();
+            try {
+                vencidas += liberarVencidas(entrada.getValue(), ahora);
+            } finally {
+                candado.unlock();
+            }
+        }
+        return vencidas;
+    }
+
+    /**
+     * Descarta los cupos de las franjas anteriores a una dada, de todos los
+     * lugares. Las reservas de esas franjas se pueden seguir confirmando o
+     * cancelando, pero sus plazas ya no se cuentan en el motor
+     *
+     * @param franja La primera franja que se conserva
+     */
+    public void descartarAntesDe(long franja) {
+        cupos.keySet().removeIf(llave -> llave.franja < franja);
+    }
+
+    /**
+     * Obtiene las plazas libres de una franja
+     *
+     * @param lugar El espectáculo o la atracción
+     * @param franja La franja
+     * @return Las plazas libres (las retenciones vencidas aún no liberadas cuentan como ocupadas)
+     */
+    public int disponibles(Object lugar, long franja) {
+        CupoFranja cupo = cupos.get(new Franja(lugar, franja));
+        return cupo != null ? cupo.capacidad - cupo.ocupados.get() : capacidad(lugar);
+    }
+
+    /**
+     * Obtiene las plazas ocupadas (retenidas o confirmadas) de una franja
+     *
+     * @param lugar El espectáculo o la atracción
+     * @param franja La franja
+     * @return Las plazas ocupadas
+     */
+    public int ocupados(Object lugar, long franja) {
+        CupoFranja cupo = cupos.get(new Franja(lugar, franja));
+        return cupo != null ? cupo.ocupados.get() : 0;
+    }
+
+    /**
+     * Obtiene la capacidad de un lugar por franja
+     *
+     * @param lugar El espectáculo o la atracción
+     * @return La capacidad
+     * @throws IllegalArgumentException Si el lugar no tiene cupo definido
+     */
+    public static int capacidad(Object lugar) {
+        if (lugar instanceof Espectaculo) {
+            return ((Espectaculo) lugar).getCapacidad();
+        }
+        if (lugar instanceof AtraccionMecanica) {
+            return ((AtraccionMecanica) lugar).getCupoMaximo();
+        }
+        if (lugar instanceof AtraccionCultural) {
+            return ((AtraccionCultural) lugar).getCupoMaximo();
+        }
+        throw new IllegalArgumentException("El lugar no tiene cupo definido: " + lugar);
+    }
+
+    // Saca de la cola las reservas que ya no están retenidas y vence las retenciones
+    // vencidas, desde el inicio de la cola. Debe llamarse con el candado de la franja
+    private int liberarVencidas(CupoFranja cupo, long ahora) {
+        int vencidas = 0;
+        Reserva primera;
+        while ((primera = cupo.retenidas.peekFirst()) != null
+                && (primera.getEstado() != EstadoReserva.RETENIDA || primera.getVencimiento() <= ahora)) {
+            cupo.retenidas.pollFirst();
+            if (primera.getEstado() == EstadoReserva.RETENIDA) {
+                vencer(primera);
+                vencidas++;
+            }
+        }
+        return vencidas;
+    }
+
+    // Debe llamarse con el candado de la franja
+    private void vencer(Reserva reserva) {
+        reserva.setEstado(EstadoReserva.EXPIRADA);
+        reserva.cupo.liberar(reserva.getCantidad());
+    }
+
+    private ReentrantLock candado(Franja llave) {
+        int hash = llave.hashCode();
+        return candados[(hash ^ (hash >>> 16)) & (candados.length - 1)];
+    }
+
+    /**
+     * Llave de una franja de un lugar
+     */
+    private static final class Franja {
+        final Object lugar;
+        final long franja;
+
+        Franja(Object lugar, long franja) {
+            this.lugar = Objects.requireNonNull(lugar, "El lugar no puede ser nulo");
+            this.franja = franja;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Franja)) {
+                return false;
+            }
+            Franja otra = (Franja) obj;
+            return franja == otra.franja && lugar.equals(otra.lugar);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * lugar.hashCode() + Long.hashCode(franja);
+        }
+    }
+}
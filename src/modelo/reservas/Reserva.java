@@ -0,0 +1,89 @@
+package modelo.reservas;
+
+/**
+ * Plazas reservadas en un lugar (atracción o espectáculo) para una franja de
+ * tiempo. El estado solo cambia dentro de MotorReservas.
+ */
+public class Reserva {
+    private final long id;
+    private final Object lugar;
+    private final long franja;
+    private final int cantidad;
+    private final long vencimiento;
+    final CupoFranja cupo;
+    private volatile EstadoReserva estado;
+
+    Reserva(long id, Object lugar, long franja, int cantidad, long vencimiento, CupoFranja cupo) {
+        this.id = id;
+        this.lugar = lugar;
+        this.franja = franja;
+        this.cantidad = cantidad;
+        this.vencimiento = vencimiento;
+        this.cupo = cupo;
+        this.estado = EstadoReserva.RETENIDA;
+    }
+
+    /**
+     * Obtiene el identificador de la reserva
+     *
+     * @return El identificador
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Obtiene el lugar reservado
+     *
+     * @return La atracción o el espectáculo
+     */
+    public Object getLugar() {
+        return lugar;
+    }
+
+    /**
+     * Obtiene la franja reservada
+     *
+     * @return La franja
+     */
+    public long getFranja() {
+        return franja;
+    }
+
+    /**
+     * Obtiene el número de plazas reservadas
+     *
+     * @return El número de plazas
+     */
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    /**
+     * Obtiene el momento en que vence la retención si no se confirma
+     *
+     * @return El vencimiento en milisegundos
+     */
+    public long getVencimiento() {
+        return vencimiento;
+    }
+
+    /**
+     * Obtiene el estado de la reserva
+     *
+     * @return El estado
+     */
+    public EstadoReserva getEstado() {
+        return estado;
+    }
+
+    void setEstado(EstadoReserva estado) {
+        this.estado = estado;
+    }
+
+    @Override
+    public String toString() {
+        return "Reserva [id=" + id + ", lugar=" + lugar + ", franja=" + franja + ", cantidad=" + cantidad
+                + ", estado=" + estado + "]";
+    }
+}
@@ -1,17 +1,41 @@
 package modelo.tiquetes;
 
 import java.io.Serializable;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.Date;
 
+import modelo.atracciones.Atraccion;
+
 /**
- * Clase que representa un FastPass para saltarse las filas
+ * Clase que representa un FastPass para saltarse las filas.
+ *
+ * Igual que en Tiquete, la marca de uso se consume con compare-and-set para que
+ * un FastPass no se use dos veces en torniquetes concurrentes.
+ *
+ * Un FastPass puede tener además una ventana de retorno en una atracción (ver
+ * AsignadorFastPass); en ese caso solo es válido dentro de la ventana y en esa
+ * atracción (ver esValido(Date, Atraccion)).
  */
 public class FastPass implements Serializable {
     private static final long serialVersionUID = 1L;
     
+    private static final VarHandle USADO;
+    
+    static {
+        try {
+            USADO = MethodHandles.lookup().findVarHandle(FastPass.class, "usado", boolean.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    
     private Tiquete tiqueteAsociado;
     private Date fechaValida;
-    private boolean usado;
+    private volatile boolean usado;
+    private Atraccion atraccionRetorno;
+    private long inicioRetorno;
+    private long finRetorno;
     
     /**
      * Constructor de FastPass
@@ -26,7 +50,8 @@ public class FastPass implements Serializable {
     }
     
     /**
-     * Verifica si el FastPass es válido en una fecha específica
+     * Verifica si el FastPass es válido en una fecha específica, sin importar la
+     * atracción de su ventana de retorno
      * 
      * @param fecha La fecha a verificar
      * @return true si el FastPass es válido
@@ -40,10 +65,72 @@ public class FastPass implements Serializable {
             return false;
         }
         
+        // Si tiene ventana de retorno, solo es válido dentro de ella
+        if (atraccionRetorno != null) {
+            return estaEnVentanaRetorno(fecha);
+        }
+        
         // Verificar si la fecha corresponde al mismo día
         return mismodia(fecha, fechaValida);
     }
     
+    /**
+     * Verifica si el FastPass es válido para entrar a una atracción en una fecha.
+     * Si tiene ventana de retorno, solo es válido en la atracción de la ventana
+     * 
+     * @param fecha La fecha a verificar
+     * @param atraccion La atracción a la que se quiere entrar
+     * @return true si el FastPass es válido
+     */
+    public boolean esValido(Date fecha, Atraccion atraccion) {
+        if (atraccionRetorno != null && !atraccionRetorno.equals(atraccion)) {
+            return false;
+        }
+        return esValido(fecha);
+    }
+    
+    /**
+     * Asigna una ventana de retorno en una atracción
+     * 
+     * @param atraccion La atracción
+     * @param inicio Inicio de la ventana en milisegundos
+     * @param fin Fin de la ventana en milisegundos (exclusivo)
+     */
+    public void asignarVentanaRetorno(Atraccion atraccion, long inicio, long fin) {
+        this.atraccionRetorno = atraccion;
+        this.inicioRetorno = inicio;
+        this.finRetorno = fin;
+    }
+    
+    /**
+     * Quita la ventana de retorno del FastPass
+     */
+    public void quitarVentanaRetorno() {
+        this.atraccionRetorno = null;
+        this.inicioRetorno = 0;
+        this.finRetorno = 0;
+    }
+    
+    /**
+     * Verifica si el FastPass tiene una ventana de retorno asignada
+     * 
+     * @return true si tiene ventana de retorno
+     */
+    public boolean tieneVentanaRetorno() {
+        return atraccionRetorno != null;
+    }
+    
+    /**
+     * Verifica si un momento está dentro de la ventana de retorno
+     * 
+     * @param momento El momento a verificar
+     * @return true si el FastPass tiene ventana y el momento está dentro de ella
+     */
+    public boolean estaEnVentanaRetorno(Date momento) {
+        return atraccionRetorno != null && momento != null && momento.getTime() >= inicioRetorno
+                && momento.getTime() < finRetorno;
+    }
+    
     /**
      * Marca el FastPass como usado
      */
@@ -51,6 +138,16 @@ public class FastPass implements Serializable {
         this.usado = true;
     }
     
+    /**
+     * Consume el FastPass de forma atómica: si varios hilos lo intentan a la vez,
+     * exactamente uno lo logra
+     * 
+     * @return true si este llamado consumió el FastPass, false si ya estaba usado
+     */
+    public boolean consumir() {
+        return !usado && USADO.compareAndSet(this, false, true);
+    }
+    
     /**
      * Verifica si dos fechas corresponden al mismo día
      * 
@@ -103,6 +200,33 @@ public class FastPass implements Serializable {
         this.fechaValida = fechaValida != null ? new Date(fechaValida.getTime()) : null;
     }
     
+    /**
+     * Obtiene la atracción de la ventana de retorno
+     * 
+     * @return La atracción, o null si no tiene ventana
+     */
+    public Atraccion getAtraccionRetorno() {
+        return atraccionRetorno;
+    }
+    
+    /**
+     * Obtiene el inicio de la ventana de retorno
+     * 
+     * @return El inicio, o null si no tiene ventana
+     */
+    public Date getInicioRetorno() {
+        return atraccionRetorno != null ? new Date(inicioRetorno) : null;
+    }
+    
+    /**
+     * Obtiene el fin (exclusivo) de la ventana de retorno
+     * 
+     * @return El fin, o null si no tiene ventana
+     */
+    public Date getFinRetorno() {
+        return atraccionRetorno != null ? new Date(finRetorno) : null;
+    }
+    
     /**
      * Verifica si el FastPass ya fue usado
      * 
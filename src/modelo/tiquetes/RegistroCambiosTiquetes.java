@@ -0,0 +1,52 @@
+package modelo.tiquetes;
+
+import excepciones.TiqueteException;
+
+/**
+ * Destino donde se anotan los cambios de tiquetes antes de aplicarlos: ventas,
+ * usos y descuentos de empleado. La taquilla, el cajero, el validador de acceso y
+ * el administrador lo llaman en cada cambio si se les asigna uno (por ejemplo,
+ * persistencia.BitacoraTiquetes), así los cambios quedan guardados sin reescribir
+ * los archivos de tiquetes.
+ */
+public interface RegistroCambiosTiquetes {
+    /**
+     * Registra la venta de un tiquete
+     *
+     * @param tiquete El tiquete vendido
+     * @throws TiqueteException Si no se pudo registrar
+     */
+    void registrarVenta(Tiquete tiquete) throws TiqueteException;
+
+    /**
+     * Registra la venta de un FastPass
+     *
+     * @param fastPass El FastPass vendido
+     * @throws TiqueteException Si no se pudo registrar
+     */
+    void registrarVentaFastPass(FastPass fastPass) throws TiqueteException;
+
+    /**
+     * Registra que un tiquete fue usado
+     *
+     * @param tiquete El tiquete usado
+     * @throws TiqueteException Si no se pudo registrar
+     */
+    void registrarUso(Tiquete tiquete) throws TiqueteException;
+
+    /**
+     * Registra que a un tiquete se le aplicó el descuento de empleado
+     *
+     * @param tiquete El tiquete con descuento
+     * @throws TiqueteException Si no se pudo registrar
+     */
+    void registrarDescuento(Tiquete tiquete) throws TiqueteException;
+
+    /**
+     * Registra que un FastPass fue usado
+     *
+     * @param fastPass El FastPass usado
+     * @throws TiqueteException Si no se pudo registrar
+     */
+    void registrarUsoFastPass(FastPass fastPass) throws TiqueteException;
+}
@@ -1,25 +1,45 @@
 package modelo.tiquetes;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.Date;
 
 import modelo.atracciones.Atraccion;
+import modelo.util.NivelExclusividad;
 
 /**
- * Clase abstracta que representa un tiquete en el parque
+ * Clase abstracta que representa un tiquete en el parque.
+ *
+ * La marca de uso es volátil y se consume con compare-and-set (ver consumir()),
+ * así que varios torniquetes pueden leer el mismo tiquete a la vez sin un candado
+ * y solo uno de ellos lo consume.
  */
 public abstract class Tiquete implements Serializable {
     private static final long serialVersionUID = 1L;
     
+    private static final VarHandle USADO;
+    
+    static {
+        try {
+            USADO = MethodHandles.lookup().findVarHandle(Tiquete.class, "usado", boolean.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    
     protected int id;
     protected String nombre;
     protected int numTiquetes;
     protected String exclusividad;
+    protected int ordinalExclusividad;
     protected Date fecha;
     protected String estado;
     protected boolean dctoEmpleado;
     protected String portalCompra;
-    protected boolean usado;
+    protected volatile boolean usado;
     
     /**
      * Constructor de Tiquete
@@ -39,6 +59,7 @@ public abstract class Tiquete implements Serializable {
         this.nombre = nombre;
         this.numTiquetes = numTiquetes;
         this.exclusividad = exclusividad;
+        this.ordinalExclusividad = NivelExclusividad.ordinal(exclusividad);
         this.fecha = fecha;
         this.estado = estado;
         this.dctoEmpleado = false; // Por defecto, sin descuento de empleado
@@ -62,6 +83,17 @@ public abstract class Tiquete implements Serializable {
         this.usado = true;
     }
     
+    /**
+     * Consume el tiquete de forma atómica: si varios hilos lo intentan a la vez,
+     * exactamente uno lo logra. Es la operación que deben usar los torniquetes
+     * con los tiquetes de un solo uso
+     * 
+     * @return true si este llamado consumió el tiquete, false si ya estaba usado
+     */
+    public boolean consumir() {
+        return !usado && USADO.compareAndSet(this, false, true);
+    }
+    
     /**
      * Método abstracto para verificar si el tiquete puede acceder a una atracción
      * 
@@ -131,6 +163,16 @@ public abstract class Tiquete implements Serializable {
      */
     public void setExclusividad(String exclusividad) {
         this.exclusividad = exclusividad;
+        this.ordinalExclusividad = NivelExclusividad.ordinal(exclusividad);
+    }
+    
+    /**
+     * Obtiene el ordinal del nivel de exclusividad (ver NivelExclusividad)
+     * 
+     * @return El ordinal del nivel
+     */
+    public int getOrdinalExclusividad() {
+        return ordinalExclusividad;
     }
     
     /**
@@ -235,4 +277,12 @@ public abstract class Tiquete implements Serializable {
     public String toString() {
         return "Tiquete [id=" + id + ", nombre=" + nombre + ", exclusividad=" + exclusividad + ", estado=" + estado + ", usado=" + usado + "]";
     }
+    
+    /**
+     * Recalcula el ordinal de exclusividad de los tiquetes serializados sin él
+     */
+    private void readObject(ObjectInputStream entrada) throws IOException, ClassNotFoundException {
+        entrada.defaultReadObject();
+        this.ordinalExclusividad = NivelExclusividad.ordinal(exclusividad);
+    }
 }
\ No newline at end of file
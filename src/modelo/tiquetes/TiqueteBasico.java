@@ -39,7 +39,7 @@ public class TiqueteBasico extends Tiquete {
         }
         
         // Verificar si el nivel de exclusividad del tiquete permite acceder a la atracción
-        return NivelExclusividad.tieneAcceso(exclusividad, atraccion.getNivelExclusividad());
+        return NivelExclusividad.tieneAcceso(ordinalExclusividad, atraccion.getOrdinalExclusividad());
     }
     
     /**
@@ -1,23 +1,30 @@
 package modelo.usuarios;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
 
 import excepciones.AtraccionException;
 import excepciones.EmpleadoException;
+import excepciones.TiqueteException;
+import modelo.acceso.RegistroOcupacion;
 import modelo.atracciones.Atraccion;
 import modelo.atracciones.AtraccionCultural;
 import modelo.atracciones.AtraccionMecanica;
 import modelo.atracciones.Espectaculo;
 import modelo.empleados.Cajero;
 import modelo.empleados.Cocinero;
+import modelo.empleados.AlmacenAsignaciones;
 import modelo.empleados.Empleado;
 import modelo.lugares.Cafeteria;
 import modelo.lugares.LugarServicio;
+import modelo.tiquetes.RegistroCambiosTiquetes;
 import modelo.tiquetes.Tiquete;
+import modelo.util.CodecFecha;
 import modelo.util.Turno;
 
 /**
@@ -31,7 +38,9 @@ public class Administrador extends Usuario {
     private List<Atraccion> atracciones;
     private List<Empleado> empleados;
     private List<Espectaculo> espectaculos;
-    private Map<Date, Map<String, Map<Empleado, Object>>> asignacionesEmpleados;
+    private AlmacenAsignaciones asignacionesEmpleados;
+    private RegistroOcupacion registroOcupacion;
+    private RegistroCambiosTiquetes registroCambios;
     
     /**
      * Constructor del Administrador
@@ -48,7 +57,8 @@ public class Administrador extends Usuario {
         this.atracciones = new ArrayList<>();
         this.empleados = new ArrayList<>();
         this.espectaculos = new ArrayList<>();
-        this.asignacionesEmpleados = new HashMap<>();
+        this.asignacionesEmpleados = new AlmacenAsignaciones();
+        this.registroOcupacion = new RegistroOcupacion();
     }
     
     /**
@@ -196,26 +206,10 @@ public class Administrador extends Usuario {
             throw new EmpleadoException("La atracción no existe en el sistema");
         }
         
-        // Crear la estructura de asignaciones si no existe
-        if (!asignacionesEmpleados.containsKey(fecha)) {
-            asignacionesEmpleados.put(fecha, new HashMap<>());
-        }
-        
-        Map<String, Map<Empleado, Object>> asignacionesFecha = asignacionesEmpleados.get(fecha);
-        
-        if (!asignacionesFecha.containsKey(turno)) {
-            asignacionesFecha.put(turno, new HashMap<>());
-        }
-        
-        Map<Empleado, Object> asignacionesTurno = asignacionesFecha.get(turno);
-        
-        // Verificar si el empleado ya está asignado en ese turno
-        if (asignacionesTurno.containsKey(empleado)) {
+        // Asignar el empleado a la atracción, si no está asignado ya en ese turno
+        if (!asignacionesEmpleados.asignar(CodecFecha.diaEpoca(fecha), Turno.ordinal(turno), empleado, atraccion)) {
             throw new EmpleadoException("El empleado ya está asignado en ese turno");
         }
-        
-        // Asignar el empleado a la atracción
-        asignacionesTurno.put(empleado, atraccion);
     }
     
     /**
@@ -247,26 +241,10 @@ public class Administrador extends Usuario {
             throw new EmpleadoException("El cocinero no está capacitado");
         }
         
-        // Crear la estructura de asignaciones si no existe
-        if (!asignacionesEmpleados.containsKey(fecha)) {
-            asignacionesEmpleados.put(fecha, new HashMap<>());
-        }
-        
-        Map<String, Map<Empleado, Object>> asignacionesFecha = asignacionesEmpleados.get(fecha);
-        
-        if (!asignacionesFecha.containsKey(turno)) {
-            asignacionesFecha.put(turno, new HashMap<>());
-        }
-        
-        Map<Empleado, Object> asignacionesTurno = asignacionesFecha.get(turno);
-        
-        // Verificar si el cocinero ya está asignado en ese turno
-        if (asignacionesTurno.containsKey(cocinero)) {
+        // Asignar el cocinero a la cafetería, si no está asignado ya en ese turno
+        if (!asignacionesEmpleados.asignar(CodecFecha.diaEpoca(fecha), Turno.ordinal(turno), cocinero, cafeteria)) {
             throw new EmpleadoException("El cocinero ya está asignado en ese turno");
         }
-        
-        // Asignar el cocinero a la cafetería
-        asignacionesTurno.put(cocinero, cafeteria);
     }
     
     /**
@@ -293,26 +271,10 @@ public class Administrador extends Usuario {
             throw new EmpleadoException("El cajero no existe en el sistema");
         }
         
-        // Crear la estructura de asignaciones si no existe
-        if (!asignacionesEmpleados.containsKey(fecha)) {
-            asignacionesEmpleados.put(fecha, new HashMap<>());
-        }
-        
-        Map<String, Map<Empleado, Object>> asignacionesFecha = asignacionesEmpleados.get(fecha);
-        
-        if (!asignacionesFecha.containsKey(turno)) {
-            asignacionesFecha.put(turno, new HashMap<>());
-        }
-        
-        Map<Empleado, Object> asignacionesTurno = asignacionesFecha.get(turno);
-        
-        // Verificar si el cajero ya está asignado en ese turno
-        if (asignacionesTurno.containsKey(cajero)) {
+        // Asignar el cajero al lugar de servicio, si no está asignado ya en ese turno
+        if (!asignacionesEmpleados.asignar(CodecFecha.diaEpoca(fecha), Turno.ordinal(turno), cajero, lugarServicio)) {
             throw new EmpleadoException("El cajero ya está asignado en ese turno");
         }
-        
-        // Asignar el cajero al lugar de servicio
-        asignacionesTurno.put(cajero, lugarServicio);
     }
     
     /**
@@ -339,26 +301,10 @@ public class Administrador extends Usuario {
             throw new EmpleadoException("El empleado no existe en el sistema");
         }
         
-        // Crear la estructura de asignaciones si no existe
-        if (!asignacionesEmpleados.containsKey(fecha)) {
-            asignacionesEmpleados.put(fecha, new HashMap<>());
-        }
-        
-        Map<String, Map<Empleado, Object>> asignacionesFecha = asignacionesEmpleados.get(fecha);
-        
-        if (!asignacionesFecha.containsKey(turno)) {
-            asignacionesFecha.put(turno, new HashMap<>());
-        }
-        
-        Map<Empleado, Object> asignacionesTurno = asignacionesFecha.get(turno);
-        
-        // Verificar si el empleado ya está asignado en ese turno
-        if (asignacionesTurno.containsKey(empleado)) {
+        // Asignar el empleado al servicio general, si no está asignado ya en ese turno
+        if (!asignacionesEmpleados.asignar(CodecFecha.diaEpoca(fecha), Turno.ordinal(turno), empleado, zonas)) {
             throw new EmpleadoException("El empleado ya está asignado en ese turno");
         }
-        
-        // Asignar el empleado al servicio general
-        asignacionesTurno.put(empleado, zonas);
     }
     
     /**
@@ -374,29 +320,125 @@ public class Administrador extends Usuario {
             return false;
         }
         
-        // Si no hay asignaciones para esa fecha o ese turno, no hay personal suficiente
-        if (!asignacionesEmpleados.containsKey(fecha)) {
-            return false;
+        // Contar cuántos empleados están asignados a esta atracción
+        int empleadosAsignados = asignacionesEmpleados.contarAsignados(CodecFecha.diaEpoca(fecha),
+                Turno.ordinal(turno), atraccion);
+        
+        // Verificar si el número de empleados asignados es suficiente
+        return empleadosAsignados >= atraccion.getEmpleadosEncargados();
+    }
+    
+    /**
+     * Obtiene las atracciones del parque que no tienen el personal mínimo en un turno.
+     * Cada verificación usa el contador de personal del turno, así que la consulta
+     * es O(atracciones)
+     * 
+     * @param fecha La fecha a verificar
+     * @param turno El turno a verificar
+     * @return Lista de atracciones sin el personal mínimo
+     */
+    public List<Atraccion> obtenerAtraccionesSinPersonalMinimo(Date fecha, String turno) {
+        List<Atraccion> sinPersonal = new ArrayList<>();
+        if (fecha == null || !Turno.esValido(turno)) {
+            return sinPersonal;
         }
         
-        Map<String, Map<Empleado, Object>> asignacionesFecha = asignacionesEmpleados.get(fecha);
+        int dia = CodecFecha.diaEpoca(fecha);
+        int ordinal = Turno.ordinal(turno);
+        for (Atraccion atraccion : atracciones) {
+            if (asignacionesEmpleados.contarAsignados(dia, ordinal, atraccion) < atraccion.getEmpleadosEncargados()) {
+                sinPersonal.add(atraccion);
+            }
+        }
+        return sinPersonal;
+    }
+    
+    /**
+     * Valida el personal de todas las atracciones del parque y de los lugares de
+     * servicio dados en cada día y turno de un rango de fechas. Una atracción
+     * necesita sus empleados encargados; un lugar de servicio necesita un cajero y,
+     * si lo requiere, un cocinero. Se revisan las asignaciones hechas con este
+     * administrador, usando los contadores por rol de cada turno, y los días se
+     * revisan en paralelo
+     * 
+     * @param lugaresServicio Los lugares de servicio a revisar (puede ser null)
+     * @param fechaInicio La primera fecha del rango
+     * @param fechaFin La última fecha del rango (inclusive)
+     * @return Reporte con los lugares sin el personal mínimo, ordenado por día, turno y lugar
+     * @throws EmpleadoException Si alguna de las fechas es nula
+     */
+    public ReportePersonal validarPersonal(Collection<? extends LugarServicio> lugaresServicio, Date fechaInicio,
+            Date fechaFin) throws EmpleadoException {
+        if (fechaInicio == null || fechaFin == null) {
+            throw new EmpleadoException("Las fechas no pueden ser nulas");
+        }
         
-        if (!asignacionesFecha.containsKey(turno)) {
-            return false;
+        List<Object> lugares = new ArrayList<>(atracciones);
+        int numeroAtracciones = lugares.size();
+        if (lugaresServicio != null) {
+            lugares.addAll(lugaresServicio);
         }
+        int diaInicio = CodecFecha.diaEpoca(fechaInicio);
+        int diaFin = CodecFecha.diaEpoca(fechaFin);
         
-        Map<Empleado, Object> asignacionesTurno = asignacionesFecha.get(turno);
+        // Cada día se revisa por separado y los reportes parciales se unen en orden
+        List<ReportePersonal> parciales = IntStream.rangeClosed(diaInicio, diaFin).parallel()
+                .mapToObj(dia -> validarPersonalDia(lugares, numeroAtracciones, dia))
+                .toList();
         
-        // Contar cuántos empleados están asignados a esta atracción
-        int empleadosAsignados = 0;
-        for (Map.Entry<Empleado, Object> entry : asignacionesTurno.entrySet()) {
-            if (entry.getValue() == atraccion) {
-                empleadosAsignados++;
+        ReportePersonal reporte = new ReportePersonal(lugares, diaInicio, diaFin);
+        for (ReportePersonal parcial : parciales) {
+            reporte.agregarTodo(parcial);
+        }
+        return reporte;
+    }
+    
+    private ReportePersonal validarPersonalDia(List<Object> lugares, int numeroAtracciones, int dia) {
+        ReportePersonal reporte = new ReportePersonal(lugares, dia, dia);
+        for (int turno = 0; turno < Turno.NUMERO_TURNOS; turno++) {
+            for (int i = 0; i < lugares.size(); i++) {
+                Object lugar = lugares.get(i);
+                if (i < numeroAtracciones) {
+                    int faltan = ((Atraccion) lugar).getEmpleadosEncargados()
+                            - asignacionesEmpleados.contarAsignados(dia, turno, lugar);
+                    if (faltan > 0) {
+                        reporte.agregar(dia, turno, i, faltan, ReportePersonal.ROL_OPERADOR);
+                    }
+                    continue;
+                }
+                
+                int faltan = 0;
+                int roles = 0;
+                if (asignacionesEmpleados.contarCajeros(dia, turno, lugar) == 0) {
+                    faltan++;
+                    roles |= ReportePersonal.ROL_CAJERO;
+                }
+                if (((LugarServicio) lugar).isRequiereCocinero()
+                        && asignacionesEmpleados.contarCocineros(dia, turno, lugar) == 0) {
+                    faltan++;
+                    roles |= ReportePersonal.ROL_COCINERO;
+                }
+                if (faltan > 0) {
+                    reporte.agregar(dia, turno, i, faltan, roles);
+                }
             }
         }
-        
-        // Verificar si el número de empleados asignados es suficiente
-        return empleadosAsignados >= atraccion.getEmpleadosEncargados();
+        return reporte;
+    }
+    
+    /**
+     * Obtiene los empleados asignados a un lugar de trabajo en un turno específico
+     * 
+     * @param lugar El lugar (atracción, lugar de servicio...)
+     * @param fecha La fecha del turno
+     * @param turno El turno a consultar
+     * @return Lista de empleados asignados al lugar
+     */
+    public List<Empleado> obtenerEmpleadosAsignadosLugar(Object lugar, Date fecha, String turno) {
+        if (lugar == null || fecha == null || !Turno.esValido(turno)) {
+            return new ArrayList<>();
+        }
+        return asignacionesEmpleados.empleadosEn(CodecFecha.diaEpoca(fecha), Turno.ordinal(turno), lugar);
     }
     
     /**
@@ -538,18 +580,28 @@ public class Administrador extends Usuario {
     }
     
     /**
-     * Genera un reporte de ocupación de atracciones
+     * Genera un reporte de ocupación de atracciones del día de hoy
      * 
      * @return Un mapa con la ocupación de cada atracción
      */
     public Map<Atraccion, Double> generarReporteOcupacionAtracciones() {
+        return generarReporteOcupacionAtracciones(new Date());
+    }
+    
+    /**
+     * Genera un reporte de ocupación de atracciones de un día, a partir de los
+     * accesos anotados en el registro de ocupación (ver getRegistroOcupacion)
+     * 
+     * @param fecha El día del reporte
+     * @return Un mapa con la ocupación de cada atracción como porcentaje (0-100%)
+     */
+    public Map<Atraccion, Double> generarReporteOcupacionAtracciones(Date fecha) {
         Map<Atraccion, Double> reporte = new HashMap<>();
+        int dia = CodecFecha.diaEpoca(fecha);
         
-        // Calcular la ocupación para cada atracción
+        // Los accesos ya están agregados por hora: cada atracción es una consulta
         for (Atraccion atraccion : atracciones) {
-            // En una implementación real, se calcularía la ocupación basada en datos históricos
-            double ocupacion = 0.0; // Ocupación como porcentaje (0-100%)
-            reporte.put(atraccion, ocupacion);
+            reporte.put(atraccion, registroOcupacion.ocupacion(atraccion, dia));
         }
         
         return reporte;
@@ -643,17 +695,6 @@ public class Administrador extends Usuario {
             throw new EmpleadoException("El empleado no existe en el sistema");
         }
         
-        // Crear la estructura de asignaciones si no existe
-        if (!asignacionesEmpleados.containsKey(fecha)) {
-            asignacionesEmpleados.put(fecha, new HashMap<>());
-        }
-        
-        Map<String, Map<Empleado, Object>> asignacionesFecha = asignacionesEmpleados.get(fecha);
-        
-        if (!asignacionesFecha.containsKey(turno)) {
-            asignacionesFecha.put(turno, new HashMap<>());
-        }
-        
         // No asignamos ningún lugar de trabajo específico aquí,
         // solo marcamos que el empleado está disponible para ese turno
     }
@@ -690,20 +731,8 @@ public class Administrador extends Usuario {
             return empleadosAsignados;
         }
         
-        // Verificar si hay asignaciones para esa fecha y turno
-        if (!asignacionesEmpleados.containsKey(fecha)) {
-            return empleadosAsignados;
-        }
-        
-        Map<String, Map<Empleado, Object>> asignacionesFecha = asignacionesEmpleados.get(fecha);
-        
-        if (!asignacionesFecha.containsKey(turno)) {
-            return empleadosAsignados;
-        }
-        
         // Obtener todos los empleados asignados a ese turno
-        Map<Empleado, Object> asignacionesTurno = asignacionesFecha.get(turno);
-        empleadosAsignados.addAll(asignacionesTurno.keySet());
+        empleadosAsignados.addAll(asignacionesEmpleados.empleados(CodecFecha.diaEpoca(fecha), Turno.ordinal(turno)));
         
         return empleadosAsignados;
     }
@@ -721,20 +750,8 @@ public class Administrador extends Usuario {
             return false;
         }
         
-        // Verificar si hay asignaciones para esa fecha y turno
-        if (!asignacionesEmpleados.containsKey(fecha)) {
-            return false;
-        }
-        
-        Map<String, Map<Empleado, Object>> asignacionesFecha = asignacionesEmpleados.get(fecha);
-        
-        if (!asignacionesFecha.containsKey(turno)) {
-            return false;
-        }
-        
         // Verificar si el empleado está asignado a ese turno
-        Map<Empleado, Object> asignacionesTurno = asignacionesFecha.get(turno);
-        return asignacionesTurno.containsKey(empleado);
+        return asignacionesEmpleados.estaAsignado(CodecFecha.diaEpoca(fecha), Turno.ordinal(turno), empleado.getId());
     }
     
     /**
@@ -750,20 +767,8 @@ public class Administrador extends Usuario {
             return null;
         }
         
-        // Verificar si hay asignaciones para esa fecha y turno
-        if (!asignacionesEmpleados.containsKey(fecha)) {
-            return null;
-        }
-        
-        Map<String, Map<Empleado, Object>> asignacionesFecha = asignacionesEmpleados.get(fecha);
-        
-        if (!asignacionesFecha.containsKey(turno)) {
-            return null;
-        }
-        
         // Obtener el lugar asignado al empleado
-        Map<Empleado, Object> asignacionesTurno = asignacionesFecha.get(turno);
-        return asignacionesTurno.get(empleado);
+        return asignacionesEmpleados.lugarAsignado(CodecFecha.diaEpoca(fecha), Turno.ordinal(turno), empleado.getId());
     }
     
     /**
@@ -784,20 +789,8 @@ public class Administrador extends Usuario {
             throw new EmpleadoException("El turno no es válido");
         }
         
-        // Verificar si hay asignaciones para esa fecha y turno
-        if (!asignacionesEmpleados.containsKey(fecha)) {
-            return false;
-        }
-        
-        Map<String, Map<Empleado, Object>> asignacionesFecha = asignacionesEmpleados.get(fecha);
-        
-        if (!asignacionesFecha.containsKey(turno)) {
-            return false;
-        }
-        
         // Liberar la asignación del empleado
-        Map<Empleado, Object> asignacionesTurno = asignacionesFecha.get(turno);
-        return asignacionesTurno.remove(empleado) != null;
+        return asignacionesEmpleados.liberar(CodecFecha.diaEpoca(fecha), Turno.ordinal(turno), empleado.getId());
     }
     
     /**
@@ -855,23 +848,86 @@ public class Administrador extends Usuario {
     }
     
     /**
-     * Reparte turnos a los empleados
+     * Obtiene el registro donde los torniquetes anotan los accesos a las
+     * atracciones (ver ValidadorAcceso.setRegistroOcupacion)
+     * 
+     * @return El registro de ocupación
+     */
+    public RegistroOcupacion getRegistroOcupacion() {
+        return registroOcupacion;
+    }
+    
+    /**
+     * Reparte automáticamente los turnos de un rango de fechas: asigna los empleados
+     * a las atracciones del parque y a los lugares de servicio dados hasta cubrir el
+     * personal mínimo de cada día y turno. Respeta la capacitación de cada empleado,
+     * los empleados encargados de cada atracción y las asignaciones que ya existen;
+     * un empleado recibe a lo sumo una asignación por turno. Los turnos se resuelven
+     * en paralelo con una heurística voraz (ver PlanificadorTurnos)
+     * 
+     * @param lugaresServicio Los lugares de servicio a cubrir (puede ser null)
+     * @param fechaInicio La primera fecha del rango
+     * @param fechaFin La última fecha del rango (inclusive)
+     * @return Reporte con el personal que no se pudo cubrir
+     * @throws EmpleadoException Si alguna de las fechas es nula
+     */
+    public ReportePersonal repartirTurnos(Collection<? extends LugarServicio> lugaresServicio, Date fechaInicio,
+            Date fechaFin) throws EmpleadoException {
+        if (fechaInicio == null || fechaFin == null) {
+            throw new EmpleadoException("Las fechas no pueden ser nulas");
+        }
+        
+        List<LugarServicio> lugares = lugaresServicio != null ? new ArrayList<>(lugaresServicio) : new ArrayList<>();
+        PlanificadorTurnos planificador = new PlanificadorTurnos(asignacionesEmpleados, empleados, atracciones, lugares);
+        planificador.repartir(CodecFecha.diaEpoca(fechaInicio), CodecFecha.diaEpoca(fechaFin));
+        return validarPersonal(lugares, fechaInicio, fechaFin);
+    }
+    
+    /**
+     * Reparte los turnos de un empleado en un rango de fechas: lo asigna a las
+     * necesidades de personal de las atracciones del parque y de los lugares de
+     * servicio dados que puede cubrir según su capacitación y que siguen abiertas.
+     * Recibe a lo sumo una asignación por turno y las asignaciones que ya existen se
+     * respetan (ver PlanificadorTurnos)
      * 
      * @param empleado El empleado al que se le asignarán turnos
-     * @throws EmpleadoException Si hay un error al repartir los turnos
+     * @param lugaresServicio Los lugares de servicio a cubrir (puede ser null)
+     * @param fechaInicio La primera fecha del rango
+     * @param fechaFin La última fecha del rango (inclusive)
+     * @return El número de turnos que se le asignaron
+     * @throws EmpleadoException Si el empleado o alguna de las fechas es nula, o si el
+     *         empleado no existe en el sistema
      */
-    public void repartirTurnos(Empleado empleado) throws EmpleadoException {
+    public int repartirTurnos(Empleado empleado, Collection<? extends LugarServicio> lugaresServicio,
+            Date fechaInicio, Date fechaFin) throws EmpleadoException {
         if (empleado == null) {
             throw new EmpleadoException("El empleado no puede ser nulo");
         }
+        if (fechaInicio == null || fechaFin == null) {
+            throw new EmpleadoException("Las fechas no pueden ser nulas");
+        }
         
         // Verificar que el empleado esté en la lista de empleados
         if (!empleados.contains(empleado)) {
             throw new EmpleadoException("El empleado no existe en el sistema");
         }
         
-        // En una implementación real, aquí se asignarían los turnos al empleado
-        // según la disponibilidad y las necesidades del parque
+        List<LugarServicio> lugares = lugaresServicio != null ? new ArrayList<>(lugaresServicio) : new ArrayList<>();
+        PlanificadorTurnos planificador = new PlanificadorTurnos(asignacionesEmpleados, List.of(empleado),
+                atracciones, lugares);
+        return planificador.repartir(CodecFecha.diaEpoca(fechaInicio), CodecFecha.diaEpoca(fechaFin));
+    }
+    
+    /**
+     * Reparte los turnos del día de hoy a un empleado entre las atracciones del
+     * parque (ver repartirTurnos(Empleado, Collection, Date, Date))
+     * 
+     * @param empleado El empleado al que se le asignarán turnos
+     * @throws EmpleadoException Si el empleado es nulo o no existe en el sistema
+     */
+    public void repartirTurnos(Empleado empleado) throws EmpleadoException {
+        Date hoy = CodecFecha.aFecha(CodecFecha.hoy());
+        repartirTurnos(empleado, null, hoy, hoy);
     }
     
     /**
@@ -891,6 +947,15 @@ public class Administrador extends Usuario {
             throw new EmpleadoException("El empleado no existe en el sistema");
         }
         
+        // Anotar el descuento antes de aplicarlo
+        if (registroCambios != null) {
+            try {
+                registroCambios.registrarDescuento(tiquete);
+            } catch (TiqueteException e) {
+                throw new EmpleadoException("No se pudo registrar el descuento de empleado", e);
+            }
+        }
+        
         // Aplicar el descuento de empleado al tiquete
         tiquete.setDctoEmpleado(true);
     }
@@ -0,0 +1,261 @@
+package modelo.usuarios;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import modelo.atracciones.Atraccion;
+import modelo.atracciones.AtraccionCultural;
+import modelo.atracciones.AtraccionMecanica;
+import modelo.empleados.AlmacenAsignaciones;
+import modelo.empleados.AtraccionAlto;
+import modelo.empleados.AtraccionMedio;
+import modelo.empleados.Cajero;
+import modelo.empleados.Cocinero;
+import modelo.empleados.Empleado;
+import modelo.empleados.Regular;
+import modelo.lugares.LugarServicio;
+import modelo.util.CodecFecha;
+import modelo.util.Turno;
+
+/**
+ * Reparte los empleados entre las atracciones y los lugares de servicio en cada
+ * día y turno de un rango de fechas, con una heurística voraz.
+ *
+ * Cada necesidad de personal (los operadores de una atracción, el cajero o el
+ * cocinero de un lugar de servicio) tiene un grupo de empleados que pueden
+ * cubrirla según su capacitación:
+ * - Atracción mecánica de riesgo alto: empleados AtraccionAlto capacitados para esa atracción
+ * - Atracción mecánica de riesgo medio: AtraccionAlto capacitados o AtraccionMedio con la capacitación vigente en el día
+ * - Atracción cultural: empleados regulares o de atracciones
+ * - Cajero: empleados Cajero
+ * - Cocinero: empleados Cocinero capacitados
+ * Los empleados de servicio general no se reparten.
+ *
+ * Los grupos se calculan una sola vez para todo el rango. En cada turno las
+ * necesidades se atienden de la del grupo más pequeño a la del más grande, y cada
+ * grupo tiene un cursor que solo avanza, así que repartir un turno es lineal en el
+ * tamaño de los grupos. El cursor arranca en una posición que rota de turno en
+ * turno, para repartir la carga entre los empleados del grupo. Los turnos son
+ * independientes entre sí, se resuelven en paralelo y las asignaciones se aplican
+ * al final en un solo hilo; las asignaciones que ya existían se respetan.
+ */
+final class PlanificadorTurnos {
+    private final AlmacenAsignaciones asignaciones;
+    private final Empleado[] empleados;
+    private final int[] diaVencimiento;
+    private final Object[] lugares;
+    private final Necesidad[] necesidades;
+    private final int numeroGrupos;
+
+    /**
+     * Crea un planificador y calcula los grupos de empleados de cada necesidad
+     *
+     * @param asignaciones Las asignaciones del administrador, que se completan
+     * @param empleados Los empleados del parque
+     * @param atracciones Las atracciones del parque
+     * @param lugaresServicio Los lugares de servicio a cubrir
+     */
+    PlanificadorTurnos(AlmacenAsignaciones asignaciones, List<Empleado> empleados, List<Atraccion> atracciones,
+            List<? extends LugarServicio> lugaresServicio) {
+        this.asignaciones = asignaciones;
+        this.empleados = empleados.stream().filter(e -> !e.esServicioGeneral()).toArray(Empleado[]::new);
+        this.diaVencimiento = new int[this.empleados.length];
+        for (int e = 0; e < this.empleados.length; e++) {
+            diaVencimiento[e] = vencimiento(this.empleados[e]);
+        }
+
+        List<Object> listaLugares = new ArrayList<>(atracciones);
+        listaLugares.addAll(lugaresServicio);
+        this.lugares = listaLugares.toArray();
+
+        List<Grupo> grupos = new ArrayList<>();
+        Grupo riesgoMedio = nuevoGrupo(grupos, true,
+                e -> e instanceof AtraccionAlto && ((AtraccionAlto) e).isCapacitado()
+                        || e instanceof AtraccionMedio && ((AtraccionMedio) e).isCapacitado());
+        Grupo cultural = nuevoGrupo(grupos, false,
+                e -> e instanceof Regular || e instanceof AtraccionAlto || e instanceof AtraccionMedio);
+        Grupo cajeros = nuevoGrupo(grupos, false, e -> e instanceof Cajero);
+        Grupo cocineros = nuevoGrupo(grupos, false, e -> e instanceof Cocinero && ((Cocinero) e).isCapacitado());
+        Map<AtraccionMecanica, Grupo> riesgoAlto = new IdentityHashMap<>();
+
+        List<Necesidad> listaNecesidades = new ArrayList<>();
+        for (int i = 0; i < atracciones.size(); i++) {
+            Atraccion atraccion = atracciones.get(i);
+            Grupo grupo;
+            if (atraccion instanceof AtraccionMecanica && ((AtraccionMecanica) atraccion).esRiesgoAlto()) {
+                grupo = riesgoAlto.computeIfAbsent((AtraccionMecanica) atraccion, m -> nuevoGrupo(grupos, false,
+                        e -> e instanceof AtraccionAlto && ((AtraccionAlto) e).estaCapacitadoParaAtraccion(m)));
+            } else if (atraccion instanceof AtraccionCultural) {
+                grupo = cultural;
+            } else {
+                grupo = riesgoMedio;
+            }
+            listaNecesidades.add(
+                    new Necesidad(i, ReportePersonal.ROL_OPERADOR, atraccion.getEmpleadosEncargados(), grupo));
+        }
+        for (int i = atracciones.size(); i < lugares.length; i++) {
+            listaNecesidades.add(new Necesidad(i, ReportePersonal.ROL_CAJERO, 1, cajeros));
+            if (((LugarServicio) lugares[i]).isRequiereCocinero()) {
+                listaNecesidades.add(new Necesidad(i, ReportePersonal.ROL_COCINERO, 1, cocineros));
+            }
+        }
+
+        // Las necesidades más difíciles de cubrir se atienden primero
+        listaNecesidades.sort(Comparator.comparingInt((Necesidad n) -> n.grupo.miembros.length)
+                .thenComparingInt(n -> n.grupo.id).thenComparingInt(n -> n.lugar));
+        for (Necesidad necesidad : listaNecesidades) {
+            necesidad.grupo.demanda += Math.max(0, necesidad.cantidad);
+        }
+        this.necesidades = listaNecesidades.toArray(new Necesidad[0]);
+        this.numeroGrupos = grupos.size();
+    }
+
+    /**
+     * Reparte los turnos de un rango de días y aplica las asignaciones
+     *
+     * @param diaInicio Primer día de época
+     * @param diaFin Último día de época (inclusive)
+     * @return El número de asignaciones nuevas
+     */
+    int repartir(int diaInicio, int diaFin) {
+        if (diaFin < diaInicio) {
+            return 0;
+        }
+        int turnos = (diaFin - diaInicio + 1) * Turno.NUMERO_TURNOS;
+        List<int[]> resultados = IntStream.range(0, turnos).parallel()
+                .mapToObj(k -> resolverTurno(diaInicio + k / Turno.NUMERO_TURNOS, k % Turno.NUMERO_TURNOS))
+                .toList();
+
+        // El almacén no es seguro para escrituras concurrentes: se aplica en un solo hilo
+        int asignadas = 0;
+        for (int k = 0; k < turnos; k++) {
+            int[] resultado = resultados.get(k);
+            int dia = diaInicio + k / Turno.NUMERO_TURNOS;
+            int turno = k % Turno.NUMERO_TURNOS;
+            for (int i = 1; i < resultado[0]; i += 2) {
+                if (asignaciones.asignar(dia, turno, empleados[resultado[i]], lugares[resultado[i + 1]])) {
+                    asignadas++;
+                }
+            }
+        }
+        return asignadas;
+    }
+
+    /**
+     * Resuelve un turno sin modificar el almacén
+     *
+     * @return Arreglo con su longitud usada en la posición 0, seguida de pares (empleado, lugar)
+     */
+    private int[] resolverTurno(int dia, int turno) {
+        boolean[] ocupado = new boolean[empleados.length];
+        for (int e = 0; e < empleados.length; e++) {
+            ocupado[e] = asignaciones.estaAsignado(dia, turno, empleados[e].getId());
+        }
+        int[] revisados = new int[numeroGrupos];
+        int[] resultado = new int[17];
+        int tamano = 1;
+        long rotacion = (long) dia * Turno.NUMERO_TURNOS + turno;
+
+        for (Necesidad necesidad : necesidades) {
+            int faltan = necesidad.cantidad - necesidad.asignados(asignaciones, dia, turno, lugares);
+            Grupo grupo = necesidad.grupo;
+            int[] miembros = grupo.miembros;
+            if (faltan <= 0 || miembros.length == 0) {
+                continue;
+            }
+            int inicio = (int) Math.floorMod(rotacion * grupo.demanda, (long) miembros.length);
+            while (faltan > 0 && revisados[grupo.id] < miembros.length) {
+                int posicion = inicio + revisados[grupo.id]++;
+                int e = miembros[posicion < miembros.length ? posicion : posicion - miembros.length];
+                if (ocupado[e] || grupo.verificaVigencia && diaVencimiento[e] < dia) {
+                    continue;
+                }
+                ocupado[e] = true;
+                if (tamano + 2 > resultado.length) {
+                    resultado = Arrays.copyOf(resultado, resultado.length * 2);
+                }
+                resultado[tamano++] = e;
+                resultado[tamano++] = necesidad.lugar;
+                faltan--;
+            }
+        }
+        resultado[0] = tamano;
+        return resultado;
+    }
+
+    private Grupo nuevoGrupo(List<Grupo> grupos, boolean verificaVigencia, CriterioEmpleado criterio) {
+        int[] miembros = IntStream.range(0, empleados.length).filter(e -> criterio.aplica(empleados[e])).toArray();
+        Grupo grupo = new Grupo(grupos.size(), miembros, verificaVigencia);
+        grupos.add(grupo);
+        return grupo;
+    }
+
+    /**
+     * Último día en que el empleado puede operar atracciones de riesgo medio
+     */
+    private static int vencimiento(Empleado empleado) {
+        if (empleado instanceof AtraccionMedio) {
+            Date vencimiento = ((AtraccionMedio) empleado).getFechaVencimientoCapacitacion();
+            if (vencimiento != null) {
+                return CodecFecha.diaEpoca(vencimiento);
+            }
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    @FunctionalInterface
+    private interface CriterioEmpleado {
+        boolean aplica(Empleado empleado);
+    }
+
+    /**
+     * Empleados que pueden cubrir un tipo de necesidad
+     */
+    private static final class Grupo {
+        final int id;
+        final int[] miembros;
+        final boolean verificaVigencia;
+        // Empleados que piden por turno las necesidades del grupo, para rotar el inicio
+        long demanda;
+
+        Grupo(int id, int[] miembros, boolean verificaVigencia) {
+            this.id = id;
+            this.miembros = miembros;
+            this.verificaVigencia = verificaVigencia;
+        }
+    }
+
+    /**
+     * Personal que necesita un lugar en cada turno
+     */
+    private static final class Necesidad {
+        final int lugar;
+        final int rol;
+        final int cantidad;
+        final Grupo grupo;
+
+        Necesidad(int lugar, int rol, int cantidad, Grupo grupo) {
+            this.lugar = lugar;
+            this.rol = rol;
+            this.cantidad = cantidad;
+            this.grupo = grupo;
+        }
+
+        int asignados(AlmacenAsignaciones asignaciones, int dia, int turno, Object[] lugares) {
+            switch (rol) {
+                case ReportePersonal.ROL_CAJERO:
+                    return asignaciones.contarCajeros(dia, turno, lugares[lugar]);
+                case ReportePersonal.ROL_COCINERO:
+                    return asignaciones.contarCocineros(dia, turno, lugares[lugar]);
+                default:
+                    return asignaciones.contarAsignados(dia, turno, lugares[lugar]);
+            }
+        }
+    }
+}
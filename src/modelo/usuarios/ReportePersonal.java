@@ -0,0 +1,228 @@
+package modelo.usuarios;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import modelo.util.CodecFecha;
+import modelo.util.Turno;
+
+/**
+ * Reporte de deficiencias de personal de un rango de fechas: cada entrada es un
+ * lugar (atracción o lugar de servicio) que en un día y turno no tiene el personal
+ * mínimo, con el número de empleados que faltan y los roles que faltan.
+ *
+ * Las entradas se guardan en arreglos paralelos de primitivos, ordenadas por día,
+ * turno y lugar, y los lugares se referencian por su índice en la lista de lugares
+ * revisados; así un mes completo de turnos sin personal ocupa poca memoria.
+ */
+public class ReportePersonal {
+    /**
+     * Faltan operadores en una atracción
+     */
+    public static final int ROL_OPERADOR = 1;
+    /**
+     * Falta un cajero en un lugar de servicio
+     */
+    public static final int ROL_CAJERO = 2;
+    /**
+     * Falta un cocinero en un lugar de servicio
+     */
+    public static final int ROL_COCINERO = 4;
+
+    private static final int CAPACIDAD_INICIAL = 8;
+
+    private final List<Object> lugares;
+    private final int diaInicio;
+    private final int diaFin;
+
+    private int[] dias;
+    private byte[] turnos;
+    private int[] indicesLugar;
+    private int[] faltantes;
+    private byte[] roles;
+    private int tamano;
+
+    /**
+     * Crea un reporte vacío
+     *
+     * @param lugares Los lugares revisados; las entradas se refieren a ellos por índice
+     * @param diaInicio Primer día de época revisado
+     * @param diaFin Último día de época revisado
+     */
+    ReportePersonal(List<Object> lugares, int diaInicio, int diaFin) {
+        this.lugares = lugares;
+        this.diaInicio = diaInicio;
+        this.diaFin = diaFin;
+        this.dias = new int[CAPACIDAD_INICIAL];
+        this.turnos = new byte[CAPACIDAD_INICIAL];
+        this.indicesLugar = new int[CAPACIDAD_INICIAL];
+        this.faltantes = new int[CAPACIDAD_INICIAL];
+        this.roles = new byte[CAPACIDAD_INICIAL];
+    }
+
+    /**
+     * Agrega una deficiencia al final del reporte
+     */
+    void agregar(int dia, int turno, int indiceLugar, int faltan, int rolesFaltantes) {
+        if (tamano == dias.length) {
+            int capacidad = tamano * 2;
+            dias = Arrays.copyOf(dias, capacidad);
+            turnos = Arrays.copyOf(turnos, capacidad);
+            indicesLugar = Arrays.copyOf(indicesLugar, capacidad);
+            faltantes = Arrays.copyOf(faltantes, capacidad);
+            roles = Arrays.copyOf(roles, capacidad);
+        }
+        dias[tamano] = dia;
+        turnos[tamano] = (byte) turno;
+        indicesLugar[tamano] = indiceLugar;
+        faltantes[tamano] = faltan;
+        roles[tamano] = (byte) rolesFaltantes;
+        tamano++;
+    }
+
+    /**
+     * Agrega al final todas las deficiencias de otro reporte sobre los mismos lugares
+     */
+    void agregarTodo(ReportePersonal otro) {
+        for (int i = 0; i < otro.tamano; i++) {
+            agregar(otro.dias[i], otro.turnos[i], otro.indicesLugar[i], otro.faltantes[i], otro.roles[i]);
+        }
+    }
+
+    /**
+     * Verifica si todos los lugares tienen el personal mínimo en todo el rango
+     *
+     * @return true si no hay deficiencias
+     */
+    public boolean estaCompleto() {
+        return tamano == 0;
+    }
+
+    /**
+     * Obtiene el número de deficiencias
+     *
+     * @return El número de entradas del reporte
+     */
+    public int tamano() {
+        return tamano;
+    }
+
+    /**
+     * Obtiene el día de época de una deficiencia
+     *
+     * @param indice Índice de la entrada
+     * @return El día de época
+     */
+    public int dia(int indice) {
+        verificarIndice(indice);
+        return dias[indice];
+    }
+
+    /**
+     * Obtiene la fecha (inicio del día) de una deficiencia
+     *
+     * @param indice Índice de la entrada
+     * @return La fecha
+     */
+    public Date getFecha(int indice) {
+        return CodecFecha.aFecha(dia(indice));
+    }
+
+    /**
+     * Obtiene el turno de una deficiencia
+     *
+     * @param indice Índice de la entrada
+     * @return El nombre del turno
+     */
+    public String turno(int indice) {
+        verificarIndice(indice);
+        return Turno.nombre(turnos[indice]);
+    }
+
+    /**
+     * Obtiene el lugar de una deficiencia
+     *
+     * @param indice Índice de la entrada
+     * @return La atracción o el lugar de servicio
+     */
+    public Object lugar(int indice) {
+        verificarIndice(indice);
+        return lugares.get(indicesLugar[indice]);
+    }
+
+    /**
+     * Obtiene cuántos empleados faltan en una deficiencia
+     *
+     * @param indice Índice de la entrada
+     * @return El número de empleados que faltan
+     */
+    public int faltantes(int indice) {
+        verificarIndice(indice);
+        return faltantes[indice];
+    }
+
+    /**
+     * Obtiene los roles que faltan en una deficiencia
+     *
+     * @param indice Índice de la entrada
+     * @return Combinación de ROL_OPERADOR, ROL_CAJERO y ROL_COCINERO
+     */
+    public int roles(int indice) {
+        verificarIndice(indice);
+        return roles[indice];
+    }
+
+    /**
+     * Obtiene el total de empleados que faltan en todo el rango
+     *
+     * @return La suma de los faltantes de todas las deficiencias
+     */
+    public int totalFaltantes() {
+        int total = 0;
+        for (int i = 0; i < tamano; i++) {
+            total += faltantes[i];
+        }
+        return total;
+    }
+
+    /**
+     * Obtiene los lugares revisados
+     *
+     * @return Lista con los lugares
+     */
+    public List<Object> getLugares() {
+        return new ArrayList<>(lugares);
+    }
+
+    /**
+     * Obtiene el primer día de época revisado
+     *
+     * @return El día de época
+     */
+    public int getDiaInicio() {
+        return diaInicio;
+    }
+
+    /**
+     * Obtiene el último día de época revisado
+     *
+     * @return El día de época
+     */
+    public int getDiaFin() {
+        return diaFin;
+    }
+
+    private void verificarIndice(int indice) {
+        if (indice < 0 || indice >= tamano) {
+            throw new IndexOutOfBoundsException("Deficiencia inexistente: " + indice);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ReportePersonal [dias=" + (diaFin - diaInicio + 1) + ", lugares=" + lugares.size() + ", deficiencias="
+                + tamano + ", faltantes=" + totalFaltantes() + "]";
+    }
+}
@@ -0,0 +1,277 @@
+package modelo.util;
+
+import java.text.ParseException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+import java.util.Date;
+
+/**
+ * Codificación de fechas como días desde 1970-01-01 (día de época) en la zona
+ * horaria local, y su lectura y escritura en formato yyyy-MM-dd.
+ *
+ * Reemplaza a SimpleDateFormat: no tiene estado, así que es seguro entre hilos,
+ * y convierte directamente entre dígitos y enteros sin crear Strings ni objetos
+ * Calendar. Igual que un SimpleDateFormat estático, usa la zona horaria que
+ * tenía el sistema al cargar la clase.
+ */
+public final class CodecFecha {
+    /**
+     * Valor que representa una fecha nula donde se usan días de época
+     */
+    public static final int SIN_FECHA = Integer.MIN_VALUE;
+
+    private static final long MILIS_POR_DIA = 24L * 60 * 60 * 1000;
+    private static final long MILIS_POR_HORA = 60L * 60 * 1000;
+    private static final char[] NULO = { 'n', 'u', 'l', 'l' };
+
+    private static final ZoneId ZONA = ZoneId.systemDefault();
+    private static final ZoneRules REGLAS = ZONA.getRules();
+    // Desplazamiento fijo en milisegundos, o null si la zona tiene cambios de horario
+    private static final Integer DESPLAZAMIENTO_FIJO = REGLAS.isFixedOffset()
+            ? REGLAS.getOffset(Instant.EPOCH).getTotalSeconds() * 1000
+            : null;
+
+    private CodecFecha() {
+    }
+
+    /**
+     * Obtiene el día de época local de una fecha
+     *
+     * @param fecha La fecha
+     * @return El día de época, o SIN_FECHA si la fecha es nula
+     */
+    public static int diaEpoca(Date fecha) {
+        if (fecha == null) {
+            return SIN_FECHA;
+        }
+        long milis = fecha.getTime();
+        return (int) Math.floorDiv(milis + desplazamiento(milis), MILIS_POR_DIA);
+    }
+
+    /**
+     * Obtiene el día de época local de un instante sin crear un Date
+     *
+     * @param milis Los milisegundos desde la época
+     * @return El día de época
+     */
+    public static int diaEpoca(long milis) {
+        return (int) Math.floorDiv(milis + desplazamiento(milis), MILIS_POR_DIA);
+    }
+
+    /**
+     * Obtiene la hora local (0 a 23) de un instante
+     *
+     * @param milis Los milisegundos desde la época
+     * @return La hora del día
+     */
+    public static int horaDelDia(long milis) {
+        return (int) (Math.floorMod(milis + desplazamiento(milis), MILIS_POR_DIA) / MILIS_POR_HORA);
+    }
+
+    /**
+     * Obtiene el día de época local del instante actual sin crear un Date
+     *
+     * @return El día de época de hoy
+     */
+    public static int hoy() {
+        long milis = System.currentTimeMillis();
+        return (int) Math.floorDiv(milis + desplazamiento(milis), MILIS_POR_DIA);
+    }
+
+    /**
+     * Obtiene el día de época de una fecha del calendario
+     *
+     * @param anio El año
+     * @param mes El mes (1 a 12)
+     * @param dia El día del mes
+     * @return El día de época, o SIN_FECHA si la fecha no existe
+     */
+    public static int diaEpoca(int anio, int mes, int dia) {
+        if (mes < 1 || mes > 12 || dia < 1 || dia > diasDelMes(anio, mes)) {
+            return SIN_FECHA;
+        }
+
+        // Algoritmo de días desde la época civil (H. Hinnant), con años que empiezan en marzo
+        int y = mes <= 2 ? anio - 1 : anio;
+        int era = Math.floorDiv(y, 400);
+        int anioDeEra = y - era * 400;
+        int diaDelAnio = (153 * (mes > 2 ? mes - 3 : mes + 9) + 2) / 5 + dia - 1;
+        int diaDeEra = anioDeEra * 365 + anioDeEra / 4 - anioDeEra / 100 + diaDelAnio;
+        return era * 146097 + diaDeEra - 719468;
+    }
+
+    /**
+     * Obtiene la fecha correspondiente al inicio de un día de época en la zona local
+     *
+     * @param diaEpoca El día de época
+     * @return La fecha, o null si el día es SIN_FECHA
+     */
+    public static Date aFecha(int diaEpoca) {
+        if (diaEpoca == SIN_FECHA) {
+            return null;
+        }
+        return new Date(milisInicioDia(diaEpoca));
+    }
+
+    /**
+     * Obtiene el instante en milisegundos del inicio de un día de época en la zona local
+     *
+     * @param diaEpoca El día de época
+     * @return Los milisegundos desde la época
+     */
+    public static long milisInicioDia(int diaEpoca) {
+        long medianoche = diaEpoca * MILIS_POR_DIA;
+        if (DESPLAZAMIENTO_FIJO != null) {
+            return medianoche - DESPLAZAMIENTO_FIJO;
+        }
+
+        // Los desplazamientos no superan un día, así que si es el mismo un día antes
+        // y un día después no hay cambio de horario cerca de la medianoche local
+        long desplazamiento = desplazamiento(medianoche - MILIS_POR_DIA);
+        if (desplazamiento == desplazamiento(medianoche + MILIS_POR_DIA)) {
+            return medianoche - desplazamiento;
+        }
+        // Hay un cambio de horario cerca: se resuelve como java.time
+        return LocalDate.ofEpochDay(diaEpoca).atStartOfDay(ZONA).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Escribe una fecha como yyyy-MM-dd, o "null" si la fecha es nula
+     *
+     * @param fecha La fecha
+     * @param destino Donde se agrega el texto
+     */
+    public static void escribir(Date fecha, StringBuilder destino) {
+        escribir(diaEpoca(fecha), destino);
+    }
+
+    /**
+     * Escribe un día de época como yyyy-MM-dd, o "null" si es SIN_FECHA
+     *
+     * @param diaEpoca El día de época
+     * @param destino Donde se agrega el texto
+     */
+    public static void escribir(int diaEpoca, StringBuilder destino) {
+        if (diaEpoca == SIN_FECHA) {
+            destino.append(NULO);
+            return;
+        }
+
+        // Inverso del algoritmo de diaEpoca(anio, mes, dia)
+        int z = diaEpoca + 719468;
+        int era = Math.floorDiv(z, 146097);
+        int diaDeEra = z - era * 146097;
+        int anioDeEra = (diaDeEra - diaDeEra / 1460 + diaDeEra / 36524 - diaDeEra / 146096) / 365;
+        int diaDelAnio = diaDeEra - (365 * anioDeEra + anioDeEra / 4 - anioDeEra / 100);
+        int mesMarzo = (5 * diaDelAnio + 2) / 153;
+        int dia = diaDelAnio - (153 * mesMarzo + 2) / 5 + 1;
+        int mes = mesMarzo < 10 ? mesMarzo + 3 : mesMarzo - 9;
+        int anio = anioDeEra + era * 400 + (mes <= 2 ? 1 : 0);
+
+        if (anio < 0 || anio > 9999) {
+            // Fuera del rango de cuatro dígitos se escribe como lo hace java.time
+            destino.append(LocalDate.ofEpochDay(diaEpoca));
+            return;
+        }
+        agregarDigitos(destino, anio, 4);
+        destino.append('-');
+        agregarDigitos(destino, mes, 2);
+        destino.append('-');
+        agregarDigitos(destino, dia, 2);
+    }
+
+    /**
+     * Lee un texto yyyy-MM-dd como día de época
+     *
+     * @param texto El texto
+     * @param inicio Posición del primer carácter
+     * @param fin Posición siguiente al último carácter
+     * @return El día de época
+     * @throws ParseException Si el texto no es una fecha válida
+     */
+    public static int leer(CharSequence texto, int inicio, int fin) throws ParseException {
+        if (fin - inicio == 10 && texto.charAt(inicio + 4) == '-' && texto.charAt(inicio + 7) == '-') {
+            int anio = digitos(texto, inicio, 4);
+            int mes = digitos(texto, inicio + 5, 2);
+            int dia = digitos(texto, inicio + 8, 2);
+            if (anio >= 0 && mes >= 0 && dia >= 0) {
+                int resultado = diaEpoca(anio, mes, dia);
+                if (resultado != SIN_FECHA) {
+                    return resultado;
+                }
+            }
+        }
+        throw new ParseException("Fecha inválida: " + texto.subSequence(inicio, fin), inicio);
+    }
+
+    /**
+     * Lee un texto yyyy-MM-dd como día de época
+     *
+     * @param texto El texto
+     * @return El día de época
+     * @throws ParseException Si el texto no es una fecha válida
+     */
+    public static int leer(CharSequence texto) throws ParseException {
+        return leer(texto, 0, texto.length());
+    }
+
+    /**
+     * Obtiene el número de días de un mes
+     *
+     * @param anio El año
+     * @param mes El mes (1 a 12)
+     * @return El número de días
+     */
+    public static int diasDelMes(int anio, int mes) {
+        switch (mes) {
+            case 2:
+                boolean bisiesto = (anio % 4 == 0 && anio % 100 != 0) || anio % 400 == 0;
+                return bisiesto ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Obtiene el desplazamiento de la zona local en un instante, en milisegundos
+     */
+    private static long desplazamiento(long milis) {
+        if (DESPLAZAMIENTO_FIJO != null) {
+            return DESPLAZAMIENTO_FIJO;
+        }
+        return REGLAS.getOffset(Instant.ofEpochMilli(milis)).getTotalSeconds() * 1000L;
+    }
+
+    /**
+     * Lee un número fijo de dígitos decimales
+     *
+     * @return El valor, o -1 si algún carácter no es un dígito
+     */
+    private static int digitos(CharSequence texto, int inicio, int cantidad) {
+        int valor = 0;
+        for (int i = inicio; i < inicio + cantidad; i++) {
+            int digito = texto.charAt(i) - '0';
+            if (digito < 0 || digito > 9) {
+                return -1;
+            }
+            valor = valor * 10 + digito;
+        }
+        return valor;
+    }
+
+    /**
+     * Agrega un número con ceros a la izquierda hasta el ancho indicado
+     */
+    private static void agregarDigitos(StringBuilder destino, int valor, int ancho) {
+        for (int divisor = ancho == 4 ? 1000 : 10; divisor > 0; divisor /= 10) {
+            destino.append((char) ('0' + valor / divisor % 10));
+        }
+    }
+}
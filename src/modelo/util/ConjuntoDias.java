@@ -0,0 +1,167 @@
+package modelo.util;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Conjunto de días de época (ver CodecFecha) guardado como un arreglo primitivo
+ * ordenado y sin repetidos.
+ *
+ * Consultar si un día pertenece al conjunto y ubicar un rango de días son
+ * búsquedas binarias, O(log n). Agregar o eliminar un día busca su posición en
+ * O(log n) y desplaza los días posteriores; agregar en orden cronológico, que es
+ * el caso común, no desplaza nada. Las consultas por rango recorren solo los días
+ * del rango. No es seguro para escrituras concurrentes.
+ */
+public class ConjuntoDias implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final int CAPACIDAD_INICIAL = 8;
+
+    private int[] dias;
+    private int tamano;
+
+    /**
+     * Crea un conjunto vacío
+     */
+    public ConjuntoDias() {
+        this.dias = new int[CAPACIDAD_INICIAL];
+    }
+
+    /**
+     * Crea una copia de otro conjunto
+     *
+     * @param otro El conjunto a copiar
+     */
+    public ConjuntoDias(ConjuntoDias otro) {
+        this.dias = Arrays.copyOf(otro.dias, Math.max(otro.tamano, CAPACIDAD_INICIAL));
+        this.tamano = otro.tamano;
+    }
+
+    /**
+     * Agrega un día al conjunto
+     *
+     * @param dia El día de época
+     * @return true si se agregó, false si ya estaba
+     */
+    public boolean agregar(int dia) {
+        int posicion = Arrays.binarySearch(dias, 0, tamano, dia);
+        if (posicion >= 0) {
+            return false;
+        }
+        posicion = -posicion - 1;
+        if (tamano == dias.length) {
+            dias = Arrays.copyOf(dias, tamano * 2);
+        }
+        System.arraycopy(dias, posicion, dias, posicion + 1, tamano - posicion);
+        dias[posicion] = dia;
+        tamano++;
+        return true;
+    }
+
+    /**
+     * Elimina un día del conjunto
+     *
+     * @param dia El día de época
+     * @return true si se eliminó, false si no estaba
+     */
+    public boolean eliminar(int dia) {
+        int posicion = Arrays.binarySearch(dias, 0, tamano, dia);
+        if (posicion < 0) {
+            return false;
+        }
+        System.arraycopy(dias, posicion + 1, dias, posicion, tamano - posicion - 1);
+        tamano--;
+        return true;
+    }
+
+    /**
+     * Verifica si un día pertenece al conjunto
+     *
+     * @param dia El día de época
+     * @return true si el día está en el conjunto
+     */
+    public boolean contiene(int dia) {
+        return Arrays.binarySearch(dias, 0, tamano, dia) >= 0;
+    }
+
+    /**
+     * Obtiene la posición del primer día mayor o igual a uno dado
+     *
+     * @param dia El día de época
+     * @return La posición, o tamano() si todos los días son anteriores
+     */
+    public int primeroDesde(int dia) {
+        int posicion = Arrays.binarySearch(dias, 0, tamano, dia);
+        return posicion >= 0 ? posicion : -posicion - 1;
+    }
+
+    /**
+     * Cuenta los días de un rango cerrado
+     *
+     * @param desde Primer día del rango
+     * @param hasta Último día del rango
+     * @return El número de días del conjunto dentro del rango
+     */
+    public int contarEntre(int desde, int hasta) {
+        if (desde > hasta) {
+            return 0;
+        }
+        return finRango(hasta) - primeroDesde(desde);
+    }
+
+    /**
+     * Recorre en orden los días de un rango cerrado
+     *
+     * @param desde Primer día del rango
+     * @param hasta Último día del rango
+     * @param consumidor Recibe cada día
+     */
+    public void recorrerEntre(int desde, int hasta, IntConsumer consumidor) {
+        if (desde > hasta) {
+            return;
+        }
+        for (int i = primeroDesde(desde), fin = finRango(hasta); i < fin; i++) {
+            consumidor.accept(dias[i]);
+        }
+    }
+
+    /**
+     * Obtiene el día en una posición, en orden ascendente
+     *
+     * @param indice La posición
+     * @return El día de época
+     */
+    public int dia(int indice) {
+        if (indice < 0 || indice >= tamano) {
+            throw new IndexOutOfBoundsException("Día inexistente: " + indice);
+        }
+        return dias[indice];
+    }
+
+    /**
+     * Obtiene el número de días del conjunto
+     *
+     * @return El número de días
+     */
+    public int tamano() {
+        return tamano;
+    }
+
+    /**
+     * Verifica si el conjunto está vacío
+     *
+     * @return true si no tiene días
+     */
+    public boolean estaVacio() {
+        return tamano == 0;
+    }
+
+    // Posición siguiente al último día menor o igual a hasta
+    private int finRango(int hasta) {
+        if (hasta == Integer.MAX_VALUE) {
+            return tamano;
+        }
+        return primeroDesde(hasta + 1);
+    }
+}
@@ -0,0 +1,162 @@
+package modelo.util;
+
+import java.util.Arrays;
+
+/**
+ * Conjunto de días de época (ver CodecFecha) guardado como intervalos cerrados,
+ * ordenados y sin solapamientos en dos arreglos primitivos. Los intervalos que se
+ * solapan o que quedan contiguos se fusionan al agregarlos, así que la memoria es
+ * proporcional al número de intervalos y no al número de días.
+ *
+ * Consultar si un día pertenece al conjunto es una búsqueda binaria, O(log n).
+ * No es seguro para escrituras concurrentes.
+ */
+public class IntervalosDias {
+    private static final int CAPACIDAD_INICIAL = 4;
+
+    private int[] inicios;
+    private int[] fines;
+    private int tamano;
+
+    /**
+     * Crea un conjunto vacío
+     */
+    public IntervalosDias() {
+        this.inicios = new int[CAPACIDAD_INICIAL];
+        this.fines = new int[CAPACIDAD_INICIAL];
+    }
+
+    /**
+     * Crea una copia de otro conjunto
+     *
+     * @param otro El conjunto a copiar
+     */
+    public IntervalosDias(IntervalosDias otro) {
+        this.inicios = Arrays.copyOf(otro.inicios, Math.max(otro.tamano, CAPACIDAD_INICIAL));
+        this.fines = Arrays.copyOf(otro.fines, Math.max(otro.tamano, CAPACIDAD_INICIAL));
+        this.tamano = otro.tamano;
+    }
+
+    /**
+     * Agrega los días de un intervalo cerrado, fusionándolo con los intervalos
+     * existentes que se solapen con él o que queden contiguos
+     *
+     * @param inicio Primer día del intervalo
+     * @param fin Último día del intervalo
+     * @throws IllegalArgumentException Si el inicio es posterior al fin
+     */
+    public void agregar(int inicio, int fin) {
+        if (inicio > fin) {
+            throw new IllegalArgumentException("El inicio del intervalo es posterior al fin");
+        }
+
+        // Primer intervalo que termina en inicio - 1 o después (puede fusionarse por contigüidad)
+        int desde = primeroQueTerminaDesde(inicio == Integer.MIN_VALUE ? inicio : inicio - 1);
+        // Intervalos [desde, hasta) que se fusionan con el nuevo
+        int hasta = desde;
+        while (hasta < tamano && (fin == Integer.MAX_VALUE || inicios[hasta] <= fin + 1)) {
+            hasta++;
+        }
+
+        if (desde < hasta) {
+            inicio = Math.min(inicio, inicios[desde]);
+            fin = Math.max(fin, fines[hasta - 1]);
+        }
+
+        int eliminados = hasta - desde;
+        if (eliminados == 0) {
+            asegurarCapacidad(tamano + 1);
+            System.arraycopy(inicios, desde, inicios, desde + 1, tamano - desde);
+            System.arraycopy(fines, desde, fines, desde + 1, tamano - desde);
+            tamano++;
+        } else if (eliminados > 1) {
+            System.arraycopy(inicios, hasta, inicios, desde + 1, tamano - hasta);
+            System.arraycopy(fines, hasta, fines, desde + 1, tamano - hasta);
+            tamano -= eliminados - 1;
+        }
+        inicios[desde] = inicio;
+        fines[desde] = fin;
+    }
+
+    /**
+     * Verifica si un día pertenece a alguno de los intervalos
+     *
+     * @param dia El día de época
+     * @return true si el día está en el conjunto
+     */
+    public boolean contiene(int dia) {
+        int i = primeroQueTerminaDesde(dia);
+        return i < tamano && inicios[i] <= dia;
+    }
+
+    /**
+     * Obtiene el número de intervalos (después de fusionar)
+     *
+     * @return El número de intervalos
+     */
+    public int numeroIntervalos() {
+        return tamano;
+    }
+
+    /**
+     * Obtiene el primer día de un intervalo
+     *
+     * @param indice Índice del intervalo, en orden cronológico
+     * @return El primer día
+     */
+    public int inicio(int indice) {
+        if (indice >= tamano) {
+            throw new IndexOutOfBoundsException("Intervalo inexistente: " + indice);
+        }
+        return inicios[indice];
+    }
+
+    /**
+     * Obtiene el último día de un intervalo
+     *
+     * @param indice Índice del intervalo, en orden cronológico
+     * @return El último día
+     */
+    public int fin(int indice) {
+        if (indice >= tamano) {
+            throw new IndexOutOfBoundsException("Intervalo inexistente: " + indice);
+        }
+        return fines[indice];
+    }
+
+    /**
+     * Verifica si el conjunto no tiene días
+     *
+     * @return true si está vacío
+     */
+    public boolean estaVacio() {
+        return tamano == 0;
+    }
+
+    /**
+     * Busca el primer intervalo cuyo fin es mayor o igual al día dado
+     *
+     * @return El índice del intervalo, o tamano si no hay ninguno
+     */
+    private int primeroQueTerminaDesde(int dia) {
+        int bajo = 0;
+        int alto = tamano;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (fines[medio] < dia) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+
+    private void asegurarCapacidad(int capacidad) {
+        if (capacidad > inicios.length) {
+            int nueva = Math.max(capacidad, inicios.length * 2);
+            inicios = Arrays.copyOf(inicios, nueva);
+            fines = Arrays.copyOf(fines, nueva);
+        }
+    }
+}
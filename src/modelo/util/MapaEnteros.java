@@ -0,0 +1,265 @@
+package modelo.util;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Mapa con llaves enteras primitivas basado en direccionamiento abierto.
+ * Evita el boxing de las llaves y los nodos intermedios de un HashMap,
+ * por lo que sirve como índice primario para colecciones grandes.
+ *
+ * No admite valores nulos. No es seguro para escrituras concurrentes.
+ *
+ * @param <V> Tipo de los valores almacenados
+ */
+public class MapaEnteros<V> implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final int CAPACIDAD_INICIAL = 16;
+    private static final float FACTOR_CARGA = 0.5f;
+
+    private int[] llaves;
+    private Object[] valores;
+    private int tamano;
+    private int umbral;
+
+    /**
+     * Crea un mapa vacío
+     */
+    public MapaEnteros() {
+        this(CAPACIDAD_INICIAL);
+    }
+
+    /**
+     * Crea un mapa con capacidad para el número de elementos esperado
+     *
+     * @param elementosEsperados Número de elementos que se espera almacenar
+     */
+    public MapaEnteros(int elementosEsperados) {
+        int capacidad = CAPACIDAD_INICIAL;
+        while (capacidad * FACTOR_CARGA < elementosEsperados) {
+            capacidad <<= 1;
+        }
+        this.llaves = new int[capacidad];
+        this.valores = new Object[capacidad];
+        this.umbral = (int) (capacidad * FACTOR_CARGA);
+    }
+
+    /**
+     * Obtiene el valor asociado a una llave
+     *
+     * @param llave La llave a buscar
+     * @return El valor asociado, o null si la llave no existe
+     */
+    @SuppressWarnings("unchecked")
+    public V obtener(int llave) {
+        int mascara = llaves.length - 1;
+        int i = indice(llave, mascara);
+        Object valor;
+        while ((valor = valores[i]) != null) {
+            if (llaves[i] == llave) {
+                return (V) valor;
+            }
+            i = (i + 1) & mascara;
+        }
+        return null;
+    }
+
+    /**
+     * Verifica si una llave existe en el mapa
+     *
+     * @param llave La llave a verificar
+     * @return true si la llave existe
+     */
+    public boolean contiene(int llave) {
+        return obtener(llave) != null;
+    }
+
+    /**
+     * Asocia un valor a una llave, reemplazando el valor anterior si existía
+     *
+     * @param llave La llave
+     * @param valor El valor a asociar (no puede ser nulo)
+     * @return El valor anterior, o null si la llave no existía
+     */
+    @SuppressWarnings("unchecked")
+    public V poner(int llave, V valor) {
+        if (valor == null) {
+            throw new IllegalArgumentException("El valor no puede ser nulo");
+        }
+
+        int mascara = llaves.length - 1;
+        int i = indice(llave, mascara);
+        Object actual;
+        while ((actual = valores[i]) != null) {
+            if (llaves[i] == llave) {
+                valores[i] = valor;
+                return (V) actual;
+            }
+            i = (i + 1) & mascara;
+        }
+
+        llaves[i] = llave;
+        valores[i] = valor;
+        if (++tamano > umbral) {
+            redimensionar();
+        }
+        return null;
+    }
+
+    /**
+     * Asocia un valor a una llave solo si la llave no existía
+     *
+     * @param llave La llave
+     * @param valor El valor a asociar (no puede ser nulo)
+     * @return El valor existente, o null si se asoció el nuevo valor
+     */
+    public V ponerSiAusente(int llave, V valor) {
+        V existente = obtener(llave);
+        if (existente != null) {
+            return existente;
+        }
+        poner(llave, valor);
+        return null;
+    }
+
+    /**
+     * Elimina la asociación de una llave. Las llaves que venían después en la misma
+     * secuencia de sondeo se corren hacia atrás, así que no quedan marcas de borrado
+     *
+     * @param llave La llave a eliminar
+     * @return El valor que tenía la llave, o null si no existía
+     */
+    @SuppressWarnings("unchecked")
+    public V eliminar(int llave) {
+        int mascara = llaves.length - 1;
+        int i = indice(llave, mascara);
+        Object valor;
+        while ((valor = valores[i]) != null) {
+            if (llaves[i] == llave) {
+                break;
+            }
+            i = (i + 1) & mascara;
+        }
+        if (valor == null) {
+            return null;
+        }
+
+        // Borrado por corrimiento hacia atrás (sondeo lineal)
+        int hueco = i;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mascara;
+            if (valores[j] == null) {
+                break;
+            }
+            int inicial = indice(llaves[j], mascara);
+            // El elemento en j puede ocupar el hueco si su posición inicial no está entre el hueco y j
+            boolean entre = hueco <= j ? hueco < inicial && inicial <= j : hueco < inicial || inicial <= j;
+            if (!entre) {
+                llaves[hueco] = llaves[j];
+                valores[hueco] = valores[j];
+                hueco = j;
+            }
+        }
+        valores[hueco] = null;
+        tamano--;
+        return (V) valor;
+    }
+
+    /**
+     * Obtiene el número de elementos del mapa
+     *
+     * @return El número de elementos
+     */
+    public int tamano() {
+        return tamano;
+    }
+
+    /**
+     * Verifica si el mapa está vacío
+     *
+     * @return true si el mapa no tiene elementos
+     */
+    public boolean estaVacio() {
+        return tamano == 0;
+    }
+
+    /**
+     * Elimina todos los elementos del mapa
+     */
+    public void limpiar() {
+        Arrays.fill(valores, null);
+        tamano = 0;
+    }
+
+    /**
+     * Obtiene las llaves del mapa (sin orden definido)
+     *
+     * @return Arreglo con las llaves
+     */
+    public int[] llaves() {
+        int[] resultado = new int[tamano];
+        int n = 0;
+        for (int i = 0; i < valores.length; i++) {
+            if (valores[i] != null) {
+                resultado[n++] = llaves[i];
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Obtiene una copia de los valores del mapa (sin orden definido)
+     *
+     * @return Lista con los valores
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> valores() {
+        List<V> lista = new ArrayList<>(tamano);
+        for (Object valor : valores) {
+            if (valor != null) {
+                lista.add((V) valor);
+            }
+        }
+        return lista;
+    }
+
+    /**
+     * Duplica la capacidad de la tabla y reubica los elementos
+     */
+    private void redimensionar() {
+        int[] llavesAnteriores = llaves;
+        Object[] valoresAnteriores = valores;
+        int capacidad = llavesAnteriores.length << 1;
+        int mascara = capacidad - 1;
+
+        llaves = new int[capacidad];
+        valores = new Object[capacidad];
+        umbral = (int) (capacidad * FACTOR_CARGA);
+
+        for (int j = 0; j < llavesAnteriores.length; j++) {
+            if (valoresAnteriores[j] != null) {
+                int i = indice(llavesAnteriores[j], mascara);
+                while (valores[i] != null) {
+                    i = (i + 1) & mascara;
+                }
+                llaves[i] = llavesAnteriores[j];
+                valores[i] = valoresAnteriores[j];
+            }
+        }
+    }
+
+    /**
+     * Calcula la posición inicial de una llave en la tabla
+     *
+     * @param llave La llave
+     * @param mascara Máscara de la capacidad actual
+     * @return La posición inicial
+     */
+    private static int indice(int llave, int mascara) {
+        int h = llave * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mascara;
+    }
+}
@@ -1,10 +1,40 @@
 package modelo.util;
 
+/**
+ * Niveles de exclusividad de tiquetes y atracciones.
+ *
+ * Además del nombre, cada nivel tiene un ordinal que los tiquetes y las atracciones
+ * calculan una sola vez. La regla de acceso está precalculada como una matriz de
+ * bits (una máscara por nivel de tiquete), así que decidir el acceso en la entrada
+ * es una sola consulta sin comparar textos.
+ */
 public class NivelExclusividad {
     public static final String FAMILIAR = "Familiar";
     public static final String ORO = "Oro";
     public static final String DIAMANTE = "Diamante";
     
+    /**
+     * Ordinal de un nivel desconocido o nulo
+     */
+    public static final int NINGUNO = 0;
+    public static final int ORDINAL_FAMILIAR = 1;
+    public static final int ORDINAL_ORO = 2;
+    public static final int ORDINAL_DIAMANTE = 3;
+    
+    private static final String[] NOMBRES = { null, FAMILIAR, ORO, DIAMANTE };
+    
+    /**
+     * Máscaras de acceso por ordinal del tiquete: el bit j indica si el tiquete
+     * puede entrar a una atracción de ordinal j. Diamante entra a todo, incluso a
+     * atracciones sin nivel reconocido
+     */
+    private static final int[] ACCESO = {
+        0,
+        1 << ORDINAL_FAMILIAR,
+        1 << ORDINAL_FAMILIAR | 1 << ORDINAL_ORO,
+        1 << NINGUNO | 1 << ORDINAL_FAMILIAR | 1 << ORDINAL_ORO | 1 << ORDINAL_DIAMANTE
+    };
+    
     /**
      * Verifica si un nivel de exclusividad es válido
      * 
@@ -12,18 +42,60 @@ public class NivelExclusividad {
      * @return true si el nivel es válido, false de lo contrario
      */
     public static boolean esValido(String nivel) {
-        return nivel.equals(FAMILIAR) || nivel.equals(ORO) || nivel.equals(DIAMANTE);
+        return ordinal(nivel) != NINGUNO;
     }
     
-
-    public static boolean tieneAcceso(String nivelTiquete, String nivelAtraccion) {
-        if (nivelTiquete.equals(DIAMANTE)) {
-            return true; // Diamante tiene acceso a todo
-        } else if (nivelTiquete.equals(ORO)) {
-            return nivelAtraccion.equals(FAMILIAR) || nivelAtraccion.equals(ORO);
-        } else if (nivelTiquete.equals(FAMILIAR)) {
-            return nivelAtraccion.equals(FAMILIAR);
+    /**
+     * Obtiene el ordinal de un nivel de exclusividad
+     * 
+     * @param nivel El nombre del nivel
+     * @return El ordinal, o NINGUNO si el nivel es nulo o no es válido
+     */
+    public static int ordinal(String nivel) {
+        if (nivel == null) {
+            return NINGUNO;
         }
-        return false;
+        switch (nivel) {
+            case FAMILIAR:
+                return ORDINAL_FAMILIAR;
+            case ORO:
+                return ORDINAL_ORO;
+            case DIAMANTE:
+                return ORDINAL_DIAMANTE;
+            default:
+                return NINGUNO;
+        }
+    }
+    
+    /**
+     * Obtiene el nombre de un nivel a partir de su ordinal
+     * 
+     * @param ordinal El ordinal del nivel
+     * @return El nombre, o null si el ordinal es NINGUNO o no existe
+     */
+    public static String nombre(int ordinal) {
+        return ordinal > NINGUNO && ordinal < NOMBRES.length ? NOMBRES[ordinal] : null;
+    }
+    
+    /**
+     * Verifica si un tiquete de un nivel puede acceder a una atracción de otro nivel
+     * 
+     * @param nivelTiquete El nivel del tiquete
+     * @param nivelAtraccion El nivel de la atracción
+     * @return true si el tiquete tiene acceso
+     */
+    public static boolean tieneAcceso(String nivelTiquete, String nivelAtraccion) {
+        return tieneAcceso(ordinal(nivelTiquete), ordinal(nivelAtraccion));
+    }
+    
+    /**
+     * Verifica el acceso con los ordinales de los niveles, consultando la matriz
+     * 
+     * @param ordinalTiquete El ordinal del nivel del tiquete
+     * @param ordinalAtraccion El ordinal del nivel de la atracción
+     * @return true si el tiquete tiene acceso
+     */
+    public static boolean tieneAcceso(int ordinalTiquete, int ordinalAtraccion) {
+        return (ACCESO[ordinalTiquete] >>> ordinalAtraccion & 1) != 0;
     }
-}
\ No newline at end of file
+}
@@ -7,6 +7,13 @@ public class Turno {
     public static final String APERTURA = "Apertura";
     public static final String CIERRE = "Cierre";
     
+    /**
+     * Número de turnos por día; los ordinales van de 0 a NUMERO_TURNOS - 1
+     */
+    public static final int NUMERO_TURNOS = 2;
+    
+    private static final String[] NOMBRES = { APERTURA, CIERRE };
+    
     /**
      * Verifica si un turno es válido
      * 
@@ -14,6 +21,32 @@ public class Turno {
      * @return true si el turno es válido, false de lo contrario
      */
     public static boolean esValido(String turno) {
-        return turno.equals(APERTURA) || turno.equals(CIERRE);
+        return ordinal(turno) >= 0;
+    }
+    
+    /**
+     * Obtiene el ordinal de un turno, para usarlo como índice
+     * 
+     * @param turno El turno
+     * @return El ordinal, o -1 si el turno es nulo o no es válido
+     */
+    public static int ordinal(String turno) {
+        if (APERTURA.equals(turno)) {
+            return 0;
+        }
+        if (CIERRE.equals(turno)) {
+            return 1;
+        }
+        return -1;
+    }
+    
+    /**
+     * Obtiene el nombre de un turno a partir de su ordinal
+     * 
+     * @param ordinal El ordinal del turno
+     * @return El nombre del turno
+     */
+    public static String nombre(int ordinal) {
+        return NOMBRES[ordinal];
     }
 }
\ No newline at end of file
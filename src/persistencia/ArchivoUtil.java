@@ -7,6 +7,8 @@ import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -33,6 +35,7 @@ public class ArchivoUtil {
         try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(archivo)))) {
             writer.print(contenido);
         }
+        invalidarInstantanea(nombreArchivo);
     }
     
     /**
@@ -78,6 +81,29 @@ public class ArchivoUtil {
                 writer.println(linea);
             }
         }
+        invalidarInstantanea(nombreArchivo);
+    }
+    
+    /**
+     * Reemplaza el contenido de un archivo con una lista de líneas. Las líneas se
+     * escriben primero en un archivo temporal que luego se mueve sobre el original,
+     * de modo que un fallo a mitad de la escritura no deja el archivo incompleto
+     * 
+     * @param lineas La lista de líneas a guardar
+     * @param nombreArchivo El nombre del archivo
+     * @throws IOException Si hay un error al guardar el archivo
+     */
+    public static void reemplazarLineas(List<String> lineas, String nombreArchivo) throws IOException {
+        File archivo = obtenerArchivo(nombreArchivo);
+        File temporal = obtenerArchivo(nombreArchivo + ".tmp");
+        try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(temporal)))) {
+            for (String linea : lineas) {
+                writer.println(linea);
+            }
+        }
+        Files.move(temporal.toPath(), archivo.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        invalidarInstantanea(nombreArchivo);
     }
     
     /**
@@ -105,6 +131,78 @@ public class ArchivoUtil {
         return lineas;
     }
     
+    /**
+     * Abre un archivo de registros para recorrerlo sin copias. Si existe una
+     * instantánea binaria vigente del archivo se lee esa en lugar del texto
+     * 
+     * @param nombreArchivo El nombre del archivo
+     * @return La fuente de registros (debe cerrarse al terminar)
+     * @throws IOException Si hay un error al abrir el archivo
+     */
+    public static FuenteRegistros abrirRegistros(String nombreArchivo) throws IOException {
+        if (instantaneaVigente(nombreArchivo)) {
+            return new LectorColumnar(new File(RUTA_DATOS + nombreInstantanea(nombreArchivo)));
+        }
+        return new LectorRegistros(new File(RUTA_DATOS + nombreArchivo));
+    }
+    
+    /**
+     * Verifica si hay registros que abrir para un archivo: el texto o una
+     * instantánea binaria vigente, aunque el texto no exista
+     * 
+     * @param nombreArchivo El nombre del archivo de texto
+     * @return true si abrirRegistros puede abrir el archivo
+     */
+    public static boolean existenRegistros(String nombreArchivo) {
+        return existeArchivo(nombreArchivo) || instantaneaVigente(nombreArchivo);
+    }
+    
+    /**
+     * Obtiene el nombre de la instantánea binaria de un archivo de texto
+     * 
+     * @param nombreArchivo El nombre del archivo de texto
+     * @return El nombre de la instantánea (misma base con extensión .bin)
+     */
+    static String nombreInstantanea(String nombreArchivo) {
+        String base = nombreArchivo.endsWith(".txt")
+                ? nombreArchivo.substring(0, nombreArchivo.length() - 4)
+                : nombreArchivo;
+        return base + ".bin";
+    }
+    
+    /**
+     * Verifica si la instantánea binaria de un archivo existe y no es más antigua que el texto
+     * 
+     * @param nombreArchivo El nombre del archivo de texto
+     * @return true si la instantánea puede usarse en lugar del texto
+     */
+    static boolean instantaneaVigente(String nombreArchivo) {
+        File archivo = new File(RUTA_DATOS + nombreArchivo);
+        File instantanea = new File(RUTA_DATOS + nombreInstantanea(nombreArchivo));
+        return instantanea.exists() && (!archivo.exists() || instantanea.lastModified() >= archivo.lastModified());
+    }
+    
+    /**
+     * Elimina la instantánea binaria de un archivo que acaba de escribirse como texto
+     */
+    private static void invalidarInstantanea(String nombreArchivo) {
+        new File(RUTA_DATOS + nombreInstantanea(nombreArchivo)).delete();
+    }
+    
+    /**
+     * Obtiene un archivo de la carpeta de datos, creando la carpeta si no existe
+     * 
+     * @param nombreArchivo El nombre del archivo
+     * @return El archivo
+     */
+    static File obtenerArchivo(String nombreArchivo) {
+        File carpeta = new File(RUTA_DATOS);
+        if (!carpeta.exists()) {
+            carpeta.mkdirs();
+        }
+        return new File(RUTA_DATOS + nombreArchivo);
+    }
+    
     /**
      * Verifica si un archivo existe
      * 
@@ -123,6 +221,7 @@ public class ArchivoUtil {
      * @return true si el archivo fue eliminado
      */
     public static boolean eliminarArchivo(String nombreArchivo) {
+        invalidarInstantanea(nombreArchivo);
         File archivo = new File(RUTA_DATOS + nombreArchivo);
         return archivo.delete();
     }
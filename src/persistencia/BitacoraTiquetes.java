@@ -0,0 +1,640 @@
+package persistencia;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import excepciones.TiqueteException;
+import modelo.tiquetes.EnTemporada;
+import modelo.tiquetes.FastPass;
+import modelo.tiquetes.Individual;
+import modelo.tiquetes.RegistroCambiosTiquetes;
+import modelo.tiquetes.Tiquete;
+import modelo.tiquetes.TiqueteBasico;
+
+/**
+ * Bitácora de solo escritura al final para los cambios de tiquetes (venta, uso,
+ * descuento de empleado y uso de FastPass). Registrar un cambio cuesta una línea
+ * de I/O en lugar de reescribir el archivo completo de tiquetes.
+ *
+ * Las escrituras concurrentes se agrupan: un único hilo escritor toma todos los
+ * registros pendientes, los escribe en un solo lote y despierta a quienes los
+ * registraron. La sincronización con el disco (fsync) se hace cada cierto número
+ * de registros o de milisegundos, según la configuración.
+ *
+ * Es el RegistroCambiosTiquetes de la taquilla, el cajero, el validador de acceso
+ * y el administrador: cada venta, uso o descuento se anota aquí antes de
+ * aplicarse, y los archivos de tiquetes solo se reescriben al compactar.
+ *
+ * Periódicamente la bitácora se compacta: se rota el archivo y sus registros se
+ * incorporan a los archivos de tiquetes, que siguen siendo la fuente para cargar.
+ * Al iniciar la aplicación debe llamarse compactar() antes de cargar los tiquetes
+ * para incorporar lo que haya quedado en la bitácora (CargadorParque lo hace).
+ */
+public class BitacoraTiquetes implements Closeable, RegistroCambiosTiquetes {
+    static final String ARCHIVO_BITACORA = "tiquetes_bitacora.txt";
+    static final String ARCHIVO_COMPACTANDO = "tiquetes_bitacora_compactando.txt";
+
+    /**
+     * Sincronización por defecto: cada 64 registros o cada 10 milisegundos
+     */
+    public static final int REGISTROS_POR_SINCRONIZACION = 64;
+    public static final long MILIS_ENTRE_SINCRONIZACIONES = 10;
+
+    // Tipos de registro (primer campo de cada línea)
+    private static final String VENTA_BASICO = "VB";
+    private static final String VENTA_TEMPORADA = "VT";
+    private static final String VENTA_INDIVIDUAL = "VI";
+    private static final String VENTA_FASTPASS = "VF";
+    private static final String USO = "U";
+    private static final String DESCUENTO = "D";
+    private static final String USO_FASTPASS = "UF";
+
+    // Posición de los campos en los archivos de tiquetes
+    private static final int CAMPO_DCTO_EMPLEADO = 6;
+    private static final int CAMPO_USADO = 8;
+    private static final int CAMPO_FASTPASS_USADO = 2;
+
+    private final int registrosPorSincronizacion;
+    private final long nanosEntreSincronizaciones;
+    private final Charset codificacion;
+
+    // Cola de registros pendientes, protegida por cerrojo
+    private final ReentrantLock cerrojo;
+    private final Condition hayPendientes;
+    private final Condition loteEscrito;
+    private List<String> pendientes;
+    private long ultimoEncolado;
+    private long ultimoEscrito;
+    private IOException error;
+    private boolean cerrada;
+
+    // Archivo de la bitácora, compartido por el escritor y la compactación
+    private final Object cerrojoArchivo;
+    private FileChannel canal;
+    private int sinSincronizar;
+    private long ultimaSincronizacion;
+
+    private final Object cerrojoCompactacion;
+    private final Thread escritor;
+    private ScheduledExecutorService compactador;
+    private volatile TiqueteException errorCompactacion;
+
+    /**
+     * Abre la bitácora con la sincronización por defecto
+     *
+     * @throws TiqueteException Si no se puede abrir el archivo de la bitácora
+     */
+    public BitacoraTiquetes() throws TiqueteException {
+        this(REGISTROS_POR_SINCRONIZACION, MILIS_ENTRE_SINCRONIZACIONES);
+    }
+
+    /**
+     * Abre la bitácora con una sincronización configurable. Con 1 registro por
+     * sincronización cada lote se sincroniza con el disco antes de responder;
+     * con valores mayores el costo del fsync se reparte entre varios lotes, a
+     * cambio de poder perder los últimos registros si el sistema se cae.
+     *
+     * @param registrosPorSincronizacion Registros escritos tras los cuales se sincroniza
+     * @param milisEntreSincronizaciones Tiempo máximo sin sincronizar registros escritos
+     * @throws TiqueteException Si no se puede abrir el archivo de la bitácora
+     */
+    public BitacoraTiquetes(int registrosPorSincronizacion, long milisEntreSincronizaciones) throws TiqueteException {
+        if (registrosPorSincronizacion < 1 || milisEntreSincronizaciones < 0) {
+            throw new IllegalArgumentException("Configuración de sincronización inválida");
+        }
+
+        this.registrosPorSincronizacion = registrosPorSincronizacion;
+        this.nanosEntreSincronizaciones = TimeUnit.MILLISECONDS.toNanos(milisEntreSincronizaciones);
+        // Mismo juego de caracteres que usan FileWriter y LectorRegistros
+        this.codificacion = Charset.defaultCharset();
+
+        this.cerrojo = new ReentrantLock();
+        this.hayPendientes = cerrojo.newCondition();
+        this.loteEscrito = cerrojo.newCondition();
+        this.pendientes = new ArrayList<>();
+        this.cerrojoArchivo = new Object();
+        this.cerrojoCompactacion = new Object();
+
+        try {
+            this.canal = abrirCanal();
+        } catch (IOException e) {
+            throw new TiqueteException("Error al abrir la bitácora de tiquetes", e);
+        }
+        this.ultimaSincronizacion = System.nanoTime();
+
+        this.escritor = new Thread(this::escribirLotes, "escritor-bitacora-tiquetes");
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+    }
+
+    /**
+     * Registra la venta de un tiquete
+     *
+     * @param tiquete El tiquete vendido
+     * @throws TiqueteException Si hay un error al escribir en la bitácora
+     */
+    @Override
+    public void registrarVenta(Tiquete tiquete) throws TiqueteException {
+        if (tiquete instanceof TiqueteBasico) {
+            registrar(VENTA_BASICO + "|" + PersistenciaTiquetes.lineaTiqueteBasico((TiqueteBasico) tiquete));
+        } else if (tiquete instanceof EnTemporada) {
+            registrar(VENTA_TEMPORADA + "|" + PersistenciaTiquetes.lineaTiqueteTemporada((EnTemporada) tiquete));
+        } else if (tiquete instanceof Individual) {
+            registrar(VENTA_INDIVIDUAL + "|" + PersistenciaTiquetes.lineaTiqueteIndividual((Individual) tiquete));
+        } else {
+            throw new TiqueteException("Tipo de tiquete no soportado por la bitácora");
+        }
+    }
+
+    /**
+     * Registra la venta de un FastPass
+     *
+     * @param fastPass El FastPass vendido
+     * @throws TiqueteException Si hay un error al escribir en la bitácora
+     */
+    @Override
+    public void registrarVentaFastPass(FastPass fastPass) throws TiqueteException {
+        registrar(VENTA_FASTPASS + "|" + PersistenciaTiquetes.lineaFastPass(fastPass));
+    }
+
+    /**
+     * Registra que un tiquete fue usado
+     *
+     * @param tiquete El tiquete usado
+     * @throws TiqueteException Si hay un error al escribir en la bitácora
+     */
+    @Override
+    public void registrarUso(Tiquete tiquete) throws TiqueteException {
+        registrar(USO + "|" + tiquete.getId());
+    }
+
+    /**
+     * Registra que a un tiquete se le aplicó el descuento de empleado
+     *
+     * @param tiquete El tiquete con descuento
+     * @throws TiqueteException Si hay un error al escribir en la bitácora
+     */
+    @Override
+    public void registrarDescuento(Tiquete tiquete) throws TiqueteException {
+        registrar(DESCUENTO + "|" + tiquete.getId());
+    }
+
+    /**
+     * Registra que un FastPass fue usado
+     *
+     * @param fastPass El FastPass usado
+     * @throws TiqueteException Si hay un error al escribir en la bitácora
+     */
+    @Override
+    public void registrarUsoFastPass(FastPass fastPass) throws TiqueteException {
+        // La llave del FastPass son sus dos primeros campos: tiquete y fecha
+        String linea = PersistenciaTiquetes.lineaFastPass(fastPass);
+        registrar(USO_FASTPASS + "|" + llave(linea, 2));
+    }
+
+    /**
+     * Incorpora la bitácora a los archivos de tiquetes. La bitácora se rota
+     * primero, así que las ventas pueden seguir registrándose mientras se compacta.
+     * Si una compactación anterior fue interrumpida, sus registros se incorporan
+     * antes; volver a aplicar un registro no tiene efecto.
+     *
+     * @throws TiqueteException Si hay un error al leer o escribir los archivos
+     */
+    public void compactar() throws TiqueteException {
+        synchronized (cerrojoCompactacion) {
+            try {
+                if (ArchivoUtil.existeArchivo(ARCHIVO_COMPACTANDO)) {
+                    incorporar();
+                }
+                if (rotar()) {
+                    incorporar();
+                }
+            } catch (IOException e) {
+                throw new TiqueteException("Error al compactar la bitácora de tiquetes", e);
+            }
+        }
+    }
+
+    /**
+     * Inicia la compactación periódica en un hilo de fondo. Si una compactación
+     * falla, los registros siguen en la bitácora, se reintenta en el siguiente
+     * periodo y el error queda disponible en getErrorCompactacion()
+     *
+     * @param periodo Tiempo entre compactaciones
+     * @param unidad Unidad del periodo
+     */
+    public synchronized void iniciarCompactacion(long periodo, TimeUnit unidad) {
+        if (compactador != null) {
+            return;
+        }
+
+        compactador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "compactador-bitacora-tiquetes");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        compactador.scheduleWithFixedDelay(() -> {
+            try {
+                compactar();
+                errorCompactacion = null;
+            } catch (TiqueteException e) {
+                errorCompactacion = e;
+            }
+        }, periodo, periodo, unidad);
+    }
+
+    /**
+     * Obtiene el error de la última compactación periódica
+     *
+     * @return El error, o null si la última compactación periódica terminó bien
+     */
+    public TiqueteException getErrorCompactacion() {
+        return errorCompactacion;
+    }
+
+    /**
+     * Escribe los registros pendientes, sincroniza y cierra la bitácora.
+     * Detiene la compactación periódica si estaba activa.
+     *
+     * @throws IOException Si hay un error al cerrar el archivo
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (compactador != null) {
+                compactador.shutdown();
+            }
+        }
+
+        cerrojo.lock();
+        try {
+            if (cerrada) {
+                return;
+            }
+            cerrada = true;
+            hayPendientes.signal();
+        } finally {
+            cerrojo.unlock();
+        }
+
+        boolean interrumpido = false;
+        while (escritor.isAlive()) {
+            try {
+                escritor.join();
+            } catch (InterruptedException e) {
+                interrumpido = true;
+            }
+        }
+        if (interrumpido) {
+            Thread.currentThread().interrupt();
+        }
+
+        synchronized (cerrojoCompactacion) {
+            synchronized (cerrojoArchivo) {
+                try {
+                    if (sinSincronizar > 0) {
+                        sincronizar();
+                    }
+                } finally {
+                    canal.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Encola un registro y espera a que el escritor lo haya escrito
+     */
+    private void registrar(String linea) throws TiqueteException {
+        cerrojo.lock();
+        try {
+            if (cerrada) {
+                throw new TiqueteException("La bitácora de tiquetes está cerrada");
+            }
+            if (error != null) {
+                throw new TiqueteException("Error al escribir en la bitácora de tiquetes", error);
+            }
+
+            pendientes.add(linea);
+            long secuencia = ++ultimoEncolado;
+            hayPendientes.signal();
+
+            while (ultimoEscrito < secuencia && error == null) {
+                loteEscrito.awaitUninterruptibly();
+            }
+            if (ultimoEscrito < secuencia) {
+                throw new TiqueteException("Error al escribir en la bitácora de tiquetes", error);
+            }
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Ciclo del hilo escritor: toma todos los registros pendientes y los escribe
+     * como un solo lote. Si no llegan registros, sincroniza lo que esté escrito
+     * cuando se cumple el tiempo máximo.
+     */
+    private void escribirLotes() {
+        while (true) {
+            long espera;
+            synchronized (cerrojoArchivo) {
+                espera = sinSincronizar > 0
+                        ? Math.max(1, ultimaSincronizacion + nanosEntreSincronizaciones - System.nanoTime())
+                        : -1;
+            }
+
+            List<String> lote;
+            long secuencia;
+            cerrojo.lock();
+            try {
+                while (pendientes.isEmpty() && !cerrada && espera != 0) {
+                    if (espera < 0) {
+                        hayPendientes.awaitUninterruptibly();
+                    } else {
+                        try {
+                            espera = Math.max(0, hayPendientes.awaitNanos(espera));
+                        } catch (InterruptedException e) {
+                            // Solo close() detiene al escritor
+                        }
+                    }
+                }
+                if (pendientes.isEmpty() && cerrada) {
+                    return;
+                }
+                lote = pendientes;
+                pendientes = new ArrayList<>();
+                secuencia = ultimoEncolado;
+            } finally {
+                cerrojo.unlock();
+            }
+
+            IOException fallo = null;
+            try {
+                escribir(lote);
+            } catch (IOException e) {
+                fallo = e;
+            }
+
+            if (lote.isEmpty()) {
+                continue;
+            }
+            cerrojo.lock();
+            try {
+                if (fallo != null) {
+                    error = fallo;
+                } else {
+                    ultimoEscrito = secuencia;
+                }
+                loteEscrito.signalAll();
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+    }
+
+    /**
+     * Escribe un lote al final de la bitácora y sincroniza si corresponde
+     */
+    private void escribir(List<String> lote) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (String linea : lote) {
+            sb.append(linea).append('\n');
+        }
+        ByteBuffer datos = codificacion.encode(CharBuffer.wrap(sb));
+
+        synchronized (cerrojoArchivo) {
+            while (datos.hasRemaining()) {
+                canal.write(datos);
+            }
+            sinSincronizar += lote.size();
+            if (sinSincronizar > 0 && (sinSincronizar >= registrosPorSincronizacion
+                    || System.nanoTime() - ultimaSincronizacion >= nanosEntreSincronizaciones)) {
+                sincronizar();
+            }
+        }
+    }
+
+    /**
+     * Sincroniza la bitácora con el disco. Debe llamarse con cerrojoArchivo tomado.
+     */
+    private void sincronizar() throws IOException {
+        canal.force(false);
+        sinSincronizar = 0;
+        ultimaSincronizacion = System.nanoTime();
+    }
+
+    /**
+     * Rota la bitácora actual al archivo de compactación y abre una nueva
+     *
+     * @return true si había registros para compactar
+     */
+    private boolean rotar() throws IOException, TiqueteException {
+        synchronized (cerrojoArchivo) {
+            if (!canal.isOpen()) {
+                throw new TiqueteException("La bitácora de tiquetes está cerrada");
+            }
+            if (canal.size() == 0) {
+                return false;
+            }
+
+            sincronizar();
+            canal.close();
+            try {
+                File bitacora = ArchivoUtil.obtenerArchivo(ARCHIVO_BITACORA);
+                File compactando = ArchivoUtil.obtenerArchivo(ARCHIVO_COMPACTANDO);
+                Files.move(bitacora.toPath(), compactando.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                // Si no se pudo mover, se sigue escribiendo al final de la misma bitácora
+                canal = abrirCanal();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Aplica la bitácora rotada sobre los archivos de tiquetes y la elimina
+     */
+    private void incorporar() throws IOException {
+        Instantanea basicos = new Instantanea(PersistenciaTiquetes.ARCHIVO_TIQUETES_BASICOS, 1);
+        Instantanea temporada = new Instantanea(PersistenciaTiquetes.ARCHIVO_TIQUETES_TEMPORADA, 1);
+        Instantanea individuales = new Instantanea(PersistenciaTiquetes.ARCHIVO_TIQUETES_INDIVIDUALES, 1);
+        Instantanea fastPasses = new Instantanea(PersistenciaTiquetes.ARCHIVO_FAST_PASSES, 2);
+        Instantanea[] tiquetes = { basicos, temporada, individuales };
+
+        for (String registro : leerRegistros(ArchivoUtil.obtenerArchivo(ARCHIVO_COMPACTANDO))) {
+            int separador = registro.indexOf('|');
+            if (separador < 0) {
+                continue;
+            }
+            String tipo = registro.substring(0, separador);
+            String datos = registro.substring(separador + 1);
+
+            switch (tipo) {
+                case VENTA_BASICO:
+                    basicos.agregar(datos);
+                    break;
+                case VENTA_TEMPORADA:
+                    temporada.agregar(datos);
+                    break;
+                case VENTA_INDIVIDUAL:
+                    individuales.agregar(datos);
+                    break;
+                case VENTA_FASTPASS:
+                    fastPasses.agregar(datos);
+                    break;
+                case USO:
+                    marcarTiquete(tiquetes, datos, CAMPO_USADO);
+                    break;
+                case DESCUENTO:
+                    marcarTiquete(tiquetes, datos, CAMPO_DCTO_EMPLEADO);
+                    break;
+                case USO_FASTPASS:
+                    fastPasses.marcar(datos, CAMPO_FASTPASS_USADO);
+                    break;
+                default:
+                    // Registro desconocido: se ignora
+                    break;
+            }
+        }
+
+        basicos.guardar();
+        temporada.guardar();
+        individuales.guardar();
+        fastPasses.guardar();
+        ArchivoUtil.eliminarArchivo(ARCHIVO_COMPACTANDO);
+    }
+
+    /**
+     * Marca un campo booleano de un tiquete en el primer archivo que lo contenga
+     */
+    private static void marcarTiquete(Instantanea[] archivos, String id, int campo) {
+        for (Instantanea archivo : archivos) {
+            if (archivo.marcar(id, campo)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Lee los registros completos de una bitácora. Una última línea sin salto de
+     * línea es una escritura interrumpida y se descarta.
+     */
+    private List<String> leerRegistros(File archivo) throws IOException {
+        String contenido = new String(Files.readAllBytes(archivo.toPath()), codificacion);
+        List<String> registros = new ArrayList<>();
+
+        int inicio = 0;
+        int fin;
+        while ((fin = contenido.indexOf('\n', inicio)) >= 0) {
+            if (fin > inicio) {
+                registros.add(contenido.substring(inicio, fin));
+            }
+            inicio = fin + 1;
+        }
+        return registros;
+    }
+
+    /**
+     * Abre el archivo de la bitácora para escribir al final
+     */
+    private static FileChannel abrirCanal() throws IOException {
+        return FileChannel.open(ArchivoUtil.obtenerArchivo(ARCHIVO_BITACORA).toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Obtiene los primeros campos de una línea, que la identifican
+     */
+    private static String llave(String linea, int campos) {
+        int fin = -1;
+        for (int i = 0; i < campos; i++) {
+            fin = linea.indexOf('|', fin + 1);
+            if (fin < 0) {
+                return linea;
+            }
+        }
+        return linea.substring(0, fin);
+    }
+
+    /**
+     * Líneas de un archivo de tiquetes indexadas por su llave, sobre las que se
+     * aplican los registros de la bitácora
+     */
+    private static class Instantanea {
+        private final String nombreArchivo;
+        private final int camposLlave;
+        private final List<String> lineas;
+        private final Map<String, Integer> posiciones;
+        private boolean modificada;
+
+        Instantanea(String nombreArchivo, int camposLlave) throws IOException {
+            this.nombreArchivo = nombreArchivo;
+            this.camposLlave = camposLlave;
+            // Si solo queda la instantánea binaria, el texto se recupera de ella
+            // para no reescribirlo vacío
+            if (!ArchivoUtil.existeArchivo(nombreArchivo) && ArchivoUtil.instantaneaVigente(nombreArchivo)) {
+                ConvertidorRegistros.aTexto(nombreArchivo);
+            }
+            this.lineas = ArchivoUtil.cargarLineas(nombreArchivo);
+            this.posiciones = new HashMap<>(lineas.size() * 2);
+
+            for (int i = 0; i < lineas.size(); i++) {
+                posiciones.putIfAbsent(llave(lineas.get(i), camposLlave), i);
+            }
+        }
+
+        /**
+         * Agrega una línea si su llave no existe todavía
+         */
+        void agregar(String linea) {
+            if (posiciones.putIfAbsent(llave(linea, camposLlave), lineas.size()) == null) {
+                lineas.add(linea);
+                modificada = true;
+            }
+        }
+
+        /**
+         * Pone en true un campo de la línea con la llave dada
+         *
+         * @return true si la línea existe
+         */
+        boolean marcar(String llave, int campo) {
+            Integer posicion = posiciones.get(llave);
+            if (posicion == null) {
+                return false;
+            }
+
+            String[] campos = lineas.get(posicion).split("\\|", -1);
+            if (campo < campos.length && !"true".equals(campos[campo])) {
+                campos[campo] = "true";
+                lineas.set(posicion, String.join("|", campos));
+                modificada = true;
+            }
+            return true;
+        }
+
+        void guardar() throws IOException {
+            if (modificada) {
+                ArchivoUtil.reemplazarLineas(lineas, nombreArchivo);
+            }
+        }
+    }
+}
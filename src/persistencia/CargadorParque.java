@@ -0,0 +1,270 @@
+package persistencia;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import excepciones.PersistenciaException;
+import excepciones.TiqueteException;
+import excepciones.UsuarioException;
+import modelo.atracciones.Atraccion;
+import modelo.atracciones.AtraccionCultural;
+import modelo.atracciones.AtraccionMecanica;
+import modelo.empleados.AtraccionAlto;
+import modelo.tiquetes.FastPass;
+import modelo.tiquetes.Individual;
+import modelo.tiquetes.Tiquete;
+import modelo.usuarios.Cliente;
+
+/**
+ * Carga el estado completo del parque leyendo todos los archivos de datos en
+ * paralelo. Cada archivo se lee y se interpreta en su propia tarea, así que el
+ * tiempo de arranque queda acotado por el archivo más grande y no por la suma.
+ *
+ * Después se asocian las entidades entre sí: tiquetes individuales con su
+ * atracción, FastPasses con su tiquete, clientes con sus tiquetes (según el
+ * índice de propiedad) y empleados de alto riesgo con sus atracciones mecánicas. Cada asociación empieza en cuanto los archivos de los
+ * que depende están cargados.
+ *
+ * Antes de leer los archivos de tiquetes se compacta la bitácora de tiquetes,
+ * para que las ventas y usos que quedaron en ella se vean en la carga. Las demás
+ * lecturas no la esperan.
+ */
+public class CargadorParque {
+    private final Executor ejecutor;
+    private final BitacoraTiquetes bitacora;
+    private final PersistenciaAtracciones persistenciaAtracciones;
+    private final PersistenciaTiquetes persistenciaTiquetes;
+    private final PersistenciaEmpleados persistenciaEmpleados;
+    private final PersistenciaUsuarios persistenciaUsuarios;
+
+    /**
+     * Crea un cargador que usa el pool común de fork-join
+     */
+    public CargadorParque() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Crea un cargador que ejecuta las lecturas en el ejecutor dado
+     *
+     * @param ejecutor El ejecutor de las tareas de carga
+     */
+    public CargadorParque(Executor ejecutor) {
+        this(ejecutor, null);
+    }
+
+    /**
+     * Crea un cargador que ejecuta las lecturas en el ejecutor dado y compacta la
+     * bitácora abierta de la aplicación antes de leer los tiquetes
+     *
+     * @param ejecutor El ejecutor de las tareas de carga
+     * @param bitacora La bitácora de tiquetes, o null para abrir la del directorio
+     *        de datos solo mientras se compacta
+     */
+    public CargadorParque(Executor ejecutor, BitacoraTiquetes bitacora) {
+        this.ejecutor = ejecutor;
+        this.bitacora = bitacora;
+        this.persistenciaAtracciones = new PersistenciaAtracciones();
+        this.persistenciaTiquetes = new PersistenciaTiquetes();
+        this.persistenciaEmpleados = new PersistenciaEmpleados();
+        this.persistenciaUsuarios = new PersistenciaUsuarios();
+    }
+
+    /**
+     * Carga todos los archivos de datos y asocia las entidades
+     *
+     * @return El estado del parque
+     * @throws PersistenciaException Si hay un error al cargar algún archivo
+     */
+    public EstadoParque cargar() throws PersistenciaException {
+        EstadoParque estado = new EstadoParque();
+        List<String> nombresAtraccionesTiquetes = new ArrayList<>();
+        List<List<String>> nombresAtraccionesEmpleados = new ArrayList<>();
+
+        // Fase de lectura: una tarea por archivo; los tiquetes esperan a la bitácora
+        CompletableFuture<?> compactada = leer(() -> {
+            compactarBitacora();
+            return null;
+        });
+        CompletableFuture<List<AtraccionMecanica>> mecanicas = leer(persistenciaAtracciones::cargarAtraccionesMecanicas);
+        CompletableFuture<List<AtraccionCultural>> culturales = leer(persistenciaAtracciones::cargarAtraccionesCulturales);
+        CompletableFuture<?> espectaculos = leer(persistenciaAtracciones::cargarEspectaculos)
+                .thenAccept(lista -> estado.espectaculos = lista);
+
+        CompletableFuture<?> basicos = leerDespues(compactada, persistenciaTiquetes::cargarTiquetesBasicos)
+                .thenAccept(lista -> estado.tiquetesBasicos = lista);
+        CompletableFuture<?> temporada = leerDespues(compactada, persistenciaTiquetes::cargarTiquetesTemporada)
+                .thenAccept(lista -> estado.tiquetesTemporada = lista);
+        CompletableFuture<List<Individual>> individuales = leerDespues(compactada,
+                () -> persistenciaTiquetes.cargarTiquetesIndividuales(nombresAtraccionesTiquetes));
+        CompletableFuture<List<FastPass>> fastPasses = leerDespues(compactada, persistenciaTiquetes::cargarFastPasses);
+
+        CompletableFuture<List<AtraccionAlto>> alto = leer(
+                () -> persistenciaEmpleados.cargarEmpleadosAtraccionAlto(nombresAtraccionesEmpleados));
+        CompletableFuture<?> medio = leer(persistenciaEmpleados::cargarEmpleadosAtraccionMedio)
+                .thenAccept(lista -> estado.empleadosAtraccionMedio = lista);
+        CompletableFuture<?> cajeros = leer(persistenciaEmpleados::cargarEmpleadosCajero)
+                .thenAccept(lista -> estado.empleadosCajero = lista);
+        CompletableFuture<?> cocineros = leer(persistenciaEmpleados::cargarEmpleadosCocinero)
+                .thenAccept(lista -> estado.empleadosCocinero = lista);
+        CompletableFuture<?> regulares = leer(persistenciaEmpleados::cargarEmpleadosRegular)
+                .thenAccept(lista -> estado.empleadosRegular = lista);
+        CompletableFuture<?> servicioGeneral = leer(persistenciaEmpleados::cargarEmpleadosServicioGeneral)
+                .thenAccept(lista -> estado.empleadosServicioGeneral = lista);
+
+        CompletableFuture<List<Cliente>> clientes = leer(persistenciaUsuarios::cargarClientes);
+        CompletableFuture<?> propiedad = leer(() -> {
+            persistenciaUsuarios.getIndicePropiedad().cargar();
+            return null;
+        });
+        CompletableFuture<?> administradores = leer(persistenciaUsuarios::cargarAdministradores)
+                .thenAccept(lista -> estado.administradores = lista);
+
+        // Fase de asociación
+        CompletableFuture<Map<String, AtraccionMecanica>> mecanicasPorNombre = mecanicas.thenApply(lista -> {
+            estado.atraccionesMecanicas = lista;
+            return indexarPorNombre(lista);
+        });
+        CompletableFuture<Map<String, Atraccion>> atraccionesPorNombre = mecanicasPorNombre.thenCombine(culturales,
+                (porNombre, lista) -> {
+                    estado.atraccionesCulturales = lista;
+                    Map<String, Atraccion> todas = new HashMap<>(porNombre);
+                    for (AtraccionCultural atraccion : lista) {
+                        todas.putIfAbsent(atraccion.getNombre(), atraccion);
+                    }
+                    return todas;
+                });
+
+        CompletableFuture<?> asociarIndividuales = individuales.thenAcceptBothAsync(atraccionesPorNombre,
+                (lista, porNombre) -> {
+                    for (int i = 0; i < lista.size(); i++) {
+                        String nombre = nombresAtraccionesTiquetes.get(i);
+                        if (nombre != null && porNombre.containsKey(nombre)) {
+                            lista.get(i).setAtraccion(porNombre.get(nombre));
+                        }
+                    }
+                    estado.tiquetesIndividuales = lista;
+                }, ejecutor);
+
+        CompletableFuture<?> asociarFastPasses = CompletableFuture.allOf(basicos, temporada, asociarIndividuales)
+                .thenCombineAsync(fastPasses, (ignorado, lista) -> {
+                    List<Tiquete> tiquetes = new ArrayList<>();
+                    tiquetes.addAll(estado.tiquetesBasicos);
+                    tiquetes.addAll(estado.tiquetesTemporada);
+                    tiquetes.addAll(estado.tiquetesIndividuales);
+                    RepositorioTiquetes repositorio = new RepositorioTiquetes(tiquetes);
+
+                    // Igual que cargarFastPasses(repositorio): se descartan los FastPasses sin tiquete
+                    List<FastPass> asociados = new ArrayList<>(lista.size());
+                    for (FastPass fastPass : lista) {
+                        Tiquete tiquete = repositorio.buscarPorId(fastPass.getTiqueteAsociado().getId());
+                        if (tiquete != null) {
+                            fastPass.setTiqueteAsociado(tiquete);
+                            asociados.add(fastPass);
+                        }
+                    }
+                    estado.repositorioTiquetes = repositorio;
+                    estado.fastPasses = asociados;
+                    return null;
+                }, ejecutor);
+
+        // El índice de propiedad ya quedó leído en su propia tarea
+        CompletableFuture<?> asociarClientes = CompletableFuture.allOf(asociarFastPasses, propiedad)
+                .thenCombineAsync(clientes, (ignorado, lista) -> {
+                    try {
+                        persistenciaUsuarios.setRepositorioTiquetes(estado.repositorioTiquetes);
+                        persistenciaUsuarios.asociarTiquetesAClientes(lista, estado.repositorioTiquetes);
+                    } catch (UsuarioException e) {
+                        throw new CompletionException(e);
+                    }
+                    estado.clientes = lista;
+                    return null;
+                }, ejecutor);
+
+        CompletableFuture<?> asociarAlto = alto.thenAcceptBothAsync(mecanicasPorNombre, (lista, porNombre) -> {
+            for (int i = 0; i < lista.size(); i++) {
+                for (String nombre : nombresAtraccionesEmpleados.get(i)) {
+                    AtraccionMecanica atraccion = porNombre.get(nombre);
+                    if (atraccion != null) {
+                        lista.get(i).asignarAtraccionAlta(atraccion);
+                    }
+                }
+            }
+            estado.empleadosAtraccionAlto = lista;
+        }, ejecutor);
+
+        try {
+            CompletableFuture.allOf(espectaculos, asociarFastPasses, asociarClientes, asociarAlto, medio, cajeros,
+                    cocineros, regulares, servicioGeneral, administradores).join();
+        } catch (CompletionException e) {
+            throw new PersistenciaException("Error al cargar el estado del parque", e.getCause());
+        }
+
+        return estado;
+    }
+
+    /**
+     * Lectura de un archivo de datos que puede fallar con una excepción de persistencia
+     */
+    private interface Lectura<T> {
+        T leer() throws Exception;
+    }
+
+    /**
+     * Lanza la lectura de un archivo en el ejecutor
+     */
+    private <T> CompletableFuture<T> leer(Lectura<T> lectura) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return lectura.leer();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, ejecutor);
+    }
+
+    /**
+     * Lanza la lectura de un archivo en el ejecutor cuando termina otra tarea
+     */
+    private <T> CompletableFuture<T> leerDespues(CompletableFuture<?> antes, Lectura<T> lectura) {
+        return antes.thenComposeAsync(ignorado -> leer(lectura), ejecutor);
+    }
+
+    /**
+     * Incorpora la bitácora de tiquetes a los archivos de tiquetes. Sin bitácora
+     * abierta, se abre la del directorio de datos solo si tiene registros
+     */
+    private void compactarBitacora() throws TiqueteException {
+        if (bitacora != null) {
+            bitacora.compactar();
+            return;
+        }
+        if (!ArchivoUtil.existeArchivo(BitacoraTiquetes.ARCHIVO_BITACORA)
+                && !ArchivoUtil.existeArchivo(BitacoraTiquetes.ARCHIVO_COMPACTANDO)) {
+            return;
+        }
+        try (BitacoraTiquetes temporal = new BitacoraTiquetes()) {
+            temporal.compactar();
+        } catch (IOException e) {
+            throw new TiqueteException("Error al cerrar la bitácora de tiquetes", e);
+        }
+    }
+
+    /**
+     * Indexa atracciones por nombre; ante nombres repetidos se conserva la primera
+     */
+    private static <A extends Atraccion> Map<String, A> indexarPorNombre(List<A> atracciones) {
+        Map<String, A> porNombre = new HashMap<>(atracciones.size() * 2);
+        for (A atraccion : atracciones) {
+            porNombre.putIfAbsent(atraccion.getNombre(), atraccion);
+        }
+        return porNombre;
+    }
+}
@@ -0,0 +1,296 @@
+package persistencia;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import modelo.util.CodecFecha;
+
+/**
+ * Convierte los archivos de datos entre el formato de texto separado por | y
+ * las instantáneas binarias columnares (ver FormatoColumnar).
+ *
+ * El tipo de cada columna se deduce de sus valores y solo se usa un tipo
+ * primitivo cuando todos los valores de la columna vuelven al mismo texto al
+ * escribirlos; en otro caso la columna se guarda como texto con diccionario.
+ * Así la conversión no pierde información y ambos formatos son intercambiables.
+ */
+public class ConvertidorRegistros {
+
+    /**
+     * Genera la instantánea binaria de un archivo de texto
+     *
+     * @param nombreArchivo El nombre del archivo de texto
+     * @throws IOException Si hay un error al leer o escribir los archivos
+     */
+    public static void aBinario(String nombreArchivo) throws IOException {
+        List<String[]> filas = new ArrayList<>();
+        int columnas = 0;
+
+        try (LectorRegistros registros = new LectorRegistros(ArchivoUtil.obtenerArchivo(nombreArchivo))) {
+            while (registros.siguiente()) {
+                int campos = registros.numeroCampos();
+                if (campos > FormatoColumnar.MAXIMO_CAMPOS) {
+                    throw new IOException("Demasiados campos en un registro de " + nombreArchivo);
+                }
+
+                String[] fila = new String[campos];
+                for (int i = 0; i < campos; i++) {
+                    fila[i] = registros.campoTexto(i);
+                }
+                filas.add(fila);
+                columnas = Math.max(columnas, campos);
+            }
+        }
+
+        File instantanea = ArchivoUtil.obtenerArchivo(ArchivoUtil.nombreInstantanea(nombreArchivo));
+        File temporal = ArchivoUtil.obtenerArchivo(ArchivoUtil.nombreInstantanea(nombreArchivo) + ".tmp");
+        try (DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporal)))) {
+            salida.writeInt(FormatoColumnar.MAGIA);
+            salida.writeShort(FormatoColumnar.VERSION);
+            salida.writeInt(filas.size());
+            salida.writeInt(columnas);
+
+            for (String[] fila : filas) {
+                salida.writeByte(fila.length);
+            }
+            for (int c = 0; c < columnas; c++) {
+                escribirColumna(salida, filas, c);
+            }
+        }
+        Files.move(temporal.toPath(), instantanea.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Genera el archivo de texto a partir de su instantánea binaria
+     *
+     * @param nombreArchivo El nombre del archivo de texto
+     * @throws IOException Si hay un error al leer o escribir los archivos
+     */
+    public static void aTexto(String nombreArchivo) throws IOException {
+        File instantanea = ArchivoUtil.obtenerArchivo(ArchivoUtil.nombreInstantanea(nombreArchivo));
+        File archivo = ArchivoUtil.obtenerArchivo(nombreArchivo);
+        File temporal = ArchivoUtil.obtenerArchivo(nombreArchivo + ".tmp");
+
+        try (LectorColumnar registros = new LectorColumnar(instantanea);
+                PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(temporal)))) {
+            StringBuilder sb = new StringBuilder();
+            while (registros.siguiente()) {
+                sb.setLength(0);
+                for (int i = 0; i < registros.numeroCampos(); i++) {
+                    if (i > 0) {
+                        sb.append('|');
+                    }
+                    sb.append(registros.campoTexto(i));
+                }
+                writer.println(sb);
+            }
+        }
+        Files.move(temporal.toPath(), archivo.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+
+        // Ambos archivos tienen el mismo contenido: la instantánea sigue vigente
+        instantanea.setLastModified(archivo.lastModified());
+    }
+
+    /**
+     * Genera las instantáneas binarias de todos los archivos de texto de la
+     * carpeta de datos que no tengan una instantánea vigente
+     *
+     * @return El número de instantáneas generadas
+     * @throws IOException Si hay un error al convertir algún archivo
+     */
+    public static int generarInstantaneas() throws IOException {
+        File[] archivos = ArchivoUtil.obtenerArchivo("").listFiles();
+        if (archivos == null) {
+            return 0;
+        }
+
+        int generadas = 0;
+        for (File archivo : archivos) {
+            String nombre = archivo.getName();
+            if (!nombre.endsWith(".txt") || nombre.equals(BitacoraTiquetes.ARCHIVO_BITACORA)
+                    || nombre.equals(BitacoraTiquetes.ARCHIVO_COMPACTANDO)) {
+                continue;
+            }
+            if (!ArchivoUtil.instantaneaVigente(nombre)) {
+                aBinario(nombre);
+                generadas++;
+            }
+        }
+        return generadas;
+    }
+
+    /**
+     * Escribe una columna: tipo, mapa de nulos y valores
+     */
+    private static void escribirColumna(DataOutputStream salida, List<String[]> filas, int columna)
+            throws IOException {
+        byte tipo = deducirTipo(filas, columna);
+        salida.writeByte(tipo);
+
+        byte[] nulos = new byte[FormatoColumnar.tamanoNulos(filas.size())];
+        for (int i = 0; i < filas.size(); i++) {
+            if (valor(filas.get(i), columna) == null) {
+                nulos[i >>> 3] |= (byte) (1 << (i & 7));
+            }
+        }
+        salida.write(nulos);
+
+        if (tipo == FormatoColumnar.TEXTO) {
+            escribirTextos(salida, filas, columna);
+            return;
+        }
+
+        for (String[] fila : filas) {
+            String valor = valor(fila, columna);
+            switch (tipo) {
+                case FormatoColumnar.ENTERO:
+                    salida.writeInt(valor != null ? Integer.parseInt(valor) : 0);
+                    break;
+                case FormatoColumnar.FLOTANTE:
+                    salida.writeFloat(valor != null ? Float.parseFloat(valor) : 0f);
+                    break;
+                case FormatoColumnar.BOOLEANO:
+                    salida.writeByte(valor != null && Boolean.parseBoolean(valor) ? 1 : 0);
+                    break;
+                default:
+                    salida.writeInt(valor != null ? leerDia(valor) : 0);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Escribe una columna de texto como diccionario más la posición de cada valor
+     */
+    private static void escribirTextos(DataOutputStream salida, List<String[]> filas, int columna)
+            throws IOException {
+        Map<String, Integer> posiciones = new HashMap<>();
+        List<String> diccionario = new ArrayList<>();
+        int[] indices = new int[filas.size()];
+
+        for (int i = 0; i < filas.size(); i++) {
+            String valor = valor(filas.get(i), columna);
+            if (valor != null) {
+                Integer posicion = posiciones.get(valor);
+                if (posicion == null) {
+                    posicion = diccionario.size();
+                    posiciones.put(valor, posicion);
+                    diccionario.add(valor);
+                }
+                indices[i] = posicion;
+            }
+        }
+
+        salida.writeInt(diccionario.size());
+        for (String texto : diccionario) {
+            byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+            salida.writeInt(bytes.length);
+            salida.write(bytes);
+        }
+        for (int indice : indices) {
+            salida.writeInt(indice);
+        }
+    }
+
+    /**
+     * Deduce el tipo más compacto que representa sin pérdida todos los valores
+     * de una columna
+     */
+    private static byte deducirTipo(List<String[]> filas, int columna) {
+        boolean entero = true;
+        boolean flotante = true;
+        boolean booleano = true;
+        boolean dia = true;
+        boolean hayValores = false;
+
+        for (String[] fila : filas) {
+            String valor = valor(fila, columna);
+            if (valor == null) {
+                continue;
+            }
+            hayValores = true;
+            entero = entero && esEntero(valor);
+            flotante = flotante && esFlotante(valor);
+            booleano = booleano && (valor.equals("true") || valor.equals("false"));
+            dia = dia && esDia(valor);
+            if (!entero && !flotante && !booleano && !dia) {
+                return FormatoColumnar.TEXTO;
+            }
+        }
+
+        if (!hayValores) {
+            return FormatoColumnar.TEXTO;
+        }
+        if (booleano) {
+            return FormatoColumnar.BOOLEANO;
+        }
+        if (entero) {
+            return FormatoColumnar.ENTERO;
+        }
+        if (dia) {
+            return FormatoColumnar.DIA;
+        }
+        return FormatoColumnar.FLOTANTE;
+    }
+
+    /**
+     * Obtiene el valor de una columna, o null si el registro no tiene ese campo
+     * o el campo es "null"
+     */
+    private static String valor(String[] fila, int columna) {
+        if (columna >= fila.length || fila[columna].equals("null")) {
+            return null;
+        }
+        return fila[columna];
+    }
+
+    private static boolean esEntero(String valor) {
+        try {
+            return Integer.toString(Integer.parseInt(valor)).equals(valor);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean esFlotante(String valor) {
+        try {
+            return Float.toString(Float.parseFloat(valor)).equals(valor);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean esDia(String valor) {
+        try {
+            StringBuilder sb = new StringBuilder(10);
+            CodecFecha.escribir(CodecFecha.leer(valor), sb);
+            return sb.toString().equals(valor);
+        } catch (ParseException e) {
+            return false;
+        }
+    }
+
+    private static int leerDia(String valor) throws IOException {
+        try {
+            return CodecFecha.leer(valor);
+        } catch (ParseException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+}
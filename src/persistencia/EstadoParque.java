@@ -0,0 +1,229 @@
+package persistencia;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import modelo.atracciones.Atraccion;
+import modelo.atracciones.AtraccionCultural;
+import modelo.atracciones.AtraccionMecanica;
+import modelo.atracciones.Espectaculo;
+import modelo.empleados.AtraccionAlto;
+import modelo.empleados.AtraccionMedio;
+import modelo.empleados.Cajero;
+import modelo.empleados.Cocinero;
+import modelo.empleados.Empleado;
+import modelo.empleados.Regular;
+import modelo.empleados.ServicioGeneral;
+import modelo.tiquetes.EnTemporada;
+import modelo.tiquetes.FastPass;
+import modelo.tiquetes.Individual;
+import modelo.tiquetes.TiqueteBasico;
+import modelo.usuarios.Administrador;
+import modelo.usuarios.Cliente;
+
+/**
+ * Estado completo del parque cargado desde los archivos de datos, con las
+ * asociaciones entre entidades ya resueltas (ver CargadorParque).
+ *
+ * Las listas que se obtienen no son modificables.
+ */
+public class EstadoParque {
+    List<AtraccionMecanica> atraccionesMecanicas;
+    List<AtraccionCultural> atraccionesCulturales;
+    List<Espectaculo> espectaculos;
+
+    List<TiqueteBasico> tiquetesBasicos;
+    List<EnTemporada> tiquetesTemporada;
+    List<Individual> tiquetesIndividuales;
+    List<FastPass> fastPasses;
+    RepositorioTiquetes repositorioTiquetes;
+
+    List<AtraccionAlto> empleadosAtraccionAlto;
+    List<AtraccionMedio> empleadosAtraccionMedio;
+    List<Cajero> empleadosCajero;
+    List<Cocinero> empleadosCocinero;
+    List<Regular> empleadosRegular;
+    List<ServicioGeneral> empleadosServicioGeneral;
+
+    List<Cliente> clientes;
+    List<Administrador> administradores;
+
+    /**
+     * Crea un estado vacío; lo llena CargadorParque
+     */
+    EstadoParque() {
+    }
+
+    /**
+     * Obtiene las atracciones mecánicas
+     *
+     * @return Lista de atracciones mecánicas
+     */
+    public List<AtraccionMecanica> getAtraccionesMecanicas() {
+        return Collections.unmodifiableList(atraccionesMecanicas);
+    }
+
+    /**
+     * Obtiene las atracciones culturales
+     *
+     * @return Lista de atracciones culturales
+     */
+    public List<AtraccionCultural> getAtraccionesCulturales() {
+        return Collections.unmodifiableList(atraccionesCulturales);
+    }
+
+    /**
+     * Obtiene todas las atracciones (mecánicas y culturales)
+     *
+     * @return Lista de atracciones
+     */
+    public List<Atraccion> getAtracciones() {
+        List<Atraccion> atracciones = new ArrayList<>(atraccionesMecanicas.size() + atraccionesCulturales.size());
+        atracciones.addAll(atraccionesMecanicas);
+        atracciones.addAll(atraccionesCulturales);
+        return Collections.unmodifiableList(atracciones);
+    }
+
+    /**
+     * Obtiene los espectáculos
+     *
+     * @return Lista de espectáculos
+     */
+    public List<Espectaculo> getEspectaculos() {
+        return Collections.unmodifiableList(espectaculos);
+    }
+
+    /**
+     * Obtiene los tiquetes básicos
+     *
+     * @return Lista de tiquetes básicos
+     */
+    public List<TiqueteBasico> getTiquetesBasicos() {
+        return Collections.unmodifiableList(tiquetesBasicos);
+    }
+
+    /**
+     * Obtiene los tiquetes de temporada
+     *
+     * @return Lista de tiquetes de temporada
+     */
+    public List<EnTemporada> getTiquetesTemporada() {
+        return Collections.unmodifiableList(tiquetesTemporada);
+    }
+
+    /**
+     * Obtiene los tiquetes individuales, asociados a sus atracciones
+     *
+     * @return Lista de tiquetes individuales
+     */
+    public List<Individual> getTiquetesIndividuales() {
+        return Collections.unmodifiableList(tiquetesIndividuales);
+    }
+
+    /**
+     * Obtiene los FastPasses, asociados a sus tiquetes
+     *
+     * @return Lista de FastPasses
+     */
+    public List<FastPass> getFastPasses() {
+        return Collections.unmodifiableList(fastPasses);
+    }
+
+    /**
+     * Obtiene el repositorio con todos los tiquetes indexados por ID
+     *
+     * @return El repositorio de tiquetes
+     */
+    public RepositorioTiquetes getRepositorioTiquetes() {
+        return repositorioTiquetes;
+    }
+
+    /**
+     * Obtiene los empleados de atracción de alto riesgo, asociados a sus atracciones específicas
+     *
+     * @return Lista de empleados
+     */
+    public List<AtraccionAlto> getEmpleadosAtraccionAlto() {
+        return Collections.unmodifiableList(empleadosAtraccionAlto);
+    }
+
+    /**
+     * Obtiene los empleados de atracción de riesgo medio
+     *
+     * @return Lista de empleados
+     */
+    public List<AtraccionMedio> getEmpleadosAtraccionMedio() {
+        return Collections.unmodifiableList(empleadosAtraccionMedio);
+    }
+
+    /**
+     * Obtiene los cajeros
+     *
+     * @return Lista de empleados
+     */
+    public List<Cajero> getEmpleadosCajero() {
+        return Collections.unmodifiableList(empleadosCajero);
+    }
+
+    /**
+     * Obtiene los cocineros
+     *
+     * @return Lista de empleados
+     */
+    public List<Cocinero> getEmpleadosCocinero() {
+        return Collections.unmodifiableList(empleadosCocinero);
+    }
+
+    /**
+     * Obtiene los empleados regulares
+     *
+     * @return Lista de empleados
+     */
+    public List<Regular> getEmpleadosRegular() {
+        return Collections.unmodifiableList(empleadosRegular);
+    }
+
+    /**
+     * Obtiene los empleados de servicio general
+     *
+     * @return Lista de empleados
+     */
+    public List<ServicioGeneral> getEmpleadosServicioGeneral() {
+        return Collections.unmodifiableList(empleadosServicioGeneral);
+    }
+
+    /**
+     * Obtiene todos los empleados, en el mismo orden que PersistenciaEmpleados.cargarTodosEmpleados
+     *
+     * @return Lista de empleados
+     */
+    public List<Empleado> getEmpleados() {
+        List<Empleado> empleados = new ArrayList<>();
+        empleados.addAll(empleadosAtraccionAlto);
+        empleados.addAll(empleadosAtraccionMedio);
+        empleados.addAll(empleadosCajero);
+        empleados.addAll(empleadosCocinero);
+        empleados.addAll(empleadosRegular);
+        empleados.addAll(empleadosServicioGeneral);
+        return Collections.unmodifiableList(empleados);
+    }
+
+    /**
+     * Obtiene los clientes
+     *
+     * @return Lista de clientes
+     */
+    public List<Cliente> getClientes() {
+        return Collections.unmodifiableList(clientes);
+    }
+
+    /**
+     * Obtiene los administradores
+     *
+     * @return Lista de administradores
+     */
+    public List<Administrador> getAdministradores() {
+        return Collections.unmodifiableList(administradores);
+    }
+}
@@ -0,0 +1,48 @@
+package persistencia;
+
+/**
+ * Constantes del formato binario columnar de las instantáneas de datos.
+ *
+ * Estructura del archivo (enteros en big-endian):
+ * <pre>
+ * int    MAGIA
+ * short  VERSION
+ * int    número de registros (n)
+ * int    número de columnas (c)
+ * byte[n] número de campos de cada registro
+ * c veces:
+ *   byte     tipo de la columna
+ *   byte[(n + 7) / 8] mapa de bits de campos nulos
+ *   datos según el tipo:
+ *     ENTERO, DIA   int[n] (DIA en días desde 1970-01-01)
+ *     FLOTANTE      float[n]
+ *     BOOLEANO      byte[n]
+ *     TEXTO         int tamaño del diccionario, sus entradas (int longitud y
+ *                   bytes UTF-8) e int[n] con la posición de cada valor
+ * </pre>
+ */
+final class FormatoColumnar {
+    static final int MAGIA = 0x50415251; // "PARQ"
+    static final short VERSION = 1;
+
+    static final byte ENTERO = 1;
+    static final byte FLOTANTE = 2;
+    static final byte BOOLEANO = 3;
+    static final byte DIA = 4;
+    static final byte TEXTO = 5;
+
+    static final int MAXIMO_CAMPOS = 255;
+
+    private FormatoColumnar() {
+    }
+
+    /**
+     * Calcula el tamaño en bytes del mapa de bits de nulos de una columna
+     *
+     * @param registros Número de registros
+     * @return El tamaño en bytes
+     */
+    static int tamanoNulos(int registros) {
+        return (registros + 7) / 8;
+    }
+}
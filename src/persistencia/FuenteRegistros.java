@@ -0,0 +1,108 @@
+package persistencia;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Fuente de registros de un archivo de datos, recorrida registro por registro.
+ * La implementan el lector del formato de texto separado por | y el lector de
+ * instantáneas binarias, de modo que las clases de persistencia cargan igual
+ * cualquiera de los dos formatos.
+ */
+public interface FuenteRegistros extends Closeable {
+
+    /**
+     * Avanza al siguiente registro
+     *
+     * @return true si hay un registro disponible, false si se llegó al final
+     * @throws IOException Si hay un error al leer el archivo
+     */
+    boolean siguiente() throws IOException;
+
+    /**
+     * Obtiene el número de campos del registro actual
+     *
+     * @return El número de campos
+     */
+    int numeroCampos();
+
+    /**
+     * Verifica si un campo es nulo (el texto "null")
+     *
+     * @param campo Índice del campo
+     * @return true si el campo es nulo
+     */
+    boolean esNulo(int campo);
+
+    /**
+     * Interpreta un campo como entero, con las mismas reglas de Integer.parseInt
+     *
+     * @param campo Índice del campo
+     * @return El valor entero
+     * @throws NumberFormatException Si el campo no es un entero válido
+     */
+    int campoEntero(int campo);
+
+    /**
+     * Interpreta un campo como booleano, con las mismas reglas de Boolean.parseBoolean
+     *
+     * @param campo Índice del campo
+     * @return true si el campo es "true" (sin distinguir mayúsculas)
+     */
+    boolean campoBooleano(int campo);
+
+    /**
+     * Interpreta un campo como número decimal
+     *
+     * @param campo Índice del campo
+     * @return El valor decimal
+     * @throws NumberFormatException Si el campo no es un número válido
+     */
+    float campoFlotante(int campo);
+
+    /**
+     * Interpreta un campo como fecha en formato yyyy-MM-dd
+     *
+     * @param campo Índice del campo
+     * @return La fecha, o null si el campo es nulo
+     * @throws ParseException Si el campo no es una fecha válida
+     */
+    Date campoFecha(int campo) throws ParseException;
+
+    /**
+     * Interpreta un campo yyyy-MM-dd como día de época (días desde 1970-01-01)
+     *
+     * @param campo Índice del campo
+     * @return El día de época, o CodecFecha.SIN_FECHA si el campo es nulo
+     * @throws ParseException Si el campo no es una fecha válida
+     */
+    int campoDia(int campo) throws ParseException;
+
+    /**
+     * Obtiene un campo como texto
+     *
+     * @param campo Índice del campo
+     * @return El texto del campo
+     */
+    String campoTexto(int campo);
+
+    /**
+     * Obtiene un campo con una lista de textos separados por comas
+     *
+     * @param campo Índice del campo
+     * @return Lista de textos (vacía si el campo es nulo)
+     */
+    List<String> campoLista(int campo);
+
+    /**
+     * Obtiene un campo con una lista de fechas yyyy-MM-dd separadas por comas
+     *
+     * @param campo Índice del campo
+     * @return Lista de fechas (vacía si el campo es nulo)
+     * @throws ParseException Si alguna fecha no es válida
+     */
+    List<Date> campoListaFechas(int campo) throws ParseException;
+}
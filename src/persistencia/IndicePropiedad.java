@@ -0,0 +1,378 @@
+package persistencia;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import excepciones.UsuarioException;
+import modelo.util.MapaEnteros;
+
+/**
+ * Índice persistente de propiedad de tiquetes: para cada cliente guarda los IDs
+ * de los tiquetes que ha comprado como un arreglo de enteros ordenado.
+ *
+ * El archivo del índice está ordenado por cliente y lo acompaña una tabla de
+ * posiciones con el byte donde empieza la línea de cada cliente. Consultar un
+ * cliente busca su línea en la tabla por búsqueda binaria y lee solo esa línea;
+ * los clientes leídos quedan en memoria. Verificar si un cliente posee un tiquete
+ * es otra búsqueda binaria sobre su arreglo, sin cargar ningún tiquete.
+ *
+ * La tabla se reescribe cada vez que se guarda el índice y se reconstruye
+ * recorriendo el archivo si no corresponde a él. Si solo existe la instantánea
+ * binaria del índice, no hay posiciones de texto y se lee completa.
+ *
+ * Formato del archivo: idCliente|idTiquete,idTiquete,...
+ * Formato de la tabla: tamaño y fecha del archivo, número de clientes y pares
+ * (idCliente, posición) ordenados por cliente
+ */
+public class IndicePropiedad {
+    static final String ARCHIVO_PROPIEDAD = "propiedad_tiquetes.txt";
+    static final String ARCHIVO_POSICIONES = "propiedad_tiquetes.idx";
+
+    private static final int[] SIN_TIQUETES = new int[0];
+    private static final int VENTANA_REGISTRO = 4096;
+
+    // Clientes ya leídos o modificados; un arreglo vacío indica que no tiene tiquetes
+    private final MapaEnteros<int[]> tiquetesPorCliente = new MapaEnteros<>();
+    // true cuando todos los clientes del archivo están en tiquetesPorCliente
+    private boolean completo;
+    // Tabla de posiciones y el tamaño y la fecha del archivo al que corresponde
+    private int[] clientesTabla;
+    private long[] posicionesTabla;
+    private long tamanoArchivoTabla;
+    private long fechaArchivoTabla;
+
+    /**
+     * Lee el índice completo si todavía no se ha leído. Lo usa la carga del
+     * parque, que asocia los tiquetes de todos los clientes
+     *
+     * @throws UsuarioException Si hay un error al leer el índice
+     */
+    public synchronized void cargar() throws UsuarioException {
+        leerCompleto();
+    }
+
+    /**
+     * Obtiene los IDs de los tiquetes de un cliente
+     *
+     * @param idCliente El identificador del cliente
+     * @return Arreglo ordenado con los IDs (vacío si el cliente no tiene tiquetes)
+     * @throws UsuarioException Si hay un error al leer el índice
+     */
+    public synchronized int[] tiquetesDe(int idCliente) throws UsuarioException {
+        int[] ids = delCliente(idCliente);
+        return ids.length == 0 ? SIN_TIQUETES : ids.clone();
+    }
+
+    /**
+     * Verifica si un cliente es dueño de un tiquete
+     *
+     * @param idCliente El identificador del cliente
+     * @param idTiquete El identificador del tiquete
+     * @return true si el tiquete pertenece al cliente
+     * @throws UsuarioException Si hay un error al leer el índice
+     */
+    public synchronized boolean posee(int idCliente, int idTiquete) throws UsuarioException {
+        return Arrays.binarySearch(delCliente(idCliente), idTiquete) >= 0;
+    }
+
+    /**
+     * Registra que un cliente es dueño de un tiquete. El cambio queda en memoria
+     * hasta que se llama a guardar()
+     *
+     * @param idCliente El identificador del cliente
+     * @param idTiquete El identificador del tiquete
+     * @return true si se registró, false si el cliente ya tenía el tiquete
+     * @throws UsuarioException Si hay un error al leer el índice
+     */
+    public synchronized boolean registrar(int idCliente, int idTiquete) throws UsuarioException {
+        int[] ids = delCliente(idCliente);
+        int posicion = Arrays.binarySearch(ids, idTiquete);
+        if (posicion >= 0) {
+            return false;
+        }
+
+        // Inserción manteniendo el orden
+        posicion = -posicion - 1;
+        int[] nuevos = new int[ids.length + 1];
+        System.arraycopy(ids, 0, nuevos, 0, posicion);
+        nuevos[posicion] = idTiquete;
+        System.arraycopy(ids, posicion, nuevos, posicion + 1, ids.length - posicion);
+        tiquetesPorCliente.poner(idCliente, nuevos);
+        return true;
+    }
+
+    /**
+     * Guarda el índice, con los clientes ordenados por ID, y su tabla de posiciones.
+     * Los clientes que no se habían leído se toman del archivo actual; después de
+     * guardar, las consultas vuelven a leer solo la línea de cada cliente
+     *
+     * @throws UsuarioException Si hay un error al guardar el índice
+     */
+    public synchronized void guardar() throws UsuarioException {
+        leerCompleto();
+        int[] clientes = tiquetesPorCliente.llaves();
+        Arrays.sort(clientes);
+
+        // Las posiciones se calculan con la misma codificación y fin de línea que usa
+        // ArchivoUtil.reemplazarLineas
+        Charset codificacion = Charset.defaultCharset();
+        int finLinea = System.lineSeparator().getBytes(codificacion).length;
+
+        List<String> lineas = new ArrayList<>(clientes.length);
+        int[] clientesGuardados = new int[clientes.length];
+        long[] posiciones = new long[clientes.length];
+        int n = 0;
+        long posicion = 0;
+        StringBuilder sb = new StringBuilder();
+        for (int idCliente : clientes) {
+            int[] ids = tiquetesPorCliente.obtener(idCliente);
+            if (ids.length == 0) {
+                continue;
+            }
+            sb.setLength(0);
+            sb.append(idCliente).append("|");
+            for (int i = 0; i < ids.length; i++) {
+                if (i > 0) {
+                    sb.append(",");
+                }
+                sb.append(ids[i]);
+            }
+            String linea = sb.toString();
+            lineas.add(linea);
+            clientesGuardados[n] = idCliente;
+            posiciones[n++] = posicion;
+            posicion += linea.getBytes(codificacion).length + finLinea;
+        }
+
+        try {
+            ArchivoUtil.reemplazarLineas(lineas, ARCHIVO_PROPIEDAD);
+            usarTabla(Arrays.copyOf(clientesGuardados, n), Arrays.copyOf(posiciones, n));
+            escribirTabla();
+        } catch (IOException e) {
+            throw new UsuarioException("Error al guardar el índice de propiedad de tiquetes", e);
+        }
+        tiquetesPorCliente.limpiar();
+        completo = false;
+    }
+
+    /**
+     * Obtiene los IDs de un cliente, leyendo su línea del archivo la primera vez
+     */
+    private int[] delCliente(int idCliente) throws UsuarioException {
+        int[] ids = tiquetesPorCliente.obtener(idCliente);
+        if (ids == null) {
+            ids = completo ? SIN_TIQUETES : leerCliente(idCliente);
+            tiquetesPorCliente.poner(idCliente, ids);
+        }
+        return ids;
+    }
+
+    /**
+     * Lee solo la línea de un cliente, ubicándola con la tabla de posiciones
+     */
+    private int[] leerCliente(int idCliente) throws UsuarioException {
+        if (!ArchivoUtil.existeArchivo(ARCHIVO_PROPIEDAD)) {
+            // Sin archivo de texto no hay posiciones: se lee la instantánea, si existe
+            leerCompleto();
+            int[] ids = tiquetesPorCliente.obtener(idCliente);
+            return ids == null ? SIN_TIQUETES : ids;
+        }
+
+        try {
+            if (!tablaVigente() && !leerTabla()) {
+                construirTabla();
+            }
+
+            int fila = Arrays.binarySearch(clientesTabla, idCliente);
+            if (fila < 0) {
+                return SIN_TIQUETES;
+            }
+            File archivo = ArchivoUtil.obtenerArchivo(ARCHIVO_PROPIEDAD);
+            try (LectorRegistros registro = new LectorRegistros(archivo, posicionesTabla[fila], VENTANA_REGISTRO)) {
+                if (registro.siguiente() && registro.numeroCampos() >= 2 && registro.campoEntero(0) == idCliente) {
+                    return idsDe(registro);
+                }
+            }
+            throw new IOException("La tabla de posiciones no corresponde al índice");
+        } catch (IOException | NumberFormatException e) {
+            throw new UsuarioException("Error al cargar el índice de propiedad de tiquetes", e);
+        }
+    }
+
+    /**
+     * Lee todo el archivo del índice si todavía no se ha leído. Los clientes ya
+     * leídos o modificados en memoria se conservan
+     */
+    private void leerCompleto() throws UsuarioException {
+        if (completo) {
+            return;
+        }
+
+        try {
+            if (ArchivoUtil.existenRegistros(ARCHIVO_PROPIEDAD)) {
+                try (FuenteRegistros registros = ArchivoUtil.abrirRegistros(ARCHIVO_PROPIEDAD)) {
+                    while (registros.siguiente()) {
+                        if (registros.numeroCampos() >= 2) {
+                            tiquetesPorCliente.ponerSiAusente(registros.campoEntero(0), idsDe(registros));
+                        }
+                    }
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            throw new UsuarioException("Error al cargar el índice de propiedad de tiquetes", e);
+        }
+        completo = true;
+    }
+
+    /**
+     * Verifica si la tabla en memoria corresponde al archivo actual del índice
+     */
+    private boolean tablaVigente() {
+        File archivo = ArchivoUtil.obtenerArchivo(ARCHIVO_PROPIEDAD);
+        return clientesTabla != null && tamanoArchivoTabla == archivo.length()
+                && fechaArchivoTabla == archivo.lastModified();
+    }
+
+    /**
+     * Lee la tabla de posiciones guardada si corresponde al archivo del índice
+     *
+     * @return false si no existe o está desactualizada
+     */
+    private boolean leerTabla() throws IOException {
+        File tabla = ArchivoUtil.obtenerArchivo(ARCHIVO_POSICIONES);
+        if (!tabla.exists()) {
+            return false;
+        }
+
+        File archivo = ArchivoUtil.obtenerArchivo(ARCHIVO_PROPIEDAD);
+        try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(new FileInputStream(tabla)))) {
+            if (entrada.readLong() != archivo.length() || entrada.readLong() != archivo.lastModified()) {
+                return false;
+            }
+            int n = entrada.readInt();
+            int[] clientes = new int[n];
+            long[] posiciones = new long[n];
+            for (int i = 0; i < n; i++) {
+                clientes[i] = entrada.readInt();
+                posiciones[i] = entrada.readLong();
+            }
+            usarTabla(clientes, posiciones);
+        }
+        return true;
+    }
+
+    /**
+     * Reconstruye la tabla recorriendo el archivo del índice, leyendo solo el
+     * cliente de cada línea, y la guarda para las siguientes ejecuciones
+     */
+    private void construirTabla() throws IOException {
+        int[] clientes = new int[64];
+        long[] posiciones = new long[64];
+        int n = 0;
+        File archivo = ArchivoUtil.obtenerArchivo(ARCHIVO_PROPIEDAD);
+        try (LectorRegistros registros = new LectorRegistros(archivo)) {
+            long posicion = registros.posicionSiguiente();
+            while (registros.siguiente()) {
+                if (registros.numeroCampos() >= 2) {
+                    if (n == clientes.length) {
+                        clientes = Arrays.copyOf(clientes, n * 2);
+                        posiciones = Arrays.copyOf(posiciones, n * 2);
+                    }
+                    clientes[n] = registros.campoEntero(0);
+                    posiciones[n++] = posicion;
+                }
+                posicion = registros.posicionSiguiente();
+            }
+        }
+
+        // Un archivo editado a mano puede no estar ordenado por cliente
+        boolean ordenado = true;
+        for (int i = 1; i < n && ordenado; i++) {
+            ordenado = clientes[i - 1] < clientes[i];
+        }
+        if (!ordenado) {
+            long[] pares = new long[n];
+            for (int i = 0; i < n; i++) {
+                pares[i] = ((long) clientes[i] << 32) | i;
+            }
+            Arrays.sort(pares);
+            long[] originales = posiciones;
+            posiciones = new long[n];
+            for (int i = 0; i < n; i++) {
+                clientes[i] = (int) (pares[i] >> 32);
+                posiciones[i] = originales[(int) pares[i]];
+            }
+        }
+
+        usarTabla(Arrays.copyOf(clientes, n), Arrays.copyOf(posiciones, n));
+        escribirTabla();
+    }
+
+    /**
+     * Toma una tabla de posiciones como la del archivo actual del índice
+     */
+    private void usarTabla(int[] clientes, long[] posiciones) {
+        File archivo = ArchivoUtil.obtenerArchivo(ARCHIVO_PROPIEDAD);
+        clientesTabla = clientes;
+        posicionesTabla = posiciones;
+        tamanoArchivoTabla = archivo.length();
+        fechaArchivoTabla = archivo.lastModified();
+    }
+
+    /**
+     * Guarda la tabla de posiciones con el tamaño y la fecha del archivo del índice
+     */
+    private void escribirTabla() throws IOException {
+        File tabla = ArchivoUtil.obtenerArchivo(ARCHIVO_POSICIONES);
+        File temporal = ArchivoUtil.obtenerArchivo(ARCHIVO_POSICIONES + ".tmp");
+        try (DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporal)))) {
+            salida.writeLong(tamanoArchivoTabla);
+            salida.writeLong(fechaArchivoTabla);
+            salida.writeInt(clientesTabla.length);
+            for (int i = 0; i < clientesTabla.length; i++) {
+                salida.writeInt(clientesTabla[i]);
+                salida.writeLong(posicionesTabla[i]);
+            }
+        }
+        Files.move(temporal.toPath(), tabla.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Obtiene los IDs del registro actual, ordenados y sin repetidos
+     */
+    private static int[] idsDe(FuenteRegistros registro) {
+        List<String> textos = registro.campoLista(1);
+        int[] ids = new int[textos.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = Integer.parseInt(textos.get(i));
+        }
+        return ordenarSinRepetidos(ids);
+    }
+
+    /**
+     * Ordena un arreglo de IDs y elimina los repetidos
+     */
+    private static int[] ordenarSinRepetidos(int[] ids) {
+        Arrays.sort(ids);
+        int n = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (n == 0 || ids[i] != ids[n - 1]) {
+                ids[n++] = ids[i];
+            }
+        }
+        return n == ids.length ? ids : Arrays.copyOf(ids, n);
+    }
+}
@@ -0,0 +1,220 @@
+package persistencia;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import modelo.util.CodecFecha;
+
+/**
+ * Lector de instantáneas en el formato binario columnar (ver FormatoColumnar).
+ * El archivo se mapea en memoria y los valores de tipo fijo se leen directamente
+ * de su columna; solo los diccionarios de texto se decodifican al abrir.
+ *
+ * Si un campo se pide con un tipo distinto al de su columna, se interpreta a
+ * partir de su texto, igual que en el formato de texto.
+ */
+public class LectorColumnar implements FuenteRegistros {
+    // Tamaño de la cabecera: magia, versión, registros y columnas
+    private static final int INICIO_CAMPOS = 14;
+
+    private final FileChannel canal;
+    private final MappedByteBuffer datos;
+    private final int registros;
+    private final byte[] tipos;
+    private final int[] nulos;
+    private final int[] valores;
+    private final String[][] diccionarios;
+
+    private int actual;
+
+    /**
+     * Abre y mapea una instantánea binaria
+     *
+     * @param archivo El archivo a leer
+     * @throws IOException Si hay un error al abrir el archivo o su formato no es válido
+     */
+    public LectorColumnar(File archivo) throws IOException {
+        this.canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ);
+        try {
+            long tamano = canal.size();
+            if (tamano > Integer.MAX_VALUE) {
+                throw new IOException("El archivo es demasiado grande para mapearlo: " + archivo.getName());
+            }
+            this.datos = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamano);
+
+            if (tamano < INICIO_CAMPOS || datos.getInt(0) != FormatoColumnar.MAGIA) {
+                throw new IOException("El archivo no es una instantánea binaria: " + archivo.getName());
+            }
+            if (datos.getShort(4) != FormatoColumnar.VERSION) {
+                throw new IOException("Versión de instantánea no soportada: " + datos.getShort(4));
+            }
+
+            this.registros = datos.getInt(6);
+            int columnas = datos.getInt(10);
+            this.tipos = new byte[columnas];
+            this.nulos = new int[columnas];
+            this.valores = new int[columnas];
+            this.diccionarios = new String[columnas][];
+
+            int posicion = INICIO_CAMPOS + registros;
+            for (int c = 0; c < columnas; c++) {
+                tipos[c] = datos.get(posicion++);
+                nulos[c] = posicion;
+                posicion += FormatoColumnar.tamanoNulos(registros);
+
+                if (tipos[c] == FormatoColumnar.TEXTO) {
+                    String[] diccionario = new String[datos.getInt(posicion)];
+                    posicion += 4;
+                    for (int i = 0; i < diccionario.length; i++) {
+                        byte[] bytes = new byte[datos.getInt(posicion)];
+                        datos.get(posicion + 4, bytes);
+                        diccionario[i] = new String(bytes, StandardCharsets.UTF_8);
+                        posicion += 4 + bytes.length;
+                    }
+                    diccionarios[c] = diccionario;
+                }
+
+                valores[c] = posicion;
+                posicion += registros * (tipos[c] == FormatoColumnar.BOOLEANO ? 1 : 4);
+            }
+            if (posicion > tamano) {
+                throw new IOException("Instantánea binaria incompleta: " + archivo.getName());
+            }
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+        this.actual = -1;
+    }
+
+    @Override
+    public boolean siguiente() {
+        if (actual + 1 >= registros) {
+            actual = registros;
+            return false;
+        }
+        actual++;
+        return true;
+    }
+
+    @Override
+    public int numeroCampos() {
+        return datos.get(INICIO_CAMPOS + actual) & 0xFF;
+    }
+
+    @Override
+    public boolean esNulo(int campo) {
+        verificarCampo(campo);
+        return (datos.get(nulos[campo] + (actual >>> 3)) & (1 << (actual & 7))) != 0;
+    }
+
+    @Override
+    public int campoEntero(int campo) {
+        if (tipos[campo] == FormatoColumnar.ENTERO && !esNulo(campo)) {
+            return datos.getInt(valores[campo] + actual * 4);
+        }
+        return Integer.parseInt(campoTexto(campo));
+    }
+
+    @Override
+    public boolean campoBooleano(int campo) {
+        if (tipos[campo] == FormatoColumnar.BOOLEANO && !esNulo(campo)) {
+            return datos.get(valores[campo] + actual) != 0;
+        }
+        return Boolean.parseBoolean(campoTexto(campo));
+    }
+
+    @Override
+    public float campoFlotante(int campo) {
+        if (tipos[campo] == FormatoColumnar.FLOTANTE && !esNulo(campo)) {
+            return datos.getFloat(valores[campo] + actual * 4);
+        }
+        return Float.parseFloat(campoTexto(campo));
+    }
+
+    @Override
+    public Date campoFecha(int campo) throws ParseException {
+        return CodecFecha.aFecha(campoDia(campo));
+    }
+
+    @Override
+    public int campoDia(int campo) throws ParseException {
+        if (esNulo(campo)) {
+            return CodecFecha.SIN_FECHA;
+        }
+        if (tipos[campo] == FormatoColumnar.DIA) {
+            return datos.getInt(valores[campo] + actual * 4);
+        }
+        return CodecFecha.leer(campoTexto(campo));
+    }
+
+    @Override
+    public String campoTexto(int campo) {
+        if (esNulo(campo)) {
+            return "null";
+        }
+
+        int valor = valores[campo];
+        switch (tipos[campo]) {
+            case FormatoColumnar.ENTERO:
+                return Integer.toString(datos.getInt(valor + actual * 4));
+            case FormatoColumnar.FLOTANTE:
+                return Float.toString(datos.getFloat(valor + actual * 4));
+            case FormatoColumnar.BOOLEANO:
+                return Boolean.toString(datos.get(valor + actual) != 0);
+            case FormatoColumnar.DIA:
+                StringBuilder sb = new StringBuilder(10);
+                CodecFecha.escribir(datos.getInt(valor + actual * 4), sb);
+                return sb.toString();
+            default:
+                return diccionarios[campo][datos.getInt(valor + actual * 4)];
+        }
+    }
+
+    @Override
+    public List<String> campoLista(int campo) {
+        List<String> lista = new ArrayList<>();
+        if (esNulo(campo)) {
+            return lista;
+        }
+
+        for (String elemento : campoTexto(campo).split(",")) {
+            if (!elemento.isEmpty()) {
+                lista.add(elemento);
+            }
+        }
+        return lista;
+    }
+
+    @Override
+    public List<Date> campoListaFechas(int campo) throws ParseException {
+        List<Date> fechas = new ArrayList<>();
+        for (String elemento : campoLista(campo)) {
+            fechas.add(CodecFecha.aFecha(CodecFecha.leer(elemento)));
+        }
+        return fechas;
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    /**
+     * Verifica que el campo exista en el registro actual, igual que el acceso
+     * a un índice inexistente de String.split
+     */
+    private void verificarCampo(int campo) {
+        if (campo >= numeroCampos()) {
+            throw new ArrayIndexOutOfBoundsException(campo);
+        }
+    }
+}
@@ -0,0 +1,459 @@
+package persistencia;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import modelo.util.CodecFecha;
+
+/**
+ * Lector de archivos de registros separados por | que mapea el archivo en memoria
+ * con FileChannel.map. Cada línea es un registro y los campos se exponen como
+ * vistas (inicio y fin) sobre los bytes mapeados, de modo que los enteros, booleanos
+ * y fechas se interpretan directamente sin crear Strings intermedios.
+ *
+ * Solo los campos de texto crean un String. Las vistas son válidas hasta la
+ * siguiente llamada a siguiente().
+ *
+ * El archivo no se mapea completo sino por ventanas de tamaño fijo que avanzan a
+ * medida que se recorre, así que el espacio mapeado no crece con el archivo y se
+ * pueden leer archivos de más de 2 GB. Una línea que cruza el final de la ventana
+ * hace que la siguiente ventana empiece en esa línea.
+ */
+public class LectorRegistros implements FuenteRegistros {
+    private static final byte SEPARADOR_CAMPOS = '|';
+    private static final byte SEPARADOR_LISTA = ',';
+    private static final byte FIN_LINEA = '\n';
+    private static final byte RETORNO = '\r';
+    private static final byte[] NULO = { 'n', 'u', 'l', 'l' };
+    private static final byte[] VERDADERO = { 't', 'r', 'u', 'e' };
+    private static final int TAMANO_VENTANA = 64 * 1024 * 1024;
+
+    private final FileChannel canal;
+    private final long tamanoArchivo;
+    private final Charset codificacion;
+
+    private int tamanoVentana;
+    private MappedByteBuffer datos;
+    private long inicioVentana;
+    private int limite;
+    private int posicion;
+    private int numeroCampos;
+    private int[] inicios;
+    private int[] fines;
+    private byte[] auxiliar;
+
+    /**
+     * Abre y mapea un archivo de registros
+     *
+     * @param archivo El archivo a leer
+     * @throws IOException Si hay un error al abrir o mapear el archivo
+     */
+    public LectorRegistros(File archivo) throws IOException {
+        this(archivo, TAMANO_VENTANA);
+    }
+
+    /**
+     * Abre un archivo de registros mapeándolo por ventanas del tamaño dado
+     *
+     * @param archivo El archivo a leer
+     * @param tamanoVentana Bytes que se mapean a la vez
+     * @throws IOException Si hay un error al abrir o mapear el archivo
+     */
+    public LectorRegistros(File archivo, int tamanoVentana) throws IOException {
+        this(archivo, 0, tamanoVentana);
+    }
+
+    /**
+     * Abre un archivo de registros a partir de un byte dado, que debe ser el
+     * inicio de una línea. Permite leer un solo registro cuya posición se conoce
+     *
+     * @param archivo El archivo a leer
+     * @param inicio Byte del archivo donde empieza la lectura
+     * @param tamanoVentana Bytes que se mapean a la vez
+     * @throws IOException Si hay un error al abrir o mapear el archivo
+     */
+    public LectorRegistros(File archivo, long inicio, int tamanoVentana) throws IOException {
+        this.canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ);
+        try {
+            this.tamanoArchivo = canal.size();
+            this.tamanoVentana = tamanoVentana;
+            if (inicio < 0 || inicio > tamanoArchivo) {
+                throw new IOException("Posición fuera del archivo: " + inicio);
+            }
+            mapearVentana(inicio);
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+        // Mismo juego de caracteres que usa FileWriter al guardar
+        this.codificacion = Charset.defaultCharset();
+        this.inicios = new int[16];
+        this.fines = new int[16];
+        this.auxiliar = new byte[64];
+    }
+
+    /**
+     * Avanza al siguiente registro (línea) del archivo
+     *
+     * @return true si hay un registro disponible, false si se llegó al final
+     * @throws IOException Si hay un error al mapear el archivo o el registro no cabe en una ventana
+     */
+    @Override
+    public boolean siguiente() throws IOException {
+        if (posicion >= limite) {
+            if (inicioVentana + limite >= tamanoArchivo) {
+                return false;
+            }
+            avanzarVentana();
+        }
+
+        int fin = posicion;
+        while (true) {
+            while (fin < limite && datos.get(fin) != FIN_LINEA) {
+                fin++;
+            }
+            if (fin < limite || inicioVentana + limite >= tamanoArchivo) {
+                break;
+            }
+            // La línea sigue después de la ventana: se vuelve a mapear desde su inicio
+            int recorrido = fin - posicion;
+            if (posicion == 0) {
+                // La línea ocupa toda la ventana
+                if (tamanoVentana == Integer.MAX_VALUE) {
+                    throw new IOException("Registro demasiado grande para mapearlo");
+                }
+                tamanoVentana = (int) Math.min(2L * tamanoVentana, Integer.MAX_VALUE);
+            }
+            avanzarVentana();
+            fin = recorrido;
+        }
+        int siguientePosicion = fin + 1;
+        if (fin > posicion && datos.get(fin - 1) == RETORNO) {
+            fin--;
+        }
+
+        numeroCampos = 0;
+        int inicioCampo = posicion;
+        for (int i = posicion; i < fin; i++) {
+            if (datos.get(i) == SEPARADOR_CAMPOS) {
+                agregarCampo(inicioCampo, i);
+                inicioCampo = i + 1;
+            }
+        }
+        agregarCampo(inicioCampo, fin);
+
+        // Igual que String.split, los campos vacíos al final no cuentan
+        while (numeroCampos > 0 && inicios[numeroCampos - 1] == fines[numeroCampos - 1]) {
+            numeroCampos--;
+        }
+
+        posicion = siguientePosicion;
+        return true;
+    }
+
+    /**
+     * Obtiene el byte del archivo donde empieza el siguiente registro
+     *
+     * @return La posición del siguiente registro
+     */
+    public long posicionSiguiente() {
+        return inicioVentana + posicion;
+    }
+
+    /**
+     * Obtiene el número de campos del registro actual
+     *
+     * @return El número de campos
+     */
+    @Override
+    public int numeroCampos() {
+        return numeroCampos;
+    }
+
+    /**
+     * Verifica si un campo contiene el texto "null"
+     *
+     * @param campo Índice del campo
+     * @return true si el campo es nulo
+     */
+    @Override
+    public boolean esNulo(int campo) {
+        return esIgual(inicios[campo], fines[campo], NULO);
+    }
+
+    /**
+     * Interpreta un campo como entero, con las mismas reglas de Integer.parseInt
+     *
+     * @param campo Índice del campo
+     * @return El valor entero
+     * @throws NumberFormatException Si el campo no es un entero válido
+     */
+    @Override
+    public int campoEntero(int campo) {
+        int i = inicios[campo];
+        int fin = fines[campo];
+        if (i == fin) {
+            throw new NumberFormatException("Campo vacío");
+        }
+
+        boolean negativo = false;
+        byte primero = datos.get(i);
+        if (primero == '-' || primero == '+') {
+            negativo = primero == '-';
+            if (++i == fin) {
+                throw new NumberFormatException("Campo inválido: " + campoTexto(campo));
+            }
+        }
+
+        long valor = 0;
+        for (; i < fin; i++) {
+            int digito = datos.get(i) - '0';
+            if (digito < 0 || digito > 9) {
+                throw new NumberFormatException("Campo inválido: " + campoTexto(campo));
+            }
+            valor = valor * 10 + digito;
+            if (valor > (long) Integer.MAX_VALUE + 1) {
+                throw new NumberFormatException("Campo fuera de rango: " + campoTexto(campo));
+            }
+        }
+
+        long resultado = negativo ? -valor : valor;
+        if (resultado > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Campo fuera de rango: " + campoTexto(campo));
+        }
+        return (int) resultado;
+    }
+
+    /**
+     * Interpreta un campo como booleano, con las mismas reglas de Boolean.parseBoolean
+     *
+     * @param campo Índice del campo
+     * @return true si el campo es "true" (sin distinguir mayúsculas)
+     */
+    @Override
+    public boolean campoBooleano(int campo) {
+        int inicio = inicios[campo];
+        if (fines[campo] - inicio != VERDADERO.length) {
+            return false;
+        }
+        for (int i = 0; i < VERDADERO.length; i++) {
+            if ((datos.get(inicio + i) | 0x20) != VERDADERO[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Interpreta un campo como número decimal
+     *
+     * @param campo Índice del campo
+     * @return El valor decimal
+     * @throws NumberFormatException Si el campo no es un número válido
+     */
+    @Override
+    public float campoFlotante(int campo) {
+        return Float.parseFloat(campoTexto(campo));
+    }
+
+    /**
+     * Interpreta un campo como fecha en formato yyyy-MM-dd
+     *
+     * @param campo Índice del campo
+     * @return La fecha, o null si el campo es "null"
+     * @throws ParseException Si el campo no es una fecha válida
+     */
+    @Override
+    public Date campoFecha(int campo) throws ParseException {
+        return CodecFecha.aFecha(campoDia(campo));
+    }
+
+    /**
+     * Interpreta un campo yyyy-MM-dd como día de época, sin crear objetos
+     *
+     * @param campo Índice del campo
+     * @return El día de época, o CodecFecha.SIN_FECHA si el campo es "null"
+     * @throws ParseException Si el campo no es una fecha válida
+     */
+    @Override
+    public int campoDia(int campo) throws ParseException {
+        if (esNulo(campo)) {
+            return CodecFecha.SIN_FECHA;
+        }
+        return leerDia(inicios[campo], fines[campo]);
+    }
+
+    /**
+     * Obtiene un campo como texto
+     *
+     * @param campo Índice del campo
+     * @return El texto del campo
+     */
+    @Override
+    public String campoTexto(int campo) {
+        return texto(inicios[campo], fines[campo]);
+    }
+
+    /**
+     * Obtiene un campo con una lista de textos separados por comas
+     *
+     * @param campo Índice del campo
+     * @return Lista de textos (vacía si el campo es "null")
+     */
+    @Override
+    public List<String> campoLista(int campo) {
+        List<String> lista = new ArrayList<>();
+        if (esNulo(campo)) {
+            return lista;
+        }
+
+        int inicio = inicios[campo];
+        int fin = fines[campo];
+        for (int i = inicio; i <= fin; i++) {
+            if (i == fin || datos.get(i) == SEPARADOR_LISTA) {
+                if (i > inicio) {
+                    lista.add(texto(inicio, i));
+                }
+                inicio = i + 1;
+            }
+        }
+        return lista;
+    }
+
+    /**
+     * Obtiene un campo con una lista de fechas yyyy-MM-dd separadas por comas
+     *
+     * @param campo Índice del campo
+     * @return Lista de fechas (vacía si el campo es "null")
+     * @throws ParseException Si alguna fecha no es válida
+     */
+    @Override
+    public List<Date> campoListaFechas(int campo) throws ParseException {
+        List<Date> fechas = new ArrayList<>();
+        if (esNulo(campo)) {
+            return fechas;
+        }
+
+        int inicio = inicios[campo];
+        int fin = fines[campo];
+        for (int i = inicio; i <= fin; i++) {
+            if (i == fin || datos.get(i) == SEPARADOR_LISTA) {
+                if (i > inicio) {
+                    fechas.add(CodecFecha.aFecha(leerDia(inicio, i)));
+                }
+                inicio = i + 1;
+            }
+        }
+        return fechas;
+    }
+
+    @Override
+    public void close() throws IOException {
+        datos = null;
+        canal.close();
+    }
+
+    /**
+     * Mapea la siguiente ventana a partir de la posición actual
+     */
+    private void avanzarVentana() throws IOException {
+        mapearVentana(inicioVentana + posicion);
+    }
+
+    /**
+     * Mapea una ventana que empieza en el byte dado del archivo
+     */
+    private void mapearVentana(long inicio) throws IOException {
+        int tamano = (int) Math.min(tamanoVentana, tamanoArchivo - inicio);
+        datos = canal.map(FileChannel.MapMode.READ_ONLY, inicio, tamano);
+        inicioVentana = inicio;
+        limite = tamano;
+        posicion = 0;
+    }
+
+    /**
+     * Registra los límites de un campo del registro actual
+     */
+    private void agregarCampo(int inicio, int fin) {
+        if (numeroCampos == inicios.length) {
+            inicios = Arrays.copyOf(inicios, numeroCampos * 2);
+            fines = Arrays.copyOf(fines, numeroCampos * 2);
+        }
+        inicios[numeroCampos] = inicio;
+        fines[numeroCampos] = fin;
+        numeroCampos++;
+    }
+
+    /**
+     * Compara un rango de bytes con un literal
+     */
+    private boolean esIgual(int inicio, int fin, byte[] literal) {
+        if (fin - inicio != literal.length) {
+            return false;
+        }
+        for (int i = 0; i < literal.length; i++) {
+            if (datos.get(inicio + i) != literal[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodifica un rango de bytes como texto
+     */
+    private String texto(int inicio, int fin) {
+        int longitud = fin - inicio;
+        if (longitud > auxiliar.length) {
+            auxiliar = new byte[Math.max(longitud, auxiliar.length * 2)];
+        }
+        for (int i = 0; i < longitud; i++) {
+            auxiliar[i] = datos.get(inicio + i);
+        }
+        return new String(auxiliar, 0, longitud, codificacion);
+    }
+
+    /**
+     * Interpreta un rango de bytes yyyy-MM-dd como día de época
+     */
+    private int leerDia(int inicio, int fin) throws ParseException {
+        if (fin - inicio == 10 && datos.get(inicio + 4) == '-' && datos.get(inicio + 7) == '-') {
+            int anio = digitos(inicio, 4);
+            int mes = digitos(inicio + 5, 2);
+            int dia = digitos(inicio + 8, 2);
+            if (anio >= 0 && mes >= 0 && dia >= 0) {
+                int resultado = CodecFecha.diaEpoca(anio, mes, dia);
+                if (resultado != CodecFecha.SIN_FECHA) {
+                    return resultado;
+                }
+            }
+        }
+        throw new ParseException("Fecha inválida: " + texto(inicio, fin), 0);
+    }
+    
+    /**
+     * Lee un número fijo de dígitos decimales
+     *
+     * @return El valor, o -1 si algún byte no es un dígito
+     */
+    private int digitos(int inicio, int cantidad) {
+        int valor = 0;
+        for (int i = inicio; i < inicio + cantidad; i++) {
+            int digito = datos.get(i) - '0';
+            if (digito < 0 || digito > 9) {
+                return -1;
+            }
+            valor = valor * 10 + digito;
+        }
+        return valor;
+    }
+}
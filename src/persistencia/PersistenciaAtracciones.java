@@ -2,16 +2,17 @@ package persistencia;
 
 import java.io.IOException;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 
 import excepciones.AtraccionException;
 import modelo.atracciones.Atraccion;
 import modelo.atracciones.AtraccionCultural;
 import modelo.atracciones.AtraccionMecanica;
 import modelo.atracciones.Espectaculo;
+import modelo.util.CodecFecha;
 
 /**
  * Clase para la persistencia de atracciones y espectáculos
@@ -21,8 +22,6 @@ public class PersistenciaAtracciones {
     private static final String ARCHIVO_ATRACCIONES_CULTURALES = "atracciones_culturales.txt";
     private static final String ARCHIVO_ESPECTACULOS = "espectaculos.txt";
     
-    private static final SimpleDateFormat FORMATO_FECHA = new SimpleDateFormat("yyyy-MM-dd");
-    
     /**
      * Guarda una lista de atracciones mecánicas
      * 
@@ -39,8 +38,10 @@ public class PersistenciaAtracciones {
                 sb.append(atraccion.getNombre()).append("|");
                 sb.append(atraccion.getRestriccionClima()).append("|");
                 sb.append(atraccion.isDeTemporada()).append("|");
-                sb.append(atraccion.getFechaInicio() != null ? FORMATO_FECHA.format(atraccion.getFechaInicio()) : "null").append("|");
-                sb.append(atraccion.getFechaFin() != null ? FORMATO_FECHA.format(atraccion.getFechaFin()) : "null").append("|");
+                CodecFecha.escribir(atraccion.getFechaInicio(), sb);
+                sb.append("|");
+                CodecFecha.escribir(atraccion.getFechaFin(), sb);
+                sb.append("|");
                 sb.append(atraccion.getNivelExclusividad()).append("|");
                 sb.append(atraccion.getEmpleadosEncargados()).append("|");
                 sb.append(atraccion.getUbicacion()).append("|");
@@ -78,8 +79,10 @@ public class PersistenciaAtracciones {
                 sb.append(atraccion.getNombre()).append("|");
                 sb.append(atraccion.getRestriccionClima()).append("|");
                 sb.append(atraccion.isDeTemporada()).append("|");
-                sb.append(atraccion.getFechaInicio() != null ? FORMATO_FECHA.format(atraccion.getFechaInicio()) : "null").append("|");
-                sb.append(atraccion.getFechaFin() != null ? FORMATO_FECHA.format(atraccion.getFechaFin()) : "null").append("|");
+                CodecFecha.escribir(atraccion.getFechaInicio(), sb);
+                sb.append("|");
+                CodecFecha.escribir(atraccion.getFechaFin(), sb);
+                sb.append("|");
                 sb.append(atraccion.getNivelExclusividad()).append("|");
                 sb.append(atraccion.getEmpleadosEncargados()).append("|");
                 sb.append(atraccion.getUbicacion()).append("|");
@@ -112,23 +115,25 @@ public class PersistenciaAtracciones {
                 sb.append(espectaculo.getNombre()).append("|");
                 sb.append(espectaculo.getRestriccionClima()).append("|");
                 sb.append(espectaculo.isDeTemporada()).append("|");
-                sb.append(espectaculo.getFechaInicio() != null ? FORMATO_FECHA.format(espectaculo.getFechaInicio()) : "null").append("|");
-                sb.append(espectaculo.getFechaFin() != null ? FORMATO_FECHA.format(espectaculo.getFechaFin()) : "null").append("|");
+                CodecFecha.escribir(espectaculo.getFechaInicio(), sb);
+                sb.append("|");
+                CodecFecha.escribir(espectaculo.getFechaFin(), sb);
+                sb.append("|");
                 sb.append(espectaculo.getDuracion()).append("|");
                 sb.append(espectaculo.getHorario()).append("|");
                 sb.append(espectaculo.getCapacidad()).append("|");
                 
-                // Guardar las funciones del espectáculo
-                List<Date> funciones = espectaculo.getFunciones();
-                if (funciones.isEmpty()) {
+                // Guardar las funciones del espectáculo, directamente desde los días del calendario
+                if (espectaculo.getNumeroFunciones() == 0) {
                     sb.append("null");
                 } else {
-                    for (int i = 0; i < funciones.size(); i++) {
-                        if (i > 0) {
+                    int inicioFunciones = sb.length();
+                    espectaculo.recorrerDiasFunciones(Integer.MIN_VALUE, Integer.MAX_VALUE, dia -> {
+                        if (sb.length() > inicioFunciones) {
                             sb.append(",");
                         }
-                        sb.append(FORMATO_FECHA.format(funciones.get(i)));
-                    }
+                        CodecFecha.escribir(dia, sb);
+                    });
                 }
                 
                 lineas.add(sb.toString());
@@ -149,54 +154,54 @@ public class PersistenciaAtracciones {
      */
     public List<AtraccionMecanica> cargarAtraccionesMecanicas() throws AtraccionException {
         List<AtraccionMecanica> atracciones = new ArrayList<>();
-        
+        recorrerAtraccionesMecanicas(atracciones::add);
+        return atracciones;
+    }
+    
+    /**
+     * Recorre las atracciones mecánicas del archivo una a una, sin reunirlas en una lista
+     * 
+     * @param consumidor Recibe cada atracción en cuanto se lee
+     * @throws AtraccionException Si hay un error al cargar las atracciones
+     */
+    public void recorrerAtraccionesMecanicas(Consumer<? super AtraccionMecanica> consumidor) throws AtraccionException {
         try {
-            if (ArchivoUtil.existeArchivo(ARCHIVO_ATRACCIONES_MECANICAS)) {
-                List<String> lineas = ArchivoUtil.cargarLineas(ARCHIVO_ATRACCIONES_MECANICAS);
-                
-                for (String linea : lineas) {
-                    String[] partes = linea.split("\\|");
-                    
-                    if (partes.length >= 15) {
-                        String nombre = partes[0];
-                        String restriccionClima = partes[1];
-                        boolean deTemporada = Boolean.parseBoolean(partes[2]);
+            if (ArchivoUtil.existenRegistros(ARCHIVO_ATRACCIONES_MECANICAS)) {
+                try (FuenteRegistros registros = ArchivoUtil.abrirRegistros(ARCHIVO_ATRACCIONES_MECANICAS)) {
+                    while (registros.siguiente()) {
+                        if (registros.numeroCampos() >= 15) {
+                            String nombre = registros.campoTexto(0);
+                            String restriccionClima = registros.campoTexto(1);
+                            boolean deTemporada = registros.campoBooleano(2);
                         
-                        Date fechaInicio = null;
-                        if (!partes[3].equals("null")) {
-                            fechaInicio = FORMATO_FECHA.parse(partes[3]);
-                        }
+                            Date fechaInicio = registros.campoFecha(3);
                         
-                        Date fechaFin = null;
-                        if (!partes[4].equals("null")) {
-                            fechaFin = FORMATO_FECHA.parse(partes[4]);
-                        }
+                            Date fechaFin = registros.campoFecha(4);
                         
-                        String nivelExclusividad = partes[5];
-                        int empleadosEncargados = Integer.parseInt(partes[6]);
-                        String ubicacion = partes[7];
-                        int cupoMaximo = Integer.parseInt(partes[8]);
-                        float alturaMinima = Float.parseFloat(partes[9]);
-                        float alturaMaxima = Float.parseFloat(partes[10]);
-                        float pesoMinimo = Float.parseFloat(partes[11]);
-                        float pesoMaximo = Float.parseFloat(partes[12]);
-                        String restriccionesSalud = partes[13];
-                        String nivelRiesgo = partes[14];
+                            String nivelExclusividad = registros.campoTexto(5);
+                            int empleadosEncargados = registros.campoEntero(6);
+                            String ubicacion = registros.campoTexto(7);
+                            int cupoMaximo = registros.campoEntero(8);
+                            float alturaMinima = registros.campoFlotante(9);
+                            float alturaMaxima = registros.campoFlotante(10);
+                            float pesoMinimo = registros.campoFlotante(11);
+                            float pesoMaximo = registros.campoFlotante(12);
+                            String restriccionesSalud = registros.campoTexto(13);
+                            String nivelRiesgo = registros.campoTexto(14);
                         
-                        AtraccionMecanica atraccion = new AtraccionMecanica(nombre, restriccionClima, deTemporada, 
-                                fechaInicio, fechaFin, nivelExclusividad, empleadosEncargados, ubicacion, 
-                                cupoMaximo, alturaMinima, alturaMaxima, pesoMinimo, pesoMaximo, 
-                                restriccionesSalud, nivelRiesgo);
+                            AtraccionMecanica atraccion = new AtraccionMecanica(nombre, restriccionClima, deTemporada, 
+                                    fechaInicio, fechaFin, nivelExclusividad, empleadosEncargados, ubicacion, 
+                                    cupoMaximo, alturaMinima, alturaMaxima, pesoMinimo, pesoMaximo, 
+                                    restriccionesSalud, nivelRiesgo);
                         
-                        atracciones.add(atraccion);
+                            consumidor.accept(atraccion);
+                        }
                     }
                 }
             }
         } catch (IOException | ParseException e) {
             throw new AtraccionException("Error al cargar las atracciones mecánicas", e);
         }
-        
-        return atracciones;
     }
     
     /**
@@ -207,48 +212,48 @@ public class PersistenciaAtracciones {
      */
     public List<AtraccionCultural> cargarAtraccionesCulturales() throws AtraccionException {
         List<AtraccionCultural> atracciones = new ArrayList<>();
-        
+        recorrerAtraccionesCulturales(atracciones::add);
+        return atracciones;
+    }
+    
+    /**
+     * Recorre las atracciones culturales del archivo una a una, sin reunirlas en una lista
+     * 
+     * @param consumidor Recibe cada atracción en cuanto se lee
+     * @throws AtraccionException Si hay un error al cargar las atracciones
+     */
+    public void recorrerAtraccionesCulturales(Consumer<? super AtraccionCultural> consumidor) throws AtraccionException {
         try {
-            if (ArchivoUtil.existeArchivo(ARCHIVO_ATRACCIONES_CULTURALES)) {
-                List<String> lineas = ArchivoUtil.cargarLineas(ARCHIVO_ATRACCIONES_CULTURALES);
-                
-                for (String linea : lineas) {
-                    String[] partes = linea.split("\\|");
-                    
-                    if (partes.length >= 10) {
-                        String nombre = partes[0];
-                        String restriccionClima = partes[1];
-                        boolean deTemporada = Boolean.parseBoolean(partes[2]);
+            if (ArchivoUtil.existenRegistros(ARCHIVO_ATRACCIONES_CULTURALES)) {
+                try (FuenteRegistros registros = ArchivoUtil.abrirRegistros(ARCHIVO_ATRACCIONES_CULTURALES)) {
+                    while (registros.siguiente()) {
+                        if (registros.numeroCampos() >= 10) {
+                            String nombre = registros.campoTexto(0);
+                            String restriccionClima = registros.campoTexto(1);
+                            boolean deTemporada = registros.campoBooleano(2);
                         
-                        Date fechaInicio = null;
-                        if (!partes[3].equals("null")) {
-                            fechaInicio = FORMATO_FECHA.parse(partes[3]);
-                        }
+                            Date fechaInicio = registros.campoFecha(3);
                         
-                        Date fechaFin = null;
-                        if (!partes[4].equals("null")) {
-                            fechaFin = FORMATO_FECHA.parse(partes[4]);
-                        }
+                            Date fechaFin = registros.campoFecha(4);
                         
-                        String nivelExclusividad = partes[5];
-                        int empleadosEncargados = Integer.parseInt(partes[6]);
-                        String ubicacion = partes[7];
-                        int cupoMaximo = Integer.parseInt(partes[8]);
-                        int edadMinima = Integer.parseInt(partes[9]);
+                            String nivelExclusividad = registros.campoTexto(5);
+                            int empleadosEncargados = registros.campoEntero(6);
+                            String ubicacion = registros.campoTexto(7);
+                            int cupoMaximo = registros.campoEntero(8);
+                            int edadMinima = registros.campoEntero(9);
                         
-                        AtraccionCultural atraccion = new AtraccionCultural(nombre, restriccionClima, deTemporada, 
-                                fechaInicio, fechaFin, nivelExclusividad, empleadosEncargados, ubicacion, 
-                                cupoMaximo, edadMinima);
+                            AtraccionCultural atraccion = new AtraccionCultural(nombre, restriccionClima, deTemporada, 
+                                    fechaInicio, fechaFin, nivelExclusividad, empleadosEncargados, ubicacion, 
+                                    cupoMaximo, edadMinima);
                         
-                        atracciones.add(atraccion);
+                            consumidor.accept(atraccion);
+                        }
                     }
                 }
             }
         } catch (IOException | ParseException e) {
             throw new AtraccionException("Error al cargar las atracciones culturales", e);
         }
-        
-        return atracciones;
     }
     
     /**
@@ -259,54 +264,50 @@ public class PersistenciaAtracciones {
      */
     public List<Espectaculo> cargarEspectaculos() throws AtraccionException {
         List<Espectaculo> espectaculos = new ArrayList<>();
-        
+        recorrerEspectaculos(espectaculos::add);
+        return espectaculos;
+    }
+    
+    /**
+     * Recorre los espectáculos del archivo uno a uno, sin reunirlos en una lista
+     * 
+     * @param consumidor Recibe cada espectáculo en cuanto se lee
+     * @throws AtraccionException Si hay un error al cargar los espectáculos
+     */
+    public void recorrerEspectaculos(Consumer<? super Espectaculo> consumidor) throws AtraccionException {
         try {
-            if (ArchivoUtil.existeArchivo(ARCHIVO_ESPECTACULOS)) {
-                List<String> lineas = ArchivoUtil.cargarLineas(ARCHIVO_ESPECTACULOS);
-                
-                for (String linea : lineas) {
-                    String[] partes = linea.split("\\|");
-                    
-                    if (partes.length >= 9) {
-                        String nombre = partes[0];
-                        String restriccionClima = partes[1];
-                        boolean deTemporada = Boolean.parseBoolean(partes[2]);
+            if (ArchivoUtil.existenRegistros(ARCHIVO_ESPECTACULOS)) {
+                try (FuenteRegistros registros = ArchivoUtil.abrirRegistros(ARCHIVO_ESPECTACULOS)) {
+                    while (registros.siguiente()) {
+                        if (registros.numeroCampos() >= 9) {
+                            String nombre = registros.campoTexto(0);
+                            String restriccionClima = registros.campoTexto(1);
+                            boolean deTemporada = registros.campoBooleano(2);
                         
-                        Date fechaInicio = null;
-                        if (!partes[3].equals("null")) {
-                            fechaInicio = FORMATO_FECHA.parse(partes[3]);
-                        }
+                            Date fechaInicio = registros.campoFecha(3);
                         
-                        Date fechaFin = null;
-                        if (!partes[4].equals("null")) {
-                            fechaFin = FORMATO_FECHA.parse(partes[4]);
-                        }
+                            Date fechaFin = registros.campoFecha(4);
                         
-                        String duracion = partes[5];
-                        String horario = partes[6];
-                        int capacidad = Integer.parseInt(partes[7]);
+                            String duracion = registros.campoTexto(5);
+                            String horario = registros.campoTexto(6);
+                            int capacidad = registros.campoEntero(7);
                         
-                        Espectaculo espectaculo = new Espectaculo(nombre, restriccionClima, deTemporada, 
-                                fechaInicio, fechaFin, duracion, horario, capacidad);
+                            Espectaculo espectaculo = new Espectaculo(nombre, restriccionClima, deTemporada, 
+                                    fechaInicio, fechaFin, duracion, horario, capacidad);
                         
-                        // Cargar las funciones del espectáculo
-                        if (!partes[8].equals("null")) {
-                            String[] funcionesStr = partes[8].split(",");
-                            for (String funcionStr : funcionesStr) {
-                                Date fechaFuncion = FORMATO_FECHA.parse(funcionStr);
+                            // Cargar las funciones del espectáculo
+                            for (Date fechaFuncion : registros.campoListaFechas(8)) {
                                 espectaculo.agregarFuncion(fechaFuncion);
                             }
-                        }
                         
-                        espectaculos.add(espectaculo);
+                            consumidor.accept(espectaculo);
+                        }
                     }
                 }
             }
         } catch (IOException | ParseException e) {
             throw new AtraccionException("Error al cargar los espectáculos", e);
         }
-        
-        return espectaculos;
     }
     
     /**
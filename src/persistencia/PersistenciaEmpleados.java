@@ -2,10 +2,10 @@ package persistencia;
 
 import java.io.IOException;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 
 import excepciones.EmpleadoException;
 import modelo.empleados.AtraccionAlto;
@@ -15,6 +15,7 @@ import modelo.empleados.Cocinero;
 import modelo.empleados.Empleado;
 import modelo.empleados.Regular;
 import modelo.empleados.ServicioGeneral;
+import modelo.util.CodecFecha;
 
 /**
  * Clase para la persistencia de empleados
@@ -27,8 +28,6 @@ public class PersistenciaEmpleados {
     private static final String ARCHIVO_EMPLEADOS_REGULAR = "empleados_regular.txt";
     private static final String ARCHIVO_EMPLEADOS_SERVICIO_GENERAL = "empleados_servicio_general.txt";
     
-    private static final SimpleDateFormat FORMATO_FECHA = new SimpleDateFormat("yyyy-MM-dd");
-    
     /**
      * Guarda una lista de empleados de atracción de alto riesgo
      * 
@@ -95,8 +94,10 @@ public class PersistenciaEmpleados {
                 sb.append(empleado.getPassword()).append("|");
                 sb.append(empleado.isHorasExtras()).append("|");
                 sb.append(empleado.isCapacitado()).append("|");
-                sb.append(empleado.getFechaCapacitacion() != null ? FORMATO_FECHA.format(empleado.getFechaCapacitacion()) : "null").append("|");
-                sb.append(empleado.getFechaVencimientoCapacitacion() != null ? FORMATO_FECHA.format(empleado.getFechaVencimientoCapacitacion()) : "null").append("|");
+                CodecFecha.escribir(empleado.getFechaCapacitacion(), sb);
+                sb.append("|");
+                CodecFecha.escribir(empleado.getFechaVencimientoCapacitacion(), sb);
+                sb.append("|");
                 
                 // Adicional: guardar IDs de atracciones asignadas si están implementadas
                 List<modelo.atracciones.AtraccionMecanica> atracciones = empleado.getAtraccionesAsignadas();
@@ -279,40 +280,75 @@ public class PersistenciaEmpleados {
      * @throws EmpleadoException Si hay un error al cargar los empleados
      */
     public List<AtraccionAlto> cargarEmpleadosAtraccionAlto() throws EmpleadoException {
+        return cargarEmpleadosAtraccionAlto(null);
+    }
+    
+    /**
+     * Recorre los empleados de atracción de alto riesgo del archivo uno a uno, sin reunirlos en una lista
+     * 
+     * @param consumidor Recibe cada empleado en cuanto se lee
+     * @throws EmpleadoException Si hay un error al cargar los empleados
+     */
+    public void recorrerEmpleadosAtraccionAlto(Consumer<? super AtraccionAlto> consumidor) throws EmpleadoException {
+        recorrerEmpleadosAtraccionAlto(null, consumidor);
+    }
+    
+    /**
+     * Carga la lista de empleados de atracción de alto riesgo junto con los nombres
+     * de sus atracciones específicas, que se asocian cuando las atracciones estén cargadas
+     * 
+     * @param nombresAtracciones Lista donde se agregan los nombres de las atracciones
+     *        de cada empleado, en el mismo orden de los empleados (puede ser null)
+     * @return La lista de empleados
+     * @throws EmpleadoException Si hay un error al cargar los empleados
+     */
+    List<AtraccionAlto> cargarEmpleadosAtraccionAlto(List<List<String>> nombresAtracciones) throws EmpleadoException {
         List<AtraccionAlto> empleados = new ArrayList<>();
-        
+        recorrerEmpleadosAtraccionAlto(nombresAtracciones, empleados::add);
+        return empleados;
+    }
+    
+    /**
+     * Recorre los empleados de atracción de alto riesgo del archivo uno a uno junto con los nombres
+     * de sus atracciones específicas, que se asocian cuando las atracciones estén cargadas
+     * 
+     * @param nombresAtracciones Lista donde se agregan los nombres de las atracciones
+     *        de cada empleado, en el mismo orden de los empleados (puede ser null)
+     * @param consumidor Recibe cada empleado en cuanto se lee
+     * @throws EmpleadoException Si hay un error al cargar los empleados
+     */
+    void recorrerEmpleadosAtraccionAlto(List<List<String>> nombresAtracciones, Consumer<? super AtraccionAlto> consumidor) throws EmpleadoException {
         try {
-            if (ArchivoUtil.existeArchivo(ARCHIVO_EMPLEADOS_ATRACCION_ALTO)) {
-                List<String> lineas = ArchivoUtil.cargarLineas(ARCHIVO_EMPLEADOS_ATRACCION_ALTO);
-                
-                for (String linea : lineas) {
-                    String[] partes = linea.split("\\|");
-                    
-                    if (partes.length >= 8) {
-                        String tipo = partes[0];
-                        String nombre = partes[1];
-                        int id = Integer.parseInt(partes[2]);
-                        boolean servicioGeneral = Boolean.parseBoolean(partes[3]);
-                        String email = partes[4];
-                        String password = partes[5];
-                        boolean horasExtras = Boolean.parseBoolean(partes[6]);
-                        boolean capacitado = Boolean.parseBoolean(partes[7]);
+            if (ArchivoUtil.existenRegistros(ARCHIVO_EMPLEADOS_ATRACCION_ALTO)) {
+                try (FuenteRegistros registros = ArchivoUtil.abrirRegistros(ARCHIVO_EMPLEADOS_ATRACCION_ALTO)) {
+                    while (registros.siguiente()) {
+                        if (registros.numeroCampos() >= 8) {
+                            String tipo = registros.campoTexto(0);
+                            String nombre = registros.campoTexto(1);
+                            int id = registros.campoEntero(2);
+                            boolean servicioGeneral = registros.campoBooleano(3);
+                            String email = registros.campoTexto(4);
+                            String password = registros.campoTexto(5);
+                            boolean horasExtras = registros.campoBooleano(6);
+                            boolean capacitado = registros.campoBooleano(7);
                         
-                        AtraccionAlto empleado = new AtraccionAlto(tipo, nombre, id, servicioGeneral, email, password, horasExtras, capacitado);
+                            AtraccionAlto empleado = new AtraccionAlto(tipo, nombre, id, servicioGeneral, email, password, horasExtras, capacitado);
                         
-                        // Aquí deberíamos cargar las atracciones asociadas, 
-                        // pero para hacerlo necesitaríamos tener primero cargadas todas las atracciones
-                        // En una implementación real, esta asociación debería hacerse en un segundo paso
+                            // Las atracciones específicas se asocian en un segundo paso,
+                            // cuando todas las atracciones están cargadas (ver CargadorParque)
+                            if (nombresAtracciones != null) {
+                                nombresAtracciones.add(registros.numeroCampos() > 8
+                                        ? registros.campoLista(8) : new ArrayList<>());
+                            }
                         
-                        empleados.add(empleado);
+                            consumidor.accept(empleado);
+                        }
                     }
                 }
             }
         } catch (IOException e) {
             throw new EmpleadoException("Error al cargar los empleados de atracción de alto riesgo", e);
         }
-        
-        return empleados;
     }
     
     /**
@@ -323,47 +359,47 @@ public class PersistenciaEmpleados {
      */
     public List<AtraccionMedio> cargarEmpleadosAtraccionMedio() throws EmpleadoException {
         List<AtraccionMedio> empleados = new ArrayList<>();
-        
+        recorrerEmpleadosAtraccionMedio(empleados::add);
+        return empleados;
+    }
+    
+    /**
+     * Recorre los empleados de atracción de riesgo medio del archivo uno a uno, sin reunirlos en una lista
+     * 
+     * @param consumidor Recibe cada empleado en cuanto se lee
+     * @throws EmpleadoException Si hay un error al cargar los empleados
+     */
+    public void recorrerEmpleadosAtraccionMedio(Consumer<? super AtraccionMedio> consumidor) throws EmpleadoException {
         try {
-            if (ArchivoUtil.existeArchivo(ARCHIVO_EMPLEADOS_ATRACCION_MEDIO)) {
-                List<String> lineas = ArchivoUtil.cargarLineas(ARCHIVO_EMPLEADOS_ATRACCION_MEDIO);
-                
-                for (String linea : lineas) {
-                    String[] partes = linea.split("\\|");
-                    
-                    if (partes.length >= 10) {
-                        String tipo = partes[0];
-                        String nombre = partes[1];
-                        int id = Integer.parseInt(partes[2]);
-                        boolean servicioGeneral = Boolean.parseBoolean(partes[3]);
-                        String email = partes[4];
-                        String password = partes[5];
-                        boolean horasExtras = Boolean.parseBoolean(partes[6]);
+            if (ArchivoUtil.existenRegistros(ARCHIVO_EMPLEADOS_ATRACCION_MEDIO)) {
+                try (FuenteRegistros registros = ArchivoUtil.abrirRegistros(ARCHIVO_EMPLEADOS_ATRACCION_MEDIO)) {
+                    while (registros.siguiente()) {
+                        if (registros.numeroCampos() >= 10) {
+                            String tipo = registros.campoTexto(0);
+                            String nombre = registros.campoTexto(1);
+                            int id = registros.campoEntero(2);
+                            boolean servicioGeneral = registros.campoBooleano(3);
+                            String email = registros.campoTexto(4);
+                            String password = registros.campoTexto(5);
+                            boolean horasExtras = registros.campoBooleano(6);
                         
-                        Date fechaCapacitacion = null;
-                        if (!partes[8].equals("null")) {
-                            fechaCapacitacion = FORMATO_FECHA.parse(partes[8]);
-                        }
+                            Date fechaCapacitacion = registros.campoFecha(8);
                         
-                        Date fechaVencimiento = null;
-                        if (!partes[9].equals("null")) {
-                            fechaVencimiento = FORMATO_FECHA.parse(partes[9]);
-                        }
+                            Date fechaVencimiento = registros.campoFecha(9);
                         
-                        AtraccionMedio empleado = new AtraccionMedio(fechaCapacitacion, fechaVencimiento, tipo, nombre, id, servicioGeneral, email, password, horasExtras);
+                            AtraccionMedio empleado = new AtraccionMedio(fechaCapacitacion, fechaVencimiento, tipo, nombre, id, servicioGeneral, email, password, horasExtras);
                         
-                        // Aquí deberíamos cargar las atracciones asociadas, 
-                        // pero para hacerlo necesitaríamos tener primero cargadas todas las atracciones
+                            // Aquí deberíamos cargar las atracciones asociadas, 
+                            // pero para hacerlo necesitaríamos tener primero cargadas todas las atracciones
                         
-                        empleados.add(empleado);
+                            consumidor.accept(empleado);
+                        }
                     }
                 }
             }
         } catch (IOException | ParseException e) {
             throw new EmpleadoException("Error al cargar los empleados de atracción de riesgo medio", e);
         }
-        
-        return empleados;
     }
     
     /**
@@ -374,37 +410,43 @@ public class PersistenciaEmpleados {
      */
     public List<Cajero> cargarEmpleadosCajero() throws EmpleadoException {
         List<Cajero> empleados = new ArrayList<>();
-        
+        recorrerEmpleadosCajero(empleados::add);
+        return empleados;
+    }
+    
+    /**
+     * Recorre los cajeros del archivo uno a uno, sin reunirlos en una lista
+     * 
+     * @param consumidor Recibe cada empleado en cuanto se lee
+     * @throws EmpleadoException Si hay un error al cargar los empleados
+     */
+    public void recorrerEmpleadosCajero(Consumer<? super Cajero> consumidor) throws EmpleadoException {
         try {
-            if (ArchivoUtil.existeArchivo(ARCHIVO_EMPLEADOS_CAJERO)) {
-                List<String> lineas = ArchivoUtil.cargarLineas(ARCHIVO_EMPLEADOS_CAJERO);
-                
-                for (String linea : lineas) {
-                    String[] partes = linea.split("\\|");
-                    
-                    if (partes.length >= 7) {
-                        String tipo = partes[0];
-                        String nombre = partes[1];
-                        int id = Integer.parseInt(partes[2]);
-                        boolean servicioGeneral = Boolean.parseBoolean(partes[3]);
-                        String email = partes[4];
-                        String password = partes[5];
-                        boolean horasExtras = Boolean.parseBoolean(partes[6]);
+            if (ArchivoUtil.existenRegistros(ARCHIVO_EMPLEADOS_CAJERO)) {
+                try (FuenteRegistros registros = ArchivoUtil.abrirRegistros(ARCHIVO_EMPLEADOS_CAJERO)) {
+                    while (registros.siguiente()) {
+                        if (registros.numeroCampos() >= 7) {
+                            String tipo = registros.campoTexto(0);
+                            String nombre = registros.campoTexto(1);
+                            int id = registros.campoEntero(2);
+                            boolean servicioGeneral = registros.campoBooleano(3);
+                            String email = registros.campoTexto(4);
+                            String password = registros.campoTexto(5);
+                            boolean horasExtras = registros.campoBooleano(6);
                         
-                        Cajero empleado = new Cajero(tipo, nombre, id, servicioGeneral, email, password, horasExtras);
+                            Cajero empleado = new Cajero(tipo, nombre, id, servicioGeneral, email, password, horasExtras);
                         
-                        // Aquí deberíamos cargar el lugar de servicio asociado,
-                        // pero para hacerlo necesitaríamos tener primero cargados todos los lugares
+                            // Aquí deberíamos cargar el lugar de servicio asociado,
+                            // pero para hacerlo necesitaríamos tener primero cargados todos los lugares
                         
-                        empleados.add(empleado);
+                            consumidor.accept(empleado);
+                        }
                     }
                 }
             }
         } catch (IOException e) {
             throw new EmpleadoException("Error al cargar los cajeros", e);
         }
-        
-        return empleados;
     }
     
     /**
@@ -415,38 +457,44 @@ public class PersistenciaEmpleados {
      */
     public List<Cocinero> cargarEmpleadosCocinero() throws EmpleadoException {
         List<Cocinero> empleados = new ArrayList<>();
-        
+        recorrerEmpleadosCocinero(empleados::add);
+        return empleados;
+    }
+    
+    /**
+     * Recorre los cocineros del archivo uno a uno, sin reunirlos en una lista
+     * 
+     * @param consumidor Recibe cada empleado en cuanto se lee
+     * @throws EmpleadoException Si hay un error al cargar los empleados
+     */
+    public void recorrerEmpleadosCocinero(Consumer<? super Cocinero> consumidor) throws EmpleadoException {
         try {
-            if (ArchivoUtil.existeArchivo(ARCHIVO_EMPLEADOS_COCINERO)) {
-                List<String> lineas = ArchivoUtil.cargarLineas(ARCHIVO_EMPLEADOS_COCINERO);
-                
-                for (String linea : lineas) {
-                    String[] partes = linea.split("\\|");
-                    
-                    if (partes.length >= 8) {
-                        String tipo = partes[0];
-                        String nombre = partes[1];
-                        int id = Integer.parseInt(partes[2]);
-                        boolean servicioGeneral = Boolean.parseBoolean(partes[3]);
-                        String email = partes[4];
-                        String password = partes[5];
-                        boolean horasExtras = Boolean.parseBoolean(partes[6]);
-                        boolean capacitado = Boolean.parseBoolean(partes[7]);
+            if (ArchivoUtil.existenRegistros(ARCHIVO_EMPLEADOS_COCINERO)) {
+                try (FuenteRegistros registros = ArchivoUtil.abrirRegistros(ARCHIVO_EMPLEADOS_COCINERO)) {
+                    while (registros.siguiente()) {
+                        if (registros.numeroCampos() >= 8) {
+                            String tipo = registros.campoTexto(0);
+                            String nombre = registros.campoTexto(1);
+                            int id = registros.campoEntero(2);
+                            boolean servicioGeneral = registros.campoBooleano(3);
+                            String email = registros.campoTexto(4);
+                            String password = registros.campoTexto(5);
+                            boolean horasExtras = registros.campoBooleano(6);
+                            boolean capacitado = registros.campoBooleano(7);
                         
-                        Cocinero empleado = new Cocinero(capacitado, tipo, nombre, id, servicioGeneral, email, password, horasExtras);
+                            Cocinero empleado = new Cocinero(capacitado, tipo, nombre, id, servicioGeneral, email, password, horasExtras);
                         
-                        // Aquí deberíamos cargar la cafetería asociada,
-                        // pero para hacerlo necesitaríamos tener primero cargadas todas las cafeterías
+                            // Aquí deberíamos cargar la cafetería asociada,
+                            // pero para hacerlo necesitaríamos tener primero cargadas todas las cafeterías
                         
-                        empleados.add(empleado);
+                            consumidor.accept(empleado);
+                        }
                     }
                 }
             }
         } catch (IOException e) {
             throw new EmpleadoException("Error al cargar los cocineros", e);
         }
-        
-        return empleados;
     }
     
     /**
@@ -457,38 +505,44 @@ public class PersistenciaEmpleados {
      */
     public List<Regular> cargarEmpleadosRegular() throws EmpleadoException {
         List<Regular> empleados = new ArrayList<>();
-        
+        recorrerEmpleadosRegular(empleados::add);
+        return empleados;
+    }
+    
+    /**
+     * Recorre los empleados regulares del archivo uno a uno, sin reunirlos en una lista
+     * 
+     * @param consumidor Recibe cada empleado en cuanto se lee
+     * @throws EmpleadoException Si hay un error al cargar los empleados
+     */
+    public void recorrerEmpleadosRegular(Consumer<? super Regular> consumidor) throws EmpleadoException {
         try {
-            if (ArchivoUtil.existeArchivo(ARCHIVO_EMPLEADOS_REGULAR)) {
-                List<String> lineas = ArchivoUtil.cargarLineas(ARCHIVO_EMPLEADOS_REGULAR);
-                
-                for (String linea : lineas) {
-                    String[] partes = linea.split("\\|");
-                    
-                    if (partes.length >= 8) {
-                        String tipo = partes[0];
-                        String nombre = partes[1];
-                        int id = Integer.parseInt(partes[2]);
-                        boolean servicioGeneral = Boolean.parseBoolean(partes[3]);
-                        String email = partes[4];
-                        String password = partes[5];
-                        boolean horasExtras = Boolean.parseBoolean(partes[6]);
-                        boolean puedeSerCajero = Boolean.parseBoolean(partes[7]);
+            if (ArchivoUtil.existenRegistros(ARCHIVO_EMPLEADOS_REGULAR)) {
+                try (FuenteRegistros registros = ArchivoUtil.abrirRegistros(ARCHIVO_EMPLEADOS_REGULAR)) {
+                    while (registros.siguiente()) {
+                        if (registros.numeroCampos() >= 8) {
+                            String tipo = registros.campoTexto(0);
+                            String nombre = registros.campoTexto(1);
+                            int id = registros.campoEntero(2);
+                            boolean servicioGeneral = registros.campoBooleano(3);
+                            String email = registros.campoTexto(4);
+                            String password = registros.campoTexto(5);
+                            boolean horasExtras = registros.campoBooleano(6);
+                            boolean puedeSerCajero = registros.campoBooleano(7);
                         
-                        Regular empleado = new Regular(puedeSerCajero, tipo, nombre, id, servicioGeneral, email, password, horasExtras);
+                            Regular empleado = new Regular(puedeSerCajero, tipo, nombre, id, servicioGeneral, email, password, horasExtras);
                         
-                        // Aquí deberíamos cargar el lugar de servicio asociado,
-                        // pero para hacerlo necesitaríamos tener primero cargados todos los lugares
+                            // Aquí deberíamos cargar el lugar de servicio asociado,
+                            // pero para hacerlo necesitaríamos tener primero cargados todos los lugares
                         
-                        empleados.add(empleado);
+                            consumidor.accept(empleado);
+                        }
                     }
                 }
             }
         } catch (IOException e) {
             throw new EmpleadoException("Error al cargar los empleados regulares", e);
         }
-        
-        return empleados;
     }
     
     /**
@@ -499,42 +553,42 @@ public class PersistenciaEmpleados {
      */
     public List<ServicioGeneral> cargarEmpleadosServicioGeneral() throws EmpleadoException {
         List<ServicioGeneral> empleados = new ArrayList<>();
-        
+        recorrerEmpleadosServicioGeneral(empleados::add);
+        return empleados;
+    }
+    
+    /**
+     * Recorre los empleados de servicio general del archivo uno a uno, sin reunirlos en una lista
+     * 
+     * @param consumidor Recibe cada empleado en cuanto se lee
+     * @throws EmpleadoException Si hay un error al cargar los empleados
+     */
+    public void recorrerEmpleadosServicioGeneral(Consumer<? super ServicioGeneral> consumidor) throws EmpleadoException {
         try {
-            if (ArchivoUtil.existeArchivo(ARCHIVO_EMPLEADOS_SERVICIO_GENERAL)) {
-                List<String> lineas = ArchivoUtil.cargarLineas(ARCHIVO_EMPLEADOS_SERVICIO_GENERAL);
-                
-                for (String linea : lineas) {
-                    String[] partes = linea.split("\\|");
-                    
-                    if (partes.length >= 8) {
-                        String tipo = partes[0];
-                        String nombre = partes[1];
-                        int id = Integer.parseInt(partes[2]);
-                        boolean servicioGeneral = Boolean.parseBoolean(partes[3]);
-                        String email = partes[4];
-                        String password = partes[5];
-                        boolean horasExtras = Boolean.parseBoolean(partes[6]);
+            if (ArchivoUtil.existenRegistros(ARCHIVO_EMPLEADOS_SERVICIO_GENERAL)) {
+                try (FuenteRegistros registros = ArchivoUtil.abrirRegistros(ARCHIVO_EMPLEADOS_SERVICIO_GENERAL)) {
+                    while (registros.siguiente()) {
+                        if (registros.numeroCampos() >= 8) {
+                            String tipo = registros.campoTexto(0);
+                            String nombre = registros.campoTexto(1);
+                            int id = registros.campoEntero(2);
+                            boolean servicioGeneral = registros.campoBooleano(3);
+                            String email = registros.campoTexto(4);
+                            String password = registros.campoTexto(5);
+                            boolean horasExtras = registros.campoBooleano(6);
                         
-                        List<String> zonas = new ArrayList<>();
-                        if (!partes[7].equals("null")) {
-                            String[] zonasStr = partes[7].split(",");
-                            for (String zona : zonasStr) {
-                                zonas.add(zona);
-                            }
-                        }
+                            List<String> zonas = registros.campoLista(7);
                         
-                        ServicioGeneral empleado = new ServicioGeneral(zonas, tipo, nombre, id, email, password, horasExtras);
+                            ServicioGeneral empleado = new ServicioGeneral(zonas, tipo, nombre, id, email, password, horasExtras);
                         
-                        empleados.add(empleado);
+                            consumidor.accept(empleado);
+                        }
                     }
                 }
             }
         } catch (IOException e) {
             throw new EmpleadoException("Error al cargar los empleados de servicio general", e);
         }
-        
-        return empleados;
     }
     
     /**
@@ -2,11 +2,11 @@ package persistencia;
 
 import java.io.IOException;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import excepciones.AtraccionException;
 import excepciones.TiqueteException;
@@ -16,17 +16,16 @@ import modelo.tiquetes.FastPass;
 import modelo.tiquetes.Individual;
 import modelo.tiquetes.Tiquete;
 import modelo.tiquetes.TiqueteBasico;
+import modelo.util.CodecFecha;
 
 /**
  * Clase para la persistencia de tiquetes
  */
 public class PersistenciaTiquetes {
-    private static final String ARCHIVO_TIQUETES_BASICOS = "tiquetes_basicos.txt";
-    private static final String ARCHIVO_TIQUETES_TEMPORADA = "tiquetes_temporada.txt";
-    private static final String ARCHIVO_TIQUETES_INDIVIDUALES = "tiquetes_individuales.txt";
-    private static final String ARCHIVO_FAST_PASSES = "fast_passes.txt";
-    
-    private static final SimpleDateFormat FORMATO_FECHA = new SimpleDateFormat("yyyy-MM-dd");
+    static final String ARCHIVO_TIQUETES_BASICOS = "tiquetes_basicos.txt";
+    static final String ARCHIVO_TIQUETES_TEMPORADA = "tiquetes_temporada.txt";
+    static final String ARCHIVO_TIQUETES_INDIVIDUALES = "tiquetes_individuales.txt";
+    static final String ARCHIVO_FAST_PASSES = "fast_passes.txt";
     
     /**
      * Guarda una lista de tiquetes básicos
@@ -39,20 +38,7 @@ public class PersistenciaTiquetes {
             List<String> lineas = new ArrayList<>();
             
             for (TiqueteBasico tiquete : tiquetes) {
-                // Construir una línea con los datos del tiquete separados por |
-                StringBuilder sb = new StringBuilder();
-                sb.append(tiquete.getId()).append("|");
-                sb.append(tiquete.getNombre()).append("|");
-                sb.append(tiquete.getNumTiquetes()).append("|");
-                sb.append(tiquete.getExclusividad()).append("|");
-                sb.append(tiquete.getFecha() != null ? FORMATO_FECHA.format(tiquete.getFecha()) : "null").append("|");
-                sb.append(tiquete.getEstado()).append("|");
-                sb.append(tiquete.isDctoEmpleado()).append("|");
-                sb.append(tiquete.getPortalCompra()).append("|");
-                sb.append(tiquete.isUsado()).append("|");
-                sb.append(tiquete.getCategoria());
-                
-                lineas.add(sb.toString());
+                lineas.add(lineaTiqueteBasico(tiquete));
             }
             
             ArchivoUtil.guardarLineas(lineas, ARCHIVO_TIQUETES_BASICOS);
@@ -73,23 +59,7 @@ public class PersistenciaTiquetes {
             List<String> lineas = new ArrayList<>();
             
             for (EnTemporada tiquete : tiquetes) {
-                // Construir una línea con los datos del tiquete separados por |
-                StringBuilder sb = new StringBuilder();
-                sb.append(tiquete.getId()).append("|");
-                sb.append(tiquete.getNombre()).append("|");
-                sb.append(tiquete.getNumTiquetes()).append("|");
-                sb.append(tiquete.getExclusividad()).append("|");
-                sb.append(tiquete.getFecha() != null ? FORMATO_FECHA.format(tiquete.getFecha()) : "null").append("|");
-                sb.append(tiquete.getEstado()).append("|");
-                sb.append(tiquete.isDctoEmpleado()).append("|");
-                sb.append(tiquete.getPortalCompra()).append("|");
-                sb.append(tiquete.isUsado()).append("|");
-                sb.append(tiquete.getFechaInicio() != null ? FORMATO_FECHA.format(tiquete.getFechaInicio()) : "null").append("|");
-                sb.append(tiquete.getFechaFin() != null ? FORMATO_FECHA.format(tiquete.getFechaFin()) : "null").append("|");
-                sb.append(tiquete.getTipoTemporada()).append("|");
-                sb.append(tiquete.getCategoria());
-                
-                lineas.add(sb.toString());
+                lineas.add(lineaTiqueteTemporada(tiquete));
             }
             
             ArchivoUtil.guardarLineas(lineas, ARCHIVO_TIQUETES_TEMPORADA);
@@ -110,23 +80,7 @@ public class PersistenciaTiquetes {
             List<String> lineas = new ArrayList<>();
             
             for (Individual tiquete : tiquetes) {
-                // Construir una línea con los datos del tiquete separados por |
-                StringBuilder sb = new StringBuilder();
-                sb.append(tiquete.getId()).append("|");
-                sb.append(tiquete.getNombre()).append("|");
-                sb.append(tiquete.getNumTiquetes()).append("|");
-                sb.append(tiquete.getExclusividad()).append("|");
-                sb.append(tiquete.getFecha() != null ? FORMATO_FECHA.format(tiquete.getFecha()) : "null").append("|");
-                sb.append(tiquete.getEstado()).append("|");
-                sb.append(tiquete.isDctoEmpleado()).append("|");
-                sb.append(tiquete.getPortalCompra()).append("|");
-                sb.append(tiquete.isUsado()).append("|");
-                
-                // Guardar el nombre de la atracción asociada
-                Atraccion atraccion = tiquete.getAtraccion();
-                sb.append(atraccion != null ? atraccion.getNombre() : "null");
-                
-                lineas.add(sb.toString());
+                lineas.add(lineaTiqueteIndividual(tiquete));
             }
             
             ArchivoUtil.guardarLineas(lineas, ARCHIVO_TIQUETES_INDIVIDUALES);
@@ -147,17 +101,7 @@ public class PersistenciaTiquetes {
             List<String> lineas = new ArrayList<>();
             
             for (FastPass fastPass : fastPasses) {
-                // Construir una línea con los datos del FastPass separados por |
-                StringBuilder sb = new StringBuilder();
-                
-                // Guardar el id del tiquete asociado
-                Tiquete tiqueteAsociado = fastPass.getTiqueteAsociado();
-                sb.append(tiqueteAsociado != null ? tiqueteAsociado.getId() : "null").append("|");
-                
-                sb.append(fastPass.getFechaValida() != null ? FORMATO_FECHA.format(fastPass.getFechaValida()) : "null").append("|");
-                sb.append(fastPass.isUsado());
-                
-                lineas.add(sb.toString());
+                lineas.add(lineaFastPass(fastPass));
             }
             
             ArchivoUtil.guardarLineas(lineas, ARCHIVO_FAST_PASSES);
@@ -175,43 +119,46 @@ public class PersistenciaTiquetes {
      */
     public List<TiqueteBasico> cargarTiquetesBasicos() throws TiqueteException {
         List<TiqueteBasico> tiquetes = new ArrayList<>();
-        
+        recorrerTiquetesBasicos(tiquetes::add);
+        return tiquetes;
+    }
+    
+    /**
+     * Recorre los tiquetes básicos del archivo uno a uno, sin reunirlos en una lista
+     * 
+     * @param consumidor Recibe cada tiquete en cuanto se lee
+     * @throws TiqueteException Si hay un error al cargar los tiquetes
+     */
+    public void recorrerTiquetesBasicos(Consumer<? super TiqueteBasico> consumidor) throws TiqueteException {
         try {
-            if (ArchivoUtil.existeArchivo(ARCHIVO_TIQUETES_BASICOS)) {
-                List<String> lineas = ArchivoUtil.cargarLineas(ARCHIVO_TIQUETES_BASICOS);
-                
-                for (String linea : lineas) {
-                    String[] partes = linea.split("\\|");
-                    
-                    if (partes.length >= 10) {
-                        int id = Integer.parseInt(partes[0]);
-                        String nombre = partes[1];
-                        int numTiquetes = Integer.parseInt(partes[2]);
-                        String exclusividad = partes[3];
+            if (ArchivoUtil.existenRegistros(ARCHIVO_TIQUETES_BASICOS)) {
+                try (FuenteRegistros registros = ArchivoUtil.abrirRegistros(ARCHIVO_TIQUETES_BASICOS)) {
+                    while (registros.siguiente()) {
+                        if (registros.numeroCampos() >= 10) {
+                            int id = registros.campoEntero(0);
+                            String nombre = registros.campoTexto(1);
+                            int numTiquetes = registros.campoEntero(2);
+                            String exclusividad = registros.campoTexto(3);
                         
-                        Date fecha = null;
-                        if (!partes[4].equals("null")) {
-                            fecha = FORMATO_FECHA.parse(partes[4]);
-                        }
+                            Date fecha = registros.campoFecha(4);
                         
-                        String estado = partes[5];
-                        boolean dctoEmpleado = Boolean.parseBoolean(partes[6]);
-                        String portalCompra = partes[7];
-                        boolean usado = Boolean.parseBoolean(partes[8]);
-                        String categoria = partes[9];
+                            String estado = registros.campoTexto(5);
+                            boolean dctoEmpleado = registros.campoBooleano(6);
+                            String portalCompra = registros.campoTexto(7);
+                            boolean usado = registros.campoBooleano(8);
+                            String categoria = registros.campoTexto(9);
                         
-                        TiqueteBasico tiquete = new TiqueteBasico(id, nombre, numTiquetes, exclusividad, fecha, estado, portalCompra, categoria, usado);
-                        tiquete.setDctoEmpleado(dctoEmpleado);
+                            TiqueteBasico tiquete = new TiqueteBasico(id, nombre, numTiquetes, exclusividad, fecha, estado, portalCompra, categoria, usado);
+                            tiquete.setDctoEmpleado(dctoEmpleado);
                         
-                        tiquetes.add(tiquete);
+                            consumidor.accept(tiquete);
+                        }
                     }
                 }
             }
         } catch (IOException | ParseException e) {
             throw new TiqueteException("Error al cargar los tiquetes básicos", e);
         }
-        
-        return tiquetes;
     }
     
     /**
@@ -222,55 +169,52 @@ public class PersistenciaTiquetes {
      */
     public List<EnTemporada> cargarTiquetesTemporada() throws TiqueteException {
         List<EnTemporada> tiquetes = new ArrayList<>();
-        
+        recorrerTiquetesTemporada(tiquetes::add);
+        return tiquetes;
+    }
+    
+    /**
+     * Recorre los tiquetes de temporada del archivo uno a uno, sin reunirlos en una lista
+     * 
+     * @param consumidor Recibe cada tiquete en cuanto se lee
+     * @throws TiqueteException Si hay un error al cargar los tiquetes
+     */
+    public void recorrerTiquetesTemporada(Consumer<? super EnTemporada> consumidor) throws TiqueteException {
         try {
-            if (ArchivoUtil.existeArchivo(ARCHIVO_TIQUETES_TEMPORADA)) {
-                List<String> lineas = ArchivoUtil.cargarLineas(ARCHIVO_TIQUETES_TEMPORADA);
-                
-                for (String linea : lineas) {
-                    String[] partes = linea.split("\\|");
-                    
-                    if (partes.length >= 13) {
-                        int id = Integer.parseInt(partes[0]);
-                        String nombre = partes[1];
-                        int numTiquetes = Integer.parseInt(partes[2]);
-                        String exclusividad = partes[3];
+            if (ArchivoUtil.existenRegistros(ARCHIVO_TIQUETES_TEMPORADA)) {
+                try (FuenteRegistros registros = ArchivoUtil.abrirRegistros(ARCHIVO_TIQUETES_TEMPORADA)) {
+                    while (registros.siguiente()) {
+                        if (registros.numeroCampos() >= 13) {
+                            int id = registros.campoEntero(0);
+                            String nombre = registros.campoTexto(1);
+                            int numTiquetes = registros.campoEntero(2);
+                            String exclusividad = registros.campoTexto(3);
                         
-                        Date fecha = null;
-                        if (!partes[4].equals("null")) {
-                            fecha = FORMATO_FECHA.parse(partes[4]);
-                        }
+                            Date fecha = registros.campoFecha(4);
                         
-                        String estado = partes[5];
-                        boolean dctoEmpleado = Boolean.parseBoolean(partes[6]);
-                        String portalCompra = partes[7];
-                        boolean usado = Boolean.parseBoolean(partes[8]);
+                            String estado = registros.campoTexto(5);
+                            boolean dctoEmpleado = registros.campoBooleano(6);
+                            String portalCompra = registros.campoTexto(7);
+                            boolean usado = registros.campoBooleano(8);
                         
-                        Date fechaInicio = null;
-                        if (!partes[9].equals("null")) {
-                            fechaInicio = FORMATO_FECHA.parse(partes[9]);
-                        }
+                            Date fechaInicio = registros.campoFecha(9);
                         
-                        Date fechaFin = null;
-                        if (!partes[10].equals("null")) {
-                            fechaFin = FORMATO_FECHA.parse(partes[10]);
-                        }
+                            Date fechaFin = registros.campoFecha(10);
                         
-                        String tipoTemporada = partes[11];
-                        String categoria = partes[12];
+                            String tipoTemporada = registros.campoTexto(11);
+                            String categoria = registros.campoTexto(12);
                         
-                        EnTemporada tiquete = new EnTemporada(id, nombre, numTiquetes, exclusividad, fecha, estado, portalCompra, fechaInicio, fechaFin, tipoTemporada, categoria, usado);
-                        tiquete.setDctoEmpleado(dctoEmpleado);
+                            EnTemporada tiquete = new EnTemporada(id, nombre, numTiquetes, exclusividad, fecha, estado, portalCompra, fechaInicio, fechaFin, tipoTemporada, categoria, usado);
+                            tiquete.setDctoEmpleado(dctoEmpleado);
                         
-                        tiquetes.add(tiquete);
+                            consumidor.accept(tiquete);
+                        }
                     }
                 }
             }
         } catch (IOException | ParseException e) {
             throw new TiqueteException("Error al cargar los tiquetes de temporada", e);
         }
-        
-        return tiquetes;
     }
     
     /**
@@ -281,44 +225,76 @@ public class PersistenciaTiquetes {
      * @throws TiqueteException Si hay un error al cargar los tiquetes
      */
     public List<Individual> cargarTiquetesIndividuales() throws TiqueteException {
+        return cargarTiquetesIndividuales(null);
+    }
+    
+    /**
+     * Recorre los tiquetes individuales del archivo uno a uno, sin reunirlos en una lista
+     * 
+     * @param consumidor Recibe cada tiquete en cuanto se lee
+     * @throws TiqueteException Si hay un error al cargar los tiquetes
+     */
+    public void recorrerTiquetesIndividuales(Consumer<? super Individual> consumidor) throws TiqueteException {
+        recorrerTiquetesIndividuales(null, consumidor);
+    }
+    
+    /**
+     * Carga la lista de tiquetes individuales junto con el nombre de la atracción
+     * de cada uno, que se asocia cuando las atracciones estén cargadas
+     * 
+     * @param nombresAtracciones Lista donde se agrega el nombre de la atracción de cada
+     *        tiquete (o null), en el mismo orden de los tiquetes (puede ser null)
+     * @return La lista de tiquetes
+     * @throws TiqueteException Si hay un error al cargar los tiquetes
+     */
+    List<Individual> cargarTiquetesIndividuales(List<String> nombresAtracciones) throws TiqueteException {
         List<Individual> tiquetes = new ArrayList<>();
-
+        recorrerTiquetesIndividuales(nombresAtracciones, tiquetes::add);
+        return tiquetes;
+    }
+    
+    /**
+     * Recorre los tiquetes individuales del archivo uno a uno junto con el nombre de la atracción
+     * de cada uno, que se asocia cuando las atracciones estén cargadas
+     * 
+     * @param nombresAtracciones Lista donde se agrega el nombre de la atracción de cada
+     *        tiquete (o null), en el mismo orden de los tiquetes (puede ser null)
+     * @param consumidor Recibe cada tiquete en cuanto se lee
+     * @throws TiqueteException Si hay un error al cargar los tiquetes
+     */
+    void recorrerTiquetesIndividuales(List<String> nombresAtracciones, Consumer<? super Individual> consumidor) throws TiqueteException {
         try {
-            if (ArchivoUtil.existeArchivo(ARCHIVO_TIQUETES_INDIVIDUALES)) {
-                List<String> lineas = ArchivoUtil.cargarLineas(ARCHIVO_TIQUETES_INDIVIDUALES);
-
-                for (String linea : lineas) {
-                    String[] partes = linea.split("\\|");
+            if (ArchivoUtil.existenRegistros(ARCHIVO_TIQUETES_INDIVIDUALES)) {
+                try (FuenteRegistros registros = ArchivoUtil.abrirRegistros(ARCHIVO_TIQUETES_INDIVIDUALES)) {
+                    while (registros.siguiente()) {
+                        if (registros.numeroCampos() >= 10) {
+                            int id = registros.campoEntero(0);
+                            String nombre = registros.campoTexto(1);
+                            int numTiquetes = registros.campoEntero(2);
+                            String exclusividad = registros.campoTexto(3);
 
-                    if (partes.length >= 10) {
-                        int id = Integer.parseInt(partes[0]);
-                        String nombre = partes[1];
-                        int numTiquetes = Integer.parseInt(partes[2]);
-                        String exclusividad = partes[3];
-
-                        Date fecha = null;
-                        if (!partes[4].equals("null")) {
-                            fecha = FORMATO_FECHA.parse(partes[4]);
-                        }
+                            Date fecha = registros.campoFecha(4);
 
-                        String estado = partes[5];
-                        boolean dctoEmpleado = Boolean.parseBoolean(partes[6]);
-                        String portalCompra = partes[7];
-                        boolean usado = Boolean.parseBoolean(partes[8]);
+                            String estado = registros.campoTexto(5);
+                            boolean dctoEmpleado = registros.campoBooleano(6);
+                            String portalCompra = registros.campoTexto(7);
+                            boolean usado = registros.campoBooleano(8);
 
-                        // NO se resuelve la atracción aquí (se puede hacer después)
-                        Individual tiquete = new Individual(null, id, nombre, numTiquetes, exclusividad, fecha, estado, portalCompra, usado);
-                        tiquete.setDctoEmpleado(dctoEmpleado);
+                            // NO se resuelve la atracción aquí (se puede hacer después)
+                            Individual tiquete = new Individual(null, id, nombre, numTiquetes, exclusividad, fecha, estado, portalCompra, usado);
+                            tiquete.setDctoEmpleado(dctoEmpleado);
+                            if (nombresAtracciones != null) {
+                                nombresAtracciones.add(registros.esNulo(9) ? null : registros.campoTexto(9));
+                            }
 
-                        tiquetes.add(tiquete);
+                            consumidor.accept(tiquete);
+                        }
                     }
                 }
             }
         } catch (IOException | ParseException e) {
             throw new TiqueteException("Error al cargar los tiquetes individuales", e);
         }
-
-        return tiquetes;
     }
 
     /**
@@ -329,51 +305,59 @@ public class PersistenciaTiquetes {
      * @throws TiqueteException Si hay un error al cargar los FastPasses
      */
     public List<FastPass> cargarFastPasses(List<Tiquete> tiquetes) throws TiqueteException {
+        return cargarFastPasses(new RepositorioTiquetes(tiquetes));
+    }
+    
+    /**
+     * Carga la lista de FastPasses resolviendo sus tiquetes en el repositorio indexado
+     * 
+     * @param repositorio Repositorio con todos los tiquetes ya cargados
+     * @return La lista de FastPasses
+     * @throws TiqueteException Si hay un error al cargar los FastPasses
+     */
+    public List<FastPass> cargarFastPasses(RepositorioTiquetes repositorio) throws TiqueteException {
         List<FastPass> fastPasses = new ArrayList<>();
-        
+        recorrerFastPasses(repositorio, fastPasses::add);
+        return fastPasses;
+    }
+    
+    /**
+     * Recorre los FastPasses del archivo uno a uno resolviendo sus tiquetes en el repositorio indexado
+     * 
+     * @param repositorio Repositorio con todos los tiquetes ya cargados
+     * @param consumidor Recibe cada FastPass en cuanto se lee
+     * @throws TiqueteException Si hay un error al cargar los FastPasses
+     */
+    public void recorrerFastPasses(RepositorioTiquetes repositorio, Consumer<? super FastPass> consumidor) throws TiqueteException {
         try {
-            if (ArchivoUtil.existeArchivo(ARCHIVO_FAST_PASSES)) {
-                List<String> lineas = ArchivoUtil.cargarLineas(ARCHIVO_FAST_PASSES);
-                
-                for (String linea : lineas) {
-                    String[] partes = linea.split("\\|");
-                    
-                    if (partes.length >= 3) {
-                        // Buscar el tiquete por ID
-                        int idTiquete = Integer.parseInt(partes[0]);
-                        Tiquete tiqueteAsociado = null;
+            if (ArchivoUtil.existenRegistros(ARCHIVO_FAST_PASSES)) {
+                try (FuenteRegistros registros = ArchivoUtil.abrirRegistros(ARCHIVO_FAST_PASSES)) {
+                    while (registros.siguiente()) {
+                        if (registros.numeroCampos() >= 3) {
+                            // Buscar el tiquete por ID en el índice
+                            int idTiquete = registros.campoEntero(0);
+                            Tiquete tiqueteAsociado = repositorio.buscarPorId(idTiquete);
                         
-                        for (Tiquete tiquete : tiquetes) {
-                            if (tiquete.getId() == idTiquete) {
-                                tiqueteAsociado = tiquete;
-                                break;
+                            // Si no se encuentra el tiquete, no se puede cargar este FastPass
+                            if (tiqueteAsociado == null) {
+                                continue;
                             }
-                        }
-                        
-                        // Si no se encuentra el tiquete, no se puede cargar este FastPass
-                        if (tiqueteAsociado == null) {
-                            continue;
-                        }
                         
-                        Date fechaValida = null;
-                        if (!partes[1].equals("null")) {
-                            fechaValida = FORMATO_FECHA.parse(partes[1]);
-                        }
+                            Date fechaValida = registros.campoFecha(1);
                         
-                        boolean usado = Boolean.parseBoolean(partes[2]);
+                            boolean usado = registros.campoBooleano(2);
                         
-                        FastPass fastPass = new FastPass(tiqueteAsociado, fechaValida);
-                        fastPass.setUsado(usado);
+                            FastPass fastPass = new FastPass(tiqueteAsociado, fechaValida);
+                            fastPass.setUsado(usado);
                         
-                        fastPasses.add(fastPass);
+                            consumidor.accept(fastPass);
+                        }
                     }
                 }
             }
         } catch (IOException | ParseException e) {
             throw new TiqueteException("Error al cargar los FastPasses", e);
         }
-        
-        return fastPasses;
     }
     
     /**
@@ -393,28 +377,23 @@ public class PersistenciaTiquetes {
         List<FastPass> fastPasses = new ArrayList<>();
         
         try {
-            if (ArchivoUtil.existeArchivo(ARCHIVO_FAST_PASSES)) {
-                List<String> lineas = ArchivoUtil.cargarLineas(ARCHIVO_FAST_PASSES);
-                
-                for (String linea : lineas) {
-                    String[] partes = linea.split("\\|");
-                    
-                    if (partes.length >= 3) {
-                        // Por simplificación, creamos un tiquete básico temporal
-                        int idTiquete = Integer.parseInt(partes[0]);
-                        TiqueteBasico tiqueteTemp = new TiqueteBasico(idTiquete, "Temporal", 1, "Familiar", new Date(), "Activo", "Sistema", "Adulto", false);
+            if (ArchivoUtil.existenRegistros(ARCHIVO_FAST_PASSES)) {
+                try (FuenteRegistros registros = ArchivoUtil.abrirRegistros(ARCHIVO_FAST_PASSES)) {
+                    while (registros.siguiente()) {
+                        if (registros.numeroCampos() >= 3) {
+                            // Por simplificación, creamos un tiquete básico temporal
+                            int idTiquete = registros.campoEntero(0);
+                            TiqueteBasico tiqueteTemp = new TiqueteBasico(idTiquete, "Temporal", 1, "Familiar", new Date(), "Activo", "Sistema", "Adulto", false);
                         
-                        Date fechaValida = null;
-                        if (!partes[1].equals("null")) {
-                            fechaValida = FORMATO_FECHA.parse(partes[1]);
-                        }
+                            Date fechaValida = registros.campoFecha(1);
                         
-                        boolean usado = Boolean.parseBoolean(partes[2]);
+                            boolean usado = registros.campoBooleano(2);
                         
-                        FastPass fastPass = new FastPass(tiqueteTemp, fechaValida);
-                        fastPass.setUsado(usado);
+                            FastPass fastPass = new FastPass(tiqueteTemp, fechaValida);
+                            fastPass.setUsado(usado);
                         
-                        fastPasses.add(fastPass);
+                            fastPasses.add(fastPass);
+                        }
                     }
                 }
             }
@@ -442,55 +421,137 @@ public class PersistenciaTiquetes {
     /**
      * Asocia los tiquetes individuales con sus atracciones correspondientes
      * 
-     * @param controladorAtracciones Controlador para buscar las atracciones
+     * @param atraccionesPorNombre Atracciones indexadas por su nombre
+     * @return La lista de tiquetes individuales con sus atracciones asociadas
      * @throws TiqueteException Si hay un error al asociar las atracciones
      */
-    public void asociarAtraccionesATiquetes(Map<String, Atraccion> atraccionesPorNombre) throws TiqueteException {
-        List<Individual> tiquetes = cargarTiquetesIndividuales();
+    public List<Individual> asociarAtraccionesATiquetes(Map<String, Atraccion> atraccionesPorNombre) throws TiqueteException {
+        List<String> nombresAtracciones = new ArrayList<>();
+        List<Individual> tiquetes = cargarTiquetesIndividuales(nombresAtracciones);
 
-        for (Individual tiquete : tiquetes) {
-            String nombreAtraccion = tiquete.getAtraccion() != null ? tiquete.getAtraccion().getNombre() : null;
+        for (int i = 0; i < tiquetes.size(); i++) {
+            String nombreAtraccion = nombresAtracciones.get(i);
 
             if (nombreAtraccion != null && atraccionesPorNombre.containsKey(nombreAtraccion)) {
-                tiquete.setAtraccion(atraccionesPorNombre.get(nombreAtraccion));
+                tiquetes.get(i).setAtraccion(atraccionesPorNombre.get(nombreAtraccion));
             }
         }
+        
+        return tiquetes;
     }
 
     /**
      * Asocia los FastPass con sus tiquetes correspondientes
      * 
      * @param tiquetes Lista de todos los tiquetes
+     * @return La lista de FastPasses con sus tiquetes asociados
      * @throws TiqueteException Si hay un error al asociar los tiquetes
      */
-    public void asociarTiquetesAFastPasses(List<Tiquete> tiquetes) throws TiqueteException {
-        try {
-            if (ArchivoUtil.existeArchivo(ARCHIVO_FAST_PASSES)) {
-                List<String> lineas = ArchivoUtil.cargarLineas(ARCHIVO_FAST_PASSES);
-                List<FastPass> fastPasses = cargarFastPasses();
-                
-                for (int i = 0; i < lineas.size() && i < fastPasses.size(); i++) {
-                    String linea = lineas.get(i);
-                    FastPass fastPass = fastPasses.get(i);
-                    
-                    String[] partes = linea.split("\\|");
-                    
-                    if (partes.length >= 3) {
-                        int idTiquete = Integer.parseInt(partes[0]);
-                        
-                        // Buscar el tiquete por ID
-                        for (Tiquete tiquete : tiquetes) {
-                            if (tiquete.getId() == idTiquete) {
-                                // Asignar el tiquete al FastPass
-                                fastPass.setTiqueteAsociado(tiquete);
-                                break;
-                            }
-                        }
-                    }
-                }
+    public List<FastPass> asociarTiquetesAFastPasses(List<Tiquete> tiquetes) throws TiqueteException {
+        return asociarTiquetesAFastPasses(new RepositorioTiquetes(tiquetes));
+    }
+    
+    /**
+     * Asocia los FastPass con sus tiquetes correspondientes usando el repositorio indexado
+     * 
+     * @param repositorio Repositorio con todos los tiquetes
+     * @return La lista de FastPasses con sus tiquetes asociados
+     * @throws TiqueteException Si hay un error al asociar los tiquetes
+     */
+    public List<FastPass> asociarTiquetesAFastPasses(RepositorioTiquetes repositorio) throws TiqueteException {
+        // La versión simplificada deja un tiquete temporal con el ID original,
+        // que sirve como llave para resolver el tiquete real
+        List<FastPass> fastPasses = cargarFastPasses();
+        
+        for (FastPass fastPass : fastPasses) {
+            Tiquete tiquete = repositorio.buscarPorId(fastPass.getTiqueteAsociado().getId());
+            if (tiquete != null) {
+                fastPass.setTiqueteAsociado(tiquete);
             }
-        } catch (IOException e) {
-            throw new TiqueteException("Error al asociar tiquetes a FastPasses", e);
         }
+        
+        return fastPasses;
+    }
+    
+    /**
+     * Construye la línea de un tiquete básico con sus datos separados por |
+     * 
+     * @param tiquete El tiquete
+     * @return La línea del tiquete
+     */
+    static String lineaTiqueteBasico(TiqueteBasico tiquete) {
+        StringBuilder sb = new StringBuilder();
+        agregarCamposComunes(sb, tiquete);
+        sb.append(tiquete.getCategoria());
+        return sb.toString();
+    }
+    
+    /**
+     * Construye la línea de un tiquete de temporada con sus datos separados por |
+     * 
+     * @param tiquete El tiquete
+     * @return La línea del tiquete
+     */
+    static String lineaTiqueteTemporada(EnTemporada tiquete) {
+        StringBuilder sb = new StringBuilder();
+        agregarCamposComunes(sb, tiquete);
+        CodecFecha.escribir(tiquete.getFechaInicio(), sb);
+        sb.append("|");
+        CodecFecha.escribir(tiquete.getFechaFin(), sb);
+        sb.append("|");
+        sb.append(tiquete.getTipoTemporada()).append("|");
+        sb.append(tiquete.getCategoria());
+        return sb.toString();
+    }
+    
+    /**
+     * Construye la línea de un tiquete individual con sus datos separados por |
+     * 
+     * @param tiquete El tiquete
+     * @return La línea del tiquete
+     */
+    static String lineaTiqueteIndividual(Individual tiquete) {
+        StringBuilder sb = new StringBuilder();
+        agregarCamposComunes(sb, tiquete);
+        
+        // Guardar el nombre de la atracción asociada
+        Atraccion atraccion = tiquete.getAtraccion();
+        sb.append(atraccion != null ? atraccion.getNombre() : "null");
+        return sb.toString();
+    }
+    
+    /**
+     * Construye la línea de un FastPass con sus datos separados por |
+     * 
+     * @param fastPass El FastPass
+     * @return La línea del FastPass
+     */
+    static String lineaFastPass(FastPass fastPass) {
+        StringBuilder sb = new StringBuilder();
+        
+        // Guardar el id del tiquete asociado
+        Tiquete tiqueteAsociado = fastPass.getTiqueteAsociado();
+        sb.append(tiqueteAsociado != null ? tiqueteAsociado.getId() : "null").append("|");
+        
+        CodecFecha.escribir(fastPass.getFechaValida(), sb);
+        sb.append("|");
+        sb.append(fastPass.isUsado());
+        return sb.toString();
+    }
+    
+    /**
+     * Agrega los campos comunes a todos los tiquetes, cada uno seguido de |
+     */
+    private static void agregarCamposComunes(StringBuilder sb, Tiquete tiquete) {
+        sb.append(tiquete.getId()).append("|");
+        sb.append(tiquete.getNombre()).append("|");
+        sb.append(tiquete.getNumTiquetes()).append("|");
+        sb.append(tiquete.getExclusividad()).append("|");
+        CodecFecha.escribir(tiquete.getFecha(), sb);
+        sb.append("|");
+        sb.append(tiquete.getEstado()).append("|");
+        sb.append(tiquete.isDctoEmpleado()).append("|");
+        sb.append(tiquete.getPortalCompra()).append("|");
+        sb.append(tiquete.isUsado()).append("|");
     }
-}
\ No newline at end of file
+}
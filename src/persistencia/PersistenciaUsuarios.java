@@ -2,22 +2,40 @@ package persistencia;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import excepciones.TiqueteException;
 import excepciones.UsuarioException;
+import modelo.tiquetes.Tiquete;
 import modelo.usuarios.Administrador;
 import modelo.usuarios.Cliente;
 import modelo.usuarios.Usuario;
 
 /**
  * Clase para la persistencia de usuarios
+ *
+ * La búsqueda por correo usa un índice en memoria que se construye la primera vez
+ * que se necesita y se reemplaza cada vez que esta instancia guarda clientes o
+ * administradores, así que autenticar no lee los archivos.
  */
 public class PersistenciaUsuarios {
     private static final String ARCHIVO_CLIENTES = "clientes.txt";
     private static final String ARCHIVO_ADMINISTRADORES = "administradores.txt";
     
+    private final IndicePropiedad indicePropiedad = new IndicePropiedad();
+    
+    // Índices por correo; se reemplazan completos al guardar, nunca se modifican
+    private volatile Map<String, Cliente> clientesPorEmail;
+    private volatile Map<String, Administrador> administradoresPorEmail;
+    
+    // Tiquetes donde se buscan los de cada cliente; lo define quien ya los cargó
+    private volatile RepositorioTiquetes repositorioTiquetes;
+    
     /**
-     * Guarda una lista de clientes
+     * Guarda una lista de clientes. Los tiquetes de cada cliente se agregan al
+     * índice de propiedad, que se guarda en su propio archivo
      * 
      * @param clientes La lista a guardar
      * @throws UsuarioException Si hay un error al guardar los clientes
@@ -50,8 +68,8 @@ public class PersistenciaUsuarios {
                     }
                 }
                 
-                // Nota: No guardamos los tiquetes aquí, ya que estos se manejan en PersistenciaTiquetes
-                // y se asocian a los clientes cuando se cargan
+                // Los tiquetes se guardan en PersistenciaTiquetes; aquí solo se registra
+                // su propiedad en el índice
                 
                 lineas.add(sb.toString());
             }
@@ -61,6 +79,23 @@ public class PersistenciaUsuarios {
         } catch (IOException e) {
             throw new UsuarioException("Error al guardar los clientes", e);
         }
+        
+        synchronized (this) {
+            clientesPorEmail = indexarPorEmail(clientes);
+        }
+        
+        // Solo se agrega propiedad: un cliente cargado sin asociar sus tiquetes no la pierde.
+        // Se registran todos los clientes, así que el índice se lee completo una vez
+        boolean cambios = !ArchivoUtil.existeArchivo(IndicePropiedad.ARCHIVO_PROPIEDAD);
+        indicePropiedad.cargar();
+        for (Cliente cliente : clientes) {
+            for (Tiquete tiquete : cliente.getTiquetes()) {
+                cambios |= indicePropiedad.registrar(cliente.getId(), tiquete.getId());
+            }
+        }
+        if (cambios) {
+            indicePropiedad.guardar();
+        }
     }
     
     /**
@@ -92,6 +127,10 @@ public class PersistenciaUsuarios {
         } catch (IOException e) {
             throw new UsuarioException("Error al guardar los administradores", e);
         }
+        
+        synchronized (this) {
+            administradoresPorEmail = indexarPorEmail(administradores);
+        }
     }
     
     /**
@@ -104,38 +143,29 @@ public class PersistenciaUsuarios {
         List<Cliente> clientes = new ArrayList<>();
         
         try {
-            if (ArchivoUtil.existeArchivo(ARCHIVO_CLIENTES)) {
-                List<String> lineas = ArchivoUtil.cargarLineas(ARCHIVO_CLIENTES);
-                
-                for (String linea : lineas) {
-                    String[] partes = linea.split("\\|");
-                    
-                    if (partes.length >= 8) {
-                        String nombre = partes[0];
-                        int id = Integer.parseInt(partes[1]);
-                        String email = partes[2];
-                        String password = partes[3];
-                        
-                        Cliente cliente = new Cliente(nombre, id, email, password);
-                        
-                        // Cargar datos adicionales
-                        float altura = Float.parseFloat(partes[4]);
-                        float peso = Float.parseFloat(partes[5]);
-                        int edad = Integer.parseInt(partes[6]);
-                        
-                        cliente.setAltura(altura);
-                        cliente.setPeso(peso);
-                        cliente.setEdad(edad);
-                        
-                        // Cargar condiciones de salud
-                        if (!partes[7].equals("null")) {
-                            String[] condiciones = partes[7].split(",");
-                            for (String condicion : condiciones) {
+            if (ArchivoUtil.existenRegistros(ARCHIVO_CLIENTES)) {
+                try (FuenteRegistros registros = ArchivoUtil.abrirRegistros(ARCHIVO_CLIENTES)) {
+                    while (registros.siguiente()) {
+                        if (registros.numeroCampos() >= 8) {
+                            String nombre = registros.campoTexto(0);
+                            int id = registros.campoEntero(1);
+                            String email = registros.campoTexto(2);
+                            String password = registros.campoTexto(3);
+                            
+                            Cliente cliente = new Cliente(nombre, id, email, password);
+                            
+                            // Cargar datos adicionales
+                            cliente.setAltura(registros.campoFlotante(4));
+                            cliente.setPeso(registros.campoFlotante(5));
+                            cliente.setEdad(registros.campoEntero(6));
+                            
+                            // Cargar condiciones de salud
+                            for (String condicion : registros.campoLista(7)) {
                                 cliente.agregarCondicionSalud(condicion);
                             }
+                            
+                            clientes.add(cliente);
                         }
-                        
-                        clientes.add(cliente);
                     }
                 }
             }
@@ -156,21 +186,19 @@ public class PersistenciaUsuarios {
         List<Administrador> administradores = new ArrayList<>();
         
         try {
-            if (ArchivoUtil.existeArchivo(ARCHIVO_ADMINISTRADORES)) {
-                List<String> lineas = ArchivoUtil.cargarLineas(ARCHIVO_ADMINISTRADORES);
-                
-                for (String linea : lineas) {
-                    String[] partes = linea.split("\\|");
-                    
-                    if (partes.length >= 4) {
-                        String nombre = partes[0];
-                        int id = Integer.parseInt(partes[1]);
-                        String email = partes[2];
-                        String password = partes[3];
-                        
-                        Administrador admin = new Administrador(nombre, id, email, password);
-                        
-                        administradores.add(admin);
+            if (ArchivoUtil.existenRegistros(ARCHIVO_ADMINISTRADORES)) {
+                try (FuenteRegistros registros = ArchivoUtil.abrirRegistros(ARCHIVO_ADMINISTRADORES)) {
+                    while (registros.siguiente()) {
+                        if (registros.numeroCampos() >= 4) {
+                            String nombre = registros.campoTexto(0);
+                            int id = registros.campoEntero(1);
+                            String email = registros.campoTexto(2);
+                            String password = registros.campoTexto(3);
+                            
+                            Administrador admin = new Administrador(nombre, id, email, password);
+                            
+                            administradores.add(admin);
+                        }
                     }
                 }
             }
@@ -195,7 +223,8 @@ public class PersistenciaUsuarios {
     }
     
     /**
-     * Busca un usuario por su correo electrónico
+     * Busca un usuario por su correo electrónico. Si un cliente y un administrador
+     * comparten correo, se retorna el cliente
      * 
      * @param email El correo electrónico a buscar
      * @return El usuario encontrado, o null si no existe
@@ -206,15 +235,12 @@ public class PersistenciaUsuarios {
             return null;
         }
         
-        List<Usuario> usuarios = cargarTodosUsuarios();
-        
-        for (Usuario usuario : usuarios) {
-            if (usuario.getEmail().equals(email)) {
-                return usuario;
-            }
+        Cliente cliente = indiceClientes().get(email);
+        if (cliente != null) {
+            return cliente;
         }
         
-        return null;
+        return indiceAdministradores().get(email);
     }
     
     /**
@@ -239,6 +265,63 @@ public class PersistenciaUsuarios {
         return null;
     }
     
+    /**
+     * Obtiene el índice de clientes por correo, cargándolo la primera vez
+     */
+    private Map<String, Cliente> indiceClientes() throws UsuarioException {
+        Map<String, Cliente> indice = clientesPorEmail;
+        if (indice == null) {
+            synchronized (this) {
+                indice = clientesPorEmail;
+                if (indice == null) {
+                    indice = indexarPorEmail(cargarClientes());
+                    clientesPorEmail = indice;
+                }
+            }
+        }
+        return indice;
+    }
+    
+    /**
+     * Obtiene el índice de administradores por correo, cargándolo la primera vez
+     */
+    private Map<String, Administrador> indiceAdministradores() throws UsuarioException {
+        Map<String, Administrador> indice = administradoresPorEmail;
+        if (indice == null) {
+            synchronized (this) {
+                indice = administradoresPorEmail;
+                if (indice == null) {
+                    indice = indexarPorEmail(cargarAdministradores());
+                    administradoresPorEmail = indice;
+                }
+            }
+        }
+        return indice;
+    }
+    
+    /**
+     * Indexa usuarios por correo; ante correos repetidos se conserva el primero,
+     * igual que la búsqueda lineal
+     */
+    private static <U extends Usuario> Map<String, U> indexarPorEmail(List<U> usuarios) {
+        Map<String, U> indice = new HashMap<>(usuarios.size() * 2);
+        for (U usuario : usuarios) {
+            if (usuario.getEmail() != null) {
+                indice.putIfAbsent(usuario.getEmail(), usuario);
+            }
+        }
+        return indice;
+    }
+    
+    /**
+     * Obtiene el índice de propiedad de tiquetes de los clientes
+     * 
+     * @return El índice de propiedad
+     */
+    public IndicePropiedad getIndicePropiedad() {
+        return indicePropiedad;
+    }
+    
     /**
      * Asocia tiquetes a sus clientes correspondientes
      * 
@@ -246,12 +329,86 @@ public class PersistenciaUsuarios {
      * @param tiquetes Lista de tiquetes
      * @throws UsuarioException Si hay un error al asociar los tiquetes
      */
-    public void asociarTiquetesAClientes(List<Cliente> clientes, List<modelo.tiquetes.Tiquete> tiquetes) throws UsuarioException {
-        // En una implementación real, aquí debería haber un archivo o tabla que relacione
-        // los IDs de los clientes con los IDs de los tiquetes que han comprado
-        
-        // Por simplicidad, este método no hace nada en esta implementación
-        // En un sistema real, esta relación debería guardarse y cargarse de forma similar
-        // a como se maneja el resto de los datos
+    public void asociarTiquetesAClientes(List<Cliente> clientes, List<Tiquete> tiquetes) throws UsuarioException {
+        asociarTiquetesAClientes(clientes, new RepositorioTiquetes(tiquetes));
+    }
+    
+    /**
+     * Asocia tiquetes a sus clientes según el índice de propiedad, resolviendo
+     * cada ID en el repositorio indexado
+     * 
+     * @param clientes Lista de clientes
+     * @param repositorio Repositorio con los tiquetes ya cargados
+     * @throws UsuarioException Si hay un error al asociar los tiquetes
+     */
+    public void asociarTiquetesAClientes(List<Cliente> clientes, RepositorioTiquetes repositorio) throws UsuarioException {
+        try {
+            for (Cliente cliente : clientes) {
+                for (int idTiquete : indicePropiedad.tiquetesDe(cliente.getId())) {
+                    Tiquete tiquete = repositorio.buscarPorId(idTiquete);
+                    if (tiquete != null) {
+                        cliente.comprarTiquete(tiquete);
+                    }
+                }
+            }
+        } catch (TiqueteException e) {
+            throw new UsuarioException("Error al asociar los tiquetes a los clientes", e);
+        }
+    }
+    
+    /**
+     * Define el repositorio de tiquetes donde se buscan los tiquetes de cada
+     * cliente, por ejemplo el que armó CargadorParque. Los tiquetes vendidos
+     * después deben agregarse a él para que se encuentren
+     * 
+     * @param repositorioTiquetes El repositorio con los tiquetes ya cargados
+     */
+    public void setRepositorioTiquetes(RepositorioTiquetes repositorioTiquetes) {
+        this.repositorioTiquetes = repositorioTiquetes;
+    }
+    
+    /**
+     * Carga solo los tiquetes de un cliente, buscando en el repositorio definido
+     * con setRepositorioTiquetes cada ID que el índice de propiedad le asigna.
+     * No lee los archivos de tiquetes
+     * 
+     * @param idCliente El identificador del cliente
+     * @return Lista con los tiquetes del cliente
+     * @throws UsuarioException Si no se definió el repositorio de tiquetes o hay un
+     *         error al leer el índice de propiedad
+     */
+    public List<Tiquete> cargarTiquetesCliente(int idCliente) throws UsuarioException {
+        RepositorioTiquetes repositorio = repositorioTiquetes;
+        if (repositorio == null) {
+            throw new UsuarioException("No se ha definido el repositorio de tiquetes");
+        }
+        return buscarTiquetes(indicePropiedad.tiquetesDe(idCliente), repositorio);
+    }
+    
+    /**
+     * Obtiene los tiquetes de un cliente de un repositorio, sin leer los archivos
+     * de tiquetes
+     * 
+     * @param idCliente El identificador del cliente
+     * @param repositorio Repositorio con los tiquetes ya cargados
+     * @return Lista con los tiquetes del cliente que están en el repositorio
+     * @throws UsuarioException Si hay un error al leer el índice de propiedad
+     */
+    public List<Tiquete> cargarTiquetesCliente(int idCliente, RepositorioTiquetes repositorio) throws UsuarioException {
+        return buscarTiquetes(indicePropiedad.tiquetesDe(idCliente), repositorio);
+    }
+    
+    /**
+     * Busca en un repositorio los tiquetes con los IDs dados, omitiendo los que no están
+     */
+    private static List<Tiquete> buscarTiquetes(int[] ids, RepositorioTiquetes repositorio) {
+        List<Tiquete> tiquetes = new ArrayList<>(ids.length);
+        for (int idTiquete : ids) {
+            Tiquete tiquete = repositorio.buscarPorId(idTiquete);
+            if (tiquete != null) {
+                tiquetes.add(tiquete);
+            }
+        }
+        return tiquetes;
     }
 }
\ No newline at end of file
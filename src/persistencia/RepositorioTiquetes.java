@@ -0,0 +1,109 @@
+package persistencia;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import excepciones.TiqueteException;
+import modelo.tiquetes.Tiquete;
+import modelo.util.MapaEnteros;
+
+/**
+ * Repositorio en memoria de tiquetes indexado por su identificador.
+ * Los archivos de tiquetes se cargan una sola vez y toda búsqueda por ID
+ * (asociación de FastPasses, de clientes, etc.) se resuelve en O(1)
+ */
+public class RepositorioTiquetes {
+    private final MapaEnteros<Tiquete> tiquetesPorId;
+    private final List<Tiquete> tiquetes;
+
+    /**
+     * Crea un repositorio vacío
+     */
+    public RepositorioTiquetes() {
+        this.tiquetesPorId = new MapaEnteros<>();
+        this.tiquetes = new ArrayList<>();
+    }
+
+    /**
+     * Crea un repositorio a partir de una lista de tiquetes ya cargados
+     *
+     * @param tiquetes Los tiquetes a indexar
+     */
+    public RepositorioTiquetes(List<? extends Tiquete> tiquetes) {
+        this.tiquetesPorId = new MapaEnteros<>(tiquetes.size());
+        this.tiquetes = new ArrayList<>(tiquetes.size());
+
+        for (Tiquete tiquete : tiquetes) {
+            agregar(tiquete);
+        }
+    }
+
+    /**
+     * Carga todos los tiquetes (básicos, de temporada e individuales) y los indexa
+     *
+     * @param persistencia La persistencia de tiquetes a usar
+     * @return El repositorio con los tiquetes cargados
+     * @throws TiqueteException Si hay un error al cargar los tiquetes
+     */
+    public static RepositorioTiquetes cargar(PersistenciaTiquetes persistencia) throws TiqueteException {
+        return new RepositorioTiquetes(persistencia.cargarTodosTiquetes());
+    }
+
+    /**
+     * Agrega un tiquete al repositorio. Si ya existe un tiquete con el mismo ID
+     * se conserva el primero, igual que en la búsqueda lineal original
+     *
+     * @param tiquete El tiquete a agregar
+     * @return true si el tiquete fue agregado, false si su ID ya existía
+     */
+    public boolean agregar(Tiquete tiquete) {
+        if (tiquete == null) {
+            return false;
+        }
+
+        if (tiquetesPorId.ponerSiAusente(tiquete.getId(), tiquete) != null) {
+            return false;
+        }
+
+        tiquetes.add(tiquete);
+        return true;
+    }
+
+    /**
+     * Busca un tiquete por su identificador
+     *
+     * @param id El identificador del tiquete
+     * @return El tiquete, o null si no existe
+     */
+    public Tiquete buscarPorId(int id) {
+        return tiquetesPorId.obtener(id);
+    }
+
+    /**
+     * Verifica si existe un tiquete con el identificador dado
+     *
+     * @param id El identificador del tiquete
+     * @return true si el tiquete existe
+     */
+    public boolean contiene(int id) {
+        return tiquetesPorId.contiene(id);
+    }
+
+    /**
+     * Obtiene el número de tiquetes del repositorio
+     *
+     * @return El número de tiquetes
+     */
+    public int tamano() {
+        return tiquetes.size();
+    }
+
+    /**
+     * Obtiene todos los tiquetes en el orden en que fueron cargados
+     *
+     * @return Lista de tiquetes
+     */
+    public List<Tiquete> getTiquetes() {
+        return new ArrayList<>(tiquetes);
+    }
+}
@@ -7,14 +7,18 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
 import org.junit.Before;
 import org.junit.Test;
 import excepciones.AtraccionException;
 import excepciones.EmpleadoException;
+import modelo.acceso.RegistroOcupacion;
 import modelo.atracciones.Atraccion;
 import modelo.atracciones.AtraccionCultural;
 import modelo.atracciones.AtraccionMecanica;
 import modelo.atracciones.Espectaculo;
+import modelo.empleados.AlmacenAsignaciones;
 import modelo.empleados.AtraccionAlto;
 import modelo.empleados.AtraccionMedio;
 import modelo.empleados.Cajero;
@@ -26,6 +30,8 @@ import modelo.lugares.Taquilla;
 import modelo.tiquetes.Tiquete;
 import modelo.tiquetes.TiqueteBasico;
 import modelo.usuarios.Administrador;
+import modelo.usuarios.ReportePersonal;
+import modelo.util.CodecFecha;
 import modelo.util.Turno;
 
 public class TestAdministrador {
@@ -314,7 +320,250 @@ public class TestAdministrador {
             
             // Verificar que ya no hay personal mínimo
             assertFalse(admin.verificarPersonalMinimo(atraccionMecanica, fechaActual, Turno.APERTURA));
+            assertTrue(admin.obtenerAtraccionesSinPersonalMinimo(fechaActual, Turno.APERTURA).contains(atraccionMecanica));
             
+            // Índice inverso del lugar al personal
+            List<Empleado> personal = admin.obtenerEmpleadosAsignadosLugar(atraccionMecanica, fechaActual, Turno.APERTURA);
+            assertEquals(1, personal.size());
+            assertTrue(personal.contains(empleadoAtraccionMedio));
+            assertTrue(admin.obtenerEmpleadosAsignadosLugar(atraccionMecanica, fechaActual, Turno.CIERRE).isEmpty());
+            
+        } catch (EmpleadoException | AtraccionException e) {
+            fail("No debería lanzar excepción: " + e.getMessage());
+        }
+    }
+    
+    @Test
+    public void testAsignacionesPorDia() {
+        try {
+            admin.agregarEmpleado(empleadoAtraccionAlto);
+            admin.agregarAtraccion(atraccionMecanica);
+            
+            // Las asignaciones se guardan por día: otra hora del mismo día es el mismo turno
+            int dia = CodecFecha.diaEpoca(2024, 3, 10);
+            Date manana = new Date(CodecFecha.milisInicioDia(dia) + 8L * 60 * 60 * 1000);
+            Date tarde = new Date(CodecFecha.milisInicioDia(dia) + 17L * 60 * 60 * 1000);
+            admin.asignarEmpleadoAtraccion(empleadoAtraccionAlto, atraccionMecanica, manana, Turno.APERTURA);
+            assertTrue(admin.estaEmpleadoAsignado(empleadoAtraccionAlto, tarde, Turno.APERTURA));
+            assertFalse(admin.estaEmpleadoAsignado(empleadoAtraccionAlto, tarde, Turno.CIERRE));
+            assertFalse(admin.estaEmpleadoAsignado(empleadoAtraccionAlto, CodecFecha.aFecha(dia + 1), Turno.APERTURA));
+            
+            try {
+                admin.asignarEmpleadoAtraccion(empleadoAtraccionAlto, atraccionMecanica, tarde, Turno.APERTURA);
+                fail("Debería lanzar excepción por asignación repetida en el turno");
+            } catch (EmpleadoException e) {
+                // Esperado
+            }
+            
+            // El mismo empleado puede tener el otro turno del día
+            admin.asignarEmpleadoAtraccion(empleadoAtraccionAlto, atraccionMecanica, tarde, Turno.CIERRE);
+            assertEquals(1, admin.obtenerEmpleadosAsignadosTurno(manana, Turno.CIERRE).size());
+            
+            assertTrue(admin.liberarAsignacion(empleadoAtraccionAlto, tarde, Turno.APERTURA));
+            assertFalse(admin.liberarAsignacion(empleadoAtraccionAlto, tarde, Turno.APERTURA));
+            assertNull(admin.obtenerLugarAsignado(empleadoAtraccionAlto, manana, Turno.APERTURA));
+            assertEquals(atraccionMecanica, admin.obtenerLugarAsignado(empleadoAtraccionAlto, manana, Turno.CIERRE));
+        } catch (EmpleadoException | AtraccionException e) {
+            fail("No debería lanzar excepción: " + e.getMessage());
+        }
+    }
+    
+    @Test
+    public void testAlmacenAsignaciones() {
+        // Asignaciones y liberaciones aleatorias contra un HashMap de referencia
+        AlmacenAsignaciones almacen = new AlmacenAsignaciones();
+        Map<Long, Object> referencia = new HashMap<>();
+        Random aleatorio = new Random(16);
+        Object[] lugares = { atraccionMecanica, cafeteria, taquilla };
+        List<Cajero> cajeros = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            cajeros.add(new Cajero("Cajero", "Cajero " + i, i, false, "c" + i + "@parque.com", "clave", false));
+        }
+        
+        for (int paso = 0; paso < 20000; paso++) {
+            int dia = aleatorio.nextInt(5);
+            int turno = aleatorio.nextInt(Turno.NUMERO_TURNOS);
+            Cajero cajero = cajeros.get(aleatorio.nextInt(cajeros.size()));
+            long llave = ((long) dia * Turno.NUMERO_TURNOS + turno) * 1000 + cajero.getId();
+            
+            if (aleatorio.nextInt(3) == 0) {
+                assertEquals(referencia.remove(llave) != null, almacen.liberar(dia, turno, cajero.getId()));
+            } else {
+                Object lugar = lugares[aleatorio.nextInt(lugares.length)];
+                boolean nuevo = !referencia.containsKey(llave);
+                if (nuevo) {
+                    referencia.put(llave, lugar);
+                }
+                assertEquals(nuevo, almacen.asignar(dia, turno, cajero, lugar));
+            }
+            assertEquals(referencia.get(llave), almacen.lugarAsignado(dia, turno, cajero.getId()));
+        }
+        
+        assertEquals(referencia.size(), almacen.tamano());
+        for (int dia = 0; dia < 5; dia++) {
+            for (int turno = 0; turno < Turno.NUMERO_TURNOS; turno++) {
+                int esperados = 0;
+                int enCafeteria = 0;
+                for (Cajero cajero : cajeros) {
+                    Object lugar = referencia.get(((long) dia * Turno.NUMERO_TURNOS + turno) * 1000 + cajero.getId());
+                    assertEquals(lugar != null, almacen.estaAsignado(dia, turno, cajero.getId()));
+                    esperados += lugar != null ? 1 : 0;
+                    enCafeteria += lugar == cafeteria ? 1 : 0;
+                }
+                assertEquals(esperados, almacen.empleados(dia, turno).size());
+                assertEquals(enCafeteria, almacen.contarAsignados(dia, turno, cafeteria));
+                assertEquals(enCafeteria, almacen.empleadosEn(dia, turno, cafeteria).size());
+                assertEquals(enCafeteria, almacen.contarCajeros(dia, turno, cafeteria));
+                assertEquals(0, almacen.contarCocineros(dia, turno, cafeteria));
+            }
+        }
+    }
+    
+    @Test
+    public void testValidarPersonal() {
+        try {
+            admin.agregarAtraccion(atraccionMecanica);
+            admin.agregarEmpleado(empleadoAtraccionAlto);
+            admin.agregarEmpleado(empleadoCajero);
+            admin.agregarEmpleado(empleadoCocinero);
+            
+            // Solo la apertura del primer día tiene personal, y la atracción queda con un operador de dos
+            int dia = CodecFecha.diaEpoca(2024, 3, 1);
+            Date fecha = CodecFecha.aFecha(dia);
+            admin.asignarEmpleadoAtraccion(empleadoAtraccionAlto, atraccionMecanica, fecha, Turno.APERTURA);
+            admin.asignarCajeroALugarServicio(empleadoCajero, cafeteria, fecha, Turno.APERTURA);
+            admin.asignarCocineroACafeteria(empleadoCocinero, cafeteria, fecha, Turno.APERTURA);
+            
+            ReportePersonal reporte = admin.validarPersonal(List.of(cafeteria, taquilla), fecha,
+                    CodecFecha.aFecha(dia + 30));
+            assertFalse(reporte.estaCompleto());
+            assertEquals(31 * Turno.NUMERO_TURNOS * 3 - 1, reporte.tamano());
+            assertEquals(31 * Turno.NUMERO_TURNOS * 5 - 3, reporte.totalFaltantes());
+            
+            assertEquals(dia, reporte.dia(0));
+            assertEquals(Turno.APERTURA, reporte.turno(0));
+            assertEquals(atraccionMecanica, reporte.lugar(0));
+            assertEquals(1, reporte.faltantes(0));
+            assertEquals(ReportePersonal.ROL_OPERADOR, reporte.roles(0));
+            assertEquals(taquilla, reporte.lugar(1));
+            assertEquals(ReportePersonal.ROL_CAJERO, reporte.roles(1));
+            assertEquals(Turno.CIERRE, reporte.turno(2));
+            assertEquals(2, reporte.faltantes(2));
+            assertEquals(cafeteria, reporte.lugar(3));
+            assertEquals(ReportePersonal.ROL_CAJERO | ReportePersonal.ROL_COCINERO, reporte.roles(3));
+            
+            // Los días revisados en paralelo quedan en orden
+            for (int i = 1; i < reporte.tamano(); i++) {
+                assertTrue(reporte.dia(i - 1) <= reporte.dia(i));
+            }
+            assertEquals(dia + 30, reporte.dia(reporte.tamano() - 1));
+            
+            // Con los dos operadores el cierre queda completo y solo falta la apertura
+            Date otroDia = CodecFecha.aFecha(dia + 40);
+            admin.asignarEmpleadoAtraccion(empleadoAtraccionAlto, atraccionMecanica, otroDia, Turno.CIERRE);
+            assertFalse(admin.validarPersonal(null, otroDia, otroDia).estaCompleto());
+            Empleado segundoOperador = new AtraccionAlto("Operador de atracción alta", "Luis Díaz", 5, false,
+                    "luis@ejemplo.com", "clave123", false, true);
+            admin.agregarEmpleado(segundoOperador);
+            admin.asignarEmpleadoAtraccion(segundoOperador, atraccionMecanica, otroDia, Turno.CIERRE);
+            ReportePersonal soloAtracciones = admin.validarPersonal(null, otroDia, otroDia);
+            assertEquals(1, soloAtracciones.tamano());
+            assertEquals(Turno.APERTURA, soloAtracciones.turno(0));
+            
+            try {
+                admin.validarPersonal(null, null, otroDia);
+                fail("Debería lanzar excepción");
+            } catch (EmpleadoException e) {
+                // Correcto, debe lanzar excepción
+            }
+        } catch (EmpleadoException | AtraccionException e) {
+            fail("No debería lanzar excepción: " + e.getMessage());
+        }
+    }
+    
+    @Test
+    public void testRepartirTurnos() {
+        try {
+            admin.agregarAtraccion(atraccionMecanica);
+            admin.agregarAtraccion(atraccionCultural);
+            AtraccionAlto segundoOperador = new AtraccionAlto("Operador de atracción alta", "Luis Díaz", 5, false,
+                    "luis@ejemplo.com", "clave123", false, true);
+            AtraccionAlto sinCapacitar = new AtraccionAlto("Operador de atracción alta", "Sara Ruiz", 6, false,
+                    "sara@ejemplo.com", "clave123", false, true);
+            Cajero segundoCajero = new Cajero("Cajero", "Rosa Díaz", 7, false, "rosa@ejemplo.com", "clave123", false);
+            assertTrue(empleadoAtraccionAlto.asignarAtraccionAlta(atraccionMecanica));
+            assertTrue(segundoOperador.asignarAtraccionAlta(atraccionMecanica));
+            for (Empleado empleado : List.of(empleadoAtraccionAlto, segundoOperador, sinCapacitar,
+                    empleadoAtraccionMedio, empleadoCajero, segundoCajero, empleadoCocinero)) {
+                admin.agregarEmpleado(empleado);
+            }
+            
+            // Una asignación hecha a mano se respeta
+            int dia = CodecFecha.hoy();
+            Date inicio = CodecFecha.aFecha(dia);
+            admin.asignarCajeroALugarServicio(empleadoCajero, taquilla, inicio, Turno.APERTURA);
+            
+            ReportePersonal reporte = admin.repartirTurnos(List.of(cafeteria, taquilla), inicio,
+                    CodecFecha.aFecha(dia + 6));
+            assertTrue(reporte.toString(), reporte.estaCompleto());
+            assertEquals(taquilla, admin.obtenerLugarAsignado(empleadoCajero, inicio, Turno.APERTURA));
+            
+            for (int d = dia; d <= dia + 6; d++) {
+                Date fecha = CodecFecha.aFecha(d);
+                for (String turno : new String[] { Turno.APERTURA, Turno.CIERRE }) {
+                    // Solo los operadores capacitados para la atracción de riesgo alto la operan
+                    List<Empleado> operadores = admin.obtenerEmpleadosAsignadosLugar(atraccionMecanica, fecha, turno);
+                    assertEquals(2, operadores.size());
+                    assertFalse(operadores.contains(sinCapacitar));
+                    assertEquals(cafeteria, admin.obtenerLugarAsignado(empleadoCocinero, fecha, turno));
+                    assertEquals(1, admin.obtenerEmpleadosAsignadosLugar(taquilla, fecha, turno).size());
+                    assertEquals(2, admin.obtenerEmpleadosAsignadosLugar(cafeteria, fecha, turno).size());
+                }
+            }
+            
+            // Sin cocinero y con un solo cajero quedan deficiencias
+            Administrador otro = new Administrador("Otro", 1001, "otro@parque.com", "admin123");
+            otro.agregarEmpleado(empleadoCajero);
+            ReportePersonal incompleto = otro.repartirTurnos(List.of(cafeteria, taquilla), inicio,
+                    CodecFecha.aFecha(dia + 2));
+            assertEquals(3 * Turno.NUMERO_TURNOS * 2, incompleto.tamano());
+            assertEquals(3 * Turno.NUMERO_TURNOS * 2, incompleto.totalFaltantes());
+            assertEquals(cafeteria, incompleto.lugar(0));
+            assertEquals(ReportePersonal.ROL_COCINERO, incompleto.roles(0));
+            assertEquals(taquilla, incompleto.lugar(1));
+            assertEquals(ReportePersonal.ROL_CAJERO, incompleto.roles(1));
+        } catch (EmpleadoException | AtraccionException e) {
+            fail("No debería lanzar excepción: " + e.getMessage());
+        }
+    }
+    
+    @Test
+    public void testRepartirTurnosEmpleado() {
+        try {
+            admin.agregarAtraccion(atraccionMecanica);
+            assertTrue(empleadoAtraccionAlto.asignarAtraccionAlta(atraccionMecanica));
+            admin.agregarEmpleado(empleadoAtraccionAlto);
+            admin.agregarEmpleado(empleadoCajero);
+            
+            int dia = CodecFecha.hoy();
+            Date inicio = CodecFecha.aFecha(dia);
+            assertEquals(2 * Turno.NUMERO_TURNOS,
+                    admin.repartirTurnos(empleadoCajero, List.of(taquilla), inicio, CodecFecha.aFecha(dia + 1)));
+            assertEquals(taquilla, admin.obtenerLugarAsignado(empleadoCajero, inicio, Turno.CIERRE));
+            
+            // Sin rango, cubre las atracciones del día de hoy
+            admin.repartirTurnos(empleadoAtraccionAlto);
+            for (String turno : new String[] { Turno.APERTURA, Turno.CIERRE }) {
+                assertEquals(atraccionMecanica, admin.obtenerLugarAsignado(empleadoAtraccionAlto, inicio, turno));
+            }
+            
+            // Un empleado que no es del parque no recibe turnos
+            try {
+                admin.repartirTurnos(empleadoCocinero, List.of(cafeteria), inicio, inicio);
+                fail("Debería lanzar excepción");
+            } catch (EmpleadoException e) {
+                // Correcto, debe lanzar excepción
+            }
         } catch (EmpleadoException | AtraccionException e) {
             fail("No debería lanzar excepción: " + e.getMessage());
         }
@@ -469,4 +718,57 @@ public class TestAdministrador {
             fail("No debería lanzar excepción: " + e.getMessage());
         }
     }
+    
+    @Test
+    public void testGenerarReporteOcupacionAtracciones() {
+        try {
+            admin.agregarAtraccion(atraccionMecanica);
+            admin.agregarAtraccion(atraccionCultural);
+        } catch (AtraccionException e) {
+            fail("No debería lanzar excepción: " + e.getMessage());
+        }
+        
+        // Sin accesos registrados la ocupación es 0
+        Map<Atraccion, Double> reporte = admin.generarReporteOcupacionAtracciones();
+        assertEquals(2, reporte.size());
+        assertEquals(0.0, reporte.get(atraccionMecanica), 0.001);
+        
+        // Montaña rusa (cupo 50, sin ciclo definido: 50 por hora): 60 accesos a las
+        // 10 (se cuentan 50) y 25 a las 11
+        int dia = CodecFecha.diaEpoca(2025, 3, 10);
+        long diez = CodecFecha.milisInicioDia(dia) + 10L * 60 * 60 * 1000;
+        long once = diez + 60L * 60 * 1000;
+        RegistroOcupacion registro = admin.getRegistroOcupacion();
+        for (int i = 0; i < 60; i++) {
+            registro.registrarAcceso(atraccionMecanica, diez + i * 1000);
+        }
+        for (int i = 0; i < 25; i++) {
+            registro.registrarAcceso(atraccionMecanica, once + i * 1000);
+        }
+        // Casa del terror (cupo 30): 15 accesos a las 10
+        for (int i = 0; i < 15; i++) {
+            registro.registrarAcceso(atraccionCultural, diez + i * 1000);
+        }
+        assertEquals(60, registro.accesos(atraccionMecanica, dia, 10));
+        assertEquals(85, registro.accesosDia(atraccionMecanica, dia));
+        assertEquals(2, registro.horasConAccesos(dia));
+        
+        reporte = admin.generarReporteOcupacionAtracciones(CodecFecha.aFecha(dia));
+        assertEquals(75.0, reporte.get(atraccionMecanica), 0.001);
+        assertEquals(25.0, reporte.get(atraccionCultural), 0.001);
+        
+        // Otros días no se afectan
+        reporte = admin.generarReporteOcupacionAtracciones(CodecFecha.aFecha(dia + 1));
+        assertEquals(0.0, reporte.get(atraccionMecanica), 0.001);
+        
+        // Con ciclos de 20 minutos caben 150 por hora: ninguno de los 60 sobra
+        registro.definirCiclo(atraccionMecanica, 20);
+        assertEquals(150, registro.capacidadHora(atraccionMecanica));
+        long otroDia = diez + 24L * 60 * 60 * 1000;
+        for (int i = 0; i < 60; i++) {
+            registro.registrarAcceso(atraccionMecanica, otroDia + i * 1000);
+        }
+        reporte = admin.generarReporteOcupacionAtracciones(CodecFecha.aFecha(dia + 1));
+        assertEquals(40.0, reporte.get(atraccionMecanica), 0.001);
+    }
 }
@@ -0,0 +1,206 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import modelo.atracciones.AtraccionMecanica;
+import modelo.reservas.AsignadorFastPass;
+import modelo.tiquetes.FastPass;
+import modelo.util.CodecFecha;
+
+public class TestAsignadorFastPass {
+
+    private static final long MILIS_MINUTO = 60 * 1000;
+
+    private int dia;
+    private long inicioDia;
+    private AsignadorFastPass asignador;
+    private AtraccionMecanica atraccion;
+
+    @Before
+    public void setUp() {
+        dia = CodecFecha.diaEpoca(2025, 6, 1);
+        inicioDia = CodecFecha.milisInicioDia(dia);
+        // De 9:00 a 17:50 con ventanas de 30 minutos: la última dura 20 minutos
+        asignador = new AsignadorFastPass(CodecFecha.aFecha(dia), 9 * 60, 17 * 60 + 50, 30, 25);
+        atraccion = new AtraccionMecanica("Montaña Rusa", "Tormenta", false, null, null, "Oro", 2, "Zona Norte", 4,
+                120.0f, 200.0f, 40.0f, 120.0f, "vértigo", "alto");
+        // 4 plazas cada 10 minutos: 12 personas por ventana, 3 con FastPass
+        assertEquals(3, asignador.registrar(atraccion, 10));
+    }
+
+    private FastPass nuevoPase() {
+        return new FastPass(null, CodecFecha.aFecha(dia));
+    }
+
+    private Date minuto(int minutoDelDia) {
+        return new Date(inicioDia + minutoDelDia * MILIS_MINUTO);
+    }
+
+    @Test
+    public void testVentanasEnOrden() {
+        assertEquals(18, asignador.getNumeroVentanas());
+        assertEquals(minuto(9 * 60 + 30), asignador.getInicioVentana(1));
+
+        List<FastPass> pases = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            FastPass pase = nuevoPase();
+            assertTrue(asignador.asignar(pase, atraccion, minuto(8 * 60)));
+            pases.add(pase);
+        }
+        // Tres por ventana, en orden desde la apertura
+        assertEquals(minuto(9 * 60), pases.get(0).getInicioRetorno());
+        assertEquals(minuto(9 * 60 + 30), pases.get(0).getFinRetorno());
+        assertEquals(minuto(9 * 60), pases.get(2).getInicioRetorno());
+        assertEquals(minuto(9 * 60 + 30), pases.get(3).getInicioRetorno());
+        assertEquals(minuto(10 * 60), pases.get(6).getInicioRetorno());
+        assertSame(atraccion, pases.get(6).getAtraccionRetorno());
+        assertEquals(0, asignador.disponibles(atraccion, 0));
+        assertEquals(2, asignador.disponibles(atraccion, 2));
+
+        // Un pase que ya tiene ventana no recibe otra
+        assertFalse(asignador.asignar(pases.get(0), atraccion, minuto(8 * 60)));
+        assertEquals(2, asignador.disponibles(atraccion, 2));
+    }
+
+    @Test
+    public void testAsignarDesde() {
+        // 10:10 cae en la ventana de 10:00: la primera que empieza después es la de 10:30
+        FastPass pase = nuevoPase();
+        assertTrue(asignador.asignar(pase, atraccion, minuto(10 * 60 + 10)));
+        assertEquals(minuto(10 * 60 + 30), pase.getInicioRetorno());
+
+        // La última ventana termina al cierre
+        FastPass tarde = nuevoPase();
+        assertTrue(asignador.asignar(tarde, atraccion, minuto(17 * 60 + 30)));
+        assertEquals(minuto(17 * 60 + 30), tarde.getInicioRetorno());
+        assertEquals(minuto(17 * 60 + 50), tarde.getFinRetorno());
+
+        // Después de la última ventana ya no hay cupo
+        assertFalse(asignador.asignar(nuevoPase(), atraccion, minuto(17 * 60 + 31)));
+    }
+
+    @Test
+    public void testCupoAgotado() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(asignador.asignar(nuevoPase(), atraccion, minuto(17 * 60 + 30)));
+        }
+        FastPass sinCupo = nuevoPase();
+        assertFalse(asignador.asignar(sinCupo, atraccion, minuto(17 * 60 + 30)));
+        assertFalse(sinCupo.tieneVentanaRetorno());
+    }
+
+    @Test
+    public void testPasesNoAplicables() {
+        FastPass otroDia = new FastPass(null, CodecFecha.aFecha(dia + 1));
+        assertFalse(asignador.asignar(otroDia, atraccion, minuto(9 * 60)));
+
+        FastPass usado = nuevoPase();
+        usado.marcarComoUsado();
+        assertFalse(asignador.asignar(usado, atraccion, minuto(9 * 60)));
+        assertEquals(3, asignador.disponibles(atraccion, 0));
+
+        AtraccionMecanica sinRegistrar = new AtraccionMecanica("Carros Chocones", "Ninguna", false, null, null,
+                "Familiar", 1, "Zona Sur", 10, 100.0f, 200.0f, 20.0f, 120.0f, "ninguna", "medio");
+        try {
+            asignador.asignar(nuevoPase(), sinRegistrar, minuto(9 * 60));
+            fail("Debería lanzar excepción para una atracción no registrada");
+        } catch (IllegalArgumentException e) {
+            // Esperado
+        }
+        try {
+            new AsignadorFastPass(CodecFecha.aFecha(dia), 18 * 60, 9 * 60, 30, 25);
+            fail("Debería lanzar excepción para un horario inválido");
+        } catch (IllegalArgumentException e) {
+            // Esperado
+        }
+    }
+
+    @Test
+    public void testLiberar() {
+        FastPass pase = nuevoPase();
+        assertTrue(asignador.asignar(pase, atraccion, minuto(9 * 60)));
+        assertEquals(2, asignador.disponibles(atraccion, 0));
+
+        assertTrue(asignador.liberar(pase));
+        assertFalse(pase.tieneVentanaRetorno());
+        assertNull(pase.getInicioRetorno());
+        assertEquals(3, asignador.disponibles(atraccion, 0));
+        assertFalse(asignador.liberar(pase));
+
+        // Tras liberar puede pedir otra ventana
+        assertTrue(asignador.asignar(pase, atraccion, minuto(12 * 60)));
+        assertEquals(minuto(12 * 60), pase.getInicioRetorno());
+    }
+
+    @Test
+    public void testValidezEnVentana() {
+        FastPass pase = nuevoPase();
+        assertTrue(pase.esValido(minuto(8 * 60)));
+        assertTrue(asignador.asignar(pase, atraccion, minuto(11 * 60)));
+
+        assertFalse(pase.esValido(minuto(10 * 60 + 59)));
+        assertTrue(pase.esValido(minuto(11 * 60)));
+        assertTrue(pase.esValido(minuto(11 * 60 + 29)));
+        assertFalse(pase.esValido(minuto(11 * 60 + 30)));
+
+        // Solo en la atracción de la ventana
+        AtraccionMecanica otra = new AtraccionMecanica("Carros Chocones", "Ninguna", false, null, null,
+                "Familiar", 1, "Zona Sur", 10, 100.0f, 200.0f, 20.0f, 120.0f, "ninguna", "medio");
+        assertTrue(pase.esValido(minuto(11 * 60 + 10), atraccion));
+        assertFalse(pase.esValido(minuto(11 * 60 + 10), otra));
+        assertFalse(pase.esValido(minuto(12 * 60), atraccion));
+        assertTrue(nuevoPase().esValido(minuto(12 * 60), otra));
+
+        pase.marcarComoUsado();
+        assertFalse(pase.esValido(minuto(11 * 60 + 10)));
+    }
+
+    @Test
+    public void testRegistroRepetido() {
+        assertTrue(asignador.asignar(nuevoPase(), atraccion, minuto(9 * 60)));
+        try {
+            asignador.registrar(atraccion, 5);
+            fail("Debería lanzar excepción para una atracción ya registrada");
+        } catch (IllegalArgumentException e) {
+            // Esperado
+        }
+        // Los cupos asignados se conservan
+        assertEquals(2, asignador.disponibles(atraccion, 0));
+    }
+
+    @Test
+    public void testAsignacionConcurrente() throws InterruptedException {
+        int hilos = 8;
+        int pasesPorHilo = 20;
+        AtomicInteger asignados = new AtomicInteger();
+        List<Thread> trabajadores = new ArrayList<>();
+        for (int h = 0; h < hilos; h++) {
+            Thread hilo = new Thread(() -> {
+                for (int i = 0; i < pasesPorHilo; i++) {
+                    if (asignador.asignar(nuevoPase(), atraccion, minuto(8 * 60))) {
+                        asignados.incrementAndGet();
+                    }
+                }
+            });
+            trabajadores.add(hilo);
+            hilo.start();
+        }
+        for (Thread hilo : trabajadores) {
+            hilo.join();
+        }
+
+        // 160 pases para 18 ventanas de 3: se llenan todas y ninguna se pasa del cupo
+        assertEquals(54, asignados.get());
+        for (int ventana = 0; ventana < asignador.getNumeroVentanas(); ventana++) {
+            assertEquals(0, asignador.disponibles(atraccion, ventana));
+        }
+    }
+}
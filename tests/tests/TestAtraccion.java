@@ -2,11 +2,14 @@ package tests;
 
 import static org.junit.Assert.*;
 import java.util.Date;
+import java.util.Random;
 import org.junit.Before;
 import org.junit.Test;
 import modelo.atracciones.AtraccionMecanica;
 import modelo.atracciones.AtraccionCultural;
 import modelo.usuarios.Cliente;
+import modelo.util.CodecFecha;
+import modelo.util.IntervalosDias;
 
 public class TestAtraccion {
     
@@ -142,6 +145,78 @@ public class TestAtraccion {
         assertFalse(atraccionTemporada.estaDisponible(new Date(fechaFutura.getTime() + 24 * 60 * 60 * 1000)));
     }
     
+    @Test
+    public void testMantenimientoPorIntervalos() {
+        int hoy = CodecFecha.diaEpoca(fechaActual);
+        
+        // Dos ventanas separadas y una tercera que las une
+        atraccionMecanica.programarMantenimiento(CodecFecha.aFecha(hoy), CodecFecha.aFecha(hoy + 9));
+        atraccionMecanica.programarMantenimiento(CodecFecha.aFecha(hoy + 20), CodecFecha.aFecha(hoy + 29));
+        assertEquals(2, atraccionMecanica.getDiasMantenimiento().numeroIntervalos());
+        assertTrue(atraccionMecanica.estaDisponible(CodecFecha.aFecha(hoy + 15)));
+        
+        atraccionMecanica.programarMantenimiento(CodecFecha.aFecha(hoy + 10), CodecFecha.aFecha(hoy + 19));
+        IntervalosDias dias = atraccionMecanica.getDiasMantenimiento();
+        assertEquals(1, dias.numeroIntervalos());
+        assertEquals(hoy, dias.inicio(0));
+        assertEquals(hoy + 29, dias.fin(0));
+        assertEquals(30, atraccionMecanica.getFechasMantenimiento().size());
+        
+        // Cualquier hora del día cuenta como ese día
+        assertFalse(atraccionMecanica.estaDisponible(new Date(CodecFecha.aFecha(hoy + 15).getTime() + 13 * 60 * 60 * 1000)));
+        assertFalse(atraccionMecanica.estaDisponible(CodecFecha.aFecha(hoy + 29)));
+        assertTrue(atraccionMecanica.estaDisponible(CodecFecha.aFecha(hoy + 30)));
+        assertTrue(atraccionMecanica.estaDisponible(CodecFecha.aFecha(hoy - 1)));
+        
+        // Un plan de varios años ocupa un solo intervalo
+        atraccionMecanica.programarMantenimiento(CodecFecha.aFecha(hoy + 30), CodecFecha.aFecha(hoy + 3650));
+        assertEquals(1, atraccionMecanica.getDiasMantenimiento().numeroIntervalos());
+        assertFalse(atraccionMecanica.estaDisponible(CodecFecha.aFecha(hoy + 2000)));
+    }
+    
+    @Test
+    public void testMantenimientoFechasNulas() {
+        try {
+            atraccionMecanica.programarMantenimiento(null, fechaActual);
+            fail("Debería lanzar excepción");
+        } catch (NullPointerException e) {
+            // Correcto, debe lanzar excepción
+        }
+        try {
+            atraccionMecanica.programarMantenimiento(fechaActual, null);
+            fail("Debería lanzar excepción");
+        } catch (NullPointerException e) {
+            // Correcto, debe lanzar excepción
+        }
+        
+        // No queda ningún intervalo programado
+        assertEquals(0, atraccionMecanica.getDiasMantenimiento().numeroIntervalos());
+        assertTrue(atraccionMecanica.getFechasMantenimiento().isEmpty());
+    }
+    
+    @Test
+    public void testIntervalosDias() {
+        IntervalosDias dias = new IntervalosDias();
+        boolean[] esperado = new boolean[200];
+        Random aleatorio = new Random(7);
+        for (int k = 0; k < 40; k++) {
+            int inicio = aleatorio.nextInt(190);
+            int fin = inicio + aleatorio.nextInt(8);
+            dias.agregar(inicio, fin);
+            for (int d = inicio; d <= fin; d++) {
+                esperado[d] = true;
+            }
+            
+            // Los intervalos quedan ordenados, separados por al menos un día libre
+            for (int i = 1; i < dias.numeroIntervalos(); i++) {
+                assertTrue(dias.inicio(i) > dias.fin(i - 1) + 1);
+            }
+            for (int d = 0; d < esperado.length; d++) {
+                assertEquals(esperado[d], dias.contiene(d));
+            }
+        }
+    }
+    
     @Test
     public void testConsultarInformacion() {
         // Verificar que la información incluye datos clave
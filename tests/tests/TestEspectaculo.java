@@ -2,9 +2,14 @@ package tests;
 
 import static org.junit.Assert.*;
 import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
 import org.junit.Before;
 import org.junit.Test;
 import modelo.atracciones.Espectaculo;
+import modelo.util.CodecFecha;
+import modelo.util.ConjuntoDias;
 
 public class TestEspectaculo {
     
@@ -141,4 +146,61 @@ public class TestEspectaculo {
         // Y no está disponible en otras fechas
         assertFalse(espectaculoNoTemporada.estaDisponible(fechaActual));
     }
+    
+    @Test
+    public void testFuncionesEntre() {
+        // Funciones agregadas en desorden, una por día
+        int dia = CodecFecha.diaEpoca(2024, 7, 1);
+        for (int d : new int[] { 20, 3, 11, 3, 0, 27 }) {
+            espectaculo.agregarFuncion(new Date(CodecFecha.milisInicioDia(dia + d) + 15L * 60 * 60 * 1000));
+        }
+        assertEquals(5, espectaculo.getNumeroFunciones());
+        assertEquals(CodecFecha.aFecha(dia), espectaculo.getFunciones().get(0));
+        
+        List<Date> julio = espectaculo.getFuncionesEntre(CodecFecha.aFecha(dia + 1), CodecFecha.aFecha(dia + 20));
+        assertEquals(3, julio.size());
+        assertEquals(CodecFecha.aFecha(dia + 3), julio.get(0));
+        assertEquals(CodecFecha.aFecha(dia + 20), julio.get(2));
+        assertEquals(3, espectaculo.contarFuncionesEntre(CodecFecha.aFecha(dia + 1), CodecFecha.aFecha(dia + 20)));
+        assertEquals(0, espectaculo.contarFuncionesEntre(CodecFecha.aFecha(dia + 21), CodecFecha.aFecha(dia + 26)));
+        assertTrue(espectaculo.getFuncionesEntre(CodecFecha.aFecha(dia + 5), CodecFecha.aFecha(dia + 1)).isEmpty());
+        
+        assertTrue(espectaculo.cancelarFuncion(CodecFecha.aFecha(dia + 11)));
+        assertEquals(2, espectaculo.contarFuncionesEntre(CodecFecha.aFecha(dia + 1), CodecFecha.aFecha(dia + 20)));
+    }
+    
+    @Test
+    public void testConjuntoDias() {
+        // Operaciones aleatorias contra un TreeSet de referencia
+        ConjuntoDias conjunto = new ConjuntoDias();
+        TreeSet<Integer> referencia = new TreeSet<>();
+        Random aleatorio = new Random(21);
+        for (int paso = 0; paso < 20000; paso++) {
+            int dia = aleatorio.nextInt(500) - 250;
+            if (aleatorio.nextInt(3) == 0) {
+                assertEquals(referencia.remove(dia), conjunto.eliminar(dia));
+            } else {
+                assertEquals(referencia.add(dia), conjunto.agregar(dia));
+            }
+            assertEquals(referencia.contains(dia), conjunto.contiene(dia));
+            
+            int desde = aleatorio.nextInt(500) - 250;
+            int hasta = desde + aleatorio.nextInt(100);
+            assertEquals(referencia.subSet(desde, true, hasta, true).size(), conjunto.contarEntre(desde, hasta));
+        }
+        
+        assertEquals(referencia.size(), conjunto.tamano());
+        int i = 0;
+        for (int dia : referencia) {
+            assertEquals(dia, conjunto.dia(i++));
+        }
+        StringBuilder recorridos = new StringBuilder();
+        conjunto.recorrerEntre(-10, 10, dia -> recorridos.append(dia).append(','));
+        StringBuilder esperados = new StringBuilder();
+        for (int dia : referencia.subSet(-10, true, 10, true)) {
+            esperados.append(dia).append(',');
+        }
+        assertEquals(esperados.toString(), recorridos.toString());
+        assertEquals(referencia.size(), conjunto.contarEntre(Integer.MIN_VALUE, Integer.MAX_VALUE));
+    }
 }
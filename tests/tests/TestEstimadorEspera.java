@@ -0,0 +1,124 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import modelo.acceso.EstimadorEspera;
+import modelo.atracciones.Atraccion;
+import modelo.atracciones.AtraccionCultural;
+import modelo.atracciones.AtraccionMecanica;
+
+public class TestEstimadorEspera {
+
+    private static final long SEGUNDO = 1000;
+
+    private AtomicLong reloj;
+    private EstimadorEspera estimador;
+    private int montana;
+    private int museo;
+
+    @Before
+    public void setUp() {
+        reloj = new AtomicLong(1_000_000);
+        List<Atraccion> atracciones = Arrays.asList(
+                new AtraccionMecanica("Montaña Rusa", "Tormenta", false, null, null, "Oro", 2, "Zona Norte", 4,
+                        120.0f, 200.0f, 40.0f, 120.0f, "vértigo", "alto"),
+                new AtraccionCultural("Museo", "Ninguna", false, null, null, "Familiar", 1, "Zona Sur", 30, 0));
+        // Ventana de un minuto en cubetas de 10 segundos
+        estimador = new EstimadorEspera(atracciones, 10 * SEGUNDO, 6, reloj::get);
+        montana = estimador.idAtraccion("Montaña Rusa");
+        museo = estimador.idAtraccion("Museo");
+    }
+
+    @Test
+    public void testIdsAtraccion() {
+        assertEquals(0, montana);
+        assertEquals(1, museo);
+        assertEquals(-1, estimador.idAtraccion("No existe"));
+        assertEquals(2, estimador.getNumeroAtracciones());
+    }
+
+    @Test
+    public void testEsperaEstimada() {
+        assertEquals(0, estimador.estimarEspera(montana));
+        for (int i = 0; i < 10; i++) {
+            estimador.registrarLlegada(montana);
+        }
+        assertEquals(10, estimador.personasEnFila(montana));
+        assertEquals(EstimadorEspera.SIN_ESTIMACION, estimador.estimarEspera(montana));
+
+        // 5 ingresos en 30 segundos: 10 por minuto, la fila de 5 tarda 30 segundos
+        reloj.addAndGet(30 * SEGUNDO);
+        for (int i = 0; i < 5; i++) {
+            estimador.registrarIngreso(montana);
+        }
+        assertEquals(5, estimador.personasEnFila(montana));
+        assertEquals(10.0, estimador.ingresosPorMinuto(montana), 0.001);
+        assertEquals(30, estimador.estimarEspera(montana));
+
+        // Las atracciones no se afectan entre sí
+        assertEquals(0, estimador.personasEnFila(museo));
+        long[] esperas = estimador.estimarEsperas();
+        assertEquals(30, esperas[montana]);
+        assertEquals(0, esperas[museo]);
+    }
+
+    @Test
+    public void testVentanaDeslizante() {
+        // Un ingreso cada 6 segundos durante 3 minutos: 10 por minuto
+        for (int i = 0; i <= 30; i++) {
+            estimador.registrarLlegada(museo);
+            estimador.registrarIngreso(museo);
+            reloj.addAndGet(6 * SEGUNDO);
+        }
+        assertEquals(10.0, estimador.ingresosPorMinuto(museo), 1.5);
+        assertEquals(10.0, estimador.llegadasPorMinuto(museo), 1.5);
+        assertEquals(0, estimador.personasEnFila(museo));
+
+        // Los eventos que salen de la ventana dejan de contar
+        estimador.registrarLlegada(museo);
+        reloj.addAndGet(2 * 60 * SEGUNDO);
+        assertEquals(0.0, estimador.ingresosPorMinuto(museo), 0.0);
+        assertEquals(EstimadorEspera.SIN_ESTIMACION, estimador.estimarEspera(museo));
+
+        // Los ingresos de más no dejan la fila en negativo
+        estimador.registrarIngreso(museo);
+        estimador.registrarIngreso(museo);
+        assertEquals(0, estimador.personasEnFila(museo));
+    }
+
+    @Test
+    public void testRegistroConcurrente() throws InterruptedException {
+        int hilos = 8;
+        int eventosPorHilo = 10_000;
+        List<Thread> torniquetes = new ArrayList<>();
+        for (int h = 0; h < hilos; h++) {
+            Thread hilo = new Thread(() -> {
+                for (int i = 0; i < eventosPorHilo; i++) {
+                    estimador.registrarLlegada(montana);
+                    if (i % 2 == 0) {
+                        estimador.registrarIngreso(montana);
+                    }
+                    if (i % 1000 == 0) {
+                        reloj.addAndGet(SEGUNDO);
+                    }
+                }
+            });
+            torniquetes.add(hilo);
+            hilo.start();
+        }
+        for (Thread hilo : torniquetes) {
+            hilo.join();
+        }
+
+        assertEquals(hilos * eventosPorHilo / 2, estimador.personasEnFila(montana));
+        assertTrue(estimador.estimarEspera(montana) > 0);
+    }
+}
@@ -6,6 +6,9 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Before;
 import org.junit.Test;
 import modelo.empleados.Cajero;
@@ -18,6 +21,7 @@ import modelo.lugares.Taquilla;
 import modelo.lugares.Tienda;
 import modelo.tiquetes.TiqueteBasico;
 import modelo.usuarios.Cliente;
+import modelo.util.CodecFecha;
 import excepciones.TiqueteException;
 
 public class TestLugarTrabajo {
@@ -170,6 +174,48 @@ public class TestLugarTrabajo {
         }
     }
     
+    @Test
+    public void testVentaConcurrenteTaquilla() throws InterruptedException {
+        // Dos tipos de tiquete; uno usado no se debe vender
+        for (int i = 1; i <= 1000; i++) {
+            taquilla.agregarTiquete(new TiqueteBasico(i, i % 2 == 0 ? "Familiar" : "Oro", 1, "Familiar", fechaActual, "Activo", "Taquilla", "Adulto", i == 1));
+        }
+        assertEquals(500, taquilla.contarDisponibles("Familiar"));
+        assertEquals(500, taquilla.contarDisponibles("Oro"));
+        assertEquals(0, taquilla.contarDisponibles("Diamante"));
+        
+        // Varios cajeros venden a la vez hasta agotar el inventario
+        Set<Integer> vendidos = ConcurrentHashMap.newKeySet();
+        AtomicInteger repetidos = new AtomicInteger();
+        Thread[] cajeros = new Thread[4];
+        for (int h = 0; h < cajeros.length; h++) {
+            int numero = h;
+            cajeros[h] = new Thread(() -> {
+                Cliente cliente = new Cliente("Cliente " + numero, 200 + numero, "c" + numero + "@ejemplo.com", "clave");
+                for (String tipo : new String[] { "Familiar", "Oro" }) {
+                    while (true) {
+                        try {
+                            if (!vendidos.add(taquilla.venderTiquete(tipo, cliente).getId())) {
+                                repetidos.incrementAndGet();
+                            }
+                        } catch (TiqueteException e) {
+                            break;
+                        }
+                    }
+                }
+            });
+            cajeros[h].start();
+        }
+        for (Thread hilo : cajeros) {
+            hilo.join();
+        }
+        
+        assertEquals(0, repetidos.get());
+        assertEquals(999, vendidos.size());
+        assertFalse(vendidos.contains(1));
+        assertTrue(taquilla.getTiquetesDisponibles().isEmpty());
+    }
+    
     @Test
     public void testTienda() {
         // Verificar propiedades específicas de tienda
@@ -228,4 +274,38 @@ public class TestLugarTrabajo {
         // La tienda no debería permitir asignar un cocinero
         assertFalse(tienda.asignarCocinero(cocinero, fechaActual, turnoApertura));
     }
+    
+    @Test
+    public void testContadoresPorTurno() {
+        // Otra hora del mismo día consulta el mismo turno
+        int dia = CodecFecha.diaEpoca(2024, 5, 20);
+        Date manana = new Date(CodecFecha.milisInicioDia(dia) + 9L * 60 * 60 * 1000);
+        Date noche = new Date(CodecFecha.milisInicioDia(dia) + 21L * 60 * 60 * 1000);
+        
+        List<Empleado> vista = cafeteria.getEmpleadosAsignados(manana, turnoCierre);
+        assertTrue(vista.isEmpty());
+        assertTrue(cafeteria.asignarCajero(cajero, manana, turnoCierre));
+        assertTrue(cafeteria.asignarCajero(cajero, noche, turnoCierre));
+        assertTrue(cafeteria.asignarCocinero(cocinero, noche, turnoCierre));
+        assertEquals(2, cafeteria.contarEmpleadosAsignados(manana, turnoCierre));
+        assertEquals(1, cafeteria.contarCajeros(manana, turnoCierre));
+        assertEquals(1, cafeteria.contarCocineros(manana, turnoCierre));
+        assertEquals(0, cafeteria.contarCajeros(manana, turnoApertura));
+        assertEquals(0, cafeteria.contarCajeros(CodecFecha.aFecha(dia + 1), turnoCierre));
+        
+        // La vista no es una copia: es la misma en cada consulta y refleja las asignaciones
+        List<Empleado> asignados = cafeteria.getEmpleadosAsignados(manana, turnoCierre);
+        assertSame(asignados, cafeteria.getEmpleadosAsignados(noche, turnoCierre));
+        assertEquals(2, asignados.size());
+        try {
+            asignados.clear();
+            fail("La vista debería ser de solo lectura");
+        } catch (UnsupportedOperationException e) {
+            // Esperado
+        }
+        
+        // Un turno no válido no se asigna
+        assertFalse(cafeteria.asignarCajero(cajero, manana, "Nocturno"));
+        assertTrue(cafeteria.getEmpleadosAsignados(manana, "Nocturno").isEmpty());
+    }
 }
@@ -0,0 +1,147 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import modelo.atracciones.AtraccionMecanica;
+import modelo.atracciones.Espectaculo;
+import modelo.reservas.EstadoReserva;
+import modelo.reservas.MotorReservas;
+import modelo.reservas.Reserva;
+
+public class TestMotorReservas {
+
+    private static final long RETENCION = 5 * 60 * 1000;
+
+    private AtomicLong reloj;
+    private MotorReservas motor;
+    private Espectaculo espectaculo;
+    private AtraccionMecanica atraccion;
+
+    @Before
+    public void setUp() {
+        reloj = new AtomicLong(1_000_000);
+        motor = new MotorReservas(RETENCION, reloj::get);
+        espectaculo = new Espectaculo("Show de Delfines", "Lluvia", false, null, null, "45 minutos", "15:00", 10);
+        atraccion = new AtraccionMecanica("Montaña Rusa", "Tormenta", false, null, null, "Oro", 2, "Zona Norte", 4,
+                120.0f, 200.0f, 40.0f, 120.0f, "vértigo", "alto");
+    }
+
+    @Test
+    public void testCapacidad() {
+        assertEquals(10, motor.disponibles(espectaculo, 1));
+        Reserva familia = motor.retener(espectaculo, 1, 6);
+        assertNotNull(familia);
+        assertEquals(EstadoReserva.RETENIDA, familia.getEstado());
+        assertEquals(4, motor.disponibles(espectaculo, 1));
+        assertNull(motor.retener(espectaculo, 1, 5));
+        assertNotNull(motor.retener(espectaculo, 1, 4));
+        assertEquals(0, motor.disponibles(espectaculo, 1));
+
+        // Cada franja y cada lugar tienen su propio cupo
+        assertEquals(10, motor.disponibles(espectaculo, 2));
+        assertNotNull(motor.retener(atraccion, 1, 4));
+        assertNull(motor.retener(atraccion, 1, 1));
+
+        try {
+            motor.retener("Sin cupo", 1, 1);
+            fail("Debería lanzar excepción para un lugar sin cupo definido");
+        } catch (IllegalArgumentException e) {
+            // Esperado
+        }
+    }
+
+    @Test
+    public void testRetenerConfirmarVencer() {
+        Reserva confirmada = motor.retener(espectaculo, 1, 4);
+        Reserva olvidada = motor.retener(espectaculo, 1, 4);
+        assertTrue(motor.confirmar(confirmada));
+        assertTrue(motor.confirmar(confirmada));
+
+        // La retención sin confirmar vence y libera su cupo al pedir una nueva
+        reloj.addAndGet(RETENCION);
+        Reserva grupo = motor.retener(espectaculo, 1, 6);
+        assertNotNull(grupo);
+        assertEquals(EstadoReserva.EXPIRADA, olvidada.getEstado());
+        assertFalse(motor.confirmar(olvidada));
+        assertEquals(EstadoReserva.CONFIRMADA, confirmada.getEstado());
+        assertEquals(10, motor.ocupados(espectaculo, 1));
+
+        // Una confirmación tardía no se acepta
+        Reserva tardia = motor.retener(atraccion, 7, 2);
+        reloj.addAndGet(RETENCION + 1);
+        assertFalse(motor.confirmar(tardia));
+        assertEquals(0, motor.ocupados(atraccion, 7));
+
+        // Cancelar libera el cupo una sola vez
+        reloj.set(grupo.getVencimiento() - 1);
+        assertTrue(motor.cancelar(confirmada));
+        assertFalse(motor.cancelar(confirmada));
+        assertEquals(4, motor.disponibles(espectaculo, 1));
+
+        // El barrido general vence la retención del grupo
+        reloj.set(grupo.getVencimiento());
+        assertEquals(1, motor.liberarVencidas());
+        assertEquals(0, motor.liberarVencidas());
+        assertEquals(EstadoReserva.EXPIRADA, grupo.getEstado());
+        assertEquals(10, motor.disponibles(espectaculo, 1));
+    }
+
+    @Test
+    public void testDescartarFranjasPasadas() {
+        Reserva pasada = motor.retener(espectaculo, 1, 10);
+        assertNotNull(motor.retener(espectaculo, 2, 3));
+        assertEquals(0, motor.disponibles(espectaculo, 1));
+
+        motor.descartarAntesDe(2);
+        assertEquals(10, motor.disponibles(espectaculo, 1));
+        assertEquals(0, motor.ocupados(espectaculo, 1));
+        assertEquals(7, motor.disponibles(espectaculo, 2));
+
+        // La reserva de la franja descartada se puede seguir confirmando
+        assertTrue(motor.confirmar(pasada));
+        assertEquals(0, motor.liberarVencidas());
+    }
+
+    @Test
+    public void testSinSobreventaConcurrente() throws InterruptedException {
+        // Muchos hilos piden plazas a la vez en dos franjas; solo caben diez por franja
+        AtomicInteger retenidas = new AtomicInteger();
+        List<Reserva> confirmadas = new ArrayList<>();
+        Thread[] hilos = new Thread[8];
+        for (int h = 0; h < hilos.length; h++) {
+            hilos[h] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    Reserva reserva = motor.retener(espectaculo, i % 2, 1);
+                    if (reserva != null) {
+                        retenidas.incrementAndGet();
+                        if (i % 3 == 0) {
+                            assertTrue(motor.cancelar(reserva));
+                        } else if (motor.confirmar(reserva)) {
+                            synchronized (confirmadas) {
+                                confirmadas.add(reserva);
+                            }
+                        }
+                    }
+                }
+            });
+            hilos[h].start();
+        }
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+
+        assertEquals(20, confirmadas.size());
+        assertTrue(retenidas.get() >= 20);
+        assertEquals(10, motor.ocupados(espectaculo, 0));
+        assertEquals(10, motor.ocupados(espectaculo, 1));
+        assertNull(motor.retener(espectaculo, 0, 1));
+    }
+}
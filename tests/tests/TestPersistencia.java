@@ -1,6 +1,11 @@
 package tests;
 import static org.junit.Assert.*;
+import java.io.File;
 import java.io.IOException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
@@ -11,6 +16,7 @@ import org.junit.Before;
 import org.junit.Test;
 import excepciones.AtraccionException;
 import excepciones.EmpleadoException;
+import excepciones.PersistenciaException;
 import excepciones.TiqueteException;
 import excepciones.UsuarioException;
 import modelo.atracciones.AtraccionCultural;
@@ -18,15 +24,28 @@ import modelo.atracciones.AtraccionMecanica;
 import modelo.atracciones.Espectaculo;
 import modelo.empleados.AtraccionAlto;
 import modelo.empleados.Cajero;
+import modelo.lugares.Taquilla;
 import modelo.lugares.Tienda;
+import modelo.tiquetes.FastPass;
+import modelo.tiquetes.Individual;
+import modelo.tiquetes.Tiquete;
 import modelo.tiquetes.TiqueteBasico;
 import modelo.usuarios.Administrador;
 import modelo.usuarios.Cliente;
+import modelo.util.CodecFecha;
 import persistencia.ArchivoUtil;
+import persistencia.BitacoraTiquetes;
+import persistencia.CargadorParque;
+import persistencia.ConvertidorRegistros;
+import persistencia.EstadoParque;
+import persistencia.FuenteRegistros;
+import persistencia.IndicePropiedad;
+import persistencia.LectorRegistros;
 import persistencia.PersistenciaAtracciones;
 import persistencia.PersistenciaEmpleados;
 import persistencia.PersistenciaTiquetes;
 import persistencia.PersistenciaUsuarios;
+import persistencia.RepositorioTiquetes;
 
 public class TestPersistencia {
     
@@ -140,8 +159,13 @@ public class TestPersistencia {
         ArchivoUtil.eliminarArchivo("empleados_atraccion_alto.txt");
         ArchivoUtil.eliminarArchivo("empleados_cajero.txt");
         ArchivoUtil.eliminarArchivo("tiquetes_basicos.txt");
+        ArchivoUtil.eliminarArchivo("tiquetes_individuales.txt");
+        ArchivoUtil.eliminarArchivo("fast_passes.txt");
+        ArchivoUtil.eliminarArchivo("tiquetes_bitacora.txt");
         ArchivoUtil.eliminarArchivo("clientes.txt");
         ArchivoUtil.eliminarArchivo("administradores.txt");
+        ArchivoUtil.eliminarArchivo("propiedad_tiquetes.txt");
+        ArchivoUtil.eliminarArchivo("propiedad_tiquetes.idx");
     }
     
     @Test
@@ -234,6 +258,74 @@ public class TestPersistencia {
         }
     }
     
+    @Test
+    public void testCargadorParque() {
+        try {
+            List<AtraccionMecanica> atraccionesMecanicas = new ArrayList<>();
+            atraccionesMecanicas.add(atraccionMecanica);
+            persistenciaAtracciones.guardarAtraccionesMecanicas(atraccionesMecanicas);
+            
+            assertTrue(empleadoAtraccionAlto.asignarAtraccionAlta(atraccionMecanica));
+            List<AtraccionAlto> empleadosAtraccionAlto = new ArrayList<>();
+            empleadosAtraccionAlto.add(empleadoAtraccionAlto);
+            persistenciaEmpleados.guardarEmpleadosAtraccionAlto(empleadosAtraccionAlto);
+            
+            List<Individual> individuales = new ArrayList<>();
+            individuales.add(new Individual(atraccionMecanica, 7, "Individual", 1, "Oro", new Date(), "Activo", "Web", false));
+            persistenciaTiquetes.guardarTiquetesIndividuales(individuales);
+            
+            List<FastPass> fastPasses = new ArrayList<>();
+            fastPasses.add(new FastPass(individuales.get(0), new Date()));
+            fastPasses.add(new FastPass(tiqueteBasico, new Date())); // Su tiquete no se guardó
+            persistenciaTiquetes.guardarFastPasses(fastPasses);
+            
+            EstadoParque estado = new CargadorParque().cargar();
+            
+            AtraccionMecanica atraccionCargada = estado.getAtraccionesMecanicas().get(0);
+            assertEquals(atraccionMecanica.getNombre(), atraccionCargada.getNombre());
+            
+            // Tiquete individual -> atracción
+            assertEquals(1, estado.getTiquetesIndividuales().size());
+            assertSame(atraccionCargada, estado.getTiquetesIndividuales().get(0).getAtraccion());
+            
+            // FastPass -> tiquete (el que no tiene tiquete se descarta)
+            assertEquals(1, estado.getFastPasses().size());
+            assertSame(estado.getTiquetesIndividuales().get(0), estado.getFastPasses().get(0).getTiqueteAsociado());
+            assertSame(estado.getTiquetesIndividuales().get(0), estado.getRepositorioTiquetes().buscarPorId(7));
+            
+            // Empleado de alto riesgo -> atracción mecánica
+            AtraccionAlto empleadoCargado = estado.getEmpleadosAtraccionAlto().get(0);
+            assertEquals(1, empleadoCargado.getAtraccionesEspecificas().size());
+            assertSame(atraccionCargada, empleadoCargado.getAtraccionesEspecificas().get(0));
+            
+            assertTrue(estado.getClientes().isEmpty());
+            assertEquals(1, estado.getEmpleados().size());
+            
+        } catch (AtraccionException | EmpleadoException | TiqueteException | PersistenciaException e) {
+            fail("No debería lanzar excepción: " + e.getMessage());
+        }
+    }
+    
+    @Test
+    public void testCargadorParqueCompactaBitacora() {
+        try {
+            TiqueteBasico vendido = new TiqueteBasico(2, "Tiquete Básico", 1, "Oro", new Date(), "Activo", "Web", "Niño", false);
+            
+            // La venta queda solo en la bitácora al cerrar la aplicación
+            try (BitacoraTiquetes bitacora = new BitacoraTiquetes(1, 0)) {
+                bitacora.registrarVenta(vendido);
+            }
+            assertFalse(ArchivoUtil.existeArchivo("tiquetes_basicos.txt"));
+            
+            EstadoParque estado = new CargadorParque().cargar();
+            assertNotNull(estado.getRepositorioTiquetes().buscarPorId(2));
+            assertTrue(ArchivoUtil.existeArchivo("tiquetes_basicos.txt"));
+            
+        } catch (TiqueteException | PersistenciaException | IOException e) {
+            fail("No debería lanzar excepción: " + e.getMessage());
+        }
+    }
+    
     @Test
     public void testPersistenciaTiquetes() {
         try {
@@ -263,6 +355,173 @@ public class TestPersistencia {
         }
     }
     
+    @Test
+    public void testCargarFastPassesConRepositorio() {
+        try {
+            List<TiqueteBasico> tiquetesBasicos = new ArrayList<>();
+            tiquetesBasicos.add(tiqueteBasico);
+            persistenciaTiquetes.guardarTiquetesBasicos(tiquetesBasicos);
+            
+            List<FastPass> fastPasses = new ArrayList<>();
+            fastPasses.add(new FastPass(tiqueteBasico, new Date()));
+            persistenciaTiquetes.guardarFastPasses(fastPasses);
+            
+            // Los tiquetes se cargan una sola vez en el repositorio indexado
+            RepositorioTiquetes repositorio = RepositorioTiquetes.cargar(persistenciaTiquetes);
+            assertEquals(1, repositorio.tamano());
+            assertNotNull(repositorio.buscarPorId(tiqueteBasico.getId()));
+            assertNull(repositorio.buscarPorId(999));
+            
+            // Cada FastPass se asocia al mismo objeto que está en el repositorio
+            List<FastPass> fastPassesCargados = persistenciaTiquetes.cargarFastPasses(repositorio);
+            assertEquals(1, fastPassesCargados.size());
+            assertSame(repositorio.buscarPorId(tiqueteBasico.getId()), fastPassesCargados.get(0).getTiqueteAsociado());
+            
+            List<FastPass> fastPassesAsociados = persistenciaTiquetes.asociarTiquetesAFastPasses(repositorio);
+            assertSame(repositorio.buscarPorId(tiqueteBasico.getId()), fastPassesAsociados.get(0).getTiqueteAsociado());
+            
+        } catch (TiqueteException e) {
+            fail("No debería lanzar excepción: " + e.getMessage());
+        }
+    }
+    
+    @Test
+    public void testBitacoraTiquetes() {
+        try {
+            List<TiqueteBasico> tiquetesBasicos = new ArrayList<>();
+            tiquetesBasicos.add(tiqueteBasico);
+            persistenciaTiquetes.guardarTiquetesBasicos(tiquetesBasicos);
+            
+            TiqueteBasico vendido = new TiqueteBasico(2, "Tiquete Básico", 1, "Oro", new Date(), "Activo", "Web", "Niño", false);
+            
+            try (BitacoraTiquetes bitacora = new BitacoraTiquetes(1, 0)) {
+                bitacora.registrarVenta(vendido);
+                bitacora.registrarUso(tiqueteBasico);
+                bitacora.registrarDescuento(vendido);
+                
+                // Antes de compactar los archivos de tiquetes no cambian
+                assertEquals(1, persistenciaTiquetes.cargarTiquetesBasicos().size());
+                
+                bitacora.compactar();
+                // Una venta repetida no duplica el tiquete
+                bitacora.registrarVenta(vendido);
+                bitacora.compactar();
+            }
+            
+            List<TiqueteBasico> cargados = persistenciaTiquetes.cargarTiquetesBasicos();
+            assertEquals(2, cargados.size());
+            assertTrue(cargados.get(0).isUsado());
+            assertFalse(cargados.get(0).isDctoEmpleado());
+            assertEquals(2, cargados.get(1).getId());
+            assertFalse(cargados.get(1).isUsado());
+            assertTrue(cargados.get(1).isDctoEmpleado());
+            
+        } catch (TiqueteException | IOException e) {
+            fail("No debería lanzar excepción: " + e.getMessage());
+        }
+    }
+    
+    @Test
+    public void testVentaRegistradaEnBitacora() {
+        try {
+            List<TiqueteBasico> tiquetesBasicos = new ArrayList<>();
+            tiquetesBasicos.add(tiqueteBasico);
+            persistenciaTiquetes.guardarTiquetesBasicos(tiquetesBasicos);
+            
+            TiqueteBasico vendido = new TiqueteBasico(2, "Tiquete Básico", 1, "Oro", new Date(), "Activo", "Taquilla", "Adulto", false);
+            Taquilla taquilla = new Taquilla("TAQ1", "Taquilla Principal", "Entrada del parque", "Efectivo");
+            taquilla.agregarTiquete(vendido);
+            
+            try (BitacoraTiquetes bitacora = new BitacoraTiquetes(1, 0)) {
+                taquilla.setRegistroCambios(bitacora);
+                Cliente comprador = new Cliente("Comprador", 200, "comprador@ejemplo.com", "clave");
+                assertEquals(vendido, taquilla.venderTiquete("Tiquete Básico", comprador));
+                
+                // La venta solo está en la bitácora hasta compactar
+                assertEquals(1, persistenciaTiquetes.cargarTiquetesBasicos().size());
+                bitacora.compactar();
+            }
+            
+            List<TiqueteBasico> cargados = persistenciaTiquetes.cargarTiquetesBasicos();
+            assertEquals(2, cargados.size());
+            assertEquals(2, cargados.get(1).getId());
+            
+        } catch (TiqueteException | IOException e) {
+            fail("No debería lanzar excepción: " + e.getMessage());
+        }
+    }
+    
+    @Test
+    public void testInstantaneaBinaria() {
+        try {
+            List<TiqueteBasico> tiquetesBasicos = new ArrayList<>();
+            tiquetesBasicos.add(tiqueteBasico);
+            tiquetesBasicos.add(new TiqueteBasico(2, "Tiquete Básico", 3, "Oro", null, "Activo", "Web", "Niño", true));
+            persistenciaTiquetes.guardarTiquetesBasicos(tiquetesBasicos);
+            List<String> lineasOriginales = ArchivoUtil.cargarLineas("tiquetes_basicos.txt");
+            
+            ConvertidorRegistros.aBinario("tiquetes_basicos.txt");
+            assertTrue(ArchivoUtil.existeArchivo("tiquetes_basicos.bin"));
+            
+            // La carga lee la instantánea y obtiene los mismos datos
+            List<TiqueteBasico> cargados = persistenciaTiquetes.cargarTiquetesBasicos();
+            assertEquals(2, cargados.size());
+            assertEquals(tiqueteBasico.getId(), cargados.get(0).getId());
+            assertEquals("Familiar", cargados.get(0).getExclusividad());
+            assertNotNull(cargados.get(0).getFecha());
+            assertEquals(3, cargados.get(1).getNumTiquetes());
+            assertNull(cargados.get(1).getFecha());
+            assertTrue(cargados.get(1).isUsado());
+            assertEquals("Niño", cargados.get(1).getCategoria());
+            
+            // La conversión inversa reproduce el mismo texto
+            ConvertidorRegistros.aTexto("tiquetes_basicos.txt");
+            assertEquals(lineasOriginales, ArchivoUtil.cargarLineas("tiquetes_basicos.txt"));
+            assertTrue(ArchivoUtil.existeArchivo("tiquetes_basicos.bin"));
+            
+            // Guardar en texto invalida la instantánea
+            tiquetesBasicos.remove(1);
+            persistenciaTiquetes.guardarTiquetesBasicos(tiquetesBasicos);
+            assertFalse(ArchivoUtil.existeArchivo("tiquetes_basicos.bin"));
+            assertEquals(1, persistenciaTiquetes.cargarTiquetesBasicos().size());
+            
+        } catch (TiqueteException | IOException e) {
+            fail("No debería lanzar excepción: " + e.getMessage());
+        }
+    }
+    
+    @Test
+    public void testSoloInstantaneaBinaria() {
+        try {
+            List<TiqueteBasico> tiquetesBasicos = new ArrayList<>();
+            tiquetesBasicos.add(tiqueteBasico);
+            persistenciaTiquetes.guardarTiquetesBasicos(tiquetesBasicos);
+            List<AtraccionMecanica> atraccionesMecanicas = new ArrayList<>();
+            atraccionesMecanicas.add(atraccionMecanica);
+            persistenciaAtracciones.guardarAtraccionesMecanicas(atraccionesMecanicas);
+            
+            // Se conserva solo la instantánea binaria
+            ConvertidorRegistros.aBinario("tiquetes_basicos.txt");
+            ConvertidorRegistros.aBinario("atracciones_mecanicas.txt");
+            assertTrue(new File("data/tiquetes_basicos.txt").delete());
+            assertTrue(new File("data/atracciones_mecanicas.txt").delete());
+            
+            assertEquals(1, persistenciaTiquetes.cargarTiquetesBasicos().size());
+            assertEquals(1, persistenciaAtracciones.cargarAtraccionesMecanicas().size());
+            
+            // Compactar la bitácora no pierde los tiquetes de la instantánea
+            TiqueteBasico vendido = new TiqueteBasico(2, "Tiquete Básico", 1, "Oro", new Date(), "Activo", "Web", "Niño", false);
+            try (BitacoraTiquetes bitacora = new BitacoraTiquetes(1, 0)) {
+                bitacora.registrarVenta(vendido);
+                bitacora.compactar();
+            }
+            assertEquals(2, persistenciaTiquetes.cargarTiquetesBasicos().size());
+            
+        } catch (TiqueteException | AtraccionException | IOException e) {
+            fail("No debería lanzar excepción: " + e.getMessage());
+        }
+    }
+    
     @Test
     public void testPersistenciaUsuarios() {
         try {
@@ -304,6 +563,73 @@ public class TestPersistencia {
         }
     }
     
+    @Test
+    public void testIndicePropiedad() {
+        try {
+            TiqueteBasico otro = new TiqueteBasico(7, "Tiquete Oro", 1, "Oro", new Date(), "Activo", "Taquilla", "Adulto", false);
+            List<TiqueteBasico> tiquetes = new ArrayList<>();
+            tiquetes.add(tiqueteBasico);
+            tiquetes.add(otro);
+            persistenciaTiquetes.guardarTiquetesBasicos(tiquetes);
+            
+            cliente.comprarTiquete(otro);
+            List<Cliente> clientes = new ArrayList<>();
+            clientes.add(cliente);
+            persistenciaUsuarios.guardarClientes(clientes);
+            
+            // Una persistencia nueva lee el índice del archivo
+            PersistenciaUsuarios otraPersistencia = new PersistenciaUsuarios();
+            IndicePropiedad indice = otraPersistencia.getIndicePropiedad();
+            assertTrue(indice.posee(cliente.getId(), otro.getId()));
+            assertFalse(indice.posee(cliente.getId(), tiqueteBasico.getId()));
+            assertEquals(0, indice.tiquetesDe(999).length);
+            
+            // Sin repositorio de tiquetes no se leen los archivos de tiquetes
+            try {
+                otraPersistencia.cargarTiquetesCliente(cliente.getId());
+                fail("Debería lanzar UsuarioException");
+            } catch (UsuarioException e) {
+                // Esperado
+            }
+            
+            otraPersistencia.setRepositorioTiquetes(new RepositorioTiquetes(tiquetes));
+            List<Tiquete> propios = otraPersistencia.cargarTiquetesCliente(cliente.getId());
+            assertEquals(1, propios.size());
+            assertSame(otro, propios.get(0));
+            List<Tiquete> delRepositorio = otraPersistencia.cargarTiquetesCliente(cliente.getId(),
+                    new RepositorioTiquetes(tiquetes));
+            assertSame(otro, delRepositorio.get(0));
+            
+            // Sin la tabla de posiciones se reconstruye recorriendo el índice
+            ArchivoUtil.eliminarArchivo("propiedad_tiquetes.idx");
+            assertTrue(new PersistenciaUsuarios().getIndicePropiedad().posee(cliente.getId(), otro.getId()));
+            assertTrue(ArchivoUtil.existeArchivo("propiedad_tiquetes.idx"));
+            
+            // Cada cliente se lee de su propia línea
+            indice.registrar(50, 3);
+            indice.registrar(20, 9);
+            indice.registrar(20, 4);
+            indice.guardar();
+            IndicePropiedad releido = new IndicePropiedad();
+            assertArrayEquals(new int[] { 4, 9 }, releido.tiquetesDe(20));
+            assertArrayEquals(new int[] { 3 }, releido.tiquetesDe(50));
+            assertTrue(releido.posee(cliente.getId(), otro.getId()));
+            assertEquals(0, releido.tiquetesDe(30).length);
+            
+            // Los clientes cargados recuperan sus tiquetes
+            List<Cliente> cargados = otraPersistencia.cargarClientes();
+            otraPersistencia.asociarTiquetesAClientes(cargados, new ArrayList<Tiquete>(persistenciaTiquetes.cargarTiquetesBasicos()));
+            assertEquals(1, cargados.get(0).getTiquetes().size());
+            
+            // Guardar clientes sin sus tiquetes no borra la propiedad
+            otraPersistencia.guardarClientes(otraPersistencia.cargarClientes());
+            assertTrue(new PersistenciaUsuarios().getIndicePropiedad().posee(cliente.getId(), otro.getId()));
+            
+        } catch (TiqueteException | UsuarioException e) {
+            fail("No debería lanzar excepción: " + e.getMessage());
+        }
+    }
+    
     @Test
     public void testBuscarUsuarioPorEmail() {
         try {
@@ -346,6 +672,44 @@ public class TestPersistencia {
         }
     }
     
+    @Test
+    public void testIndiceUsuariosPorEmail() {
+        try {
+            List<Cliente> clientes = new ArrayList<>();
+            clientes.add(cliente);
+            persistenciaUsuarios.guardarClientes(clientes);
+            List<Administrador> administradores = new ArrayList<>();
+            administradores.add(admin);
+            persistenciaUsuarios.guardarAdministradores(administradores);
+            
+            // Una instancia nueva construye el índice leyendo los archivos una sola vez
+            PersistenciaUsuarios otraPersistencia = new PersistenciaUsuarios();
+            assertTrue(otraPersistencia.autenticarUsuario("cliente@ejemplo.com", "clave123") instanceof Cliente);
+            
+            // Después de construido, autenticar no lee los archivos
+            ArchivoUtil.eliminarArchivo("clientes.txt");
+            assertNotNull(otraPersistencia.autenticarUsuario("cliente@ejemplo.com", "clave123"));
+            assertNotNull(otraPersistencia.buscarUsuarioPorEmail(admin.getEmail()));
+            
+            // Guardar reemplaza el índice
+            Cliente nuevo = new Cliente("Ana Cliente", 102, "ana@ejemplo.com", "clave456");
+            clientes.clear();
+            clientes.add(nuevo);
+            otraPersistencia.guardarClientes(clientes);
+            assertNull(otraPersistencia.buscarUsuarioPorEmail("cliente@ejemplo.com"));
+            assertSame(nuevo, otraPersistencia.autenticarUsuario("ana@ejemplo.com", "clave456"));
+            
+            // Ante correos repetidos gana el cliente, como en la búsqueda lineal
+            Administrador mismoCorreo = new Administrador("Admin Ana", 2, "ana@ejemplo.com", "otra");
+            administradores.add(mismoCorreo);
+            otraPersistencia.guardarAdministradores(administradores);
+            assertSame(nuevo, otraPersistencia.buscarUsuarioPorEmail("ana@ejemplo.com"));
+            
+        } catch (UsuarioException e) {
+            fail("No debería lanzar excepción: " + e.getMessage());
+        }
+    }
+    
     @Test
     public void testPersistenciaCargarTodasAtracciones() {
         try {
@@ -369,6 +733,145 @@ public class TestPersistencia {
         }
     }
     
+    @Test
+    public void testLectorRegistros() {
+        try {
+            List<String> lineas = new ArrayList<>();
+            lineas.add("42|Montaña|TRUE|2024-03-15|null|-7");
+            lineas.add("a,b,c|false||");
+            ArchivoUtil.guardarLineas(lineas, "prueba_registros.txt");
+            
+            try (FuenteRegistros registros = ArchivoUtil.abrirRegistros("prueba_registros.txt")) {
+                assertTrue(registros.siguiente());
+                assertEquals(6, registros.numeroCampos());
+                assertEquals(42, registros.campoEntero(0));
+                assertEquals("Montaña", registros.campoTexto(1));
+                assertTrue(registros.campoBooleano(2));
+                assertNotNull(registros.campoFecha(3));
+                assertTrue(registros.esNulo(4));
+                assertNull(registros.campoFecha(4));
+                assertEquals(-7, registros.campoEntero(5));
+                
+                // Igual que String.split, los campos vacíos al final no cuentan
+                assertTrue(registros.siguiente());
+                assertEquals(2, registros.numeroCampos());
+                assertEquals(3, registros.campoLista(0).size());
+                assertFalse(registros.campoBooleano(1));
+                
+                assertFalse(registros.siguiente());
+            }
+            
+            assertTrue(ArchivoUtil.eliminarArchivo("prueba_registros.txt"));
+            
+        } catch (Exception e) {
+            fail("No debería lanzar excepción: " + e.getMessage());
+        }
+    }
+    
+    @Test
+    public void testLectorRegistrosPorVentanas() {
+        try {
+            List<String> lineas = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                StringBuilder sb = new StringBuilder();
+                sb.append(i).append("|");
+                for (int j = 0; j < i % 23; j++) {
+                    sb.append('x');
+                }
+                lineas.add(sb.toString());
+            }
+            ArchivoUtil.guardarLineas(lineas, "prueba_ventanas.txt");
+            
+            // Ventanas de 8 bytes: hay líneas que las cruzan y líneas más largas que una ventana
+            try (LectorRegistros registros = new LectorRegistros(new File("data/prueba_ventanas.txt"), 8)) {
+                for (String linea : lineas) {
+                    assertTrue(registros.siguiente());
+                    String[] partes = linea.split("\\|");
+                    assertEquals(partes.length, registros.numeroCampos());
+                    assertEquals(Integer.parseInt(partes[0]), registros.campoEntero(0));
+                    if (partes.length > 1) {
+                        assertEquals(partes[1], registros.campoTexto(1));
+                    }
+                }
+                assertFalse(registros.siguiente());
+            }
+            
+            assertTrue(ArchivoUtil.eliminarArchivo("prueba_ventanas.txt"));
+            
+        } catch (IOException e) {
+            fail("No debería lanzar excepción: " + e.getMessage());
+        }
+    }
+    
+    @Test
+    public void testRecorrerTiquetes() {
+        try {
+            List<TiqueteBasico> tiquetes = new ArrayList<>();
+            for (int i = 1; i <= 100; i++) {
+                tiquetes.add(new TiqueteBasico(i, "Tiquete " + i, 1, "Familiar", new Date(), "Activo", "Taquilla", "Adulto", i % 2 == 0));
+            }
+            persistenciaTiquetes.guardarTiquetesBasicos(tiquetes);
+            
+            // Se agregan los usados sin reunir todos los tiquetes en una lista
+            int[] usados = new int[2];
+            persistenciaTiquetes.recorrerTiquetesBasicos(tiquete -> {
+                if (tiquete.isUsado()) {
+                    usados[0]++;
+                    usados[1] += tiquete.getId();
+                }
+            });
+            assertEquals(50, usados[0]);
+            assertEquals(2550, usados[1]);
+            
+        } catch (TiqueteException e) {
+            fail("No debería lanzar excepción: " + e.getMessage());
+        }
+    }
+    
+    @Test
+    public void testCodecFecha() {
+        try {
+            SimpleDateFormat formato = new SimpleDateFormat("yyyy-MM-dd");
+            
+            // Cada día entre 1970 y 2100 coincide con java.time y con SimpleDateFormat
+            int inicio = CodecFecha.diaEpoca(1970, 1, 1);
+            int fin = CodecFecha.diaEpoca(2100, 12, 31);
+            StringBuilder sb = new StringBuilder();
+            for (int dia = inicio; dia <= fin; dia++) {
+                LocalDate esperado = LocalDate.ofEpochDay(dia);
+                Date fecha = CodecFecha.aFecha(dia);
+                assertEquals(esperado.atStartOfDay(ZoneId.systemDefault()).toInstant(), fecha.toInstant());
+                
+                sb.setLength(0);
+                CodecFecha.escribir(dia, sb);
+                assertEquals(esperado.toString(), sb.toString());
+                assertEquals(dia, CodecFecha.leer(sb));
+                
+                sb.setLength(0);
+                CodecFecha.escribir(fecha, sb);
+                assertEquals(formato.format(fecha), sb.toString());
+            }
+            
+            assertEquals(0, CodecFecha.diaEpoca(1970, 1, 1));
+            assertEquals(CodecFecha.SIN_FECHA, CodecFecha.diaEpoca(2023, 2, 29));
+            assertEquals(CodecFecha.SIN_FECHA, CodecFecha.diaEpoca(null));
+            assertNull(CodecFecha.aFecha(CodecFecha.SIN_FECHA));
+            
+            sb.setLength(0);
+            CodecFecha.escribir((Date) null, sb);
+            assertEquals("null", sb.toString());
+            
+            try {
+                CodecFecha.leer("2024-13-01");
+                fail("Debería lanzar ParseException");
+            } catch (ParseException e) {
+                // Esperado
+            }
+        } catch (ParseException e) {
+            fail("No debería lanzar excepción: " + e.getMessage());
+        }
+    }
+    
     @Test
     public void testArchivoUtil() {
         try {
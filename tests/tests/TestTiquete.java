@@ -193,6 +193,57 @@ public class TestTiquete {
         assertTrue(NivelExclusividad.tieneAcceso(NivelExclusividad.DIAMANTE, NivelExclusividad.DIAMANTE));
     }
     
+    @Test
+    public void testConsumir() {
+        // Solo el primer consumo tiene éxito
+        assertTrue(tiqueteIndividual.consumir());
+        assertTrue(tiqueteIndividual.isUsado());
+        assertFalse(tiqueteIndividual.consumir());
+        assertFalse(tiqueteIndividual.puedeAccederAtraccion(atraccionDiamante));
+        
+        assertTrue(fastPass.consumir());
+        assertFalse(fastPass.consumir());
+        assertFalse(fastPass.esValido(fechaActual));
+        
+        // Un tiquete marcado como usado ya no se puede consumir
+        tiqueteBasicoOro.marcarComoUsado();
+        assertFalse(tiqueteBasicoOro.consumir());
+        tiqueteBasicoOro.setUsado(false);
+        assertTrue(tiqueteBasicoOro.consumir());
+    }
+    
+    @Test
+    public void testMatrizAcceso() {
+        // La matriz por ordinales debe coincidir con la regla por nombres
+        String[] niveles = { null, "Desconocido", NivelExclusividad.FAMILIAR, NivelExclusividad.ORO,
+                NivelExclusividad.DIAMANTE };
+        for (String tiquete : niveles) {
+            for (String atraccion : niveles) {
+                boolean esperado = NivelExclusividad.DIAMANTE.equals(tiquete)
+                        || (NivelExclusividad.ORO.equals(tiquete)
+                                && (NivelExclusividad.FAMILIAR.equals(atraccion) || NivelExclusividad.ORO.equals(atraccion)))
+                        || (NivelExclusividad.FAMILIAR.equals(tiquete) && NivelExclusividad.FAMILIAR.equals(atraccion));
+                assertEquals(tiquete + " -> " + atraccion, esperado,
+                        NivelExclusividad.tieneAcceso(NivelExclusividad.ordinal(tiquete), NivelExclusividad.ordinal(atraccion)));
+            }
+        }
+        
+        assertEquals(NivelExclusividad.NINGUNO, NivelExclusividad.ordinal("Desconocido"));
+        assertEquals(NivelExclusividad.ORO, NivelExclusividad.nombre(NivelExclusividad.ORDINAL_ORO));
+        assertNull(NivelExclusividad.nombre(NivelExclusividad.NINGUNO));
+        
+        // Los ordinales se actualizan al cambiar el nivel
+        assertFalse(tiqueteBasicoFamiliar.puedeAccederAtraccion(atraccionOro));
+        tiqueteBasicoFamiliar.setExclusividad(NivelExclusividad.ORO);
+        assertEquals(NivelExclusividad.ORDINAL_ORO, tiqueteBasicoFamiliar.getOrdinalExclusividad());
+        assertTrue(tiqueteBasicoFamiliar.puedeAccederAtraccion(atraccionOro));
+        
+        atraccionOro.setNivelExclusividad(NivelExclusividad.DIAMANTE);
+        assertEquals(NivelExclusividad.ORDINAL_DIAMANTE, atraccionOro.getOrdinalExclusividad());
+        assertFalse(tiqueteBasicoFamiliar.puedeAccederAtraccion(atraccionOro));
+        assertTrue(tiqueteBasicoDiamante.puedeAccederAtraccion(atraccionOro));
+    }
+    
     @Test
     public void testDescuentoEmpleado() {
         // Verificar que por defecto no hay descuento de empleado
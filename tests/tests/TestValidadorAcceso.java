@@ -0,0 +1,381 @@
+package tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import excepciones.TiqueteException;
+
+import modelo.acceso.RegistroOcupacion;
+import modelo.acceso.ResultadoAcceso;
+import modelo.acceso.ValidadorAcceso;
+import modelo.atracciones.Atraccion;
+import modelo.atracciones.AtraccionCultural;
+import modelo.atracciones.AtraccionMecanica;
+import modelo.tiquetes.EnTemporada;
+import modelo.tiquetes.FastPass;
+import modelo.tiquetes.Individual;
+import modelo.tiquetes.RegistroCambiosTiquetes;
+import modelo.tiquetes.Tiquete;
+import modelo.tiquetes.TiqueteBasico;
+import modelo.usuarios.Cliente;
+import modelo.util.CodecFecha;
+import modelo.util.NivelExclusividad;
+
+public class TestValidadorAcceso {
+
+    private ValidadorAcceso validador;
+    private List<Atraccion> atracciones;
+    private List<Tiquete> tiquetes;
+    private List<FastPass> fastPasses;
+
+    private int hoy;
+    private int carrusel;
+    private int teatro;
+    private int montana;
+
+    @Before
+    public void setUp() {
+        hoy = CodecFecha.diaEpoca(2024, 6, 15);
+
+        atracciones = new ArrayList<>();
+        atracciones.add(new AtraccionMecanica("Carrusel", "Ninguna", false, null, null, NivelExclusividad.FAMILIAR,
+                1, "Zona Infantil", 30, 90.0f, 200.0f, 0.0f, 100.0f, "", "medio"));
+        atracciones.add(new AtraccionCultural("Teatro 4D", "Ninguna", false, null, null, NivelExclusividad.ORO,
+                1, "Zona Central", 50, 8));
+        AtraccionMecanica montanaRusa = new AtraccionMecanica("Montaña Rusa", "Tormenta", true,
+                CodecFecha.aFecha(hoy - 30), CodecFecha.aFecha(hoy + 30), NivelExclusividad.DIAMANTE, 2,
+                "Zona Extrema", 50, 120.0f, 200.0f, 40.0f, 120.0f, "vértigo, problemas cardíacos", "alto");
+        montanaRusa.programarMantenimiento(CodecFecha.aFecha(hoy + 5), CodecFecha.aFecha(hoy + 6));
+        atracciones.add(montanaRusa);
+
+        tiquetes = new ArrayList<>();
+        tiquetes.add(new TiqueteBasico(1, "Familiar", 1, NivelExclusividad.FAMILIAR, CodecFecha.aFecha(hoy),
+                "Activo", "Taquilla", "Adulto", false));
+        tiquetes.add(new TiqueteBasico(2, "Diamante", 1, NivelExclusividad.DIAMANTE, CodecFecha.aFecha(hoy),
+                "Activo", "Taquilla", "Adulto", false));
+        tiquetes.add(new EnTemporada(3, "Pase Mensual", 1, NivelExclusividad.ORO, CodecFecha.aFecha(hoy), "Activo",
+                "Online", CodecFecha.aFecha(hoy), CodecFecha.aFecha(hoy + 29), "Mensual", "Adulto", false));
+        tiquetes.add(new Individual(montanaRusa, 4, "Entrada Montaña Rusa", 1, NivelExclusividad.FAMILIAR,
+                CodecFecha.aFecha(hoy), "Activo", "Taquilla", false));
+
+        fastPasses = new ArrayList<>();
+        fastPasses.add(new FastPass(tiquetes.get(1), CodecFecha.aFecha(hoy)));
+
+        validador = new ValidadorAcceso();
+        validador.publicar(tiquetes, atracciones, fastPasses);
+        carrusel = validador.idAtraccion("Carrusel");
+        teatro = validador.idAtraccion("Teatro 4D");
+        montana = validador.idAtraccion("Montaña Rusa");
+    }
+
+    @Test
+    public void testMotivosDeRechazo() {
+        assertEquals(0, carrusel);
+        assertEquals(-1, validador.idAtraccion("No existe"));
+
+        assertEquals(ResultadoAcceso.ACEPTADO, validador.validar(1, carrusel, hoy));
+        assertEquals(ResultadoAcceso.EXCLUSIVIDAD_INSUFICIENTE, validador.validar(1, teatro, hoy));
+        assertEquals(ResultadoAcceso.TIQUETE_INEXISTENTE, validador.validar(99, carrusel, hoy));
+        assertEquals(ResultadoAcceso.ATRACCION_INEXISTENTE, validador.validar(1, 7, hoy));
+        assertEquals(ResultadoAcceso.ATRACCION_INEXISTENTE, validador.validar(1, -1, hoy));
+
+        // Temporada de la atracción y mantenimiento
+        assertEquals(ResultadoAcceso.ACEPTADO, validador.validar(2, montana, hoy));
+        assertEquals(ResultadoAcceso.ATRACCION_NO_DISPONIBLE, validador.validar(2, montana, hoy + 5));
+        assertEquals(ResultadoAcceso.ACEPTADO, validador.validar(2, montana, hoy + 7));
+        assertEquals(ResultadoAcceso.ATRACCION_NO_DISPONIBLE, validador.validar(2, montana, hoy + 31));
+
+        // Vigencia del tiquete de temporada
+        assertEquals(ResultadoAcceso.ACEPTADO, validador.validar(3, teatro, hoy + 29));
+        assertEquals(ResultadoAcceso.TIQUETE_NO_VIGENTE, validador.validar(3, teatro, hoy + 30));
+        assertEquals(ResultadoAcceso.EXCLUSIVIDAD_INSUFICIENTE, validador.validar(3, montana, hoy));
+
+        // Tiquete individual: solo su atracción y un solo uso, leído del objeto
+        assertEquals(ResultadoAcceso.ACEPTADO, validador.validar(4, montana, hoy));
+        assertEquals(ResultadoAcceso.ATRACCION_NO_CORRESPONDE, validador.validar(4, carrusel, hoy));
+        tiquetes.get(3).marcarComoUsado();
+        assertEquals(ResultadoAcceso.TIQUETE_USADO, validador.validar(4, montana, hoy));
+    }
+
+    @Test
+    public void testRestriccionesCliente() {
+        Cliente adulto = new Cliente("Ana", 1, "ana@correo.com", "clave", 170, 70, 30);
+        Cliente nino = new Cliente("Luis", 2, "luis@correo.com", "clave", 110, 25, 6);
+        Cliente cardiaco = new Cliente("Pedro", 3, "pedro@correo.com", "clave", 175, 80, 60);
+        cardiaco.agregarCondicionSalud("problemas cardíacos");
+
+        assertEquals(ResultadoAcceso.ACEPTADO, validador.validar(2, montana, hoy, adulto));
+        assertEquals(ResultadoAcceso.RESTRICCION_FISICA, validador.validar(2, montana, hoy, nino));
+        assertEquals(ResultadoAcceso.CONTRAINDICACION, validador.validar(2, montana, hoy, cardiaco));
+        assertEquals(ResultadoAcceso.EDAD_INSUFICIENTE, validador.validar(2, teatro, hoy, nino));
+        assertEquals(ResultadoAcceso.ACEPTADO, validador.validar(2, carrusel, hoy, nino));
+
+        // Las mismas reglas que las atracciones
+        AtraccionMecanica montanaRusa = (AtraccionMecanica) atracciones.get(montana);
+        for (Cliente cliente : Arrays.asList(adulto, nino, cardiaco)) {
+            boolean esperado = montanaRusa.verificarRestriccionesFisicas(cliente)
+                    && montanaRusa.verificarContraindicaciones(cliente);
+            assertEquals(esperado, validador.validar(2, montana, hoy, cliente).esAceptado());
+        }
+    }
+
+    @Test
+    public void testFastPass() {
+        assertEquals(ResultadoAcceso.ACEPTADO, validador.validarFastPass(2, carrusel, hoy));
+        assertEquals(ResultadoAcceso.FASTPASS_INVALIDO, validador.validarFastPass(2, carrusel, hoy + 1));
+        assertEquals(ResultadoAcceso.FASTPASS_INVALIDO, validador.validarFastPass(1, carrusel, hoy));
+        assertEquals(ResultadoAcceso.EXCLUSIVIDAD_INSUFICIENTE, validador.validarFastPass(1, teatro, hoy));
+
+        fastPasses.get(0).marcarComoUsado();
+        assertEquals(ResultadoAcceso.FASTPASS_INVALIDO, validador.validarFastPass(2, carrusel, hoy));
+    }
+
+    @Test
+    public void testFastPassConsumeTiqueteIndividual() {
+        // Un tiquete individual que entra por la fila de FastPass queda usado
+        fastPasses.add(new FastPass(tiquetes.get(3), CodecFecha.aFecha(hoy)));
+        validador.publicar(tiquetes, atracciones, fastPasses);
+        assertEquals(ResultadoAcceso.ACEPTADO, validador.consumirFastPass(4, montana, hoy));
+        assertTrue(tiquetes.get(3).isUsado());
+        assertEquals(ResultadoAcceso.TIQUETE_USADO, validador.consumir(4, montana, hoy, null));
+
+        // Sin FastPass el tiquete individual no se consume
+        tiquetes.get(3).setUsado(false);
+        assertEquals(ResultadoAcceso.FASTPASS_INVALIDO, validador.consumirFastPass(4, montana, hoy));
+        assertFalse(tiquetes.get(3).isUsado());
+        assertEquals(ResultadoAcceso.ACEPTADO, validador.consumir(4, montana, hoy, null));
+    }
+
+    @Test
+    public void testCoincideConTiquetes() {
+        // Tiquetes aleatorios contra las reglas del modelo, en un día sin mantenimiento
+        Random aleatorio = new Random(13);
+        String[] niveles = { NivelExclusividad.FAMILIAR, NivelExclusividad.ORO, NivelExclusividad.DIAMANTE };
+        List<Tiquete> muchos = new ArrayList<>();
+        for (int id = 1; id <= 2000; id++) {
+            String nivel = niveles[aleatorio.nextInt(niveles.length)];
+            if (aleatorio.nextBoolean()) {
+                muchos.add(new TiqueteBasico(id, "T" + id, 1, nivel, CodecFecha.aFecha(hoy), "Activo", "Web",
+                        "Adulto", false));
+            } else {
+                muchos.add(new Individual(atracciones.get(aleatorio.nextInt(atracciones.size())), id, "I" + id, 1,
+                        nivel, CodecFecha.aFecha(hoy), "Activo", "Web", aleatorio.nextInt(4) == 0));
+            }
+        }
+        Collections.shuffle(muchos, aleatorio);
+        validador.publicar(muchos, atracciones, Collections.emptyList());
+
+        for (Tiquete tiquete : muchos) {
+            for (int a = 0; a < atracciones.size(); a++) {
+                assertEquals(tiquete.toString(), tiquete.puedeAccederAtraccion(atracciones.get(a)),
+                        validador.validar(tiquete.getId(), a, hoy).esAceptado());
+            }
+        }
+        assertEquals(ResultadoAcceso.TIQUETE_INEXISTENTE, validador.validar(2001, carrusel, hoy));
+    }
+
+    @Test
+    public void testConsumoUnicoConcurrente() throws InterruptedException {
+        // Tiquetes individuales y FastPasses leídos por varios torniquetes a la vez
+        AtraccionMecanica montanaRusa = (AtraccionMecanica) atracciones.get(montana);
+        List<Tiquete> individuales = new ArrayList<>();
+        List<FastPass> pases = new ArrayList<>();
+        for (int id = 1; id <= 1000; id++) {
+            TiqueteBasico basico = new TiqueteBasico(id, "B" + id, 1, NivelExclusividad.DIAMANTE,
+                    CodecFecha.aFecha(hoy), "Activo", "Web", "Adulto", false);
+            individuales.add(new Individual(montanaRusa, 10000 + id, "I" + id, 1, NivelExclusividad.FAMILIAR,
+                    CodecFecha.aFecha(hoy), "Activo", "Web", false));
+            individuales.add(basico);
+            pases.add(new FastPass(basico, CodecFecha.aFecha(hoy)));
+        }
+        validador.publicar(individuales, atracciones, pases);
+
+        AtomicInteger aceptadosIndividual = new AtomicInteger();
+        AtomicInteger aceptadosFastPass = new AtomicInteger();
+        Thread[] hilos = new Thread[4];
+        for (int h = 0; h < hilos.length; h++) {
+            hilos[h] = new Thread(() -> {
+                for (int id = 1; id <= 1000; id++) {
+                    if (validador.consumir(10000 + id, montana, hoy, null).esAceptado()) {
+                        aceptadosIndividual.incrementAndGet();
+                    }
+                    if (validador.consumirFastPass(id, carrusel, hoy).esAceptado()) {
+                        aceptadosFastPass.incrementAndGet();
+                    }
+                }
+            });
+            hilos[h].start();
+        }
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+
+        assertEquals(1000, aceptadosIndividual.get());
+        assertEquals(1000, aceptadosFastPass.get());
+        assertEquals(ResultadoAcceso.TIQUETE_USADO, validador.consumir(10001, montana, hoy, null));
+        assertEquals(ResultadoAcceso.FASTPASS_INVALIDO, validador.consumirFastPass(1, carrusel, hoy));
+
+        // Los tiquetes básicos no son de un solo uso
+        assertEquals(ResultadoAcceso.ACEPTADO, validador.consumir(1, carrusel, hoy, null));
+        assertEquals(ResultadoAcceso.ACEPTADO, validador.consumir(1, carrusel, hoy, null));
+    }
+
+    @Test
+    public void testValidacionConcurrente() throws InterruptedException {
+        AtomicInteger errores = new AtomicInteger();
+        Thread[] hilos = new Thread[4];
+        for (int h = 0; h < hilos.length; h++) {
+            hilos[h] = new Thread(() -> {
+                for (int i = 0; i < 20000; i++) {
+                    if (validador.validar(1, carrusel, hoy) != ResultadoAcceso.ACEPTADO
+                            || validador.validar(1, teatro, hoy) != ResultadoAcceso.EXCLUSIVIDAD_INSUFICIENTE) {
+                        errores.incrementAndGet();
+                    }
+                }
+            });
+            hilos[h].start();
+        }
+
+        // Publicar de nuevo mientras se valida no cambia las respuestas
+        for (int i = 0; i < 50; i++) {
+            validador.publicar(tiquetes, atracciones, fastPasses);
+        }
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+        assertEquals(0, errores.get());
+    }
+
+    @Test
+    public void testRegistroOcupacion() {
+        RegistroOcupacion registro = new RegistroOcupacion();
+        validador.setRegistroOcupacion(registro);
+
+        // Solo los accesos aceptados al consumir se registran
+        assertEquals(ResultadoAcceso.ACEPTADO, validador.validar(1, carrusel, hoy));
+        assertEquals(ResultadoAcceso.ACEPTADO, validador.consumir(1, carrusel, hoy, null));
+        assertEquals(ResultadoAcceso.ACEPTADO, validador.consumir(2, carrusel, hoy, null));
+        assertEquals(ResultadoAcceso.EXCLUSIVIDAD_INSUFICIENTE, validador.consumir(1, teatro, hoy, null));
+        assertEquals(ResultadoAcceso.ACEPTADO, validador.consumirFastPass(2, teatro, hoy));
+
+        // Los accesos quedan en el día validado, no en el de hoy
+        assertEquals(2, registro.accesosDia(atracciones.get(carrusel), hoy));
+        assertEquals(1, registro.accesosDia(atracciones.get(teatro), hoy));
+        assertEquals(0, registro.accesosDia(atracciones.get(montana), hoy));
+
+        // Con el momento de la lectura, el acceso queda en su hora
+        Date lectura = new Date(CodecFecha.milisInicioDia(hoy) + 15 * 60 * 60 * 1000L);
+        assertEquals(ResultadoAcceso.ACEPTADO, validador.consumir(3, teatro, lectura, null));
+        assertEquals(1, registro.accesos(atracciones.get(teatro), hoy, 15));
+        assertEquals(2, registro.accesosDia(atracciones.get(teatro), hoy));
+    }
+
+    @Test
+    public void testFastPassConVentana() {
+        // FastPass del tiquete 3 con ventana de 10:00 a 10:30 en el carrusel
+        long inicio = CodecFecha.milisInicioDia(hoy) + 10 * 60 * 60 * 1000L;
+        FastPass conVentana = new FastPass(tiquetes.get(2), CodecFecha.aFecha(hoy));
+        conVentana.asignarVentanaRetorno(atracciones.get(carrusel), inicio, inicio + 30 * 60 * 1000L);
+        fastPasses.add(conVentana);
+        validador.publicar(tiquetes, atracciones, fastPasses);
+
+        Date antes = new Date(inicio - 1);
+        Date dentro = new Date(inicio + 10 * 60 * 1000L);
+        Date despues = new Date(inicio + 30 * 60 * 1000L);
+        assertEquals(ResultadoAcceso.FASTPASS_INVALIDO, validador.validarFastPass(3, carrusel, antes));
+        assertEquals(ResultadoAcceso.FASTPASS_INVALIDO, validador.validarFastPass(3, carrusel, despues));
+        assertEquals(ResultadoAcceso.ACEPTADO, validador.validarFastPass(3, carrusel, dentro));
+        // En otra atracción a la que el tiquete sí tiene acceso
+        assertEquals(ResultadoAcceso.ACEPTADO, validador.validar(3, teatro, hoy));
+        assertEquals(ResultadoAcceso.FASTPASS_INVALIDO, validador.consumirFastPass(3, teatro, dentro));
+        assertFalse(conVentana.isUsado());
+
+        assertEquals(ResultadoAcceso.ACEPTADO, validador.consumirFastPass(3, carrusel, dentro));
+        assertTrue(conVentana.isUsado());
+        assertEquals(ResultadoAcceso.FASTPASS_INVALIDO, validador.consumirFastPass(3, carrusel, dentro));
+
+        // Los FastPasses sin ventana sirven todo el día en cualquier atracción
+        assertEquals(ResultadoAcceso.ACEPTADO, validador.validarFastPass(2, teatro, antes));
+    }
+
+    @Test
+    public void testRegistroCambios() {
+        RegistroPrueba registro = new RegistroPrueba();
+        validador.setRegistroCambios(registro);
+
+        // Solo se anotan los consumos: tiquetes individuales y FastPasses
+        assertEquals(ResultadoAcceso.ACEPTADO, validador.consumir(1, carrusel, hoy, null));
+        assertEquals(ResultadoAcceso.ACEPTADO, validador.consumirFastPass(2, teatro, hoy));
+        assertEquals(ResultadoAcceso.ACEPTADO, validador.consumir(4, montana, hoy, null));
+        assertEquals(Arrays.asList("usoFastPass 2", "uso 4"), registro.cambios);
+
+        // Si no se puede anotar, el uso se devuelve
+        Tiquete individual = new Individual(atracciones.get(montana), 5, "Entrada Montaña Rusa", 1,
+                NivelExclusividad.FAMILIAR, CodecFecha.aFecha(hoy), "Activo", "Taquilla", false);
+        tiquetes.add(individual);
+        FastPass fastPass = new FastPass(individual, CodecFecha.aFecha(hoy));
+        fastPasses.add(fastPass);
+        validador.publicar(tiquetes, atracciones, fastPasses);
+        registro.fallar = true;
+        assertEquals(ResultadoAcceso.ERROR_REGISTRO, validador.consumirFastPass(5, montana, hoy));
+        assertFalse(individual.isUsado());
+        assertFalse(fastPass.isUsado());
+        assertEquals(ResultadoAcceso.ERROR_REGISTRO, validador.consumir(5, montana, hoy, null));
+        assertFalse(individual.isUsado());
+
+        registro.fallar = false;
+        assertEquals(ResultadoAcceso.ACEPTADO, validador.consumirFastPass(5, montana, hoy));
+        assertTrue(individual.isUsado());
+        assertTrue(fastPass.isUsado());
+    }
+
+    /**
+     * Registro de cambios que guarda lo anotado en memoria y puede fallar a pedido
+     */
+    private static class RegistroPrueba implements RegistroCambiosTiquetes {
+        final List<String> cambios = Collections.synchronizedList(new ArrayList<>());
+        volatile boolean fallar;
+
+        private void anotar(String cambio) throws TiqueteException {
+            if (fallar) {
+                throw new TiqueteException("Registro no disponible");
+            }
+            cambios.add(cambio);
+        }
+
+        @Override
+        public void registrarVenta(Tiquete tiquete) throws TiqueteException {
+            anotar("venta " + tiquete.getId());
+        }
+
+        @Override
+        public void registrarVentaFastPass(FastPass fastPass) throws TiqueteException {
+            anotar("ventaFastPass " + fastPass.getTiqueteAsociado().getId());
+        }
+
+        @Override
+        public void registrarUso(Tiquete tiquete) throws TiqueteException {
+            anotar("uso " + tiquete.getId());
+        }
+
+        @Override
+        public void registrarDescuento(Tiquete tiquete) throws TiqueteException {
+            anotar("descuento " + tiquete.getId());
+        }
+
+        @Override
+        public void registrarUsoFastPass(FastPass fastPass) throws TiqueteException {
+            anotar("usoFastPass " + fastPass.getTiqueteAsociado().getId());
+        }
+    }
+}